@@ -0,0 +1,220 @@
+package com.moeware.ims.audit;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.moeware.ims.entity.AuditableEntity;
+import com.moeware.ims.entity.User;
+import com.moeware.ims.entity.VersionedEntity;
+import com.moeware.ims.enums.AuditAction;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Captures changes to auditable entities for {@code audit_logs}.
+ *
+ * <p>
+ * Registered as a Hibernate post-commit insert / update / delete listener, so
+ * only changes that committed are recorded. Auditable means extending
+ * {@link VersionedEntity} or {@link AuditableEntity}, minus
+ * {@code app.audit.excluded-entities}. An UPDATE records only the properties
+ * that changed, old and new; CREATE and DELETE record the whole state.
+ * Bookkeeping columns (version, created/updated at/by), collections and
+ * {@code app.audit.excluded-properties} are left out, and associations are
+ * recorded by id.
+ *
+ * <p>
+ * The performing user, IP address and user agent are read from the committing
+ * thread; the entry is then handed to {@link AuditLogWriter}. Writes made with
+ * native SQL or JDBC (stock ledger, rollups, bulk import) bypass Hibernate and
+ * are not captured here.
+ */
+@Component
+@Slf4j
+public class AuditEntityListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Set<String> BOOKKEEPING_PROPERTIES = Set.of(
+            "version", "createdAt", "updatedAt", "createdBy", "updatedBy");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditLogWriter auditLogWriter;
+    private final boolean enabled;
+    private final Set<String> excludedEntities;
+    private final Set<String> excludedProperties;
+
+    /** Entity type name per mapped class, e.g. {@code SALES_ORDER}. */
+    private final Map<Class<?>, String> entityTypes = new ConcurrentHashMap<>();
+
+    private PersistenceUnitUtil persistenceUnitUtil;
+
+    public AuditEntityListener(
+            EntityManagerFactory entityManagerFactory,
+            AuditLogWriter auditLogWriter,
+            @Value("${app.audit.enabled:true}") boolean enabled,
+            @Value("${app.audit.excluded-entities:}") String[] excludedEntities,
+            @Value("${app.audit.excluded-properties:passwordHash}") String[] excludedProperties) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditLogWriter = auditLogWriter;
+        this.enabled = enabled;
+        this.excludedEntities = trimmed(excludedEntities);
+        this.excludedProperties = trimmed(excludedProperties);
+    }
+
+    @PostConstruct
+    void register() {
+        if (!enabled) {
+            log.info("Entity auditing disabled");
+            return;
+        }
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        persistenceUnitUtil = sessionFactory.getPersistenceUnitUtil();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return (VersionedEntity.class.isAssignableFrom(type) || AuditableEntity.class.isAssignableFrom(type))
+                && !excludedEntities.contains(type.getSimpleName());
+    }
+
+    // ─── EVENTS ──────────────────────────────────────────────────────────────
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        submit(event.getPersister(), event.getId(), AuditAction.CREATE,
+                null, values(event.getPersister(), event.getState(), null));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        int[] dirty = event.getDirtyProperties();
+        Object[] oldState = event.getOldState();
+        if (dirty == null || oldState == null) {
+            // Detached entity merged without a snapshot: only the new state is known
+            submit(persister, event.getId(), AuditAction.UPDATE, null, values(persister, event.getState(), null));
+            return;
+        }
+        Map<String, Object> newValues = values(persister, event.getState(), dirty);
+        if (!newValues.isEmpty()) {
+            submit(persister, event.getId(), AuditAction.UPDATE, values(persister, oldState, dirty), newValues);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        submit(event.getPersister(), event.getId(), AuditAction.DELETE,
+                values(event.getPersister(), event.getDeletedState(), null), null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Rolled back: nothing to audit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rolled back: nothing to audit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Rolled back: nothing to audit
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private void submit(EntityPersister persister, Object id, AuditAction action,
+            Map<String, Object> oldValues, Map<String, Object> newValues) {
+        if (!(id instanceof Number number)) {
+            return;
+        }
+        Long userId = null;
+        String username = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            userId = user.getId();
+            username = user.getUsername();
+        }
+        String ipAddress = null;
+        String userAgent = null;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            ipAddress = request.getRemoteAddr();
+            userAgent = request.getHeader("User-Agent");
+        }
+        auditLogWriter.submit(new AuditEntry(entityType(persister.getMappedClass()), number.longValue(), action,
+                oldValues, newValues, userId, username, ipAddress, userAgent, LocalDateTime.now()));
+    }
+
+    /**
+     * Property values by name, of all properties or only {@code indexes}.
+     */
+    private Map<String, Object> values(EntityPersister persister, Object[] state, int[] indexes) {
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        Map<String, Object> values = new LinkedHashMap<>();
+        int count = indexes != null ? indexes.length : state.length;
+        for (int n = 0; n < count; n++) {
+            int i = indexes != null ? indexes[n] : n;
+            String name = names[i];
+            if (types[i].isCollectionType() || BOOKKEEPING_PROPERTIES.contains(name)
+                    || excludedProperties.contains(name)) {
+                continue;
+            }
+            Object value = state[i];
+            if (value != null && types[i].isEntityType()) {
+                value = persistenceUnitUtil.getIdentifier(value);
+            } else if (value instanceof Enum<?> e) {
+                value = e.name();
+            }
+            values.put(name, value);
+        }
+        return values;
+    }
+
+    private String entityType(Class<?> type) {
+        return entityTypes.computeIfAbsent(type,
+                t -> t.getSimpleName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase());
+    }
+
+    private static Set<String> trimmed(String[] names) {
+        Set<String> set = new HashSet<>();
+        Arrays.stream(names).map(String::trim).filter(s -> !s.isEmpty()).forEach(set::add);
+        return set;
+    }
+}
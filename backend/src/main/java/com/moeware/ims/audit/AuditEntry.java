@@ -0,0 +1,26 @@
+package com.moeware.ims.audit;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.moeware.ims.enums.AuditAction;
+
+/**
+ * One captured entity change, waiting to be written to {@code audit_logs}.
+ *
+ * @param oldValues changed properties before the change; null for CREATE
+ * @param newValues changed properties after the change; null for DELETE
+ * @param userId    performing user, or null for system changes
+ */
+public record AuditEntry(
+        String entityType,
+        Long entityId,
+        AuditAction action,
+        Map<String, Object> oldValues,
+        Map<String, Object> newValues,
+        Long userId,
+        String username,
+        String ipAddress,
+        String userAgent,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,261 @@
+package com.moeware.ims.audit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moeware.ims.enums.AuditDurability;
+import com.moeware.ims.enums.AuditOverflowPolicy;
+import com.moeware.ims.repository.AuditLogRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes audit entries to {@code audit_logs} in batches on a background
+ * thread, so auditing adds no database work to the audited transaction.
+ *
+ * <p>
+ * Entries go into a bounded lock-free ring buffer
+ * ({@code app.audit.buffer-capacity}). The {@code audit-log-writer} thread
+ * flushes it every {@code app.audit.flush-interval-ms}, or as soon as
+ * {@code app.audit.batch-size} entries are waiting, in multi-row inserts of up
+ * to that many rows. A full buffer is handled by
+ * {@code app.audit.overflow-policy}; {@code app.audit.durability} decides
+ * whether the committing thread waits for its entries to be written.
+ *
+ * <p>
+ * A batch that fails to insert is logged and counted, not retried: the audited
+ * changes have already committed and the failure is most likely persistent.
+ * On shutdown the buffer is drained before the data source closes.
+ *
+ * <p>
+ * Metrics: {@code audit.entries.written}, {@code audit.entries.dropped} and
+ * {@code audit.entries.failed}, {@code audit.flush} and
+ * {@code audit.buffer.size}.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /** An entry and, in SYNC mode, the future its committing thread waits on. */
+    private record Slot(AuditEntry entry, CompletableFuture<Void> written) {
+    }
+
+    private final AuditLogRepository auditLogRepository;
+    private final TransactionTemplate writeTx;
+    private final AuditRingBuffer<Slot> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final AuditDurability durability;
+    private final long syncTimeoutMs;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AuditLogWriter(
+            AuditLogRepository auditLogRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.buffer-capacity:8192}") int bufferCapacity,
+            @Value("${app.audit.batch-size:500}") int batchSize,
+            @Value("${app.audit.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${app.audit.overflow-policy:DROP}") AuditOverflowPolicy overflowPolicy,
+            @Value("${app.audit.block-timeout-ms:100}") long blockTimeoutMs,
+            @Value("${app.audit.durability:ASYNC}") AuditDurability durability,
+            @Value("${app.audit.sync-timeout-ms:2000}") long syncTimeoutMs) {
+        this.auditLogRepository = auditLogRepository;
+        // Own transaction on the primary; also when called from CALLER_RUNS
+        // inside another transaction's completion
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.writeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buffer = new AuditRingBuffer<>(bufferCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.durability = durability;
+        this.syncTimeoutMs = syncTimeoutMs;
+        this.written = Counter.builder("audit.entries.written")
+                .description("Audit entries inserted into audit_logs")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("audit.entries.dropped")
+                .description("Audit entries discarded because the buffer was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("audit.entries.failed")
+                .description("Audit entries lost to a failed insert")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Time to insert one batch of audit entries")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit entries waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues an entry for writing. In SYNC mode, waits until it is written.
+     * Never throws: the change being audited has already committed.
+     */
+    public void submit(AuditEntry entry) {
+        Slot slot = new Slot(entry, durability == AuditDurability.SYNC ? new CompletableFuture<>() : null);
+        if (!running) {
+            // Before start or after stop there is no writer thread to hand off to
+            write(List.of(slot));
+            return;
+        }
+        if (!buffer.offer(slot)) {
+            overflow(slot);
+        }
+        if (slot.written() != null || buffer.size() >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+        if (slot.written() != null) {
+            await(slot.written());
+        }
+    }
+
+    // ─── LIFECYCLE ───────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, "audit-log-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so changes made by requests
+     * still in flight at shutdown are written.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    // ─── WRITER THREAD ───────────────────────────────────────────────────────
+
+    private void run() {
+        List<Slot> batch = new ArrayList<>(batchSize);
+        while (true) {
+            if (running && buffer.size() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            boolean stopping = !running;
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+            if (stopping) {
+                log.info("Audit log writer stopped");
+                return;
+            }
+        }
+    }
+
+    private void write(List<Slot> batch) {
+        List<AuditEntry> entries = batch.stream().map(Slot::entry).toList();
+        try {
+            flushTimer.record(() -> writeTx.executeWithoutResult(s -> auditLogRepository.insertAll(entries)));
+            written.increment(entries.size());
+            batch.forEach(slot -> complete(slot, null));
+        } catch (RuntimeException ex) {
+            failed.increment(entries.size());
+            log.error("Could not write {} audit log entries", entries.size(), ex);
+            batch.forEach(slot -> complete(slot, ex));
+        }
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private void overflow(Slot slot) {
+        switch (overflowPolicy) {
+            case DROP -> drop(slot);
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                do {
+                    LockSupport.unpark(writerThread);
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    if (buffer.offer(slot)) {
+                        return;
+                    }
+                } while (System.nanoTime() < deadline);
+                drop(slot);
+            }
+            case CALLER_RUNS -> write(List.of(slot));
+        }
+    }
+
+    private void drop(Slot slot) {
+        dropped.increment();
+        log.debug("Audit buffer full, dropped {} {} {}",
+                slot.entry().action(), slot.entry().entityType(), slot.entry().entityId());
+        complete(slot, null);
+    }
+
+    private static void complete(Slot slot, Throwable failure) {
+        if (slot.written() == null) {
+            return;
+        }
+        if (failure == null) {
+            slot.written().complete(null);
+        } else {
+            slot.written().completeExceptionally(failure);
+        }
+    }
+
+    private void await(CompletableFuture<Void> written) {
+        try {
+            written.get(syncTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            log.warn("Audit entry not written within {} ms; continuing without waiting", syncTimeoutMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            // Already logged by the writing thread
+        }
+    }
+}
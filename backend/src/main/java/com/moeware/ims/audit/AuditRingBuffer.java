@@ -0,0 +1,100 @@
+package com.moeware.ims.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer.
+ *
+ * <p>
+ * Each slot carries a sequence number telling whose turn it is: a producer
+ * claims the next write position with one CAS and publishes the element by
+ * advancing the slot's sequence; the consumer takes it by advancing the
+ * sequence a lap further. Producers never wait on each other or on the
+ * consumer, and a full buffer is reported instead of blocking.
+ */
+final class AuditRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Next read position; written by the consumer only. */
+    private volatile long head;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element; safe from any thread.
+     *
+     * @return false when the buffer is full
+     */
+    boolean offer(E element) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // The slot still holds the element from one lap ago
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} elements into {@code sink}, oldest first.
+     * Consumer thread only.
+     *
+     * @return number of elements moved
+     */
+    int drainTo(List<? super E> sink, int max) {
+        long pos = head;
+        int moved = 0;
+        while (moved < max) {
+            int index = (int) (pos & mask);
+            if (sequences.get(index) != pos + 1) {
+                // Empty, or a producer has claimed the slot but not published yet
+                break;
+            }
+            sink.add(elements.get(index));
+            elements.set(index, null);
+            sequences.set(index, pos + mask + 1);
+            pos++;
+            moved++;
+        }
+        head = pos;
+        return moved;
+    }
+
+    /** Approximate number of buffered elements. */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
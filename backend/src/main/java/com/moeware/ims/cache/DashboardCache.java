@@ -0,0 +1,374 @@
+package com.moeware.ims.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moeware.ims.event.DomainChangeType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Two-tier response cache for the dashboard endpoints.
+ *
+ * <ol>
+ * <li><b>Local tier</b> — one Caffeine cache per {@link DashboardCacheRegion},
+ * holding the response objects themselves.</li>
+ * <li><b>Shared tier</b> — JSON copies in the Redis instance already used by
+ * {@code TokenBlacklistService}, so a response computed on one node serves
+ * every node. Key format:
+ * {@code dashboard:cache:<REGION>:<generation>:<key>}.</li>
+ * </ol>
+ *
+ * <p>
+ * Entries expire after the region's
+ * {@link DashboardCacheRegion#getMaxStaleness() max staleness}. Domain events
+ * evict earlier (see {@link DashboardCacheInvalidator}): the affected regions
+ * are cleared locally, their generation counters in Redis
+ * ({@code dashboard:cache:gen:<REGION>}) are incremented, and the new
+ * generations are announced on the {@value #EVICTION_CHANNEL} channel so the
+ * other nodes drop their local copies and switch to the new key prefix. Entries
+ * under an old generation are never read again and expire on their TTL, so an
+ * eviction is a single round trip whatever the size of the keyspace.
+ *
+ * <p>
+ * Redis failures are logged and treated as a miss — like the token blacklist,
+ * the cache fails open rather than failing the request.
+ *
+ * <p>
+ * Metrics (actuator {@code /actuator/metrics}):
+ * {@code dashboard.cache.requests} tagged {@code region} and
+ * {@code result=local_hit|shared_hit|miss}, and {@code dashboard.cache.evictions}
+ * tagged {@code region} and {@code origin=local|remote}.
+ */
+@Component
+@Slf4j
+public class DashboardCache {
+
+    public static final String EVICTION_CHANNEL = "dashboard:cache:evictions";
+    private static final String KEY_PREFIX = "dashboard:cache:";
+    private static final String GENERATION_PREFIX = "dashboard:cache:gen:";
+
+    /** Shared generation not read from Redis yet. */
+    private static final long UNKNOWN = -1;
+
+    /**
+     * Increments the generation of every region in KEYS and publishes the new
+     * values, in one round trip. ARGV: channel, instance id, region names.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> EVICT_SCRIPT = new DefaultRedisScript<>("""
+            local parts = {}
+            local generations = {}
+            for i, key in ipairs(KEYS) do
+                generations[i] = redis.call('incr', key)
+                parts[i] = ARGV[i + 2] .. ':' .. generations[i]
+            end
+            redis.call('publish', ARGV[1], ARGV[2] .. '|' .. table.concat(parts, ','))
+            return generations
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean sharedTierEnabled;
+
+    /** Identifies this node's own messages on the eviction channel. */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<DashboardCacheRegion, Cache<String, Object>> localTier = new EnumMap<>(
+            DashboardCacheRegion.class);
+
+    /**
+     * Bumped on every local eviction. A value computed while its region was
+     * evicted is returned to its caller but not cached, so a slow computation
+     * that started before a commit cannot repopulate the cache with stale data.
+     */
+    private final Map<DashboardCacheRegion, AtomicLong> generations = new EnumMap<>(DashboardCacheRegion.class);
+
+    /**
+     * Last known value of each region's generation counter in Redis, the
+     * middle part of its shared keys. Kept current by this node's evictions and
+     * the broadcasts of the others; read from Redis on first use.
+     */
+    private final Map<DashboardCacheRegion, AtomicLong> sharedGenerations = new EnumMap<>(
+            DashboardCacheRegion.class);
+
+    private final List<Consumer<Set<DashboardCacheRegion>>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    public DashboardCache(
+            StringRedisTemplate redisTemplate,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.dashboard.cache.enabled:true}") boolean enabled,
+            @Value("${app.dashboard.cache.shared-tier-enabled:true}") boolean sharedTierEnabled,
+            @Value("${app.dashboard.cache.local-max-entries:500}") long localMaxEntries) {
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.sharedTierEnabled = sharedTierEnabled;
+
+        for (DashboardCacheRegion region : DashboardCacheRegion.values()) {
+            localTier.put(region, Caffeine.newBuilder()
+                    .maximumSize(localMaxEntries)
+                    .expireAfterWrite(region.getMaxStaleness())
+                    .build());
+            generations.put(region, new AtomicLong());
+            sharedGenerations.put(region, new AtomicLong(UNKNOWN));
+        }
+    }
+
+    /**
+     * Builds a cache key from endpoint parameters; {@code null} parameters are
+     * rendered as {@code -} so optional filters produce distinct keys.
+     */
+    public static String key(Object... parts) {
+        return Arrays.stream(parts)
+                .map(p -> p == null ? "-" : p.toString())
+                .collect(Collectors.joining(":"));
+    }
+
+    /**
+     * Returns the cached response for {@code region}/{@code key}, computing and
+     * caching it with {@code loader} on a miss in both tiers.
+     */
+    public <T> T get(DashboardCacheRegion region, String key, Class<T> type, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        Cache<String, Object> local = localTier.get(region);
+        Object cached = local.getIfPresent(key);
+        if (cached != null) {
+            count(region, "local_hit");
+            return type.cast(cached);
+        }
+
+        // Captured before anything is read: a value read or computed under
+        // these generations is only ever stored under them, so an eviction
+        // landing meanwhile cannot publish it under the new ones
+        long generation = generations.get(region).get();
+        String sharedKey = sharedKey(region, key);
+
+        T shared = readShared(sharedKey, type);
+        if (shared != null) {
+            count(region, "shared_hit");
+            putLocal(region, generation, key, shared);
+            return shared;
+        }
+
+        count(region, "miss");
+        T value = loader.get();
+        if (value != null && generation == generations.get(region).get()) {
+            writeShared(region, sharedKey, value);
+            putLocal(region, generation, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Registers a callback run whenever regions are evicted, whether by a change
+     * on this node or by a broadcast from another one. Listeners are notified
+     * even when caching is disabled, so they can rely on it as a change feed.
+     */
+    public void addEvictionListener(Consumer<Set<DashboardCacheRegion>> listener) {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * Evicts every region affected by the given change types on all nodes.
+     */
+    public void evict(Set<DomainChangeType> types) {
+        Set<DashboardCacheRegion> regions = Arrays.stream(DashboardCacheRegion.values())
+                .filter(r -> r.isInvalidatedBy(types))
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(DashboardCacheRegion.class)));
+        if (regions.isEmpty()) {
+            return;
+        }
+        if (!enabled) {
+            notifyListeners(regions);
+            return;
+        }
+
+        regions.forEach(r -> evictLocal(r, "local"));
+
+        if (sharedTierEnabled) {
+            try {
+                List<DashboardCacheRegion> ordered = List.copyOf(regions);
+                List<String> args = new ArrayList<>();
+                args.add(EVICTION_CHANNEL);
+                args.add(instanceId);
+                ordered.forEach(r -> args.add(r.name()));
+                List<?> bumped = redisTemplate.execute(EVICT_SCRIPT,
+                        ordered.stream().map(r -> GENERATION_PREFIX + r.name()).toList(),
+                        args.toArray());
+                for (int i = 0; i < ordered.size(); i++) {
+                    advanceSharedGeneration(ordered.get(i), Long.parseLong(String.valueOf(bumped.get(i))));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to propagate dashboard cache eviction for {}: {}", regions, e.getMessage());
+                // Re-read the counters next time rather than keep serving the old generation
+                regions.forEach(r -> sharedGenerations.get(r).set(UNKNOWN));
+            }
+        }
+
+        notifyListeners(regions);
+    }
+
+    /**
+     * Handles an eviction broadcast from another node.
+     * Message format: {@code <instanceId>|<REGION>:<generation>,<REGION>:<generation>...}.
+     */
+    public void onRemoteEviction(String message) {
+        int sep = message.indexOf('|');
+        if (sep < 0 || message.substring(0, sep).equals(instanceId)) {
+            return;
+        }
+        Set<DashboardCacheRegion> regions = EnumSet.noneOf(DashboardCacheRegion.class);
+        for (String part : message.substring(sep + 1).split(",")) {
+            int colon = part.indexOf(':');
+            String name = colon < 0 ? part : part.substring(0, colon);
+            try {
+                DashboardCacheRegion region = DashboardCacheRegion.valueOf(name);
+                regions.add(region);
+                if (colon < 0) {
+                    sharedGenerations.get(region).set(UNKNOWN);
+                } else {
+                    advanceSharedGeneration(region, Long.parseLong(part.substring(colon + 1)));
+                }
+            } catch (IllegalArgumentException e) {
+                log.debug("Ignoring eviction for unknown dashboard cache region {}", part);
+            }
+        }
+        regions.forEach(r -> evictLocal(r, "remote"));
+        if (!regions.isEmpty()) {
+            notifyListeners(regions);
+        }
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private void evictLocal(DashboardCacheRegion region, String origin) {
+        generations.get(region).incrementAndGet();
+        localTier.get(region).invalidateAll();
+        Counter.builder("dashboard.cache.evictions")
+                .tag("region", region.name())
+                .tag("origin", origin)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void notifyListeners(Set<DashboardCacheRegion> regions) {
+        for (Consumer<Set<DashboardCacheRegion>> listener : evictionListeners) {
+            try {
+                listener.accept(regions);
+            } catch (RuntimeException e) {
+                log.warn("Dashboard cache eviction listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Caches a value locally unless the region was evicted since
+     * {@code generation} was read. An eviction between the check and the put
+     * has already bumped the generation, so the re-check afterwards catches it.
+     */
+    private void putLocal(DashboardCacheRegion region, long generation, String key, Object value) {
+        Cache<String, Object> local = localTier.get(region);
+        local.put(key, value);
+        if (generation != generations.get(region).get()) {
+            local.invalidate(key);
+        }
+    }
+
+    private <T> T readShared(String sharedKey, Class<T> type) {
+        if (sharedKey == null) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(sharedKey);
+            return json == null ? null : jsonMapper.readValue(json, type);
+        } catch (RuntimeException e) {
+            log.warn("Dashboard cache read failed for {}: {}", sharedKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeShared(DashboardCacheRegion region, String sharedKey, Object value) {
+        if (sharedKey == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(
+                    sharedKey,
+                    jsonMapper.writeValueAsString(value),
+                    region.getMaxStaleness().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            log.warn("Dashboard cache write failed for {}: {}", sharedKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Redis key of an entry under the region's current shared generation, or
+     * {@code null} when the shared tier is off or the generation cannot be read.
+     */
+    private String sharedKey(DashboardCacheRegion region, String key) {
+        if (!sharedTierEnabled) {
+            return null;
+        }
+        try {
+            return KEY_PREFIX + region.name() + ":" + sharedGeneration(region) + ":" + key;
+        } catch (RuntimeException e) {
+            log.warn("Dashboard cache generation read failed for {}: {}", region, e.getMessage());
+            return null;
+        }
+    }
+
+    private long sharedGeneration(DashboardCacheRegion region) {
+        AtomicLong known = sharedGenerations.get(region);
+        long generation = known.get();
+        if (generation == UNKNOWN) {
+            String stored = redisTemplate.opsForValue().get(GENERATION_PREFIX + region.name());
+            advanceSharedGeneration(region, stored == null ? 0 : Long.parseLong(stored));
+            generation = known.get();
+        }
+        return generation;
+    }
+
+    /** Generations only move forward, whatever order updates arrive in. */
+    private void advanceSharedGeneration(DashboardCacheRegion region, long generation) {
+        sharedGenerations.get(region).accumulateAndGet(generation, Math::max);
+    }
+
+    private void count(DashboardCacheRegion region, String result) {
+        Counter.builder("dashboard.cache.requests")
+                .tag("region", region.name())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,30 @@
+package com.moeware.ims.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.moeware.ims.event.DomainChangeEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Evicts dashboard cache regions when a write service reports a change.
+ * <p>
+ * Runs after the publishing transaction commits, so a reader that misses
+ * immediately afterwards recomputes from committed data. Rolled-back changes
+ * never evict.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCacheInvalidator {
+
+    private final DashboardCache dashboardCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainChange(DomainChangeEvent event) {
+        log.debug("Evicting dashboard cache for {} ({})", event.types(), event.source());
+        dashboardCache.evict(event.types());
+    }
+}
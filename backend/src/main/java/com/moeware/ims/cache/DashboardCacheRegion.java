@@ -0,0 +1,46 @@
+package com.moeware.ims.cache;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.moeware.ims.event.DomainChangeType;
+
+/**
+ * One cached dashboard endpoint.
+ * <p>
+ * Each region lists the {@link DomainChangeType}s that invalidate it and a
+ * maximum staleness used as the entry TTL, which bounds how stale a response
+ * can get if an invalidation is missed (e.g. data changed by SQL outside the
+ * application).
+ */
+public enum DashboardCacheRegion {
+
+    OVERVIEW(Duration.ofSeconds(60), EnumSet.allOf(DomainChangeType.class)),
+    INVENTORY_SUMMARY(Duration.ofMinutes(5), EnumSet.of(DomainChangeType.INVENTORY)),
+    SALES_ANALYTICS(Duration.ofMinutes(5), EnumSet.of(DomainChangeType.SALES_ORDER)),
+    PURCHASE_ANALYTICS(Duration.ofMinutes(5), EnumSet.of(DomainChangeType.PURCHASE_ORDER)),
+    LOW_STOCK_ALERTS(Duration.ofSeconds(60), EnumSet.of(DomainChangeType.INVENTORY)),
+    PENDING_ACTIONS(Duration.ofSeconds(60), EnumSet.allOf(DomainChangeType.class)),
+    ACTIVITY_FEED(Duration.ofSeconds(30),
+            EnumSet.of(DomainChangeType.SALES_ORDER, DomainChangeType.PURCHASE_ORDER)),
+    INVENTORY_TREND(Duration.ofMinutes(5), EnumSet.of(DomainChangeType.INVENTORY)),
+    SALES_TREND(Duration.ofMinutes(5), EnumSet.of(DomainChangeType.SALES_ORDER)),
+    TOP_SELLING_PRODUCTS(Duration.ofMinutes(5), EnumSet.of(DomainChangeType.SALES_ORDER));
+
+    private final Duration maxStaleness;
+    private final Set<DomainChangeType> invalidatedBy;
+
+    DashboardCacheRegion(Duration maxStaleness, Set<DomainChangeType> invalidatedBy) {
+        this.maxStaleness = maxStaleness;
+        this.invalidatedBy = invalidatedBy;
+    }
+
+    public Duration getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public boolean isInvalidatedBy(Set<DomainChangeType> types) {
+        return types.stream().anyMatch(invalidatedBy::contains);
+    }
+}
@@ -0,0 +1,32 @@
+package com.moeware.ims.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesces concurrent identical calls: while one call of the annotated
+ * method with a given set of arguments is running, further calls with equal
+ * arguments wait for it and receive the same result (or exception) instead of
+ * running the method again. Calls that arrive after it returns run normally.
+ *
+ * <p>
+ * On a class, applies to every public method. Only use on side-effect-free
+ * methods whose result does not depend on the caller (e.g. the current user);
+ * the shared result object is handed to every waiting caller. See
+ * {@link SingleFlightAspect}.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+
+    /**
+     * How long a coalesced caller waits for the running call before running the
+     * method itself, in milliseconds. Zero or negative uses
+     * {@code app.single-flight.timeout-ms}.
+     */
+    long timeoutMs() default 0;
+}
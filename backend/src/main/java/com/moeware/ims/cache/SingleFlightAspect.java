@@ -0,0 +1,149 @@
+package com.moeware.ims.cache;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implements {@link SingleFlight}.
+ *
+ * <p>
+ * The first caller for a {@code (method, arguments)} key becomes the leader
+ * and runs the method; callers arriving while it runs park on the leader's
+ * future. The key is dropped as soon as the leader finishes, so nothing is
+ * cached here — that is {@link DashboardCache}'s job; this only stops a burst
+ * of cache misses from running the same aggregation many times over.
+ *
+ * <p>
+ * The aspect runs outside the transaction interceptor, so waiting callers
+ * hold neither a transaction nor a connection. A caller that waits longer than
+ * the key's timeout stops waiting and runs the method itself, so a stuck leader
+ * delays its followers but never fails them.
+ *
+ * <p>
+ * Metrics: {@code single_flight.calls} tagged {@code method} and
+ * {@code result=leader|coalesced|timeout}, and {@code single_flight.in_flight}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class SingleFlightAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long defaultTimeoutMs;
+
+    private final ConcurrentHashMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightAspect(
+            MeterRegistry meterRegistry,
+            @Value("${app.single-flight.enabled:true}") boolean enabled,
+            @Value("${app.single-flight.timeout-ms:10000}") long defaultTimeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        Gauge.builder("single_flight.in_flight", inFlight, ConcurrentHashMap::size)
+                .description("Coalescable calls currently running")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(public * *(..)) && (@within(com.moeware.ims.cache.SingleFlight) "
+            + "|| @annotation(com.moeware.ims.cache.SingleFlight))")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Method method = signature.getMethod();
+        String name = signature.getDeclaringType().getSimpleName() + "." + method.getName();
+        FlightKey key = new FlightKey(method, joinPoint.getArgs().clone());
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+
+        if (running == null) {
+            count(name, "leader");
+            try {
+                Object result = joinPoint.proceed();
+                flight.complete(result);
+                return result;
+            } catch (Throwable ex) {
+                flight.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+
+        long timeoutMs = timeoutMs(method, signature.getDeclaringType());
+        try {
+            Object result = running.get(timeoutMs, TimeUnit.MILLISECONDS);
+            count(name, "coalesced");
+            return result;
+        } catch (ExecutionException ex) {
+            count(name, "coalesced");
+            throw ex.getCause();
+        } catch (TimeoutException ex) {
+            count(name, "timeout");
+            log.warn("{} still running after {} ms; caller running it independently", name, timeoutMs);
+            return joinPoint.proceed();
+        }
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private long timeoutMs(Method method, Class<?> declaringType) {
+        SingleFlight annotation = AnnotatedElementUtils.findMergedAnnotation(method, SingleFlight.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(declaringType, SingleFlight.class);
+        }
+        return annotation != null && annotation.timeoutMs() > 0 ? annotation.timeoutMs() : defaultTimeoutMs;
+    }
+
+    private void count(String method, String result) {
+        meterRegistry.counter("single_flight.calls", "method", method, "result", result).increment();
+    }
+
+    /**
+     * Method plus arguments, compared element-wise (deeply for array arguments).
+     */
+    private record FlightKey(Method method, Object[] args) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof FlightKey other
+                    && method.equals(other.method)
+                    && Arrays.deepEquals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + Arrays.deepHashCode(args);
+        }
+
+        @Override
+        public String toString() {
+            return method.getName() + Arrays.deepToString(args);
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package com.moeware.ims.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process index of on-hand and reserved quantity per product and warehouse.
+ *
+ * <p>
+ * Keys are packed into one {@code long} ({@code productId << 32 | warehouseId})
+ * and stored in an open-addressing table of parallel primitive arrays, so a
+ * lookup allocates nothing and boxes nothing. Ids must fit in 31 bits; larger
+ * ids are simply not indexed and read as {@link #MISSING}. Single-row reads use
+ * an optimistic {@link StampedLock} read and retry under the read lock only if a
+ * write raced them; writes take the write lock.
+ *
+ * <p>
+ * The index is fed by {@code StockLevelIndexService}: deltas from committed
+ * stock writes of this instance, and a periodic reconcile against
+ * {@code inventory_items} that also picks up writes made by other instances or
+ * outside the application. Rows with a write in flight, or written since the
+ * reconcile started reading, are skipped by that reconcile so it never undoes
+ * a newer delta. Values are therefore advisory: anything that must not
+ * oversell still goes through the conditional updates in the database.
+ *
+ * <p>
+ * Not a cache in the Caffeine sense: rows are never evicted, only reset to 0
+ * when the inventory row disappears.
+ */
+@Component
+public class StockLevelIndex {
+
+    /** Returned by reads for rows that are not indexed (or before the first load). */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    /** Receives one warehouse's quantities from {@link #forEachWarehouse}. */
+    @FunctionalInterface
+    public interface LevelVisitor {
+        void visit(long warehouseId, int onHand, int reserved);
+    }
+
+    /**
+     * Quantity deltas summed per row, in the order the rows were first added;
+     * the input of {@link #beginUpdate} and {@link #completeUpdate}. Uses the
+     * same packed keys and probing as the index, so accumulating a write's
+     * changes boxes nothing either. Not thread-safe.
+     */
+    public static final class Deltas {
+        private long[] keys = new long[8];
+        private int[] onHand = new int[8];
+        private int[] reserved = new int[8];
+        // Position + 1 of each key in the arrays above, 0 for an empty slot
+        private int[] slots = new int[16];
+        private int size;
+
+        public void add(long key, int onHandDelta, int reservedDelta) {
+            int mask = slots.length - 1;
+            int slot = hash(key) & mask;
+            while (slots[slot] != 0) {
+                int pos = slots[slot] - 1;
+                if (keys[pos] == key) {
+                    onHand[pos] += onHandDelta;
+                    reserved[pos] += reservedDelta;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                onHand = Arrays.copyOf(onHand, size * 2);
+                reserved = Arrays.copyOf(reserved, size * 2);
+            }
+            keys[size] = key;
+            onHand[size] = onHandDelta;
+            reserved[size] = reservedDelta;
+            slots[slot] = ++size;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int pos = 0; pos < size; pos++) {
+                int slot = hash(keys[pos]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = pos + 1;
+            }
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    /**
+     * One generation of the hash table. Replaced as a whole on resize so an
+     * optimistic reader always sees arrays of the same length.
+     */
+    private static final class Table {
+        final long[] keys;
+        final int[] onHand;
+        final int[] reserved;
+        final int[] inFlight;
+        final long[] stamps;
+        final int[] seen;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            onHand = new int[capacity];
+            reserved = new int[capacity];
+            inFlight = new int[capacity];
+            stamps = new long[capacity];
+            seen = new int[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+
+    // Guarded by lock
+    private Table table = new Table(INITIAL_CAPACITY);
+    private int size;
+    private long[] warehouseIds = new long[0];
+    private long sequence;
+    private int generation;
+    private long reconcileDrift;
+    private long reconcileSkipped;
+
+    private volatile boolean loaded;
+    private volatile long lastReconciledAt;
+    private volatile long lastReconcileDrift;
+    private volatile long lastReconcileSkipped;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Packs a product and warehouse id into an index key, or returns 0 when
+     * either id is out of range.
+     */
+    public static long pack(long productId, long warehouseId) {
+        if (productId <= 0 || productId > Integer.MAX_VALUE || warehouseId <= 0 || warehouseId > Integer.MAX_VALUE) {
+            return 0;
+        }
+        return productId << 32 | warehouseId;
+    }
+
+    // ─── READS ───────────────────────────────────────────────────────────────
+
+    public int onHand(long productId, long warehouseId) {
+        return read(pack(productId, warehouseId), false);
+    }
+
+    /** On-hand minus reserved. */
+    public int available(long productId, long warehouseId) {
+        return read(pack(productId, warehouseId), true);
+    }
+
+    /**
+     * Visits every warehouse holding a row for the product.
+     *
+     * @return the number of warehouses visited, or -1 when the index is not
+     *         loaded or the product id cannot be indexed
+     */
+    public int forEachWarehouse(long productId, LevelVisitor visitor) {
+        if (!loaded || pack(productId, 1) == 0) {
+            misses.increment();
+            return -1;
+        }
+        long stamp = lock.readLock();
+        try {
+            Table t = table;
+            int visited = 0;
+            for (long warehouseId : warehouseIds) {
+                int slot = find(t, productId << 32 | warehouseId);
+                if (slot >= 0) {
+                    visitor.visit(warehouseId, t.onHand[slot], t.reserved[slot]);
+                    visited++;
+                }
+            }
+            hits.increment();
+            return visited;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * On-hand quantity summed over all warehouses, or -1 when the index is not
+     * loaded or the product id cannot be indexed.
+     */
+    public long totalOnHand(long productId) {
+        if (!loaded || pack(productId, 1) == 0) {
+            misses.increment();
+            return -1;
+        }
+        long stamp = lock.readLock();
+        try {
+            Table t = table;
+            long total = 0;
+            for (long warehouseId : warehouseIds) {
+                int slot = find(t, productId << 32 | warehouseId);
+                if (slot >= 0) {
+                    total += t.onHand[slot];
+                }
+            }
+            hits.increment();
+            return total;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // ─── WRITES ──────────────────────────────────────────────────────────────
+
+    /**
+     * Marks rows as having a write about to commit. Until the matching
+     * {@link #completeUpdate} a reconcile leaves them alone.
+     */
+    public void beginUpdate(Deltas deltas) {
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < deltas.size; i++) {
+                // findOrInsert may resize, so read the table after it
+                int slot = findOrInsert(deltas.keys[i]);
+                table.inFlight[slot]++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Applies the deltas of a committed write (or just clears the in-flight
+     * marks of a rolled-back one).
+     *
+     * @param begun whether {@link #beginUpdate} was called for these keys
+     */
+    public void completeUpdate(Deltas deltas, boolean committed, boolean begun) {
+        long stamp = lock.writeLock();
+        try {
+            long seq = ++sequence;
+            for (int i = 0; i < deltas.size; i++) {
+                int slot = findOrInsert(deltas.keys[i]);
+                Table t = table;
+                if (committed) {
+                    t.onHand[slot] += deltas.onHand[i];
+                    t.reserved[slot] += deltas.reserved[i];
+                }
+                if (begun) {
+                    t.inFlight[slot]--;
+                }
+                t.stamps[slot] = seq;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ─── RECONCILE ───────────────────────────────────────────────────────────
+
+    /**
+     * Starts a reconcile pass. Rows written after this call are not
+     * overwritten by it.
+     *
+     * @return the token to pass to {@link #reconcile} and {@link #endReconcile}
+     */
+    public long beginReconcile() {
+        long stamp = lock.writeLock();
+        try {
+            generation++;
+            reconcileDrift = 0;
+            reconcileSkipped = 0;
+            return sequence;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Overwrites rows with quantities read from the database since
+     * {@link #beginReconcile} returned {@code since}.
+     */
+    public void reconcile(long since, long[] keys, int[] onHand, int[] reserved, int count) {
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < count; i++) {
+                int slot = findOrInsert(keys[i]);
+                Table t = table;
+                t.seen[slot] = generation;
+                if (t.inFlight[slot] > 0 || t.stamps[slot] > since) {
+                    reconcileSkipped++;
+                    continue;
+                }
+                if (t.onHand[slot] != onHand[i] || t.reserved[slot] != reserved[i]) {
+                    reconcileDrift++;
+                    t.onHand[slot] = onHand[i];
+                    t.reserved[slot] = reserved[i];
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Ends a pass: rows the database no longer has are reset to 0, and the
+     * index is marked loaded.
+     */
+    public void endReconcile(long since) {
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            for (int slot = 0; slot < t.keys.length; slot++) {
+                if (t.keys[slot] != 0 && t.seen[slot] != generation && t.inFlight[slot] == 0
+                        && t.stamps[slot] <= since && (t.onHand[slot] != 0 || t.reserved[slot] != 0)) {
+                    reconcileDrift++;
+                    t.onHand[slot] = 0;
+                    t.reserved[slot] = 0;
+                }
+            }
+            // The first pass fills an empty index; that is loading, not drift
+            lastReconcileDrift = loaded ? reconcileDrift : 0;
+            lastReconcileSkipped = reconcileSkipped;
+            lastReconciledAt = System.currentTimeMillis();
+            loaded = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ─── METRICS ─────────────────────────────────────────────────────────────
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Epoch millis of the last completed reconcile, 0 before the first. */
+    public long lastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    /** Rows the last reconcile had to correct (writes this instance did not see). */
+    public long lastReconcileDrift() {
+        return lastReconcileDrift;
+    }
+
+    /** Rows the last reconcile skipped because they were written meanwhile. */
+    public long lastReconcileSkipped() {
+        return lastReconcileSkipped;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private int read(long key, boolean available) {
+        if (!loaded || key == 0) {
+            misses.increment();
+            return MISSING;
+        }
+        long stamp = lock.tryOptimisticRead();
+        int result = lookup(table, key, available);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = lookup(table, key, available);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (result == MISSING) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    private static int lookup(Table t, long key, boolean available) {
+        int slot = find(t, key);
+        if (slot < 0) {
+            return MISSING;
+        }
+        return available ? t.onHand[slot] - t.reserved[slot] : t.onHand[slot];
+    }
+
+    /** Slot holding {@code key}, or -1. Bounded so a torn optimistic read cannot spin. */
+    private static int find(Table t, long key) {
+        int slot = hash(key) & t.mask;
+        for (int probes = 0; probes <= t.mask; probes++) {
+            long k = t.keys[slot];
+            if (k == key) {
+                return slot;
+            }
+            if (k == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+        return -1;
+    }
+
+    /** Must hold the write lock. */
+    private int findOrInsert(long key) {
+        int slot = find(table, key);
+        if (slot >= 0) {
+            return slot;
+        }
+        if ((size + 1) * 2 > table.keys.length) {
+            resize();
+        }
+        Table t = table;
+        slot = hash(key) & t.mask;
+        while (t.keys[slot] != 0) {
+            slot = (slot + 1) & t.mask;
+        }
+        t.keys[slot] = key;
+        size++;
+        registerWarehouse(key & 0xFFFFFFFFL);
+        return slot;
+    }
+
+    /** Must hold the write lock. */
+    private void resize() {
+        Table old = table;
+        Table t = new Table(old.keys.length * 2);
+        for (int i = 0; i < old.keys.length; i++) {
+            long key = old.keys[i];
+            if (key == 0) {
+                continue;
+            }
+            int slot = hash(key) & t.mask;
+            while (t.keys[slot] != 0) {
+                slot = (slot + 1) & t.mask;
+            }
+            t.keys[slot] = key;
+            t.onHand[slot] = old.onHand[i];
+            t.reserved[slot] = old.reserved[i];
+            t.inFlight[slot] = old.inFlight[i];
+            t.stamps[slot] = old.stamps[i];
+            t.seen[slot] = old.seen[i];
+        }
+        table = t;
+    }
+
+    /** Must hold the write lock. Keeps {@code warehouseIds} sorted and distinct. */
+    private void registerWarehouse(long warehouseId) {
+        int pos = Arrays.binarySearch(warehouseIds, warehouseId);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        long[] ids = new long[warehouseIds.length + 1];
+        System.arraycopy(warehouseIds, 0, ids, 0, insertAt);
+        ids[insertAt] = warehouseId;
+        System.arraycopy(warehouseIds, insertAt, ids, insertAt + 1, warehouseIds.length - insertAt);
+        warehouseIds = ids;
+    }
+
+    /** Spreads the packed ids (murmur3 finaliser) so sequential ids do not cluster. */
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb93e53ca87ebL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
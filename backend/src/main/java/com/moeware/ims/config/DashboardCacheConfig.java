@@ -0,0 +1,32 @@
+package com.moeware.ims.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.moeware.ims.cache.DashboardCache;
+
+/**
+ * Subscribes this node to dashboard cache evictions published by other nodes,
+ * so their local (Caffeine) tiers are cleared as soon as data changes anywhere.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.dashboard.cache.shared-tier-enabled", havingValue = "true", matchIfMissing = true)
+public class DashboardCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer dashboardCacheEvictionListener(
+            RedisConnectionFactory connectionFactory, DashboardCache dashboardCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> dashboardCache.onRemoteEviction(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(DashboardCache.EVICTION_CHANNEL));
+        return container;
+    }
+}
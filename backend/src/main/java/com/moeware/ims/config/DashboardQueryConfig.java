@@ -0,0 +1,37 @@
+package com.moeware.ims.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Thread pool for {@link com.moeware.ims.service.DashboardQueryExecutor}.
+ *
+ * <p>
+ * Every worker holds at most one JDBC connection while it runs, so
+ * {@code app.dashboard.query.pool-size} caps the connections dashboard
+ * fan-out can take from Hikari at once; keep it below
+ * {@code spring.datasource.hikari.maximum-pool-size}. When the queue is full
+ * the request thread runs the query itself instead of failing.
+ */
+@Configuration
+public class DashboardQueryConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor dashboardQueryTaskExecutor(
+            @Value("${app.dashboard.query.pool-size:4}") int poolSize,
+            @Value("${app.dashboard.query.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.moeware.ims.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Thread pool that writes dashboard stream pushes to subscriber connections
+ * (see {@link com.moeware.ims.service.DashboardStreamService}).
+ *
+ * <p>
+ * Sends are kept off the coalescing scheduler so one slow client cannot delay
+ * pushes to everyone else. Each subscriber has at most one send in flight, so
+ * the queue never holds more than one task per open stream.
+ */
+@Configuration
+public class DashboardStreamConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor dashboardStreamSendExecutor(
+            @Value("${app.dashboard.stream.send-pool-size:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("dashboard-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
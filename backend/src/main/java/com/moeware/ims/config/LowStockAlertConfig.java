@@ -0,0 +1,30 @@
+package com.moeware.ims.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Thread pool that turns committed low-stock crossings into
+ * {@code low_stock_state} rows and notifications (see
+ * {@link com.moeware.ims.service.inventory.LowStockAlertService}).
+ *
+ * <p>
+ * Keeps the notification writes off the request thread, so a stock write
+ * returns as soon as it commits.
+ */
+@Configuration
+public class LowStockAlertConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor lowStockAlertExecutor(
+            @Value("${app.inventory.low-stock.pool-size:2}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("low-stock-");
+        executor.initialize();
+        return executor;
+    }
+}
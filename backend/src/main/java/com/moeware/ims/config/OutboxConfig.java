@@ -0,0 +1,30 @@
+package com.moeware.ims.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Thread that delivers outbox events (see
+ * {@link com.moeware.ims.service.OutboxDispatcher}).
+ *
+ * <p>
+ * One thread per node keeps delivery within a node sequential; other nodes
+ * drain the table alongside it. The queue holds a single wake-up: while one
+ * drain runs and another is queued, further wake-ups add nothing and are
+ * dropped.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor outboxDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("outbox-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,110 @@
+package com.moeware.ims.config;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.moeware.ims.datasource.ReadReplicaRoutingDataSource;
+import com.moeware.ims.datasource.ReplicaHealthMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Primary / read-replica datasource split, enabled with
+ * {@code app.datasource.replica.enabled=true}.
+ *
+ * <p>
+ * Replaces the auto-configured datasource with two Hikari pools —
+ * {@code ims-primary} from {@code spring.datasource.*} and {@code ims-replica}
+ * from {@code app.datasource.replica.*} — behind a
+ * {@link ReadReplicaRoutingDataSource}. Each pool reports its own
+ * {@code hikaricp.*} metrics tagged {@code pool}. JPA, Flyway and the
+ * dashboard query executor all use the routing datasource; only read-only
+ * transactions ever reach the replica.
+ *
+ * <p>
+ * Hibernate is switched to release its connection after every transaction.
+ * Spring's default holds it for the whole session, which with open-session-in-view
+ * would pin every transaction of a request to whichever pool the first one
+ * chose.
+ *
+ * <p>
+ * To try it locally, point {@code app.datasource.replica.url} at a second
+ * PostgreSQL instance holding a copy of the schema and data. A server that is
+ * not a streaming standby reports zero lag, so reads go to it straight away.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("ims-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.getDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("ims-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${app.datasource.replica.max-lag-seconds:5}") double maxLagSeconds,
+            MeterRegistry meterRegistry) {
+        ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(replicaDataSource, maxLagSeconds, meterRegistry);
+        monitor.probe();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaHealthMonitor replicaHealthMonitor,
+            MeterRegistry meterRegistry) {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, replicaHealthMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(JdbcSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
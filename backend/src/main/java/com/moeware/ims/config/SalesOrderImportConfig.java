@@ -0,0 +1,32 @@
+package com.moeware.ims.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Thread pool that runs bulk sales-order imports (see
+ * {@link com.moeware.ims.service.transaction.SalesOrderImportService}).
+ *
+ * <p>
+ * Small and bounded on purpose: each running import holds a database
+ * connection per chunk, and uploads beyond the queue capacity are refused
+ * rather than piling up on disk.
+ */
+@Configuration
+public class SalesOrderImportConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor salesOrderImportExecutor(
+            @Value("${app.sales-orders.import.pool-size:1}") int poolSize,
+            @Value("${app.sales-orders.import.queue-capacity:4}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("so-import-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,12 @@
+package com.moeware.ims.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (see the {@code scheduler} package).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,66 @@
+package com.moeware.ims.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.moeware.ims.dto.ApiResponseWpp;
+import com.moeware.ims.dto.audit.AuditLogPageResponse;
+import com.moeware.ims.enums.AuditAction;
+import com.moeware.ims.exception.handler.GlobalExceptionHandler;
+import com.moeware.ims.service.AuditLogService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * REST controller for reading the entity audit trail.
+ *
+ * @author MoeWare Team
+ */
+@RestController
+@RequestMapping("/api/audit-logs")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Audit Logs", description = "Read-only access to the history of changes made to entities")
+@SecurityRequirement(name = "bearerAuth")
+public class AuditLogController {
+
+        private final AuditLogService auditLogService;
+
+        @Operation(summary = "Get audit log entries", description = "Returns a newest-first page of recorded changes, optionally "
+                        + "filtered by entity, user and action. Pass the returned nextCursor to fetch the next page; "
+                        + "it is null on the last page. Maximum 100 entries per request.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Audit log entries returned successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuditLogPageResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Malformed cursor, or entityId without entityType", content = @Content(mediaType = "application/json", schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class))),
+                        @ApiResponse(responseCode = "403", description = "Access denied — ADMIN or MANAGER role required", content = @Content(mediaType = "application/json", schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)))
+        })
+        @GetMapping
+        @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+        public ResponseEntity<ApiResponseWpp<AuditLogPageResponse>> getAuditLogs(
+                        @Parameter(description = "Only include changes to this entity type", example = "SALES_ORDER") @RequestParam(required = false) String entityType,
+                        @Parameter(description = "Only include changes to this entity; requires entityType", example = "1042") @RequestParam(required = false) Long entityId,
+                        @Parameter(description = "Only include changes made by this user", example = "3") @RequestParam(required = false) Long userId,
+                        @Parameter(description = "Only include this action") @RequestParam(required = false) AuditAction action,
+                        @Parameter(description = "Cursor returned as nextCursor by the previous page. Omit for the newest entries.") @RequestParam(required = false) String cursor,
+                        @Parameter(description = "Maximum number of entries to return. Capped at 100.", example = "50") @RequestParam(required = false, defaultValue = "50") int limit) {
+
+                log.debug("GET /api/audit-logs entityType={} entityId={} userId={} action={} cursor={} limit={}",
+                                entityType, entityId, userId, action, cursor, limit);
+                return ResponseEntity.ok(ApiResponseWpp.success(
+                                auditLogService.getAuditLogs(entityType, entityId, userId, action, cursor, limit),
+                                "Audit log entries retrieved successfully"));
+        }
+}
@@ -1,15 +1,24 @@
 package com.moeware.ims.controller;
 
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.moeware.ims.cache.DashboardCache;
+import com.moeware.ims.cache.DashboardCacheRegion;
 import com.moeware.ims.dto.ApiResponseWpp;
 import com.moeware.ims.dto.dashboard.DashboardActivityFeedResponse;
 import com.moeware.ims.dto.dashboard.DashboardInventorySummaryResponse;
@@ -21,9 +30,13 @@ import com.moeware.ims.dto.dashboard.DashboardPurchaseAnalyticsResponse;
 import com.moeware.ims.dto.dashboard.DashboardSalesAnalyticsResponse;
 import com.moeware.ims.dto.dashboard.DashboardSalesTrendResponse;
 import com.moeware.ims.dto.dashboard.DashboardTopSellingProductsResponse;
+import com.moeware.ims.enums.dashboard.DashboardActivityType;
 import com.moeware.ims.enums.dashboard.DashboardPeriod;
 import com.moeware.ims.exception.handler.GlobalExceptionHandler;
 import com.moeware.ims.service.DashboardService;
+import com.moeware.ims.service.DashboardStreamService;
+import com.moeware.ims.service.inventory.StockSnapshotService;
+import com.moeware.ims.service.transaction.SalesRollupService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -40,10 +53,15 @@ import lombok.extern.slf4j.Slf4j;
  * <p>
  * Base path: {@code /api/dashboard}
  * <p>
- * All endpoints are read-only. Role restrictions are applied per endpoint:
- * financial data (analytics, pending actions) requires ADMIN or MANAGER;
- * operational views (overview, alerts, activity feed) are open to all
- * authenticated roles.
+ * All endpoints are read-only except the ADMIN-only rollup and snapshot
+ * maintenance commands. Read endpoints are served through
+ * {@link DashboardCache}; responses may lag a committed change by at most the
+ * region's max staleness, and normally by much less because writes evict the
+ * affected regions. {@code /stream} pushes the live KPIs over SSE instead of
+ * polling. Role
+ * restrictions are applied per endpoint: financial data (analytics, pending
+ * actions) requires ADMIN or MANAGER; operational views (overview, alerts,
+ * activity feed) are open to all authenticated roles.
  */
 @RestController
 @RequestMapping("/api/dashboard")
@@ -54,6 +72,10 @@ import lombok.extern.slf4j.Slf4j;
 public class DashboardController {
 
         private final DashboardService dashboardService;
+        private final DashboardCache dashboardCache;
+        private final DashboardStreamService dashboardStreamService;
+        private final SalesRollupService salesRollupService;
+        private final StockSnapshotService stockSnapshotService;
 
         // ─── 1. Overview ─────────────────────────────────────────────────────────
 
@@ -68,7 +90,11 @@ public class DashboardController {
         @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF','VIEWER')")
         public ResponseEntity<ApiResponseWpp<DashboardOverviewResponse>> getOverview() {
                 log.debug("GET /dashboard/overview");
-                return ResponseEntity.ok(ApiResponseWpp.success(dashboardService.getOverview()));
+                return ResponseEntity.ok(ApiResponseWpp.success(dashboardCache.get(
+                                DashboardCacheRegion.OVERVIEW,
+                                DashboardCache.key(LocalDate.now()),
+                                DashboardOverviewResponse.class,
+                                dashboardService::getOverview)));
         }
 
         // ─── 2. Inventory Summary ─────────────────────────────────────────────────
@@ -88,8 +114,11 @@ public class DashboardController {
                         @Parameter(description = "Scope results to a single category ID") @RequestParam(required = false) Long categoryId) {
 
                 log.debug("GET /dashboard/inventory-summary warehouseId={} categoryId={}", warehouseId, categoryId);
-                return ResponseEntity.ok(ApiResponseWpp.success(
-                                dashboardService.getInventorySummary(warehouseId, categoryId)));
+                return ResponseEntity.ok(ApiResponseWpp.success(dashboardCache.get(
+                                DashboardCacheRegion.INVENTORY_SUMMARY,
+                                DashboardCache.key(warehouseId, categoryId),
+                                DashboardInventorySummaryResponse.class,
+                                () -> dashboardService.getInventorySummary(warehouseId, categoryId))));
         }
 
         // ─── 3. Sales Analytics ───────────────────────────────────────────────────
@@ -111,8 +140,11 @@ public class DashboardController {
                         @Parameter(description = "Custom range end date (yyyy-MM-dd). Must be paired with startDate.") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
                 log.debug("GET /dashboard/sales-analytics period={} start={} end={}", period, startDate, endDate);
-                return ResponseEntity.ok(ApiResponseWpp.success(
-                                dashboardService.getSalesAnalytics(period, startDate, endDate)));
+                return ResponseEntity.ok(ApiResponseWpp.success(dashboardCache.get(
+                                DashboardCacheRegion.SALES_ANALYTICS,
+                                DashboardCache.key(LocalDate.now(), period, startDate, endDate),
+                                DashboardSalesAnalyticsResponse.class,
+                                () -> dashboardService.getSalesAnalytics(period, startDate, endDate))));
         }
 
         // ─── 4. Purchase Analytics ────────────────────────────────────────────────
@@ -133,8 +165,11 @@ public class DashboardController {
                         @Parameter(description = "Custom range end date (yyyy-MM-dd). Must be paired with startDate.") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
                 log.debug("GET /dashboard/purchase-analytics period={} start={} end={}", period, startDate, endDate);
-                return ResponseEntity.ok(ApiResponseWpp.success(
-                                dashboardService.getPurchaseAnalytics(period, startDate, endDate)));
+                return ResponseEntity.ok(ApiResponseWpp.success(dashboardCache.get(
+                                DashboardCacheRegion.PURCHASE_ANALYTICS,
+                                DashboardCache.key(LocalDate.now(), period, startDate, endDate),
+                                DashboardPurchaseAnalyticsResponse.class,
+                                () -> dashboardService.getPurchaseAnalytics(period, startDate, endDate))));
         }
 
         // ─── 5. Low Stock Alerts ──────────────────────────────────────────────────
@@ -151,7 +186,11 @@ public class DashboardController {
         @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF','VIEWER')")
         public ResponseEntity<ApiResponseWpp<DashboardLowStockAlertsResponse>> getLowStockAlerts() {
                 log.debug("GET /dashboard/low-stock-alerts");
-                return ResponseEntity.ok(ApiResponseWpp.success(dashboardService.getLowStockAlerts()));
+                return ResponseEntity.ok(ApiResponseWpp.success(dashboardCache.get(
+                                DashboardCacheRegion.LOW_STOCK_ALERTS,
+                                DashboardCache.key("all"),
+                                DashboardLowStockAlertsResponse.class,
+                                dashboardService::getLowStockAlerts)));
         }
 
         // ─── 6. Pending Actions ───────────────────────────────────────────────────
@@ -168,27 +207,45 @@ public class DashboardController {
         @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
         public ResponseEntity<ApiResponseWpp<DashboardPendingActionsResponse>> getPendingActions() {
                 log.debug("GET /dashboard/pending-actions");
-                return ResponseEntity.ok(ApiResponseWpp.success(dashboardService.getPendingActions()));
+                return ResponseEntity.ok(ApiResponseWpp.success(dashboardCache.get(
+                                DashboardCacheRegion.PENDING_ACTIONS,
+                                DashboardCache.key(LocalDate.now()),
+                                DashboardPendingActionsResponse.class,
+                                dashboardService::getPendingActions)));
         }
 
         // ─── 7. Activity Feed ─────────────────────────────────────────────────────
 
-        @Operation(summary = "Get activity feed", description = "Returns a reverse-chronological feed of recent system events merged from "
+        @Operation(summary = "Get activity feed", description = "Returns a reverse-chronological page of system events: "
                         +
-                        "sales orders, purchase order status changes, and delivered shipments. " +
+                        "sales order and purchase order status changes and delivered shipments. " +
+                        "Pass the returned nextCursor to fetch the next page; it is null on the last page. " +
                         "Maximum 100 entries per request.")
         @ApiResponses({
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Activity feed returned successfully"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Malformed cursor", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class))),
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthenticated request", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)))
         })
         @GetMapping("/activity-feed")
         @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF','VIEWER')")
         public ResponseEntity<ApiResponseWpp<DashboardActivityFeedResponse>> getActivityFeed(
-                        @Parameter(description = "Maximum number of activities to return. Capped at 100.", example = "20") @RequestParam(required = false, defaultValue = "20") int limit) {
-
-                limit = Math.min(limit, 100);
-                log.debug("GET /dashboard/activity-feed limit={}", limit);
-                return ResponseEntity.ok(ApiResponseWpp.success(dashboardService.getActivityFeed(limit)));
+                        @Parameter(description = "Cursor returned as nextCursor by the previous page. Omit for the newest events.") @RequestParam(required = false) String cursor,
+                        @Parameter(description = "Maximum number of activities to return. Capped at 100.", example = "20") @RequestParam(required = false, defaultValue = "20") int limit,
+                        @Parameter(description = "Only include these activity types (repeatable)") @RequestParam(required = false) List<DashboardActivityType> type,
+                        @Parameter(description = "Only include events of this warehouse") @RequestParam(required = false) Long warehouseId,
+                        @Parameter(description = "Only include events performed by this user") @RequestParam(required = false) Long userId) {
+
+                int cappedLimit = Math.max(1, Math.min(limit, 100));
+                Set<DashboardActivityType> types = type == null || type.isEmpty()
+                                ? EnumSet.noneOf(DashboardActivityType.class)
+                                : EnumSet.copyOf(type);
+                log.debug("GET /dashboard/activity-feed cursor={} limit={} types={} warehouseId={} userId={}",
+                                cursor, cappedLimit, types, warehouseId, userId);
+                return ResponseEntity.ok(ApiResponseWpp.success(dashboardCache.get(
+                                DashboardCacheRegion.ACTIVITY_FEED,
+                                DashboardCache.key(cursor, cappedLimit, types, warehouseId, userId),
+                                DashboardActivityFeedResponse.class,
+                                () -> dashboardService.getActivityFeed(cursor, cappedLimit, types, warehouseId, userId))));
         }
 
         // ─── 8. Inventory Trend Chart ─────────────────────────────────────────────
@@ -208,8 +265,11 @@ public class DashboardController {
                         @Parameter(description = "Scope chart data to a single warehouse ID") @RequestParam(required = false) Long warehouseId) {
 
                 log.debug("GET /dashboard/charts/inventory-trend period={} warehouseId={}", period, warehouseId);
-                return ResponseEntity.ok(ApiResponseWpp.success(
-                                dashboardService.getInventoryTrend(period, warehouseId)));
+                return ResponseEntity.ok(ApiResponseWpp.success(dashboardCache.get(
+                                DashboardCacheRegion.INVENTORY_TREND,
+                                DashboardCache.key(LocalDate.now(), period, warehouseId),
+                                DashboardInventoryTrendResponse.class,
+                                () -> dashboardService.getInventoryTrend(period, warehouseId))));
         }
 
         // ─── 9. Sales Trend Chart ─────────────────────────────────────────────────
@@ -227,7 +287,11 @@ public class DashboardController {
                         @Parameter(description = "Time window for the chart.", schema = @Schema(implementation = DashboardPeriod.class, defaultValue = "MONTH")) @RequestParam(required = false, defaultValue = "MONTH") DashboardPeriod period) {
 
                 log.debug("GET /dashboard/charts/sales-trend period={}", period);
-                return ResponseEntity.ok(ApiResponseWpp.success(dashboardService.getSalesTrend(period)));
+                return ResponseEntity.ok(ApiResponseWpp.success(dashboardCache.get(
+                                DashboardCacheRegion.SALES_TREND,
+                                DashboardCache.key(LocalDate.now(), period),
+                                DashboardSalesTrendResponse.class,
+                                () -> dashboardService.getSalesTrend(period))));
         }
 
         // ─── 10. Top Selling Products Chart ──────────────────────────────────────
@@ -246,9 +310,82 @@ public class DashboardController {
                         @Parameter(description = "Time window for the chart.", schema = @Schema(implementation = DashboardPeriod.class, defaultValue = "MONTH")) @RequestParam(required = false, defaultValue = "MONTH") DashboardPeriod period,
                         @Parameter(description = "Number of top products to return.", example = "10") @RequestParam(required = false, defaultValue = "10") int limit) {
 
-                limit = Math.max(1, Math.min(limit, 100));
-                log.debug("GET /dashboard/charts/top-selling-products period={} limit={}", period, limit);
-                return ResponseEntity.ok(ApiResponseWpp.success(
-                                dashboardService.getTopSellingProducts(period, limit)));
+                int cappedLimit = Math.max(1, Math.min(limit, 100));
+                log.debug("GET /dashboard/charts/top-selling-products period={} limit={}", period, cappedLimit);
+                return ResponseEntity.ok(ApiResponseWpp.success(dashboardCache.get(
+                                DashboardCacheRegion.TOP_SELLING_PRODUCTS,
+                                DashboardCache.key(LocalDate.now(), period, cappedLimit),
+                                DashboardTopSellingProductsResponse.class,
+                                () -> dashboardService.getTopSellingProducts(period, cappedLimit))));
+        }
+
+        // ─── 11. Live KPI Stream ─────────────────────────────────────────────────
+
+        @Operation(summary = "Stream live dashboard KPIs", description = "Opens a server-sent events stream. The current overview, low-stock alerts and "
+                        +
+                        "(for ADMIN / MANAGER) pending actions are sent immediately as events named overview, "
+                        +
+                        "low-stock-alerts and pending-actions; afterwards each is re-sent only when a committed change "
+                        +
+                        "alters it, at most once per coalescing interval. Use instead of polling the corresponding GET endpoints.")
+        @ApiResponses({
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Event stream opened"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthenticated request", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)))
+        })
+        @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF','VIEWER')")
+        public SseEmitter streamKpis(Authentication authentication) {
+                boolean includeFinancial = authentication.getAuthorities().stream()
+                                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")
+                                                || a.getAuthority().equals("ROLE_MANAGER"));
+                log.debug("GET /dashboard/stream user={} includeFinancial={}", authentication.getName(),
+                                includeFinancial);
+                return dashboardStreamService.subscribe(includeFinancial);
+        }
+
+        // ─── 12. Sales Rollup Maintenance ────────────────────────────────────────
+
+        @Operation(summary = "Rebuild sales rollup", description = "Recomputes the pre-aggregated daily sales rollup that backs the sales analytics, "
+                        +
+                        "sales trend and top-selling-products endpoints for every order date in the given range. "
+                        +
+                        "Use after bulk data fixes or restores; normal order workflow keeps the rollup current automatically.")
+        @ApiResponses({
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Rollup rebuilt; data is the number of rollup rows written"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Start date is after end date", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class))),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Access denied — ADMIN role required", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)))
+        })
+        @PostMapping("/rollups/sales/rebuild")
+        @PreAuthorize("hasRole('ADMIN')")
+        public ResponseEntity<ApiResponseWpp<Integer>> rebuildSalesRollup(
+                        @Parameter(description = "First order date to rebuild (inclusive), format: yyyy-MM-dd") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                        @Parameter(description = "Last order date to rebuild (inclusive), format: yyyy-MM-dd") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+                log.info("POST /dashboard/rollups/sales/rebuild startDate={} endDate={}", startDate, endDate);
+                int rows = salesRollupService.rebuild(startDate, endDate);
+                return ResponseEntity.ok(ApiResponseWpp.success(rows, "Sales rollup rebuilt successfully"));
+        }
+
+        // ─── 13. Stock Snapshot Maintenance ──────────────────────────────────────
+
+        @Operation(summary = "Backfill stock snapshots", description = "Rewrites the daily stock snapshots behind the inventory trend chart for every day in the range. "
+                        +
+                        "The first day is derived from current stock; each following day replays that day's inventory movements. "
+                        +
+                        "Use to populate history or after movements have been corrected.")
+        @ApiResponses({
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Snapshots written; data is the number of snapshot rows"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class))),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Access denied — ADMIN role required", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)))
+        })
+        @PostMapping("/snapshots/stock/backfill")
+        @PreAuthorize("hasRole('ADMIN')")
+        public ResponseEntity<ApiResponseWpp<Integer>> backfillStockSnapshots(
+                        @Parameter(description = "First day to snapshot (inclusive), format: yyyy-MM-dd") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                        @Parameter(description = "Last day to snapshot (inclusive), format: yyyy-MM-dd") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+                log.info("POST /dashboard/snapshots/stock/backfill startDate={} endDate={}", startDate, endDate);
+                int rows = stockSnapshotService.backfill(startDate, endDate);
+                return ResponseEntity.ok(ApiResponseWpp.success(rows, "Stock snapshots backfilled successfully"));
         }
-}
\ No newline at end of file
+}
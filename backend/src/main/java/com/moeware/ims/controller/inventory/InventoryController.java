@@ -24,6 +24,9 @@ import com.moeware.ims.dto.ApiResponseWpp;
 import com.moeware.ims.dto.inventory.InventoryResponseDTO;
 import com.moeware.ims.dto.inventory.InventoryValuationResponse;
 import com.moeware.ims.dto.inventory.inventoryItem.InventoryItemDTO;
+import com.moeware.ims.dto.inventory.inventoryItem.ProductStockLevelsResponse;
+import com.moeware.ims.dto.transaction.inventoryMovement.BulkTransferInventoryRequest;
+import com.moeware.ims.dto.transaction.inventoryMovement.BulkTransferInventoryResponse;
 import com.moeware.ims.dto.transaction.inventoryMovement.InventoryMovementDTO;
 import com.moeware.ims.dto.transaction.inventoryMovement.TransferInventoryRequest;
 import com.moeware.ims.dto.transaction.inventoryMovement.TransferInventoryResponse;
@@ -158,6 +161,27 @@ public class InventoryController {
                 return ResponseEntity.ok(ApiResponseWpp.success(items));
         }
 
+        /**
+         * Get stock levels of a product per warehouse
+         */
+        @Operation(summary = "Get product stock levels", description = "On-hand, reserved and available units of a product per warehouse. Served from the in-memory stock level index when loaded (source INDEX, with the time of its last reconcile), otherwise from the database (source DATABASE).")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved stock levels"),
+                        @ApiResponse(responseCode = "404", description = "Product not found"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        @GetMapping("/product/{productId}/levels")
+        @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+        public ResponseEntity<ApiResponseWpp<ProductStockLevelsResponse>> getProductStockLevels(
+                        @Parameter(description = "Product ID", required = true) @PathVariable Long productId) {
+
+                log.debug("GET /api/inventory/product/{}/levels - Fetching product stock levels", productId);
+
+                ProductStockLevelsResponse levels = inventoryService.getProductStockLevels(productId);
+
+                return ResponseEntity.ok(ApiResponseWpp.success(levels));
+        }
+
         /**
          * Transfer stock between warehouses
          */
@@ -183,6 +207,31 @@ public class InventoryController {
                                 ApiResponseWpp.success(result, "Inventory transferred successfully"));
         }
 
+        /**
+         * Transfer many products between warehouses in one transaction
+         */
+        @Operation(summary = "Bulk transfer inventory between warehouses", description = "Apply many transfer lines in one transaction. Affected stock rows are locked in a fixed order so concurrent bulk transfers cannot deadlock. Lines the source warehouse cannot cover are rejected individually and reported per line.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Bulk transfer processed", content = @Content(schema = @Schema(implementation = BulkTransferInventoryResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Invalid request"),
+                        @ApiResponse(responseCode = "404", description = "Product or warehouse not found"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+        })
+        @PostMapping("/transfer/bulk")
+        @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAREHOUSE_STAFF')")
+        public ResponseEntity<ApiResponseWpp<BulkTransferInventoryResponse>> bulkTransferInventory(
+                        @Parameter(description = "Bulk transfer lines", required = true) @Valid @RequestBody BulkTransferInventoryRequest request,
+                        Authentication authentication) {
+
+                log.info("POST /api/inventory/transfer/bulk - Transferring {} lines", request.getLines().size());
+
+                BulkTransferInventoryResponse result = inventoryService.bulkTransferInventory(request, authentication);
+
+                return ResponseEntity.ok(
+                                ApiResponseWpp.success(result, "Bulk transfer processed"));
+        }
+
         /**
          * Create stock adjustment request
          */
@@ -1,12 +1,15 @@
 package com.moeware.ims.controller.transaction;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,16 +19,23 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.moeware.ims.dto.ApiResponseWpp;
 import com.moeware.ims.dto.transaction.CancelOrderRequest;
+import com.moeware.ims.dto.transaction.salesOrder.SalesOrderAllocationResponse;
+import com.moeware.ims.dto.transaction.salesOrder.SalesOrderImportResponse;
+import com.moeware.ims.dto.transaction.salesOrder.SalesOrderImportResultsResponse;
 import com.moeware.ims.dto.transaction.salesOrder.SalesOrderRequest;
 import com.moeware.ims.dto.transaction.salesOrder.SalesOrderResponse;
 import com.moeware.ims.dto.transaction.salesOrder.SalesOrderSummaryResponse;
+import com.moeware.ims.enums.transaction.SalesOrderImportFormat;
+import com.moeware.ims.enums.transaction.SalesOrderImportRowStatus;
 import com.moeware.ims.enums.transaction.SalesOrderStatus;
 import com.moeware.ims.exception.handler.GlobalExceptionHandler;
+import com.moeware.ims.service.transaction.SalesOrderImportService;
 import com.moeware.ims.service.transaction.SalesOrderService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -54,6 +64,7 @@ import lombok.extern.slf4j.Slf4j;
 public class SalesOrderController {
 
         private final SalesOrderService salesOrderService;
+        private final SalesOrderImportService salesOrderImportService;
 
         // ==================== READ ENDPOINTS ====================
 
@@ -94,6 +105,51 @@ public class SalesOrderController {
                 return ResponseEntity.ok(ApiResponseWpp.success(response, "Sales order retrieved successfully"));
         }
 
+        @Operation(summary = "Get sales order allocation", description = "Returns the warehouses chosen to supply the order when it was confirmed, with the quantity allocated per product and warehouse and how each warehouse ranked against the ship-to address")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Allocation retrieved; empty when the order has not been confirmed"),
+                        @ApiResponse(responseCode = "404", description = "Sales order not found", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)))
+        })
+        @GetMapping("/{id}/allocation")
+        @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+        public ResponseEntity<ApiResponseWpp<SalesOrderAllocationResponse>> getSalesOrderAllocation(
+                        @Parameter(description = "Sales order ID", required = true) @PathVariable Long id) {
+
+                SalesOrderAllocationResponse response = salesOrderService.getSalesOrderAllocation(id);
+                return ResponseEntity.ok(ApiResponseWpp.success(response, "Sales order allocation retrieved successfully"));
+        }
+
+        @Operation(summary = "Get sales order import", description = "Returns the status and progress counters of a bulk sales-order import")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Import found"),
+                        @ApiResponse(responseCode = "404", description = "Import not found", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)))
+        })
+        @GetMapping("/imports/{importId}")
+        @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+        public ResponseEntity<ApiResponseWpp<SalesOrderImportResponse>> getSalesOrderImport(
+                        @Parameter(description = "Import ID", required = true) @PathVariable Long importId) {
+
+                SalesOrderImportResponse response = salesOrderImportService.getImport(importId);
+                return ResponseEntity.ok(ApiResponseWpp.success(response, "Sales order import retrieved successfully"));
+        }
+
+        @Operation(summary = "Get sales order import results", description = "Returns the outcome of each input row of a bulk import in input order, one page at a time. Pass the returned nextAfterRow as afterRow to read the next page.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Results page returned; rows still being imported are not listed yet"),
+                        @ApiResponse(responseCode = "404", description = "Import not found", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)))
+        })
+        @GetMapping("/imports/{importId}/results")
+        @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+        public ResponseEntity<ApiResponseWpp<SalesOrderImportResultsResponse>> getSalesOrderImportResults(
+                        @Parameter(description = "Import ID", required = true) @PathVariable Long importId,
+                        @Parameter(description = "Return rows after this row number") @RequestParam(defaultValue = "0") int afterRow,
+                        @Parameter(description = "Only rows with this outcome") @RequestParam(required = false) SalesOrderImportRowStatus status,
+                        @Parameter(description = "Maximum rows to return (1–1000)") @RequestParam(defaultValue = "500") int limit) {
+
+                SalesOrderImportResultsResponse response = salesOrderImportService.getResults(importId, afterRow, status, limit);
+                return ResponseEntity.ok(ApiResponseWpp.success(response, "Sales order import results retrieved successfully"));
+        }
+
         // ==================== WRITE ENDPOINTS ====================
 
         @Operation(summary = "Create sales order", description = "Creates a new sales order in PENDING status. Order number is auto-generated in format SO-YYYYMMDD-SEQUENCE.")
@@ -113,6 +169,31 @@ public class SalesOrderController {
                                 .body(ApiResponseWpp.success(response, "Sales order created successfully"));
         }
 
+        @Operation(summary = "Import sales orders", description = "Uploads many sales orders at once as CSV (text/csv, with a header row) or NDJSON (application/x-ndjson). "
+                        + "Each row is one order line with the fields orderRef, customerId, warehouseId, customerName, customerEmail, customerPhone, shippingAddress, city, postalCode, orderDate, taxAmount, shippingCost, notes, "
+                        + "productId or productSku, quantity and unitPrice. Rows of one order share an orderRef and must be contiguous; header fields are taken from the order's first row. "
+                        + "The import runs in the background: poll the returned import and read its per-row results. Orders are created in PENDING status.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "202", description = "Import queued"),
+                        @ApiResponse(responseCode = "404", description = "User not found", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class))),
+                        @ApiResponse(responseCode = "413", description = "Body exceeds the maximum import size", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class))),
+                        @ApiResponse(responseCode = "503", description = "Too many imports queued", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)))
+        })
+        @PostMapping(value = "/imports", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+        @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+        public ResponseEntity<ApiResponseWpp<SalesOrderImportResponse>> importSalesOrders(
+                        InputStream body,
+                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                        @Parameter(description = "ID of the user creating the orders (from auth token)") @RequestParam Long createdByUserId) {
+
+                SalesOrderImportFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                                ? SalesOrderImportFormat.NDJSON
+                                : SalesOrderImportFormat.CSV;
+                SalesOrderImportResponse response = salesOrderImportService.submit(body, format, createdByUserId);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                                .body(ApiResponseWpp.success(response, "Sales order import queued"));
+        }
+
         @Operation(summary = "Update sales order", description = "Updates a sales order. Only allowed when status is PENDING.")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "Sales order updated"),
@@ -129,7 +210,7 @@ public class SalesOrderController {
                 return ResponseEntity.ok(ApiResponseWpp.success(response, "Sales order updated successfully"));
         }
 
-        @Operation(summary = "Confirm sales order", description = "Transitions a PENDING order to CONFIRMED, reserving inventory in the assigned warehouse.")
+        @Operation(summary = "Confirm sales order", description = "Transitions a PENDING order to CONFIRMED, reserving inventory in the assigned warehouse or, when it is short, in the nearest warehouses that can supply the order.")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "Sales order confirmed"),
                         @ApiResponse(responseCode = "400", description = "Order is not in PENDING status", content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)))
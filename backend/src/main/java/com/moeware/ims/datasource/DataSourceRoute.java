@@ -0,0 +1,14 @@
+package com.moeware.ims.datasource;
+
+/**
+ * Connection pools a {@link ReadReplicaRoutingDataSource} can hand out
+ * connections from.
+ */
+public enum DataSourceRoute {
+
+    /** Read-write primary; every write and every non-read-only transaction. */
+    PRIMARY,
+
+    /** Streaming replica; {@code @Transactional(readOnly = true)} work only. */
+    REPLICA
+}
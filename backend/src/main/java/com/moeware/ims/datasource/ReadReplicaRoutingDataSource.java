@@ -0,0 +1,99 @@
+package com.moeware.ims.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the
+ * replica pool and everything else to the primary pool.
+ *
+ * <p>
+ * The route is decided when a connection is requested, so this must sit
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager asks for its connection before the read-only flag
+ * is published, and the proxy defers the real {@code getConnection()} to the
+ * first statement. A read-only transaction falls back to the primary when
+ * {@link ReplicaHealthMonitor} reports the replica down or lagging, or when
+ * the replica refuses the connection.
+ *
+ * <p>
+ * Metric: {@code datasource.route.connections} tagged {@code route} and
+ * {@code reason=write|read|replica_unavailable}.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealthMonitor replicaHealth;
+
+    private final Counter writeConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbackConnections;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealthMonitor replicaHealth,
+            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaHealth = replicaHealth;
+        this.writeConnections = routeCounter(meterRegistry, DataSourceRoute.PRIMARY, "write");
+        this.replicaConnections = routeCounter(meterRegistry, DataSourceRoute.REPLICA, "read");
+        this.fallbackConnections = routeCounter(meterRegistry, DataSourceRoute.PRIMARY, "replica_unavailable");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRoute.PRIMARY, primary);
+        targets.put(DataSourceRoute.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaHealth.isAvailable()
+                ? DataSourceRoute.REPLICA
+                : DataSourceRoute.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeConnections.increment();
+            return primary.getConnection();
+        }
+        if (replicaHealth.isAvailable()) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException ex) {
+                replicaHealth.markUnavailable(ex.getMessage());
+            }
+        }
+        fallbackConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Both pools are preconfigured with their own credentials
+        return getConnection();
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, DataSourceRoute route, String reason) {
+        return Counter.builder("datasource.route.connections")
+                .description("Connections handed out by the read-replica routing datasource")
+                .tag("route", route.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
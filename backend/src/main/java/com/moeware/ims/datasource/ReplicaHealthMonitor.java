@@ -0,0 +1,97 @@
+package com.moeware.ims.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks whether the read replica may serve read-only transactions.
+ *
+ * <p>
+ * {@link #probe()} runs on a fixed delay (see
+ * {@link com.moeware.ims.scheduler.ReplicaHealthScheduler}) and marks the
+ * replica unavailable when it cannot be reached or its replay lag exceeds
+ * {@code app.datasource.replica.max-lag-seconds}. A replica that has replayed
+ * everything it received reports zero lag even when the primary is idle, and a
+ * server that is not in recovery (a plain second instance, as used locally)
+ * always reports zero. {@link ReadReplicaRoutingDataSource} also calls
+ * {@link #markUnavailable(String)} when a replica connection fails between
+ * probes, so reads fall back to the primary immediately.
+ *
+ * <p>
+ * Metrics: {@code datasource.replica.available} (1 or 0) and
+ * {@code datasource.replica.lag} in seconds.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final DataSource replicaDataSource;
+    private final double maxLagSeconds;
+
+    /** Starts unavailable; the first probe decides. */
+    private volatile boolean available;
+    private volatile double lagSeconds;
+
+    public ReplicaHealthMonitor(DataSource replicaDataSource, double maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLagSeconds = maxLagSeconds;
+        Gauge.builder("datasource.replica.available", this, m -> m.available ? 1 : 0)
+                .description("Whether read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagSeconds)
+                .description("Replica replay lag in seconds at the last probe")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Measures replica reachability and lag and updates {@link #isAvailable()}.
+     */
+    public void probe() {
+        try (Connection connection = replicaDataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            rs.next();
+            lagSeconds = rs.getDouble(1);
+        } catch (SQLException ex) {
+            markUnavailable(ex.getMessage());
+            return;
+        }
+
+        if (lagSeconds > maxLagSeconds) {
+            markUnavailable(String.format("replay lag %.1fs exceeds %.1fs", lagSeconds, maxLagSeconds));
+        } else if (!available) {
+            available = true;
+            log.info("Read replica available (lag {}s); routing read-only transactions to it", lagSeconds);
+        }
+    }
+
+    /**
+     * Routes reads to the primary until the next successful probe.
+     */
+    public void markUnavailable(String reason) {
+        if (available) {
+            log.warn("Read replica unavailable ({}); routing read-only transactions to the primary", reason);
+        }
+        available = false;
+    }
+}
@@ -0,0 +1,72 @@
+package com.moeware.ims.dto.audit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.moeware.ims.enums.AuditAction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for a keyset-paginated page of audit log entries
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Audit log entries, newest first")
+public class AuditLogPageResponse {
+
+    @Schema(description = "Entries sorted newest-first, capped at the requested limit")
+    private List<Entry> entries;
+
+    @Schema(description = "Opaque cursor for the next (older) page; null when this is the last page",
+            example = "MjAyNi0xMC0xN1QwOToxNTowMHw4ODQx")
+    private String nextCursor;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @Schema(description = "One recorded change")
+    public static class Entry {
+
+        @Schema(description = "Audit log entry ID", example = "8841")
+        private Long id;
+
+        @Schema(description = "Type of entity that was changed", example = "SALES_ORDER")
+        private String entityType;
+
+        @Schema(description = "ID of the entity that was changed", example = "1042")
+        private Long entityId;
+
+        @Schema(description = "Action performed on the entity", example = "UPDATE")
+        private AuditAction action;
+
+        @Schema(description = "Changed properties before the change; null for CREATE", example = "{\"status\": \"PENDING\"}")
+        private Map<String, Object> oldValues;
+
+        @Schema(description = "Changed properties after the change; null for DELETE", example = "{\"status\": \"CONFIRMED\"}")
+        private Map<String, Object> newValues;
+
+        @Schema(description = "ID of the user who made the change; null for system changes", example = "3")
+        private Long userId;
+
+        @Schema(description = "Username of the user who made the change", example = "sales_rep")
+        private String username;
+
+        @Schema(description = "IP address the change was made from", example = "192.168.1.100")
+        private String ipAddress;
+
+        @Schema(description = "User agent of the client that made the change")
+        private String userAgent;
+
+        @Schema(description = "When the change was committed", example = "2026-10-17T09:15:00")
+        private LocalDateTime timestamp;
+    }
+}
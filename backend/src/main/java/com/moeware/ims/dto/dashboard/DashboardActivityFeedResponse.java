@@ -14,19 +14,23 @@ import lombok.NoArgsConstructor;
 
 /**
  * Dashboard activity-feed response.
- * Returns the most recent system events across all entity types.
+ * Returns one keyset-paginated page of system events across all entity types.
  */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Schema(description = "Reverse-chronological feed of recent system events merged from " +
-        "sales orders, purchase order changes, and shipment deliveries")
+@Schema(description = "Reverse-chronological page of system events from " +
+        "sales order changes, purchase order changes, and shipment deliveries")
 public class DashboardActivityFeedResponse {
 
     @Schema(description = "Activity entries sorted newest-first, capped at the requested limit (max 100)")
     private List<ActivityDTO> activities;
 
+    @Schema(description = "Opaque cursor for the next (older) page; null when this is the last page",
+            example = "MjAyNi0wMi0wOVQxNDozMDowMHwxMjM0")
+    private String nextCursor;
+
     // ─── Nested DTOs ─────────────────────────────────────────────────────────
 
     @Data
@@ -3,6 +3,8 @@ package com.moeware.ims.dto.inventory;
 import java.math.BigDecimal;
 import java.util.List;
 
+import com.moeware.ims.enums.transaction.CostingMethod;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,6 +33,9 @@ public class InventoryValuationResponse {
     @Schema(description = "Potential profit (retail - cost)", example = "4375000.00")
     private BigDecimal potentialProfit;
 
+    @Schema(description = "Costing method the cost value was computed with", example = "FIFO")
+    private CostingMethod costingMethod;
+
     @Schema(description = "Valuation breakdown by warehouse")
     private List<WarehouseValuation> byWarehouse;
 
@@ -27,6 +27,12 @@ public class InventoryItemDTO {
     @Schema(description = "Current stock quantity", example = "45")
     private Integer quantity;
 
+    @Schema(description = "Units reserved for confirmed sales orders", example = "5")
+    private Integer reservedQuantity;
+
+    @Schema(description = "Units not reserved: quantity - reservedQuantity", example = "40")
+    private Integer availableQuantity;
+
     @Schema(description = "Physical location code within warehouse", example = "A-12-3")
     private String locationCode;
 
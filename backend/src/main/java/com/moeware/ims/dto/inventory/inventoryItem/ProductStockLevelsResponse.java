@@ -0,0 +1,59 @@
+package com.moeware.ims.dto.inventory.inventoryItem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Stock levels of a product per warehouse")
+public class ProductStockLevelsResponse {
+
+    @Schema(description = "Product ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "Units on hand across all warehouses", example = "120")
+    private Integer totalOnHand;
+
+    @Schema(description = "Units reserved across all warehouses", example = "15")
+    private Integer totalReserved;
+
+    @Schema(description = "Units available across all warehouses: totalOnHand - totalReserved", example = "105")
+    private Integer totalAvailable;
+
+    @Schema(description = "Where the levels were read from", example = "INDEX", allowableValues = { "INDEX",
+            "DATABASE" })
+    private String source;
+
+    @Schema(description = "Last reconcile of the in-memory index with the database; null when read from the database")
+    private LocalDateTime reconciledAt;
+
+    @Schema(description = "Levels per warehouse, by warehouse ID")
+    private List<WarehouseLevel> warehouses;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @Schema(description = "Stock levels of the product in one warehouse")
+    public static class WarehouseLevel {
+        @Schema(description = "Warehouse ID", example = "1")
+        private Long warehouseId;
+
+        @Schema(description = "Units on hand", example = "45")
+        private Integer onHand;
+
+        @Schema(description = "Units reserved for confirmed sales orders", example = "5")
+        private Integer reserved;
+
+        @Schema(description = "Units not reserved: onHand - reserved", example = "40")
+        private Integer available;
+    }
+}
@@ -0,0 +1,68 @@
+package com.moeware.ims.dto.transaction.inventoryMovement;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Request to transfer many products between warehouses in one transaction")
+public class BulkTransferInventoryRequest {
+
+    @Schema(description = "Transfer lines, applied in order", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "Lines list cannot be empty")
+    @Size(max = 1000, message = "A bulk transfer may not exceed 1000 lines")
+    @Valid
+    private List<TransferLine> lines;
+
+    @Schema(description = "Reason applied to lines that do not give their own", example = "Quarterly rebalancing")
+    @Size(max = 500, message = "Reason must not exceed 500 characters")
+    private String reason;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @Schema(description = "One product moved between two warehouses")
+    public static class TransferLine {
+        @Schema(description = "Product ID to transfer", example = "10", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+
+        @Schema(description = "Source warehouse ID", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "Source warehouse ID is required")
+        private Long fromWarehouseId;
+
+        @Schema(description = "Destination warehouse ID", example = "2", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "Destination warehouse ID is required")
+        private Long toWarehouseId;
+
+        @Schema(description = "Quantity to transfer", example = "10", requiredMode = Schema.RequiredMode.REQUIRED, minimum = "1")
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private Integer quantity;
+
+        @Schema(description = "Reason for this line", example = "Rebalancing stock levels")
+        @Size(max = 500, message = "Reason must not exceed 500 characters")
+        private String reason;
+
+        @AssertTrue(message = "Source and destination warehouses must be different")
+        public boolean isWarehouseDifferent() {
+            if (fromWarehouseId == null || toWarehouseId == null)
+                return true;
+            return !fromWarehouseId.equals(toWarehouseId);
+        }
+    }
+}
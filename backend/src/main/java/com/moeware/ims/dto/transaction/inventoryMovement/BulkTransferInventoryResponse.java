@@ -0,0 +1,69 @@
+package com.moeware.ims.dto.transaction.inventoryMovement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.moeware.ims.enums.transaction.BulkTransferLineStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Response for a bulk inventory transfer")
+public class BulkTransferInventoryResponse {
+
+    @Schema(description = "Number of lines in the request", example = "250")
+    private Integer totalLines;
+
+    @Schema(description = "Number of lines applied", example = "248")
+    private Integer appliedLines;
+
+    @Schema(description = "Number of lines rejected", example = "2")
+    private Integer rejectedLines;
+
+    @Schema(description = "Movement timestamp shared by every applied line", example = "2026-02-09T10:45:00")
+    private LocalDateTime movementDate;
+
+    @Schema(description = "Per-line outcome, in request order")
+    private List<LineResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @Schema(description = "Outcome of one transfer line")
+    public static class LineResult {
+        @Schema(description = "Zero-based position of the line in the request", example = "0")
+        private Integer index;
+
+        @Schema(description = "Product ID", example = "10")
+        private Long productId;
+
+        @Schema(description = "Source warehouse ID", example = "1")
+        private Long fromWarehouseId;
+
+        @Schema(description = "Destination warehouse ID", example = "2")
+        private Long toWarehouseId;
+
+        @Schema(description = "Quantity requested", example = "10")
+        private Integer quantity;
+
+        @Schema(description = "Line outcome", example = "APPLIED")
+        private BulkTransferLineStatus status;
+
+        @Schema(description = "Source quantity after this line (current quantity when rejected)", example = "35")
+        private Integer fromQuantity;
+
+        @Schema(description = "Destination quantity after this line", example = "60")
+        private Integer toQuantity;
+
+        @Schema(description = "Why the line was rejected", example = "Insufficient available stock in source warehouse")
+        private String message;
+    }
+}
@@ -0,0 +1,66 @@
+package com.moeware.ims.dto.transaction.salesOrder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.moeware.ims.enums.transaction.AllocationDecision;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for the warehouse allocation of a confirmed sales order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Warehouses chosen to supply a sales order at confirmation")
+public class SalesOrderAllocationResponse {
+
+    @Schema(description = "Sales order ID", example = "1")
+    private Long salesOrderId;
+
+    @Schema(description = "Sales order number", example = "SO-20240115-0001")
+    private String soNumber;
+
+    @Schema(description = "How the warehouses were chosen; null when no allocation was recorded", example = "SPLIT")
+    private AllocationDecision decision;
+
+    @Schema(description = "When the allocation was made", example = "2024-01-15T10:30:00")
+    private LocalDateTime allocatedAt;
+
+    @Schema(description = "Number of warehouses supplying the order", example = "2")
+    private Integer warehouseCount;
+
+    @Schema(description = "Allocated quantity per product and warehouse")
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @Schema(description = "Units of one product allocated to one warehouse")
+    public static class Line {
+        @Schema(description = "Product ID", example = "10")
+        private Long productId;
+
+        @Schema(description = "Product SKU", example = "LAP-001")
+        private String productSku;
+
+        @Schema(description = "Warehouse ID", example = "2")
+        private Long warehouseId;
+
+        @Schema(description = "Warehouse name", example = "East Coast Warehouse")
+        private String warehouseName;
+
+        @Schema(description = "Units allocated", example = "5")
+        private Integer quantity;
+
+        @Schema(description = "Proximity to the ship-to address: 0 = order warehouse, 1 = same postal code, 2 = same city, 3 = elsewhere", example = "2")
+        private Integer proximity;
+    }
+}
@@ -0,0 +1,59 @@
+package com.moeware.ims.dto.transaction.salesOrder;
+
+import java.time.LocalDateTime;
+
+import com.moeware.ims.enums.transaction.SalesOrderImportFormat;
+import com.moeware.ims.enums.transaction.SalesOrderImportStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for a bulk sales-order import job
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Status and progress of a bulk sales-order import")
+public class SalesOrderImportResponse {
+
+    @Schema(description = "Import ID", example = "12")
+    private Long id;
+
+    @Schema(description = "Import status", example = "RUNNING")
+    private SalesOrderImportStatus status;
+
+    @Schema(description = "Format of the uploaded body", example = "CSV")
+    private SalesOrderImportFormat format;
+
+    @Schema(description = "ID of the user who uploaded the import", example = "3")
+    private Long createdByUserId;
+
+    @Schema(description = "Input rows processed so far", example = "42000")
+    private Integer totalRows;
+
+    @Schema(description = "Rows imported as order lines", example = "41950")
+    private Integer acceptedRows;
+
+    @Schema(description = "Rows not imported; see the row results for the reason", example = "50")
+    private Integer rejectedRows;
+
+    @Schema(description = "Sales orders created", example = "8390")
+    private Integer ordersCreated;
+
+    @Schema(description = "Why the import stopped; set only when status is FAILED")
+    private String errorMessage;
+
+    @Schema(description = "When the import was uploaded", example = "2026-02-20T09:00:00")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "When the import started running", example = "2026-02-20T09:00:01")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "When the import finished", example = "2026-02-20T09:00:09")
+    private LocalDateTime finishedAt;
+}
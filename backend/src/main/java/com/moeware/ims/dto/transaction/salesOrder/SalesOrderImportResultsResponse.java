@@ -0,0 +1,57 @@
+package com.moeware.ims.dto.transaction.salesOrder;
+
+import java.util.List;
+
+import com.moeware.ims.enums.transaction.SalesOrderImportRowStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for a page of bulk sales-order import row results
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Outcome of the input rows of a bulk sales-order import, in input order")
+public class SalesOrderImportResultsResponse {
+
+    @Schema(description = "Import ID", example = "12")
+    private Long importId;
+
+    @Schema(description = "Row results sorted by row number")
+    private List<Row> rows;
+
+    @Schema(description = "Pass as afterRow to fetch the next page; null when this is the last page", example = "1000")
+    private Integer nextAfterRow;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @Schema(description = "Outcome of one input row")
+    public static class Row {
+
+        @Schema(description = "Position of the row in the input, starting at 1 (CSV header excluded)", example = "7")
+        private Integer rowNumber;
+
+        @Schema(description = "Whether the row was imported", example = "ACCEPTED")
+        private SalesOrderImportRowStatus status;
+
+        @Schema(description = "Order reference given in the row", example = "EDI-88412")
+        private String orderRef;
+
+        @Schema(description = "ID of the created sales order; set for accepted rows", example = "1042")
+        private Long salesOrderId;
+
+        @Schema(description = "Number of the created sales order; set for accepted rows", example = "SO-20260220-0117")
+        private String soNumber;
+
+        @Schema(description = "Why the row was not imported; set for rejected rows", example = "Product not found with SKU: LAP-9999")
+        private String message;
+    }
+}
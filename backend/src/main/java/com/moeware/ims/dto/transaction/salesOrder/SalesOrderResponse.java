@@ -83,6 +83,9 @@ public class SalesOrderResponse {
     @Schema(description = "Total order amount (subtotal + tax + shipping)", example = "2822.97")
     private BigDecimal totalAmount;
 
+    @Schema(description = "Cost of goods sold from the consumed cost layers; null until the order is fulfilled", example = "820.50")
+    private BigDecimal costOfGoodsSold;
+
     @Schema(description = "Order notes or special delivery instructions", example = "Please ring doorbell")
     private String notes;
 
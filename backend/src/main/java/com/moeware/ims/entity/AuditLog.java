@@ -35,11 +35,14 @@ import lombok.Setter;
 /**
  * AuditLog entity
  * Represents an audit log entry
+ * <p>
+ * Entity changes are written by {@link com.moeware.ims.audit.AuditLogWriter}
+ * in batched inserts, not through this mapping.
  */
 @Entity
 @Table(name = "audit_logs", indexes = {
-                @Index(name = "idx_audit_entity", columnList = "entity_type, entity_id"),
-                @Index(name = "idx_audit_performed_by", columnList = "performed_by"),
+                @Index(name = "idx_audit_entity_keyset", columnList = "entity_type, entity_id, created_at DESC, id DESC"),
+                @Index(name = "idx_audit_performed_by_keyset", columnList = "performed_by, created_at DESC, id DESC"),
                 @Index(name = "idx_audit_action", columnList = "action"),
                 @Index(name = "idx_audit_created_at", columnList = "created_at")
 })
@@ -87,10 +90,9 @@ public class AuditLog extends AppendOnlyEntity {
         @Schema(description = "New values after the change (JSON format)", example = "{\"unitPrice\": 199.00, \"quantity\": 100}")
         private Map<String, Object> newValues;
 
-        @NotNull(message = "Performer is required")
         @ManyToOne(fetch = FetchType.LAZY)
-        @JoinColumn(name = "performed_by", nullable = false)
-        @Schema(description = "User who performed the action", requiredMode = Schema.RequiredMode.REQUIRED)
+        @JoinColumn(name = "performed_by")
+        @Schema(description = "User who performed the action; null for system changes")
         private User performedBy;
 
         @Size(max = 45)
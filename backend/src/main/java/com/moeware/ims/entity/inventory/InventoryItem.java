@@ -66,6 +66,11 @@ public class InventoryItem extends VersionedEntity {
     @Builder.Default
     private Integer quantity = 0;
 
+    @Schema(description = "Units held by ACTIVE stock reservations (maintained by StockReservationService)", example = "5", accessMode = Schema.AccessMode.READ_ONLY)
+    @Column(name = "reserved_quantity", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private Integer reservedQuantity = 0;
+
     @Schema(description = "Physical location code within warehouse", example = "A-12-3", maxLength = 50)
     @Size(max = 50, message = "Location code must not exceed 50 characters")
     @Column(length = 50)
@@ -94,6 +99,14 @@ public class InventoryItem extends VersionedEntity {
         this.quantity -= amount;
     }
 
+    /**
+     * Stock that may still be promised to new orders or moved:
+     * {@code quantity - reservedQuantity}.
+     */
+    public int getAvailableQuantity() {
+        return quantity - (reservedQuantity != null ? reservedQuantity : 0);
+    }
+
     public boolean isLowStock() {
         return product != null && product.isLowStock(this.quantity);
     }
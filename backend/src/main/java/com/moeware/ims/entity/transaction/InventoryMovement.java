@@ -35,13 +35,16 @@ import lombok.Setter;
  * Inventory Movement entity
  * Tracks all inventory movements including transfers, receipts, shipments, and
  * adjustments
+ * <p>
+ * The table is range-partitioned by month on {@code movement_date} (see
+ * {@code InventoryMovementPartitionService}); filter on the date whenever
+ * possible so only the matching months are scanned.
  */
 @Entity
 @Table(name = "inventory_movements", indexes = {
-        @Index(name = "idx_im_product", columnList = "product_id"),
-        @Index(name = "idx_im_from_warehouse", columnList = "from_warehouse_id"),
-        @Index(name = "idx_im_to_warehouse", columnList = "to_warehouse_id"),
-        @Index(name = "idx_im_movement_date", columnList = "movement_date"),
+        @Index(name = "idx_im_product_date", columnList = "product_id, movement_date DESC"),
+        @Index(name = "idx_im_from_warehouse_date", columnList = "from_warehouse_id, movement_date DESC"),
+        @Index(name = "idx_im_to_warehouse_date", columnList = "to_warehouse_id, movement_date DESC"),
         @Index(name = "idx_im_movement_type", columnList = "movement_type")
 })
 @Getter
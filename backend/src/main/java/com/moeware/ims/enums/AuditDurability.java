@@ -0,0 +1,16 @@
+package com.moeware.ims.enums;
+
+/**
+ * When a change is considered audited.
+ */
+public enum AuditDurability {
+    /** Once buffered; entries still buffered are lost if the process dies. */
+    ASYNC,
+
+    /**
+     * Once written: the committing thread waits for the batch holding its
+     * entries, up to {@code app.audit.sync-timeout-ms}. Concurrent commits share
+     * a batch, so the wait is one multi-row insert.
+     */
+    SYNC
+}
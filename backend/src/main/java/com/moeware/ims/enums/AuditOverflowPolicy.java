@@ -0,0 +1,15 @@
+package com.moeware.ims.enums;
+
+/**
+ * What {@code AuditLogWriter} does with an entry when its buffer is full.
+ */
+public enum AuditOverflowPolicy {
+    /** Discard the entry and count it in {@code audit.entries.dropped}. */
+    DROP,
+
+    /** Wait for space up to {@code app.audit.block-timeout-ms}, then drop. */
+    BLOCK,
+
+    /** Write the entry on the calling thread. */
+    CALLER_RUNS
+}
@@ -0,0 +1,15 @@
+package com.moeware.ims.enums;
+
+/**
+ * Delivery state of a row in {@code outbox_events}.
+ */
+public enum OutboxEventStatus {
+    /** Waiting for (another) delivery attempt. */
+    PENDING,
+
+    /** Delivered to every handler. */
+    DISPATCHED,
+
+    /** Out of attempts; kept for inspection. */
+    DEAD
+}
@@ -0,0 +1,19 @@
+package com.moeware.ims.enums.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Allocation Decision enumeration
+ * How the warehouses supplying a confirmed sales order were chosen
+ */
+@Schema(description = "Outcome of the available-to-promise allocation of a sales order")
+public enum AllocationDecision {
+    @Schema(description = "The order's own warehouse covers every line")
+    HOME,
+
+    @Schema(description = "Another single warehouse covers every line")
+    SINGLE,
+
+    @Schema(description = "The order is split across several warehouses")
+    SPLIT
+}
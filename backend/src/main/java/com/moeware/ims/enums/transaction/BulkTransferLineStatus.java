@@ -0,0 +1,16 @@
+package com.moeware.ims.enums.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Bulk Transfer Line Status enumeration
+ * Outcome of one line of a bulk inventory transfer
+ */
+@Schema(description = "Outcome of one bulk transfer line")
+public enum BulkTransferLineStatus {
+    @Schema(description = "Stock was moved and a TRANSFER movement recorded")
+    APPLIED,
+
+    @Schema(description = "Line was skipped; the source warehouse does not stock the product or has too little available")
+    REJECTED
+}
@@ -0,0 +1,16 @@
+package com.moeware.ims.enums.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Costing Method enumeration
+ * How outbound stock is priced from the cost layers
+ */
+@Schema(description = "Inventory costing method")
+public enum CostingMethod {
+    @Schema(description = "First in, first out: the oldest receipt layers are consumed first")
+    FIFO,
+
+    @Schema(description = "Moving weighted average: one layer per product and warehouse, re-averaged on each receipt")
+    WEIGHTED_AVERAGE
+}
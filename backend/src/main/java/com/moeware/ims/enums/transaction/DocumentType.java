@@ -0,0 +1,35 @@
+package com.moeware.ims.enums.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Document Type enumeration
+ * Numbered business documents and the prefix of their numbers
+ */
+@Schema(description = "Type of numbered business document")
+public enum DocumentType {
+    @Schema(description = "Sales order: SO-YYYYMMDD-XXXX")
+    SALES_ORDER("SO"),
+
+    @Schema(description = "Purchase order: PO-YYYYMMDD-XXXX")
+    PURCHASE_ORDER("PO"),
+
+    @Schema(description = "Invoice: INV-YYYYMMDD-XXXX")
+    INVOICE("INV"),
+
+    @Schema(description = "Payment: PAY-YYYYMMDD-XXXX")
+    PAYMENT("PAY"),
+
+    @Schema(description = "Shipment: SHIP-YYYYMMDD-XXXX")
+    SHIPMENT("SHIP");
+
+    private final String prefix;
+
+    DocumentType(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+}
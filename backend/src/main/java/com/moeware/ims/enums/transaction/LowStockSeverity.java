@@ -0,0 +1,27 @@
+package com.moeware.ims.enums.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Low Stock Severity enumeration
+ * How far an inventory row has fallen below its product's thresholds
+ */
+@Schema(description = "Severity of a low stock condition")
+public enum LowStockSeverity {
+    @Schema(description = "Quantity is at or below the reorder level")
+    WARNING,
+
+    @Schema(description = "Quantity is at or below the minimum stock level")
+    CRITICAL;
+
+    /**
+     * Severity for a quantity against the given thresholds, or {@code null}
+     * when the quantity is above the reorder level.
+     */
+    public static LowStockSeverity of(int quantity, int reorderLevel, int minStockLevel) {
+        if (quantity <= minStockLevel) {
+            return CRITICAL;
+        }
+        return quantity <= reorderLevel ? WARNING : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.moeware.ims.enums.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Sales Order Import Format enumeration
+ * Body formats accepted by the bulk sales-order import
+ */
+@Schema(description = "Format of a bulk sales-order import body")
+public enum SalesOrderImportFormat {
+    @Schema(description = "Comma-separated values with a header row (text/csv)")
+    CSV,
+
+    @Schema(description = "One JSON object per line (application/x-ndjson)")
+    NDJSON
+}
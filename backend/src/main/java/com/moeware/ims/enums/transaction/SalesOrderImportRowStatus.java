@@ -0,0 +1,16 @@
+package com.moeware.ims.enums.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Sales Order Import Row Status enumeration
+ * Outcome of one input row of a bulk sales-order import
+ */
+@Schema(description = "Outcome of one row of a bulk sales-order import")
+public enum SalesOrderImportRowStatus {
+    @Schema(description = "The row was imported as a line of a new sales order")
+    ACCEPTED,
+
+    @Schema(description = "The row, or another row of the same order, was invalid; nothing was imported for the order")
+    REJECTED
+}
@@ -0,0 +1,22 @@
+package com.moeware.ims.enums.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Sales Order Import Status enumeration
+ * Lifecycle of a bulk sales-order import job
+ */
+@Schema(description = "Status of a bulk sales-order import")
+public enum SalesOrderImportStatus {
+    @Schema(description = "Uploaded, waiting for an import thread")
+    QUEUED,
+
+    @Schema(description = "Rows are being imported")
+    RUNNING,
+
+    @Schema(description = "Every row was processed; see the per-row results")
+    COMPLETED,
+
+    @Schema(description = "Stopped by an error before the end of the input")
+    FAILED
+}
@@ -0,0 +1,22 @@
+package com.moeware.ims.enums.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Stock Reservation Status enumeration
+ * Tracks the lifecycle of stock held for a confirmed sales order
+ */
+@Schema(description = "Lifecycle status of a stock reservation")
+public enum StockReservationStatus {
+    @Schema(description = "Stock is held for the order")
+    ACTIVE,
+
+    @Schema(description = "Order was fulfilled; the reserved stock was deducted")
+    CONSUMED,
+
+    @Schema(description = "Order was cancelled; the stock returned to the available pool")
+    RELEASED,
+
+    @Schema(description = "Reservation outlived its TTL; the stock returned to the available pool")
+    EXPIRED
+}
@@ -0,0 +1,22 @@
+package com.moeware.ims.event;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Published by the write services after a state change that affects
+ * aggregated views (dashboard KPIs, analytics, alerts).
+ * <p>
+ * Listeners should use {@code @TransactionalEventListener} so they only react
+ * once the change has committed; events published outside a transaction are
+ * delivered immediately via {@code fallbackExecution}.
+ *
+ * @param types  business areas touched by the change (never empty)
+ * @param source short description of the operation, for logging
+ */
+public record DomainChangeEvent(Set<DomainChangeType> types, String source) {
+
+    public static DomainChangeEvent of(String source, DomainChangeType first, DomainChangeType... rest) {
+        return new DomainChangeEvent(EnumSet.of(first, rest), source);
+    }
+}
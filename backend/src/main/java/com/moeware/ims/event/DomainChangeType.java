@@ -0,0 +1,13 @@
+package com.moeware.ims.event;
+
+/**
+ * Coarse-grained business areas whose writes change dashboard aggregates.
+ * Listeners decide what to refresh from these, not from individual entities.
+ */
+public enum DomainChangeType {
+    SALES_ORDER,
+    PURCHASE_ORDER,
+    INVENTORY,
+    STOCK_ADJUSTMENT,
+    INVOICE
+}
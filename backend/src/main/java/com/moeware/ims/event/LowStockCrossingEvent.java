@@ -0,0 +1,26 @@
+package com.moeware.ims.event;
+
+import java.util.List;
+
+/**
+ * Published by {@code LowStockMonitor} when a stock write or a threshold
+ * change moves inventory rows across a product's reorder or minimum stock
+ * level, in either direction.
+ * <p>
+ * Handled after commit by {@code LowStockAlertService}, which re-reads the
+ * committed quantities, so listeners must not rely on the quantities below
+ * being current.
+ *
+ * @param crossings one entry per inventory row whose low-stock severity changed
+ */
+public record LowStockCrossingEvent(List<Crossing> crossings) {
+
+    /**
+     * One inventory row whose severity changed.
+     *
+     * @param previousQuantity quantity before the write
+     * @param quantity         quantity after the write
+     */
+    public record Crossing(Long warehouseId, Long productId, int previousQuantity, int quantity) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.moeware.ims.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * A domain event read back from {@code outbox_events} for delivery to the
+ * {@link OutboxEventHandler}s.
+ *
+ * @param aggregateType kind of entity the event is about, e.g. {@code SalesOrder}
+ * @param eventType     what happened, e.g. {@code sales-order.confirmed}
+ * @param payload       JSON object written by the publisher
+ * @param attempts      failed delivery attempts so far
+ */
+public record OutboxEvent(
+        Long id,
+        String aggregateType,
+        Long aggregateId,
+        String eventType,
+        String payload,
+        int attempts,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,21 @@
+package com.moeware.ims.event;
+
+/**
+ * Receives outbox events after the transaction that published them committed.
+ * <p>
+ * Every bean implementing this interface is registered with
+ * {@code OutboxDispatcher}. Delivery is at least once: an event is retried
+ * when any of its handlers throws, and may be redelivered after a crash, so
+ * handlers must be idempotent (the event id is a natural deduplication key).
+ * Each call runs in its own transaction. Events of one aggregate are delivered
+ * in the order they were published.
+ */
+public interface OutboxEventHandler {
+
+    /**
+     * Whether this handler wants events of the given type.
+     */
+    boolean supports(String eventType);
+
+    void handle(OutboxEvent event);
+}
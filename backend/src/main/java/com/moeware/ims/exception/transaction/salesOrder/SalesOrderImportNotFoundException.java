@@ -0,0 +1,34 @@
+package com.moeware.ims.exception.transaction.salesOrder;
+
+import org.springframework.http.HttpStatus;
+
+import com.moeware.ims.exception.BaseAppException;
+
+/**
+ * Thrown when a bulk sales-order import cannot be found by ID.
+ *
+ * @author MoeWare Team
+ */
+public class SalesOrderImportNotFoundException extends BaseAppException {
+
+    private final Long importId;
+
+    public SalesOrderImportNotFoundException(Long id) {
+        super("Sales order import not found with id: " + id);
+        this.importId = id;
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+
+    @Override
+    public String getErrorTitle() {
+        return "Sales Order Import Not Found";
+    }
+
+    public Long getImportId() {
+        return importId;
+    }
+}
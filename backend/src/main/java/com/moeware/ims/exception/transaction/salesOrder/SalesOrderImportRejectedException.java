@@ -0,0 +1,28 @@
+package com.moeware.ims.exception.transaction.salesOrder;
+
+import org.springframework.http.HttpStatus;
+
+import com.moeware.ims.exception.BaseAppException;
+
+/**
+ * Thrown when a bulk sales-order import cannot be queued because
+ * {@code app.sales-orders.import.queue-capacity} imports are already waiting.
+ *
+ * @author MoeWare Team
+ */
+public class SalesOrderImportRejectedException extends BaseAppException {
+
+    public SalesOrderImportRejectedException() {
+        super("Too many sales order imports are queued; retry later");
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    @Override
+    public String getErrorTitle() {
+        return "Sales Order Import Rejected";
+    }
+}
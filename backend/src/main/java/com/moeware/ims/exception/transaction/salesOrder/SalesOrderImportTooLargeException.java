@@ -0,0 +1,28 @@
+package com.moeware.ims.exception.transaction.salesOrder;
+
+import org.springframework.http.HttpStatus;
+
+import com.moeware.ims.exception.BaseAppException;
+
+/**
+ * Thrown when a bulk sales-order import body exceeds
+ * {@code app.sales-orders.import.max-bytes}.
+ *
+ * @author MoeWare Team
+ */
+public class SalesOrderImportTooLargeException extends BaseAppException {
+
+    public SalesOrderImportTooLargeException(long maxBytes) {
+        super("Sales order import exceeds the maximum size of " + maxBytes + " bytes");
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.PAYLOAD_TOO_LARGE;
+    }
+
+    @Override
+    public String getErrorTitle() {
+        return "Sales Order Import Too Large";
+    }
+}
@@ -0,0 +1,61 @@
+package com.moeware.ims.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.moeware.ims.audit.AuditEntry;
+import com.moeware.ims.enums.AuditAction;
+
+/**
+ * Append / keyset-read contract for {@code audit_logs}.
+ * <p>
+ * A plain interface backed by native SQL in {@link AuditLogRepositoryImpl}:
+ * rows are appended in multi-row inserts and range-scanned, never loaded as
+ * {@link com.moeware.ims.entity.AuditLog} entities.
+ */
+public interface AuditLogRepository {
+
+    /**
+     * One stored audit log row, with the value columns as JSON text.
+     */
+    record AuditLogRow(
+            Long id,
+            String entityType,
+            Long entityId,
+            AuditAction action,
+            String oldValues,
+            String newValues,
+            Long performedBy,
+            String username,
+            String ipAddress,
+            String userAgent,
+            LocalDateTime createdAt) {
+    }
+
+    /**
+     * Position after which the next page starts: the {@code (createdAt, id)}
+     * of the last row of the previous page.
+     */
+    record AuditLogCursor(LocalDateTime createdAt, long id) {
+    }
+
+    /**
+     * Inserts the entries in as few statements as possible, inside the
+     * caller's transaction.
+     */
+    void insertAll(List<AuditEntry> entries);
+
+    /**
+     * Returns up to {@code limit} rows newest-first, strictly older than
+     * {@code after} (or from the newest row when {@code after} is null).
+     * Every filter is optional; {@code entityId} is only applied together with
+     * {@code entityType}.
+     */
+    List<AuditLogRow> findPage(
+            AuditLogCursor after,
+            String entityType,
+            Long entityId,
+            Long userId,
+            AuditAction action,
+            int limit);
+}
@@ -0,0 +1,161 @@
+package com.moeware.ims.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.moeware.ims.audit.AuditEntry;
+import com.moeware.ims.enums.AuditAction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Implementation of {@link AuditLogRepository}.
+ * <p>
+ * Entries are written with one multi-row {@code INSERT ... VALUES (...), (...)}
+ * per {@value #ROWS_PER_STATEMENT} rows: a single round trip and a single
+ * statement to parse, instead of one per entry. Pages use keyset pagination on
+ * {@code (created_at, id)} backed by the {@code idx_audit_*_keyset} indexes,
+ * with optional filters appended to the SQL only when present.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogRepositoryImpl implements AuditLogRepository {
+
+    /** Ten parameters per row: 10,000 per statement, well under the driver's limit. */
+    private static final int ROWS_PER_STATEMENT = 1000;
+    private static final int COLUMNS = 10;
+
+    private static final String INSERT_PREFIX = """
+            INSERT INTO audit_logs (entity_type, entity_id, action, old_values, new_values, performed_by,
+                                    ip_address, user_agent, created_at, created_by)
+            VALUES
+            """;
+    private static final String ROW_VALUES = "(?, ?, ?, CAST(? AS JSONB), CAST(? AS JSONB), ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public void insertAll(List<AuditEntry> entries) {
+        for (int from = 0; from < entries.size(); from += ROWS_PER_STATEMENT) {
+            List<AuditEntry> chunk = entries.subList(from, Math.min(entries.size(), from + ROWS_PER_STATEMENT));
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * (ROW_VALUES.length() + 2))
+                    .append(INSERT_PREFIX);
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "" : ",\n").append(ROW_VALUES);
+            }
+            jdbcTemplate.update(sql.toString(), ps -> {
+                int p = 1;
+                for (AuditEntry e : chunk) {
+                    bindRow(ps, p, e);
+                    p += COLUMNS;
+                }
+            });
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<AuditLogRow> findPage(
+            AuditLogCursor after, String entityType, Long entityId, Long userId, AuditAction action, int limit) {
+
+        StringBuilder sql = new StringBuilder("""
+                SELECT a.id, a.entity_type, a.entity_id, a.action, CAST(a.old_values AS TEXT),
+                       CAST(a.new_values AS TEXT), a.performed_by, a.created_by, a.ip_address, a.user_agent,
+                       a.created_at
+                FROM audit_logs a
+                WHERE 1 = 1
+                """);
+        if (after != null) {
+            sql.append(" AND (a.created_at, a.id) < (:afterAt, :afterId)");
+        }
+        if (entityType != null) {
+            sql.append(" AND a.entity_type = :entityType");
+            if (entityId != null) {
+                sql.append(" AND a.entity_id = :entityId");
+            }
+        }
+        if (userId != null) {
+            sql.append(" AND a.performed_by = :userId");
+        }
+        if (action != null) {
+            sql.append(" AND a.action = :action");
+        }
+        sql.append(" ORDER BY a.created_at DESC, a.id DESC");
+
+        Query query = em.createNativeQuery(sql.toString());
+        if (after != null) {
+            query.setParameter("afterAt", after.createdAt());
+            query.setParameter("afterId", after.id());
+        }
+        if (entityType != null) {
+            query.setParameter("entityType", entityType);
+            if (entityId != null) {
+                query.setParameter("entityId", entityId);
+            }
+        }
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        if (action != null) {
+            query.setParameter("action", action.name());
+        }
+
+        return ((List<Object[]>) query.setMaxResults(limit).getResultList())
+                .stream()
+                .map(r -> new AuditLogRow(
+                        toLong(r[0]),
+                        (String) r[1],
+                        toLong(r[2]),
+                        AuditAction.valueOf((String) r[3]),
+                        (String) r[4],
+                        (String) r[5],
+                        toLong(r[6]),
+                        (String) r[7],
+                        (String) r[8],
+                        (String) r[9],
+                        toLocalDateTime(r[10])))
+                .toList();
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private void bindRow(PreparedStatement ps, int p, AuditEntry e) throws SQLException {
+        ps.setString(p, e.entityType());
+        ps.setLong(p + 1, e.entityId());
+        ps.setString(p + 2, e.action().name());
+        ps.setString(p + 3, e.oldValues() == null ? null : jsonMapper.writeValueAsString(e.oldValues()));
+        ps.setString(p + 4, e.newValues() == null ? null : jsonMapper.writeValueAsString(e.newValues()));
+        if (e.userId() != null) {
+            ps.setLong(p + 5, e.userId());
+        } else {
+            ps.setNull(p + 5, Types.BIGINT);
+        }
+        ps.setString(p + 6, e.ipAddress());
+        ps.setString(p + 7, e.userAgent());
+        ps.setTimestamp(p + 8, Timestamp.valueOf(e.createdAt()));
+        ps.setString(p + 9, e.username());
+    }
+
+    private Long toLong(Object o) {
+        return o == null ? null : ((Number) o).longValue();
+    }
+
+    private LocalDateTime toLocalDateTime(Object o) {
+        return o instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) o;
+    }
+}
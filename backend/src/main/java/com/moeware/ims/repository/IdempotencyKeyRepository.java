@@ -0,0 +1,61 @@
+package com.moeware.ims.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Database fallback of the Idempotency-Key store.
+ * <p>
+ * A plain interface backed by native SQL in {@link IdempotencyKeyRepositoryImpl}:
+ * {@code idempotency_keys} has no entity, its rows are claimed, completed and
+ * expired with single conditional statements.
+ */
+public interface IdempotencyKeyRepository {
+
+    /**
+     * A claimed or completed key. The response fields are only set once
+     * {@code completed}.
+     */
+    record IdempotencyRecord(
+            String token,
+            String fingerprint,
+            boolean completed,
+            int responseStatus,
+            String contentType,
+            String responseBody) {
+    }
+
+    /**
+     * The unexpired record of a key.
+     */
+    Optional<IdempotencyRecord> find(String scopeKey, LocalDateTime now);
+
+    /**
+     * Claims a key that has no record, or whose record has expired.
+     *
+     * @return true when the claim was taken
+     */
+    boolean claim(String scopeKey, IdempotencyRecord claim, LocalDateTime expiresAt, LocalDateTime now);
+
+    /**
+     * Stores the response of a claimed key, if the claim is still held.
+     */
+    void complete(String scopeKey, IdempotencyRecord completed, LocalDateTime expiresAt);
+
+    /**
+     * Drops a claim that did not complete, if it is still held.
+     */
+    void release(String scopeKey, String token);
+
+    /**
+     * Deletes up to {@code limit} expired records.
+     *
+     * @return number of records deleted
+     */
+    int deleteExpired(LocalDateTime now, int limit);
+
+    /**
+     * Latest expiry of any record, or null when the table is empty.
+     */
+    LocalDateTime findLatestExpiry();
+}
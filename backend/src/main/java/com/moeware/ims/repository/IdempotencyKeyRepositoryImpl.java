@@ -0,0 +1,129 @@
+package com.moeware.ims.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementation of {@link IdempotencyKeyRepository}.
+ * <p>
+ * A claim is one {@code INSERT ... ON CONFLICT DO UPDATE ... WHERE expired}:
+ * two nodes claiming the same key at once are serialised on the primary key,
+ * and exactly one of them sees a row written. Completion and release match on
+ * the claim token, so a request whose claim expired and was taken over cannot
+ * overwrite the new holder.
+ */
+@Repository
+public class IdempotencyKeyRepositoryImpl implements IdempotencyKeyRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<IdempotencyRecord> find(String scopeKey, LocalDateTime now) {
+        return ((List<Object[]>) em.createNativeQuery("""
+                SELECT claim_token, fingerprint, status, response_status, response_content_type, response_body
+                FROM idempotency_keys
+                WHERE scope_key = :scopeKey
+                  AND expires_at > :now
+                """)
+                .setParameter("scopeKey", scopeKey)
+                .setParameter("now", now)
+                .getResultList())
+                .stream()
+                .findFirst()
+                .map(r -> new IdempotencyRecord(
+                        (String) r[0],
+                        (String) r[1],
+                        "COMPLETED".equals(r[2]),
+                        r[3] != null ? ((Number) r[3]).intValue() : 0,
+                        (String) r[4],
+                        (String) r[5]));
+    }
+
+    @Override
+    public boolean claim(String scopeKey, IdempotencyRecord claim, LocalDateTime expiresAt, LocalDateTime now) {
+        return em.createNativeQuery("""
+                INSERT INTO idempotency_keys (scope_key, claim_token, fingerprint, status, expires_at)
+                VALUES (:scopeKey, :token, :fingerprint, 'IN_PROGRESS', :expiresAt)
+                ON CONFLICT (scope_key) DO UPDATE
+                SET claim_token = EXCLUDED.claim_token,
+                    fingerprint = EXCLUDED.fingerprint,
+                    status = 'IN_PROGRESS',
+                    response_status = NULL,
+                    response_content_type = NULL,
+                    response_body = NULL,
+                    created_at = CURRENT_TIMESTAMP,
+                    expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.expires_at <= :now
+                """)
+                .setParameter("scopeKey", scopeKey)
+                .setParameter("token", claim.token())
+                .setParameter("fingerprint", claim.fingerprint())
+                .setParameter("expiresAt", expiresAt)
+                .setParameter("now", now)
+                .executeUpdate() == 1;
+    }
+
+    @Override
+    public void complete(String scopeKey, IdempotencyRecord completed, LocalDateTime expiresAt) {
+        em.createNativeQuery("""
+                UPDATE idempotency_keys
+                SET status = 'COMPLETED',
+                    response_status = :responseStatus,
+                    response_content_type = CAST(:contentType AS VARCHAR),
+                    response_body = CAST(:responseBody AS TEXT),
+                    expires_at = :expiresAt
+                WHERE scope_key = :scopeKey
+                  AND claim_token = :token
+                """)
+                .setParameter("scopeKey", scopeKey)
+                .setParameter("token", completed.token())
+                .setParameter("responseStatus", completed.responseStatus())
+                .setParameter("contentType", completed.contentType())
+                .setParameter("responseBody", completed.responseBody())
+                .setParameter("expiresAt", expiresAt)
+                .executeUpdate();
+    }
+
+    @Override
+    public void release(String scopeKey, String token) {
+        em.createNativeQuery("""
+                DELETE FROM idempotency_keys
+                WHERE scope_key = :scopeKey
+                  AND claim_token = :token
+                  AND status = 'IN_PROGRESS'
+                """)
+                .setParameter("scopeKey", scopeKey)
+                .setParameter("token", token)
+                .executeUpdate();
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime now, int limit) {
+        return em.createNativeQuery("""
+                DELETE FROM idempotency_keys
+                WHERE scope_key IN (
+                    SELECT scope_key FROM idempotency_keys
+                    WHERE expires_at <= :now
+                    LIMIT :limit)
+                """)
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    @Override
+    public LocalDateTime findLatestExpiry() {
+        Object latest = em.createNativeQuery("SELECT MAX(expires_at) FROM idempotency_keys")
+                .getSingleResult();
+        return latest instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) latest;
+    }
+}
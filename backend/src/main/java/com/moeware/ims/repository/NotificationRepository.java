@@ -0,0 +1,50 @@
+package com.moeware.ims.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.moeware.ims.entity.Notification;
+
+/**
+ * Repository for Notification entity
+ *
+ * @author MoeWare Team
+ */
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    /**
+     * Create a LOW_STOCK notification for every user responsible for an
+     * inventory row: the warehouse manager and all active administrators.
+     * <p>
+     * Users who still have an unread LOW_STOCK notification of the same
+     * priority for the row are skipped, so stock bouncing around the reorder
+     * level does not flood their inbox.
+     *
+     * @param warehouseId     warehouse whose manager is notified
+     * @param inventoryItemId referenced inventory row
+     * @param priority        notification priority name
+     * @return number of notifications created
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notifications (user_id, notification_type, title, message, priority, " +
+            "reference_type, reference_id, created_at, created_by) " +
+            "SELECT u.id, 'LOW_STOCK', :title, :message, :priority, 'INVENTORY_ITEM', :inventoryItemId, " +
+            "CURRENT_TIMESTAMP, 'SYSTEM' " +
+            "FROM users u JOIN roles r ON r.id = u.role_id " +
+            "WHERE u.is_active = true " +
+            "AND (r.name = 'ADMIN' OR u.id = (SELECT w.manager_id FROM warehouses w WHERE w.id = :warehouseId)) " +
+            "AND NOT EXISTS (SELECT 1 FROM notifications n " +
+            "    WHERE n.user_id = u.id AND n.is_read = false AND n.notification_type = 'LOW_STOCK' " +
+            "    AND n.reference_type = 'INVENTORY_ITEM' AND n.reference_id = :inventoryItemId " +
+            "    AND n.priority = :priority)", nativeQuery = true)
+    int insertLowStockNotifications(
+            @Param("warehouseId") Long warehouseId,
+            @Param("inventoryItemId") Long inventoryItemId,
+            @Param("title") String title,
+            @Param("message") String message,
+            @Param("priority") String priority);
+}
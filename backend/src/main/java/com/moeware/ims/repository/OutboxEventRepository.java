@@ -0,0 +1,56 @@
+package com.moeware.ims.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.moeware.ims.enums.OutboxEventStatus;
+import com.moeware.ims.event.OutboxEvent;
+
+/**
+ * Transactional outbox table {@code outbox_events}.
+ * <p>
+ * A plain interface backed by native SQL in {@link OutboxEventRepositoryImpl}:
+ * rows are claimed with row locks that JPA cannot express, and are never
+ * loaded as entities.
+ */
+public interface OutboxEventRepository {
+
+    /**
+     * Inserts a PENDING event in the caller's transaction, after taking an
+     * advisory lock on the aggregate that is held until the transaction ends.
+     *
+     * @param payload JSON object
+     */
+    void append(String aggregateType, Long aggregateId, String eventType, String payload);
+
+    /**
+     * Inserts one PENDING event per aggregate in a single statement, locking
+     * the aggregates like {@link #append} in the order given.
+     *
+     * @param payloads JSON objects, parallel to {@code aggregateIds}
+     */
+    void appendAll(String aggregateType, String eventType, List<Long> aggregateIds, List<String> payloads);
+
+    /**
+     * Locks up to {@code limit} events that are due, skipping rows locked by
+     * other dispatchers and events queued behind an older pending event of the
+     * same aggregate. The locks are held until the caller's transaction ends.
+     */
+    List<OutboxEvent> claimBatch(LocalDateTime now, int limit);
+
+    void markDispatched(Collection<Long> ids, LocalDateTime dispatchedAt);
+
+    /**
+     * Records a failed delivery: back to PENDING until {@code nextAttemptAt},
+     * or DEAD.
+     */
+    void markFailed(Long id, OutboxEventStatus status, int attempts, LocalDateTime nextAttemptAt, String error);
+
+    /**
+     * Deletes up to {@code limit} events delivered before {@code cutoff}.
+     *
+     * @return number of rows deleted
+     */
+    int deleteDispatchedBefore(LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,172 @@
+package com.moeware.ims.repository;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.moeware.ims.enums.OutboxEventStatus;
+import com.moeware.ims.event.OutboxEvent;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementation of {@link OutboxEventRepository}.
+ * <p>
+ * {@code FOR UPDATE SKIP LOCKED} lets several nodes drain the table at once
+ * without waiting on or delivering each other's rows. Only the oldest pending
+ * event of an aggregate is eligible: a later one is not even considered until
+ * the earlier one is delivered or dead, so a node cannot overtake another
+ * node's (locked, still PENDING) event of the same aggregate.
+ * <p>
+ * That only keeps the aggregate's order if its events also commit in id
+ * order. Not every aggregate has a row its writers lock ({@code ProductStock}
+ * events come from writes to several warehouses' inventory rows, or from none),
+ * so each append first takes a transaction-scoped advisory lock on the
+ * aggregate: a second writer of the same aggregate waits for the first to
+ * commit before its event gets an id.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxEventRepositoryImpl implements OutboxEventRepository {
+
+    private static final String APPEND_ALL_SQL = """
+            INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload)
+            SELECT ?, e.aggregate_id, ?, CAST(e.payload AS JSONB)
+            FROM unnest(CAST(? AS BIGINT[]), CAST(? AS TEXT[])) WITH ORDINALITY AS e(aggregate_id, payload, n)
+            CROSS JOIN LATERAL (
+                SELECT pg_advisory_xact_lock(hashtextextended(CAST(? AS TEXT) || ':' || e.aggregate_id, 0))) l
+            ORDER BY e.n
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void append(String aggregateType, Long aggregateId, String eventType, String payload) {
+        em.createNativeQuery("""
+                INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload)
+                SELECT :aggregateType, :aggregateId, :eventType, CAST(:payload AS JSONB)
+                FROM (SELECT pg_advisory_xact_lock(
+                          hashtextextended(CAST(:aggregateType AS TEXT) || ':' || :aggregateId, 0))) l
+                """)
+                .setParameter("aggregateType", aggregateType)
+                .setParameter("aggregateId", aggregateId)
+                .setParameter("eventType", eventType)
+                .setParameter("payload", payload)
+                .executeUpdate();
+    }
+
+    @Override
+    public void appendAll(String aggregateType, String eventType, List<Long> aggregateIds, List<String> payloads) {
+        if (aggregateIds.isEmpty()) {
+            return;
+        }
+        em.flush();
+        jdbcTemplate.update(APPEND_ALL_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setString(1, aggregateType);
+            ps.setString(2, eventType);
+            ps.setArray(3, connection.createArrayOf("bigint", aggregateIds.toArray()));
+            ps.setArray(4, connection.createArrayOf("text", payloads.toArray()));
+            ps.setString(5, aggregateType);
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<OutboxEvent> claimBatch(LocalDateTime now, int limit) {
+        List<Object[]> rows = em.createNativeQuery("""
+                SELECT e.id, e.aggregate_type, e.aggregate_id, e.event_type, CAST(e.payload AS TEXT),
+                       e.attempts, e.created_at
+                FROM outbox_events e
+                WHERE e.status = 'PENDING'
+                  AND e.next_attempt_at <= :now
+                  AND NOT EXISTS (
+                      SELECT 1 FROM outbox_events p
+                      WHERE p.aggregate_type = e.aggregate_type
+                        AND p.aggregate_id = e.aggregate_id
+                        AND p.status = 'PENDING'
+                        AND p.id < e.id)
+                ORDER BY e.id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+                """)
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream()
+                .map(r -> new OutboxEvent(
+                        ((Number) r[0]).longValue(),
+                        (String) r[1],
+                        ((Number) r[2]).longValue(),
+                        (String) r[3],
+                        (String) r[4],
+                        ((Number) r[5]).intValue(),
+                        toLocalDateTime(r[6])))
+                .toList();
+    }
+
+    @Override
+    public void markDispatched(Collection<Long> ids, LocalDateTime dispatchedAt) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        em.createNativeQuery("""
+                UPDATE outbox_events
+                SET status = 'DISPATCHED',
+                    dispatched_at = :dispatchedAt,
+                    last_error = NULL
+                WHERE id IN (:ids)
+                """)
+                .setParameter("dispatchedAt", dispatchedAt)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    public void markFailed(Long id, OutboxEventStatus status, int attempts, LocalDateTime nextAttemptAt,
+            String error) {
+        em.createNativeQuery("""
+                UPDATE outbox_events
+                SET status = :status,
+                    attempts = :attempts,
+                    next_attempt_at = :nextAttemptAt,
+                    last_error = CAST(:error AS TEXT)
+                WHERE id = :id
+                """)
+                .setParameter("id", id)
+                .setParameter("status", status.name())
+                .setParameter("attempts", attempts)
+                .setParameter("nextAttemptAt", nextAttemptAt)
+                .setParameter("error", error)
+                .executeUpdate();
+    }
+
+    @Override
+    public int deleteDispatchedBefore(LocalDateTime cutoff, int limit) {
+        return em.createNativeQuery("""
+                DELETE FROM outbox_events
+                WHERE id IN (
+                    SELECT id FROM outbox_events
+                    WHERE status = 'DISPATCHED'
+                      AND dispatched_at < :cutoff
+                    LIMIT :limit)
+                """)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    private LocalDateTime toLocalDateTime(Object o) {
+        return o instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) o;
+    }
+}
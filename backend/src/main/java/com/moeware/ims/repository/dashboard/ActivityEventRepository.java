@@ -0,0 +1,68 @@
+package com.moeware.ims.repository.dashboard;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.moeware.ims.enums.dashboard.DashboardActivityType;
+
+/**
+ * Append / keyset-read contract for the {@code activity_events} stream.
+ * <p>
+ * Like {@link SalesRollupRepository} this is a plain interface backed by
+ * native SQL in {@link ActivityEventRepositoryImpl}: rows are only ever
+ * appended and range-scanned, never loaded or updated as entities.
+ */
+public interface ActivityEventRepository {
+
+        /**
+         * One activity stream row. {@code id} is ignored by {@link #append}.
+         */
+        record ActivityEventRow(
+                        Long id,
+                        LocalDateTime occurredAt,
+                        DashboardActivityType activityType,
+                        Long entityId,
+                        String entityNumber,
+                        String status,
+                        Long warehouseId,
+                        Long userId,
+                        String username,
+                        String counterpartyName,
+                        BigDecimal totalAmount) {
+        }
+
+        /**
+         * Position after which the next page starts: the {@code (occurredAt, id)}
+         * of the last row of the previous page.
+         */
+        record ActivityCursor(LocalDateTime occurredAt, long id) {
+        }
+
+        /**
+         * Appends one event inside the caller's transaction.
+         */
+        void append(ActivityEventRow event);
+
+        /**
+         * Appends a {@code SALES_ORDER_CREATED} event for each of the given
+         * sales orders, read from {@code sales_orders} and attributed to each
+         * order's creator, in one statement inside the caller's transaction.
+         */
+        void appendSalesOrdersCreated(Collection<Long> salesOrderIds, LocalDateTime occurredAt);
+
+        /**
+         * Returns up to {@code limit} events newest-first, strictly older than
+         * {@code after} (or from the newest event when {@code after} is null).
+         * {@code types}, {@code warehouseId} and {@code userId} are optional
+         * filters; {@code null} or empty means "any".
+         */
+        List<ActivityEventRow> findPage(
+                        ActivityCursor after,
+                        Set<DashboardActivityType> types,
+                        Long warehouseId,
+                        Long userId,
+                        int limit);
+}
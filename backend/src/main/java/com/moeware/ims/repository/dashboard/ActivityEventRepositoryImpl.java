@@ -0,0 +1,143 @@
+package com.moeware.ims.repository.dashboard;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Repository;
+
+import com.moeware.ims.enums.dashboard.DashboardActivityType;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * Implementation of {@link ActivityEventRepository}.
+ * <p>
+ * Pages use keyset pagination on {@code (occurred_at, id)}: the row-value
+ * comparison {@code (occurred_at, id) < (:at, :id)} lets PostgreSQL start the
+ * scan of the matching {@code idx_ae_*} index right after the previous page,
+ * so page 10,000 costs the same as page 1. Optional filters are appended to
+ * the SQL only when present so each variant gets its own plan.
+ */
+@Repository
+public class ActivityEventRepositoryImpl implements ActivityEventRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public void append(ActivityEventRow e) {
+        em.createNativeQuery("""
+                INSERT INTO activity_events (occurred_at, activity_type, entity_id, entity_number, status,
+                                             warehouse_id, user_id, username, counterparty_name, total_amount)
+                VALUES (:occurredAt, :activityType, :entityId, :entityNumber, :status,
+                        CAST(:warehouseId AS BIGINT), CAST(:userId AS BIGINT), :username, :counterpartyName,
+                        CAST(:totalAmount AS DECIMAL(14,2)))
+                """)
+                .setParameter("occurredAt", e.occurredAt())
+                .setParameter("activityType", e.activityType().name())
+                .setParameter("entityId", e.entityId())
+                .setParameter("entityNumber", e.entityNumber())
+                .setParameter("status", e.status())
+                .setParameter("warehouseId", e.warehouseId())
+                .setParameter("userId", e.userId())
+                .setParameter("username", e.username())
+                .setParameter("counterpartyName", e.counterpartyName())
+                .setParameter("totalAmount", e.totalAmount())
+                .executeUpdate();
+    }
+
+    @Override
+    public void appendSalesOrdersCreated(Collection<Long> salesOrderIds, LocalDateTime occurredAt) {
+        if (salesOrderIds.isEmpty()) {
+            return;
+        }
+        em.createNativeQuery("""
+                INSERT INTO activity_events (occurred_at, activity_type, entity_id, entity_number, status,
+                                             warehouse_id, user_id, username, counterparty_name, total_amount)
+                SELECT :occurredAt, 'SALES_ORDER_CREATED', so.id, so.so_number, so.status, so.warehouse_id,
+                       u.id, u.username, so.customer_name, so.total_amount
+                FROM sales_orders so
+                JOIN users u ON u.id = so.created_by_user_id
+                WHERE so.id IN (:ids)
+                ORDER BY so.id
+                """)
+                .setParameter("occurredAt", occurredAt)
+                .setParameter("ids", salesOrderIds)
+                .executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ActivityEventRow> findPage(
+            ActivityCursor after, Set<DashboardActivityType> types, Long warehouseId, Long userId, int limit) {
+
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, occurred_at, activity_type, entity_id, entity_number, status,
+                       warehouse_id, user_id, username, counterparty_name, total_amount
+                FROM activity_events
+                WHERE 1 = 1
+                """);
+        if (after != null) {
+            sql.append(" AND (occurred_at, id) < (:afterAt, :afterId)");
+        }
+        boolean filterTypes = types != null && !types.isEmpty();
+        if (filterTypes) {
+            sql.append(" AND activity_type IN (:types)");
+        }
+        if (warehouseId != null) {
+            sql.append(" AND warehouse_id = :warehouseId");
+        }
+        if (userId != null) {
+            sql.append(" AND user_id = :userId");
+        }
+        sql.append(" ORDER BY occurred_at DESC, id DESC");
+
+        Query query = em.createNativeQuery(sql.toString());
+        if (after != null) {
+            query.setParameter("afterAt", after.occurredAt());
+            query.setParameter("afterId", after.id());
+        }
+        if (filterTypes) {
+            query.setParameter("types", types.stream().map(Enum::name).toList());
+        }
+        if (warehouseId != null) {
+            query.setParameter("warehouseId", warehouseId);
+        }
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+
+        return ((List<Object[]>) query.setMaxResults(limit).getResultList())
+                .stream()
+                .map(r -> new ActivityEventRow(
+                        toLong(r[0]),
+                        toLocalDateTime(r[1]),
+                        DashboardActivityType.valueOf((String) r[2]),
+                        toLong(r[3]),
+                        (String) r[4],
+                        (String) r[5],
+                        toLong(r[6]),
+                        toLong(r[7]),
+                        (String) r[8],
+                        (String) r[9],
+                        (BigDecimal) r[10]))
+                .toList();
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private Long toLong(Object o) {
+        return o == null ? null : ((Number) o).longValue();
+    }
+
+    /** Native queries may surface {@code TIMESTAMP} columns as {@link Timestamp}. */
+    private LocalDateTime toLocalDateTime(Object o) {
+        return o instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) o;
+    }
+}
@@ -31,6 +31,85 @@ public interface DashboardRepository {
         // Each record corresponds exactly to the column set of one query group.
         // ═══════════════════════════════════════════════════════════════════════════
 
+        /**
+         * Every KPI shown on the dashboard overview, produced by a single
+         * set-based statement (see {@link #overviewSnapshot(LocalDate)}).
+         */
+        record OverviewSnapshotRow(
+                        int totalProducts,
+                        BigDecimal totalInventoryValue,
+                        int lowStockProducts,
+                        int outOfStockProducts,
+                        int activeWarehouses,
+                        int activeUsers,
+                        int pendingSalesOrders,
+                        int confirmedSalesOrders,
+                        int pendingPurchaseOrders,
+                        int approvedPurchaseOrders,
+                        int salesOrdersToday,
+                        int purchaseOrdersToday,
+                        int shipmentsToday,
+                        int purchaseOrdersReceivedToday,
+                        int pendingStockAdjustments,
+                        int overdueInvoices,
+                        BigDecimal revenueToday,
+                        BigDecimal revenueThisWeek,
+                        BigDecimal revenueThisMonth,
+                        BigDecimal revenueLastMonth) {
+        }
+
+        /** Which grouping set of the inventory breakdown query a row belongs to. */
+        enum InventoryBreakdownLevel {
+                TOTAL, CATEGORY, WAREHOUSE
+        }
+
+        /**
+         * One grouping-set row from {@link #inventoryBreakdown(Long, Long)}.
+         * {@code groupId}, {@code groupName} are null for the TOTAL row;
+         * {@code capacity} is only populated for WAREHOUSE rows.
+         * {@code lowStockItems} counts inventory rows (product × warehouse) at or
+         * below the product's reorder level.
+         */
+        record InventoryBreakdownRow(
+                        InventoryBreakdownLevel level,
+                        Long groupId,
+                        String groupName,
+                        BigDecimal capacity,
+                        int productCount,
+                        BigDecimal costValue,
+                        BigDecimal retailValue,
+                        long totalUnits,
+                        int lowStockItems) {
+        }
+
+        /** Products bucketed by their total on-hand quantity vs. reorder level. */
+        record StockStatusDistributionRow(
+                        int inStock,
+                        int lowStock,
+                        int outOfStock) {
+        }
+
+        /** One product entry from the top-products-by-stock-value query. */
+        record InventoryTopProductRow(
+                        Long productId,
+                        String sku,
+                        String name,
+                        long totalQuantity,
+                        BigDecimal totalValue) {
+        }
+
+        /**
+         * One day of the inventory trend: stock value, products stocked and
+         * products at or below their reorder level (quantity summed across the
+         * scoped warehouses).
+         */
+        record DailyStockSnapshotRow(
+                        LocalDate snapshotDate,
+                        BigDecimal totalValue,
+                        int productCount,
+                        int lowStockCount) {
+        }
+
         /** One calendar-day data point from the daily sales trend query. */
         record DailySalesTrendRow(
                         LocalDate orderDate,
@@ -96,40 +175,6 @@ public interface DashboardRepository {
                         int warehouseQty) {
         }
 
-        /** One sales-order row for the activity feed. */
-        record SalesOrderActivityRow(
-                        Long soId,
-                        String soNumber,
-                        String status,
-                        String customerName,
-                        BigDecimal totalAmount,
-                        LocalDateTime createdAt,
-                        Long userId,
-                        String username) {
-        }
-
-        /** One purchase-order row for the activity feed. */
-        record PurchaseOrderActivityRow(
-                        Long poId,
-                        String poNumber,
-                        String status,
-                        String supplierName,
-                        BigDecimal totalAmount,
-                        LocalDateTime updatedAt,
-                        Long userId,
-                        String username) {
-        }
-
-        /** One shipment delivery row for the activity feed. */
-        record DeliveryRow(
-                        Long shipmentId,
-                        String shipmentNumber,
-                        String customerName,
-                        LocalDateTime updatedAt,
-                        Long userId,
-                        String username) {
-        }
-
         /** The oldest pending shipment row. */
         record PendingShipmentRow(
                         Long id,
@@ -162,6 +207,19 @@ public interface DashboardRepository {
         // OVERVIEW METRICS
         // ═══════════════════════════════════════════════════════════════════════════
 
+        /**
+         * All overview KPIs in one database round trip.
+         * <p>
+         * Equivalent to calling the individual count / sum methods below with the
+         * same reference date, but computed with CTEs and {@code FILTER}
+         * aggregates so the overview endpoint holds a pooled connection for one
+         * statement instead of ~20.
+         *
+         * @param today reference date for "today", week, month and last-month
+         *              windows
+         */
+        OverviewSnapshotRow overviewSnapshot(LocalDate today);
+
         int countActiveProducts();
 
         int countActiveWarehouses();
@@ -244,6 +302,22 @@ public interface DashboardRepository {
          */
         int totalItemsOrdered(LocalDate start, LocalDate end);
 
+        // ═══════════════════════════════════════════════════════════════════════════
+        // INVENTORY SUMMARY
+        // Both filters are optional; when present they are applied in SQL.
+        // ═══════════════════════════════════════════════════════════════════════════
+
+        /**
+         * Stock value and unit totals for the whole filtered inventory, per
+         * category and per warehouse, computed with a single
+         * {@code GROUPING SETS} statement.
+         */
+        List<InventoryBreakdownRow> inventoryBreakdown(Long warehouseId, Long categoryId);
+
+        StockStatusDistributionRow stockStatusDistribution(Long warehouseId, Long categoryId);
+
+        List<InventoryTopProductRow> topProductsByStockValue(Long warehouseId, Long categoryId, int limit);
+
         // ═══════════════════════════════════════════════════════════════════════════
         // SALES ANALYTICS
         // ═══════════════════════════════════════════════════════════════════════════
@@ -278,16 +352,14 @@ public interface DashboardRepository {
         // ═══════════════════════════════════════════════════════════════════════════
 
         /**
-         * Daily net inventory quantity change derived from movement records.
-         * Implemented as a native query.
+         * One aggregated point per day that has rows in
+         * {@code stock_daily_snapshots}; days without a snapshot are absent.
+         * When {@code warehouseId} is null all warehouses are included.
          */
-        List<Object[]> dailyInventoryNetChange(LocalDateTime start, LocalDateTime end);
+        List<DailyStockSnapshotRow> dailyStockSnapshots(LocalDate start, LocalDate end, Long warehouseId);
 
-        /**
-         * Current count of active products at or below their reorder level.
-         * Uses a dedicated COUNT query — does not load product entities.
-         */
-        int currentLowStockCount();
+        /** The same aggregate computed from current stock, labelled {@code today}. */
+        DailyStockSnapshotRow liveStockSnapshot(LocalDate today, Long warehouseId);
 
         // ═══════════════════════════════════════════════════════════════════════════
         // LOW STOCK DETAIL
@@ -295,16 +367,6 @@ public interface DashboardRepository {
 
         List<LowStockWarehouseRow> lowStockProductsWithWarehouseBreakdown();
 
-        // ═══════════════════════════════════════════════════════════════════════════
-        // ACTIVITY FEED
-        // ═══════════════════════════════════════════════════════════════════════════
-
-        List<SalesOrderActivityRow> recentSalesOrderActivity(Pageable pageable);
-
-        List<PurchaseOrderActivityRow> recentPurchaseOrderActivity(Pageable pageable);
-
-        List<DeliveryRow> recentDeliveries(Pageable pageable);
-
         // ═══════════════════════════════════════════════════════════════════════════
         // PENDING ACTIONS
         // ═══════════════════════════════════════════════════════════════════════════
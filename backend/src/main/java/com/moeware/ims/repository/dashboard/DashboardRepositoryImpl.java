@@ -5,19 +5,16 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
+import com.moeware.ims.enums.transaction.InvoiceStatus;
 import com.moeware.ims.enums.transaction.PurchaseOrderStatus;
 import com.moeware.ims.enums.transaction.SalesOrderStatus;
 import com.moeware.ims.enums.transaction.ShipmentStatus;
 import com.moeware.ims.enums.transaction.StockAdjustmentStatus;
 import com.moeware.ims.repository.UserRepository;
-import com.moeware.ims.repository.inventory.InventoryItemRepository;
 import com.moeware.ims.repository.inventory.ProductRepository;
 import com.moeware.ims.repository.staff.WarehouseRepository;
 import com.moeware.ims.repository.transaction.InvoiceRepository;
@@ -28,6 +25,7 @@ import com.moeware.ims.repository.transaction.StockAdjustmentRepository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -65,7 +63,6 @@ public class DashboardRepositoryImpl implements DashboardRepository {
     private final ProductRepository productRepository;
     private final WarehouseRepository warehouseRepository;
     private final UserRepository userRepository;
-    private final InventoryItemRepository inventoryItemRepository;
     private final SalesOrderRepository salesOrderRepository;
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final ShipmentRepository shipmentRepository;
@@ -77,6 +74,144 @@ public class DashboardRepositoryImpl implements DashboardRepository {
     @PersistenceContext
     private EntityManager em;
 
+    // ═══════════════════════════════════════════════════════════════════════════
+    // OVERVIEW SNAPSHOT – single native statement
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Native SQL required: PostgreSQL {@code FILTER} aggregates let one scan of
+     * each source table answer every count/sum the overview needs, which JPQL
+     * cannot express. Each table is read once in its own CTE; the final SELECT
+     * cross-joins the single-row CTEs and adds cheap scalar subqueries for the
+     * small reference tables.
+     * <p>
+     * The {@code sales_orders} and {@code purchase_orders} CTEs are restricted to
+     * rows that can contribute to at least one metric (open statuses or dates in
+     * the reporting window) so the planner can use {@code idx_so_status} /
+     * {@code idx_so_order_date} instead of scanning full order history.
+     * <p>
+     * Status values are bound from their enums via {@code name()} — no string
+     * literals.
+     */
+    @Override
+    public OverviewSnapshotRow overviewSnapshot(LocalDate today) {
+        LocalDate weekStart = today.minusDays(6);
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate lastMonthStart = monthStart.minusMonths(1);
+        LocalDate lastMonthEnd = monthStart.minusDays(1);
+
+        Object[] r = (Object[]) em.createNativeQuery("""
+                WITH product_stock AS (
+                    SELECT p.reorder_level,
+                           COALESCE(SUM(ii.quantity), 0)               AS total_qty,
+                           COALESCE(SUM(ii.quantity * p.unit_price), 0) AS retail_value
+                    FROM products p
+                    LEFT JOIN inventory_items ii ON ii.product_id = p.id
+                    WHERE p.is_active = true
+                    GROUP BY p.id, p.reorder_level
+                ),
+                product_kpis AS (
+                    SELECT COUNT(*)                                                         AS total_products,
+                           COALESCE(SUM(retail_value), 0)                                   AS inventory_value,
+                           COUNT(*) FILTER (WHERE total_qty > 0 AND total_qty <= reorder_level) AS low_stock,
+                           COUNT(*) FILTER (WHERE total_qty = 0)                            AS out_of_stock
+                    FROM product_stock
+                ),
+                so_kpis AS (
+                    SELECT COUNT(*) FILTER (WHERE status = :soPending)   AS pending,
+                           COUNT(*) FILTER (WHERE status = :soConfirmed) AS confirmed,
+                           COUNT(*) FILTER (WHERE order_date = :today)   AS created_today,
+                           COALESCE(SUM(total_amount) FILTER (WHERE status NOT IN (:soNonRevenue)
+                                   AND order_date = :today), 0)                           AS revenue_today,
+                           COALESCE(SUM(total_amount) FILTER (WHERE status NOT IN (:soNonRevenue)
+                                   AND order_date BETWEEN :weekStart AND :today), 0)      AS revenue_week,
+                           COALESCE(SUM(total_amount) FILTER (WHERE status NOT IN (:soNonRevenue)
+                                   AND order_date BETWEEN :monthStart AND :today), 0)     AS revenue_month,
+                           COALESCE(SUM(total_amount) FILTER (WHERE status NOT IN (:soNonRevenue)
+                                   AND order_date BETWEEN :lastMonthStart AND :lastMonthEnd), 0) AS revenue_last_month
+                    FROM sales_orders
+                    WHERE status IN (:soPending, :soConfirmed)
+                       OR order_date BETWEEN :lastMonthStart AND :today
+                ),
+                po_kpis AS (
+                    SELECT COUNT(*) FILTER (WHERE status = :poSubmitted) AS pending,
+                           COUNT(*) FILTER (WHERE status = :poApproved)  AS approved,
+                           COUNT(*) FILTER (WHERE order_date = :today)   AS created_today,
+                           COUNT(*) FILTER (WHERE status = :poReceived
+                                   AND actual_delivery_date = :today)    AS received_today
+                    FROM purchase_orders
+                    WHERE status IN (:poSubmitted, :poApproved)
+                       OR order_date = :today
+                       OR actual_delivery_date = :today
+                )
+                SELECT pk.total_products,
+                       pk.inventory_value,
+                       pk.low_stock,
+                       pk.out_of_stock,
+                       (SELECT COUNT(*) FROM warehouses w WHERE w.is_active = true),
+                       (SELECT COUNT(*) FROM users u WHERE u.is_active = true),
+                       so.pending,
+                       so.confirmed,
+                       po.pending,
+                       po.approved,
+                       so.created_today,
+                       po.created_today,
+                       (SELECT COUNT(*) FROM shipments sh
+                         WHERE sh.created_at >= :dayStart AND sh.created_at < :nextDayStart),
+                       po.received_today,
+                       (SELECT COUNT(*) FROM stock_adjustments sa WHERE sa.status = :adjPending),
+                       (SELECT COUNT(*) FROM invoices i
+                         WHERE i.invoice_status NOT IN (:invoiceClosed) AND i.due_date < :today),
+                       so.revenue_today,
+                       so.revenue_week,
+                       so.revenue_month,
+                       so.revenue_last_month
+                FROM product_kpis pk
+                CROSS JOIN so_kpis so
+                CROSS JOIN po_kpis po
+                """)
+                .setParameter("today", today)
+                .setParameter("weekStart", weekStart)
+                .setParameter("monthStart", monthStart)
+                .setParameter("lastMonthStart", lastMonthStart)
+                .setParameter("lastMonthEnd", lastMonthEnd)
+                .setParameter("dayStart", today.atStartOfDay())
+                .setParameter("nextDayStart", today.plusDays(1).atStartOfDay())
+                .setParameter("soPending", SalesOrderStatus.PENDING.name())
+                .setParameter("soConfirmed", SalesOrderStatus.CONFIRMED.name())
+                .setParameter("soNonRevenue",
+                        List.of(SalesOrderStatus.CANCELLED.name(), SalesOrderStatus.PENDING.name()))
+                .setParameter("poSubmitted", PurchaseOrderStatus.SUBMITTED.name())
+                .setParameter("poApproved", PurchaseOrderStatus.APPROVED.name())
+                .setParameter("poReceived", PurchaseOrderStatus.RECEIVED.name())
+                .setParameter("adjPending", StockAdjustmentStatus.PENDING.name())
+                .setParameter("invoiceClosed",
+                        List.of(InvoiceStatus.PAID.name(), InvoiceStatus.CANCELLED.name()))
+                .getSingleResult();
+
+        return new OverviewSnapshotRow(
+                toInt(r[0]),
+                toBigDecimal(r[1]),
+                toInt(r[2]),
+                toInt(r[3]),
+                toInt(r[4]),
+                toInt(r[5]),
+                toInt(r[6]),
+                toInt(r[7]),
+                toInt(r[8]),
+                toInt(r[9]),
+                toInt(r[10]),
+                toInt(r[11]),
+                toInt(r[12]),
+                toInt(r[13]),
+                toInt(r[14]),
+                toInt(r[15]),
+                toBigDecimal(r[16]),
+                toBigDecimal(r[17]),
+                toBigDecimal(r[18]),
+                toBigDecimal(r[19]));
+    }
+
     // ═══════════════════════════════════════════════════════════════════════════
     // OVERVIEW METRICS – delegate to domain repos
     // ═══════════════════════════════════════════════════════════════════════════
@@ -308,61 +443,181 @@ public class DashboardRepositoryImpl implements DashboardRepository {
         return r == null ? 0 : ((Number) r).intValue();
     }
 
+    // ═══════════════════════════════════════════════════════════════════════════
+    // INVENTORY SUMMARY – native SQL over a filtered base CTE
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Native SQL required: {@code GROUPING SETS} returns the overall total, the
+     * per-category and the per-warehouse aggregates from one scan of the
+     * filtered inventory rows. {@code GROUPING()} tells the rows apart; names and
+     * capacity are joined on after aggregation so only the grouped rows touch
+     * {@code categories} / {@code warehouses}.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<InventoryBreakdownRow> inventoryBreakdown(Long warehouseId, Long categoryId) {
+        String sql = inventoryBaseCte(warehouseId, categoryId) + """
+                , g AS (
+                    SELECT GROUPING(b.category_id)                         AS g_cat,
+                           GROUPING(b.warehouse_id)                        AS g_wh,
+                           b.category_id,
+                           b.warehouse_id,
+                           COUNT(DISTINCT b.product_id)                    AS product_count,
+                           COALESCE(SUM(b.cost_price * b.quantity), 0)     AS cost_value,
+                           COALESCE(SUM(b.unit_price * b.quantity), 0)     AS retail_value,
+                           COALESCE(SUM(b.quantity), 0)                    AS total_units,
+                           COUNT(*) FILTER (WHERE b.quantity <= b.reorder_level) AS low_stock_items
+                    FROM base b
+                    GROUP BY GROUPING SETS ((b.category_id), (b.warehouse_id), ())
+                )
+                SELECT CASE WHEN g.g_cat = 0 THEN :levelCategory
+                            WHEN g.g_wh = 0  THEN :levelWarehouse
+                            ELSE :levelTotal END,
+                       COALESCE(g.category_id, g.warehouse_id),
+                       COALESCE(c.name, w.name),
+                       w.capacity,
+                       g.product_count, g.cost_value, g.retail_value, g.total_units, g.low_stock_items
+                FROM g
+                LEFT JOIN categories c ON g.g_cat = 0 AND c.id = g.category_id
+                LEFT JOIN warehouses w ON g.g_wh = 0 AND w.id = g.warehouse_id
+                ORDER BY g.g_cat, g.g_wh, COALESCE(g.category_id, g.warehouse_id)
+                """;
+        Query query = em.createNativeQuery(sql)
+                .setParameter("levelTotal", InventoryBreakdownLevel.TOTAL.name())
+                .setParameter("levelCategory", InventoryBreakdownLevel.CATEGORY.name())
+                .setParameter("levelWarehouse", InventoryBreakdownLevel.WAREHOUSE.name());
+        return ((List<Object[]>) bindInventoryFilters(query, warehouseId, categoryId).getResultList())
+                .stream()
+                .map(r -> new InventoryBreakdownRow(
+                        InventoryBreakdownLevel.valueOf((String) r[0]),
+                        r[1] == null ? null : toLong(r[1]),
+                        (String) r[2],
+                        r[3] == null ? null : toBigDecimal(r[3]),
+                        toInt(r[4]),
+                        toBigDecimal(r[5]),
+                        toBigDecimal(r[6]),
+                        toLong(r[7]),
+                        toInt(r[8])))
+                .toList();
+    }
+
+    /**
+     * A product's status depends on its quantity summed across the filtered
+     * warehouses, so rows are first collapsed per product and then bucketed
+     * with {@code FILTER} aggregates.
+     */
+    @Override
+    public StockStatusDistributionRow stockStatusDistribution(Long warehouseId, Long categoryId) {
+        String sql = inventoryBaseCte(warehouseId, categoryId) + """
+                , per_product AS (
+                    SELECT b.product_id, MAX(b.reorder_level) AS reorder_level, SUM(b.quantity) AS qty
+                    FROM base b
+                    GROUP BY b.product_id
+                )
+                SELECT COUNT(*) FILTER (WHERE pp.qty > pp.reorder_level),
+                       COUNT(*) FILTER (WHERE pp.qty > 0 AND pp.qty <= pp.reorder_level),
+                       COUNT(*) FILTER (WHERE pp.qty = 0)
+                FROM per_product pp
+                """;
+        Object[] r = (Object[]) bindInventoryFilters(em.createNativeQuery(sql), warehouseId, categoryId)
+                .getSingleResult();
+        return new StockStatusDistributionRow(toInt(r[0]), toInt(r[1]), toInt(r[2]));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<InventoryTopProductRow> topProductsByStockValue(Long warehouseId, Long categoryId, int limit) {
+        String sql = inventoryBaseCte(warehouseId, categoryId) + """
+                SELECT b.product_id, b.sku, b.name,
+                       SUM(b.quantity)                AS qty,
+                       b.unit_price * SUM(b.quantity) AS stock_value
+                FROM base b
+                GROUP BY b.product_id, b.sku, b.name, b.unit_price
+                ORDER BY stock_value DESC, b.product_id ASC
+                """;
+        return ((List<Object[]>) bindInventoryFilters(em.createNativeQuery(sql), warehouseId, categoryId)
+                .setMaxResults(limit)
+                .getResultList())
+                .stream()
+                .map(r -> new InventoryTopProductRow(
+                        toLong(r[0]),
+                        (String) r[1],
+                        (String) r[2],
+                        toLong(r[3]),
+                        toBigDecimal(r[4])))
+                .toList();
+    }
+
+    /**
+     * Filtered inventory rows joined to their product. Optional filters are
+     * appended only when present, so the planner sees a plain equality
+     * predicate (and can use {@code idx_inventory_warehouse} /
+     * {@code idx_products_category}) instead of an {@code :x IS NULL OR ...}
+     * disjunction.
+     */
+    private String inventoryBaseCte(Long warehouseId, Long categoryId) {
+        return """
+                WITH base AS (
+                    SELECT ii.product_id, ii.warehouse_id, p.category_id, ii.quantity,
+                           p.sku, p.name, p.cost_price, p.unit_price, p.reorder_level
+                    FROM inventory_items ii
+                    JOIN products p ON p.id = ii.product_id
+                    WHERE 1 = 1
+                """
+                + (warehouseId != null ? "      AND ii.warehouse_id = :warehouseId\n" : "")
+                + (categoryId != null ? "      AND p.category_id = :categoryId\n" : "")
+                + ")\n";
+    }
+
+    private Query bindInventoryFilters(Query query, Long warehouseId, Long categoryId) {
+        if (warehouseId != null) {
+            query.setParameter("warehouseId", warehouseId);
+        }
+        if (categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
+        return query;
+    }
+
     // ═══════════════════════════════════════════════════════════════════════════
     // SALES ANALYTICS – aggregation, typed projection records
     // ═══════════════════════════════════════════════════════════════════════════
 
-    // In DashboardRepositoryImpl — replace the dailySalesTrend method
+    // All four queries read sales_daily_rollup (V21) instead of scanning
+    // sales_orders / sales_order_items, so their cost grows with the number of
+    // days × active products/customers in the window rather than with the number
+    // of order lines. Header rows (product_id IS NULL) hold order counts and
+    // totals; line rows hold units and line revenue. The rollup is kept current
+    // by SalesRollupService inside each order transition's transaction.
 
     @Override
     @SuppressWarnings("unchecked")
     public List<DailySalesTrendRow> dailySalesTrend(LocalDate start, LocalDate end) {
-        // Query 1: order count and revenue — no join to items, so no row multiplication
-        List<Object[]> orderRows = em.createQuery("""
-                SELECT so.orderDate,
-                       COUNT(so),
-                       COALESCE(SUM(so.totalAmount), 0)
-                FROM SalesOrder so
-                WHERE so.status != :cancelled
-                AND so.orderDate BETWEEN :start AND :end
-                GROUP BY so.orderDate
-                ORDER BY so.orderDate ASC
-                """)
-                .setParameter("cancelled", SalesOrderStatus.CANCELLED)
-                .setParameter("start", start)
-                .setParameter("end", end)
-                .getResultList();
-
-        // Query 2: items sold — joined to items, grouped by date
-        List<Object[]> itemRows = em.createQuery("""
-                SELECT soi.salesOrder.orderDate,
-                       COALESCE(SUM(soi.quantity), 0)
-                FROM SalesOrderItem soi
-                JOIN soi.salesOrder so
-                WHERE so.status != :cancelled
-                AND so.orderDate BETWEEN :start AND :end
-                GROUP BY soi.salesOrder.orderDate
+        return em.createNativeQuery("""
+                SELECT r.rollup_date,
+                       SUM(r.order_count),
+                       SUM(r.order_total),
+                       SUM(r.units_sold)
+                FROM sales_daily_rollup r
+                WHERE r.status != :cancelled
+                  AND r.rollup_date BETWEEN :start AND :end
+                GROUP BY r.rollup_date
+                HAVING SUM(r.order_count) > 0
+                ORDER BY r.rollup_date ASC
                 """)
-                .setParameter("cancelled", SalesOrderStatus.CANCELLED)
+                .setParameter("cancelled", SalesOrderStatus.CANCELLED.name())
                 .setParameter("start", start)
                 .setParameter("end", end)
-                .getResultList();
-
-        // Build a date → itemsSold lookup map from query 2
-        Map<LocalDate, Long> itemsByDate = itemRows.stream()
-                .collect(java.util.stream.Collectors.toMap(
-                        r -> (LocalDate) r[0],
-                        r -> toLong(r[1])));
-
-        // Merge: order count + revenue from query 1, items sold from the map
-        return orderRows.stream()
-                .map(r -> {
-                    LocalDate date = (LocalDate) r[0];
+                .getResultList()
+                .stream()
+                .map(row -> {
+                    Object[] r = (Object[]) row;
                     return new DailySalesTrendRow(
-                            date,
+                            toLocalDate(r[0]),
                             toLong(r[1]),
-                            (BigDecimal) r[2],
-                            itemsByDate.getOrDefault(date, 0L));
+                            toBigDecimal(r[2]),
+                            toLong(r[3]));
                 })
                 .toList();
     }
@@ -370,19 +625,21 @@ public class DashboardRepositoryImpl implements DashboardRepository {
     @Override
     @SuppressWarnings("unchecked")
     public List<TopProductRow> topSellingProducts(LocalDate start, LocalDate end, Pageable pageable) {
-        return em.createQuery("""
-                SELECT p.id, p.sku, p.name,
-                       COALESCE(SUM(soi.quantity), 0),
-                       COALESCE(SUM(soi.lineTotal), 0)
-                FROM SalesOrderItem soi
-                JOIN soi.product p
-                JOIN soi.salesOrder so
-                WHERE so.status != :cancelled
-                AND so.orderDate BETWEEN :start AND :end
-                GROUP BY p.id, p.sku, p.name
-                ORDER BY SUM(soi.lineTotal) DESC
+        return em.createNativeQuery("""
+                SELECT p.id, p.sku, p.name, t.units, t.revenue
+                FROM (SELECT r.product_id,
+                             SUM(r.units_sold)   AS units,
+                             SUM(r.line_revenue) AS revenue
+                      FROM sales_daily_rollup r
+                      WHERE r.product_id IS NOT NULL
+                        AND r.status != :cancelled
+                        AND r.rollup_date BETWEEN :start AND :end
+                      GROUP BY r.product_id
+                      HAVING SUM(r.units_sold) > 0) t
+                JOIN products p ON p.id = t.product_id
+                ORDER BY t.revenue DESC, p.id ASC
                 """)
-                .setParameter("cancelled", SalesOrderStatus.CANCELLED)
+                .setParameter("cancelled", SalesOrderStatus.CANCELLED.name())
                 .setParameter("start", start)
                 .setParameter("end", end)
                 .setFirstResult((int) pageable.getOffset())
@@ -396,7 +653,7 @@ public class DashboardRepositoryImpl implements DashboardRepository {
                             (String) r[1],
                             (String) r[2],
                             toLong(r[3]),
-                            (BigDecimal) r[4]);
+                            toBigDecimal(r[4]));
                 })
                 .toList();
     }
@@ -404,16 +661,21 @@ public class DashboardRepositoryImpl implements DashboardRepository {
     @Override
     @SuppressWarnings("unchecked")
     public List<TopCustomerRow> topCustomers(LocalDate start, LocalDate end, Pageable pageable) {
-        return em.createQuery("""
-                SELECT c.id, c.contactName, COUNT(so), COALESCE(SUM(so.totalAmount), 0)
-                FROM SalesOrder so
-                JOIN so.customer c
-                WHERE so.status != :cancelled
-                AND so.orderDate BETWEEN :start AND :end
-                GROUP BY c.id, c.contactName
-                ORDER BY SUM(so.totalAmount) DESC
+        return em.createNativeQuery("""
+                SELECT c.id, c.contact_name, t.orders, t.total
+                FROM (SELECT r.customer_id,
+                             SUM(r.order_count) AS orders,
+                             SUM(r.order_total) AS total
+                      FROM sales_daily_rollup r
+                      WHERE r.product_id IS NULL
+                        AND r.status != :cancelled
+                        AND r.rollup_date BETWEEN :start AND :end
+                      GROUP BY r.customer_id
+                      HAVING SUM(r.order_count) > 0) t
+                JOIN customers c ON c.id = t.customer_id
+                ORDER BY t.total DESC, c.id ASC
                 """)
-                .setParameter("cancelled", SalesOrderStatus.CANCELLED)
+                .setParameter("cancelled", SalesOrderStatus.CANCELLED.name())
                 .setParameter("start", start)
                 .setParameter("end", end)
                 .setFirstResult((int) pageable.getOffset())
@@ -426,7 +688,7 @@ public class DashboardRepositoryImpl implements DashboardRepository {
                             toLong(r[0]),
                             (String) r[1],
                             toLong(r[2]),
-                            (BigDecimal) r[3]);
+                            toBigDecimal(r[3]));
                 })
                 .toList();
     }
@@ -434,11 +696,13 @@ public class DashboardRepositoryImpl implements DashboardRepository {
     @Override
     @SuppressWarnings("unchecked")
     public List<StatusCountRow> salesOrderCountByStatus(LocalDate start, LocalDate end) {
-        return em.createQuery("""
-                SELECT CAST(so.status AS string), COUNT(so)
-                FROM SalesOrder so
-                WHERE so.orderDate BETWEEN :start AND :end
-                GROUP BY so.status
+        return em.createNativeQuery("""
+                SELECT r.status, SUM(r.order_count)
+                FROM sales_daily_rollup r
+                WHERE r.product_id IS NULL
+                  AND r.rollup_date BETWEEN :start AND :end
+                GROUP BY r.status
+                HAVING SUM(r.order_count) > 0
                 """)
                 .setParameter("start", start)
                 .setParameter("end", end)
@@ -577,147 +841,117 @@ public class DashboardRepositoryImpl implements DashboardRepository {
     // INVENTORY TREND
     // ═══════════════════════════════════════════════════════════════════════════
 
+    /**
+     * Native SQL required: each snapshot day is first collapsed per product
+     * (a product's low-stock state depends on its quantity across the scoped
+     * warehouses), then bucketed with a {@code FILTER} aggregate. The date range
+     * is answered by a range scan on the snapshot primary key, or on
+     * {@code idx_sds_warehouse_date} when scoped to one warehouse.
+     */
     @Override
     @SuppressWarnings("unchecked")
-    public List<Object[]> dailyInventoryNetChange(LocalDateTime start, LocalDateTime end) {
-        return em.createNativeQuery("""
-                SELECT DATE(movement_date) AS snap_date,
-                       SUM(CASE WHEN to_warehouse_id   IS NOT NULL THEN quantity ELSE 0 END)
-                     - SUM(CASE WHEN from_warehouse_id IS NOT NULL THEN quantity ELSE 0 END) AS net_change
-                FROM inventory_movements
-                WHERE movement_date BETWEEN :start AND :end
-                GROUP BY DATE(movement_date)
-                ORDER BY snap_date ASC
+    public List<DailyStockSnapshotRow> dailyStockSnapshots(LocalDate start, LocalDate end, Long warehouseId) {
+        Query query = em.createNativeQuery("""
+                WITH per_product AS (
+                    SELECT s.snapshot_date,
+                           s.product_id,
+                           SUM(s.quantity)      AS qty,
+                           SUM(s.stock_value)   AS stock_value,
+                           MAX(s.reorder_level) AS reorder_level
+                    FROM stock_daily_snapshots s
+                    WHERE s.snapshot_date BETWEEN :start AND :end
+                """
+                + (warehouseId != null ? "      AND s.warehouse_id = :warehouseId\n" : "")
+                + """
+                    GROUP BY s.snapshot_date, s.product_id
+                )
+                SELECT pp.snapshot_date,
+                       SUM(pp.stock_value),
+                       COUNT(*),
+                       COUNT(*) FILTER (WHERE pp.qty <= pp.reorder_level)
+                FROM per_product pp
+                GROUP BY pp.snapshot_date
+                ORDER BY pp.snapshot_date ASC
                 """)
                 .setParameter("start", start)
-                .setParameter("end", end)
-                .getResultList();
+                .setParameter("end", end);
+        if (warehouseId != null) {
+            query.setParameter("warehouseId", warehouseId);
+        }
+        return ((List<Object[]>) query.getResultList()).stream()
+                .map(r -> new DailyStockSnapshotRow(
+                        toLocalDate(r[0]),
+                        toBigDecimal(r[1]),
+                        toInt(r[2]),
+                        toInt(r[3])))
+                .toList();
     }
 
     /**
-     * Delegates to {@link ProductRepository#countAtOrBelowReorderLevel()}.
-     * Counts active products whose total warehouse stock ≤ reorderLevel,
-     * including zero-stock products. No entity loading.
+     * Same projection as {@link #dailyStockSnapshots} computed from live
+     * {@code inventory_items}, for the current day which has no snapshot yet.
      */
     @Override
-    public int currentLowStockCount() {
-        return (int) productRepository.countAtOrBelowReorderLevel();
+    public DailyStockSnapshotRow liveStockSnapshot(LocalDate today, Long warehouseId) {
+        Query query = em.createNativeQuery("""
+                WITH per_product AS (
+                    SELECT ii.product_id,
+                           SUM(ii.quantity)                AS qty,
+                           SUM(ii.quantity * p.unit_price) AS stock_value,
+                           MAX(p.reorder_level)            AS reorder_level
+                    FROM inventory_items ii
+                    JOIN products p ON p.id = ii.product_id
+                """
+                + (warehouseId != null ? "    WHERE ii.warehouse_id = :warehouseId\n" : "")
+                + """
+                    GROUP BY ii.product_id
+                )
+                SELECT COALESCE(SUM(pp.stock_value), 0),
+                       COUNT(*),
+                       COUNT(*) FILTER (WHERE pp.qty <= pp.reorder_level)
+                FROM per_product pp
+                """);
+        if (warehouseId != null) {
+            query.setParameter("warehouseId", warehouseId);
+        }
+        Object[] r = (Object[]) query.getSingleResult();
+        return new DailyStockSnapshotRow(today, toBigDecimal(r[0]), toInt(r[1]), toInt(r[2]));
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
-    // LOW STOCK DETAIL – delegates to InventoryItemRepository, typed records
+    // LOW STOCK DETAIL – reads the maintained low_stock_state table
     // ═══════════════════════════════════════════════════════════════════════════
 
     /**
-     * Delegates to {@link InventoryItemRepository#findLowStockItems(Pageable)} and
-     * maps the returned entities to typed {@link LowStockWarehouseRow} records.
+     * Reads {@code low_stock_state}, which {@code LowStockAlertService} keeps in
+     * step with stock writes, instead of scanning every inventory row against
+     * its product's reorder level. Names, levels and the quantity are joined in
+     * by primary key for the (few) low rows only: the state row is rewritten
+     * when the severity changes, so its own copy of the quantity can lag behind
+     * a write that stays within the same band.
      */
-    @Override
-    public List<LowStockWarehouseRow> lowStockProductsWithWarehouseBreakdown() {
-        return inventoryItemRepository
-                .findLowStockItems(Pageable.unpaged())
-                .getContent()
-                .stream()
-                .map(ii -> new LowStockWarehouseRow(
-                        ii.getProduct().getId(),
-                        ii.getProduct().getSku(),
-                        ii.getProduct().getName(),
-                        ii.getProduct().getReorderLevel(),
-                        ii.getProduct().getMinStockLevel(),
-                        ii.getWarehouse().getId(),
-                        ii.getWarehouse().getName(),
-                        ii.getQuantity()))
-                .toList();
-    }
-
-    // ═══════════════════════════════════════════════════════════════════════════
-    // ACTIVITY FEED – aggregation projections, typed records
-    // ═══════════════════════════════════════════════════════════════════════════
-
     @Override
     @SuppressWarnings("unchecked")
-    public List<SalesOrderActivityRow> recentSalesOrderActivity(Pageable pageable) {
-        return em.createQuery("""
-                SELECT so.id, so.soNumber, CAST(so.status AS string),
-                       so.customerName, so.totalAmount,
-                       so.createdAt, u.id, u.username
-                FROM SalesOrder so
-                JOIN so.createdByUser u
-                ORDER BY so.createdAt DESC
-                """)
-                .setFirstResult((int) pageable.getOffset())
-                .setMaxResults(pageable.getPageSize())
-                .getResultList()
-                .stream()
-                .map(row -> {
-                    Object[] r = (Object[]) row;
-                    return new SalesOrderActivityRow(
-                            toLong(r[0]),
-                            (String) r[1],
-                            (String) r[2],
-                            (String) r[3],
-                            (BigDecimal) r[4],
-                            (LocalDateTime) r[5],
-                            toLong(r[6]),
-                            (String) r[7]);
-                })
-                .toList();
-    }
-
-    @Override
-    @SuppressWarnings("unchecked")
-    public List<PurchaseOrderActivityRow> recentPurchaseOrderActivity(Pageable pageable) {
-        return em.createQuery("""
-                SELECT po.id, po.poNumber, CAST(po.status AS string),
-                       s.name, po.totalAmount,
-                       po.updatedAt, u.id, u.username
-                FROM PurchaseOrder po
-                JOIN po.supplier s
-                JOIN po.createdByUser u
-                ORDER BY po.updatedAt DESC
-                """)
-                .setFirstResult((int) pageable.getOffset())
-                .setMaxResults(pageable.getPageSize())
-                .getResultList()
-                .stream()
-                .map(row -> {
-                    Object[] r = (Object[]) row;
-                    return new PurchaseOrderActivityRow(
-                            toLong(r[0]),
-                            (String) r[1],
-                            (String) r[2],
-                            (String) r[3],
-                            (BigDecimal) r[4],
-                            (LocalDateTime) r[5],
-                            toLong(r[6]),
-                            (String) r[7]);
-                })
-                .toList();
-    }
-
-    /**
-     * Delegates to {@link ShipmentRepository#findByStatus} with
-     * {@link ShipmentStatus#DELIVERED}, ordered by {@code updatedAt DESC} via a
-     * sorted {@link Pageable} — no in-memory re-sorting.
-     */
-    @Override
-    public List<DeliveryRow> recentDeliveries(Pageable pageable) {
-        Pageable sortedByUpdatedAtDesc = PageRequest.of(
-                pageable.getPageNumber(),
-                pageable.getPageSize(),
-                Sort.by(Sort.Direction.DESC, "updatedAt"));
-
-        return shipmentRepository
-                .findByStatus(ShipmentStatus.DELIVERED, sortedByUpdatedAtDesc)
-                .getContent()
+    public List<LowStockWarehouseRow> lowStockProductsWithWarehouseBreakdown() {
+        return ((List<Object[]>) em.createNativeQuery("""
+                SELECT s.product_id, p.sku, p.name, p.reorder_level, p.min_stock_level,
+                       s.warehouse_id, w.name, ii.quantity
+                FROM low_stock_state s
+                JOIN inventory_items ii ON ii.id = s.inventory_item_id
+                JOIN products p ON p.id = s.product_id
+                JOIN warehouses w ON w.id = s.warehouse_id
+                ORDER BY s.product_id, s.warehouse_id
+                """).getResultList())
                 .stream()
-                .map(sh -> new DeliveryRow(
-                        sh.getId(),
-                        sh.getShipmentNumber(),
-                        sh.getSalesOrder().getCustomerName(),
-                        sh.getUpdatedAt(),
-                        sh.getShippedBy().getId(),
-                        sh.getShippedBy().getUsername()))
+                .map(r -> new LowStockWarehouseRow(
+                        toLong(r[0]),
+                        (String) r[1],
+                        (String) r[2],
+                        toInt(r[3]),
+                        toInt(r[4]),
+                        toLong(r[5]),
+                        (String) r[6],
+                        toInt(r[7])))
                 .toList();
     }
 
@@ -821,4 +1055,17 @@ public class DashboardRepositoryImpl implements DashboardRepository {
     private BigDecimal coalesce(Object o) {
         return o == null ? BigDecimal.ZERO : (BigDecimal) o;
     }
+
+    /** Native queries may surface {@code DATE} columns as {@link java.sql.Date}. */
+    private LocalDate toLocalDate(Object o) {
+        return o instanceof java.sql.Date d ? d.toLocalDate() : (LocalDate) o;
+    }
+
+    /** Native-query variant of {@link #coalesce(Object)} tolerant of any numeric type. */
+    private BigDecimal toBigDecimal(Object o) {
+        if (o == null) {
+            return BigDecimal.ZERO;
+        }
+        return o instanceof BigDecimal bd ? bd : new BigDecimal(o.toString());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.moeware.ims.repository.dashboard;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Write-side contract for the {@code sales_daily_rollup} table.
+ * <p>
+ * Like {@link DashboardRepository} this is a plain interface backed by native
+ * SQL in {@link SalesRollupRepositoryImpl}; the rollup table has no JPA entity
+ * because it is only ever upserted and aggregated, never loaded row by row.
+ * The read side lives in {@link DashboardRepositoryImpl}.
+ */
+public interface SalesRollupRepository {
+
+        /**
+         * Signed contribution of one sales order to one rollup row.
+         * {@code productId == null} denotes an order header row (order count and
+         * order total); otherwise the row is a line row (units and line revenue).
+         */
+        record RollupDelta(
+                        LocalDate rollupDate,
+                        String status,
+                        Long warehouseId,
+                        Long customerId,
+                        Long productId,
+                        int orderCount,
+                        BigDecimal orderTotal,
+                        long unitsSold,
+                        BigDecimal lineRevenue) {
+        }
+
+        /**
+         * Adds every delta to its rollup row, creating the row when absent.
+         * Runs inside the caller's transaction so the rollup commits or rolls
+         * back together with the order change that produced it.
+         */
+        void applyDeltas(List<RollupDelta> deltas);
+
+        /**
+         * Adds the full contribution of the given sales orders, read from
+         * {@code sales_orders} / {@code sales_order_items}, in one statement per
+         * row kind. Meant for orders inserted in bulk by the caller's
+         * transaction; like {@link #applyDeltas} it commits or rolls back with
+         * them.
+         */
+        void applyOrders(Collection<Long> salesOrderIds);
+
+        /**
+         * Recomputes all rollup rows whose date falls within the inclusive range
+         * from {@code sales_orders} / {@code sales_order_items}.
+         *
+         * @return number of rollup rows written
+         */
+        int rebuild(LocalDate start, LocalDate end);
+}
@@ -0,0 +1,165 @@
+package com.moeware.ims.repository.dashboard;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of {@link SalesRollupRepository}.
+ * <p>
+ * Native SQL required: {@code INSERT ... ON CONFLICT DO UPDATE} is the only way
+ * to apply an additive delta atomically without a read-modify-write cycle, and
+ * the conflict target relies on the {@code NULLS NOT DISTINCT} unique constraint
+ * defined in {@code V21__create_sales_daily_rollup_table.sql}. Per-order deltas
+ * are sent as one JDBC batch.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupRepositoryImpl implements SalesRollupRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPSERT_DELTA_SQL = """
+            INSERT INTO sales_daily_rollup (rollup_date, status, warehouse_id, customer_id, product_id,
+                                            order_count, order_total, units_sold, line_revenue)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT ON CONSTRAINT uq_sales_daily_rollup_key DO UPDATE
+            SET order_count  = sales_daily_rollup.order_count  + EXCLUDED.order_count,
+                order_total  = sales_daily_rollup.order_total  + EXCLUDED.order_total,
+                units_sold   = sales_daily_rollup.units_sold   + EXCLUDED.units_sold,
+                line_revenue = sales_daily_rollup.line_revenue + EXCLUDED.line_revenue
+            """;
+
+    // Upserts in key order, so two orders touching the same rows lock them in
+    // the same order and cannot deadlock
+    private static final Comparator<RollupDelta> KEY_ORDER = Comparator
+            .comparing(RollupDelta::rollupDate)
+            .thenComparing(RollupDelta::status)
+            .thenComparing(RollupDelta::warehouseId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(RollupDelta::customerId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(RollupDelta::productId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public void applyDeltas(List<RollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        em.flush();
+        jdbcTemplate.batchUpdate(UPSERT_DELTA_SQL, deltas.stream().sorted(KEY_ORDER).toList(), BATCH_SIZE,
+                (ps, d) -> {
+                    ps.setObject(1, d.rollupDate());
+                    ps.setString(2, d.status());
+                    ps.setObject(3, d.warehouseId(), Types.BIGINT);
+                    ps.setObject(4, d.customerId(), Types.BIGINT);
+                    ps.setObject(5, d.productId(), Types.BIGINT);
+                    ps.setInt(6, d.orderCount());
+                    ps.setBigDecimal(7, d.orderTotal());
+                    ps.setLong(8, d.unitsSold());
+                    ps.setBigDecimal(9, d.lineRevenue());
+                });
+    }
+
+    @Override
+    public void applyOrders(Collection<Long> salesOrderIds) {
+        if (salesOrderIds.isEmpty()) {
+            return;
+        }
+        // Same aggregation as rebuild(), limited to the given orders and added
+        // to the existing rows instead of replacing them
+        em.createNativeQuery("""
+                INSERT INTO sales_daily_rollup (rollup_date, status, warehouse_id, customer_id, product_id,
+                                                order_count, order_total)
+                SELECT so.order_date, so.status, so.warehouse_id, so.customer_id, NULL,
+                       COUNT(*), COALESCE(SUM(so.total_amount), 0)
+                FROM sales_orders so
+                WHERE so.id IN (:ids)
+                GROUP BY so.order_date, so.status, so.warehouse_id, so.customer_id
+                ON CONFLICT ON CONSTRAINT uq_sales_daily_rollup_key DO UPDATE
+                SET order_count = sales_daily_rollup.order_count + EXCLUDED.order_count,
+                    order_total = sales_daily_rollup.order_total + EXCLUDED.order_total
+                """)
+                .setParameter("ids", salesOrderIds)
+                .executeUpdate();
+
+        em.createNativeQuery("""
+                INSERT INTO sales_daily_rollup (rollup_date, status, warehouse_id, customer_id, product_id,
+                                                units_sold, line_revenue)
+                SELECT so.order_date, so.status, so.warehouse_id, so.customer_id, soi.product_id,
+                       COALESCE(SUM(soi.quantity), 0), COALESCE(SUM(soi.line_total), 0)
+                FROM sales_order_items soi
+                JOIN sales_orders so ON so.id = soi.sales_order_id
+                WHERE so.id IN (:ids)
+                GROUP BY so.order_date, so.status, so.warehouse_id, so.customer_id, soi.product_id
+                ON CONFLICT ON CONSTRAINT uq_sales_daily_rollup_key DO UPDATE
+                SET units_sold   = sales_daily_rollup.units_sold   + EXCLUDED.units_sold,
+                    line_revenue = sales_daily_rollup.line_revenue + EXCLUDED.line_revenue
+                """)
+                .setParameter("ids", salesOrderIds)
+                .executeUpdate();
+    }
+
+    @Override
+    public int rebuild(LocalDate start, LocalDate end) {
+        // SHARE ROW EXCLUSIVE conflicts with the ROW EXCLUSIVE lock taken by the
+        // upserts above: order transitions already in flight finish first (and
+        // are then visible to the INSERT ... SELECT below), new ones wait until
+        // the rebuild commits and apply their delta on top of the fresh rows.
+        em.createNativeQuery("LOCK TABLE sales_daily_rollup IN SHARE ROW EXCLUSIVE MODE")
+                .executeUpdate();
+
+        int deleted = em.createNativeQuery("""
+                DELETE FROM sales_daily_rollup
+                WHERE rollup_date BETWEEN :start AND :end
+                """)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .executeUpdate();
+
+        int headers = em.createNativeQuery("""
+                INSERT INTO sales_daily_rollup (rollup_date, status, warehouse_id, customer_id, product_id,
+                                                order_count, order_total)
+                SELECT so.order_date, so.status, so.warehouse_id, so.customer_id, NULL,
+                       COUNT(*), COALESCE(SUM(so.total_amount), 0)
+                FROM sales_orders so
+                WHERE so.order_date BETWEEN :start AND :end
+                GROUP BY so.order_date, so.status, so.warehouse_id, so.customer_id
+                """)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .executeUpdate();
+
+        int lines = em.createNativeQuery("""
+                INSERT INTO sales_daily_rollup (rollup_date, status, warehouse_id, customer_id, product_id,
+                                                units_sold, line_revenue)
+                SELECT so.order_date, so.status, so.warehouse_id, so.customer_id, soi.product_id,
+                       COALESCE(SUM(soi.quantity), 0), COALESCE(SUM(soi.line_total), 0)
+                FROM sales_order_items soi
+                JOIN sales_orders so ON so.id = soi.sales_order_id
+                WHERE so.order_date BETWEEN :start AND :end
+                GROUP BY so.order_date, so.status, so.warehouse_id, so.customer_id, soi.product_id
+                """)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .executeUpdate();
+
+        log.info("Sales rollup rebuilt for {} – {}: {} rows removed, {} header rows, {} line rows",
+                start, end, deleted, headers, lines);
+        return headers + lines;
+    }
+}
@@ -0,0 +1,33 @@
+package com.moeware.ims.repository.dashboard;
+
+import java.time.LocalDate;
+
+/**
+ * Write-side contract for the {@code stock_daily_snapshots} table.
+ * <p>
+ * Snapshots are written set-based with native SQL in
+ * {@link StockSnapshotRepositoryImpl}; the read side (inventory trend) lives in
+ * {@link DashboardRepositoryImpl}. Both write methods replace any rows already
+ * present for the day, so re-running them is safe.
+ */
+public interface StockSnapshotRepository {
+
+        /**
+         * Writes the end-of-day stock for {@code day} as current
+         * {@code inventory_items} quantities minus every movement recorded after
+         * that day. Used by the nightly job (where only a few minutes of
+         * movements need undoing) and to seed a backfill.
+         *
+         * @return number of snapshot rows written
+         */
+        int captureFromCurrentStock(LocalDate day);
+
+        /**
+         * Writes the end-of-day stock for {@code day} as the previous day's
+         * snapshot plus that day's net movements. Requires a snapshot for
+         * {@code day - 1}.
+         *
+         * @return number of snapshot rows written
+         */
+        int replayFromPreviousDay(LocalDate day);
+}
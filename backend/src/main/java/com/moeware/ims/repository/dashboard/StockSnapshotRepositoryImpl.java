@@ -0,0 +1,103 @@
+package com.moeware.ims.repository.dashboard;
+
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementation of {@link StockSnapshotRepository}.
+ * <p>
+ * Native SQL required: each day is written with a single
+ * {@code INSERT ... SELECT} so no inventory rows are loaded into the JVM.
+ * Movements are netted per (product, warehouse): {@code to_warehouse_id}
+ * adds, {@code from_warehouse_id} subtracts. Values use the product's current
+ * unit price because price history is not recorded.
+ */
+@Repository
+public class StockSnapshotRepositoryImpl implements StockSnapshotRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int captureFromCurrentStock(LocalDate day) {
+        deleteDay(day);
+        return em.createNativeQuery("""
+                INSERT INTO stock_daily_snapshots (snapshot_date, warehouse_id, product_id,
+                                                   quantity, unit_price, stock_value, reorder_level)
+                SELECT :day, ii.warehouse_id, ii.product_id,
+                       GREATEST(ii.quantity - COALESCE(later.net, 0), 0),
+                       p.unit_price,
+                       p.unit_price * GREATEST(ii.quantity - COALESCE(later.net, 0), 0),
+                       p.reorder_level
+                FROM inventory_items ii
+                JOIN products p ON p.id = ii.product_id
+                LEFT JOIN (SELECT m.product_id, m.warehouse_id, SUM(m.delta) AS net
+                           FROM (SELECT product_id, to_warehouse_id AS warehouse_id, quantity AS delta
+                                 FROM inventory_movements
+                                 WHERE to_warehouse_id IS NOT NULL AND movement_date >= :after
+                                 UNION ALL
+                                 SELECT product_id, from_warehouse_id, -quantity
+                                 FROM inventory_movements
+                                 WHERE from_warehouse_id IS NOT NULL AND movement_date >= :after) m
+                           GROUP BY m.product_id, m.warehouse_id) later
+                       ON later.product_id = ii.product_id AND later.warehouse_id = ii.warehouse_id
+                """)
+                .setParameter("day", day)
+                .setParameter("after", day.plusDays(1).atStartOfDay())
+                .executeUpdate();
+    }
+
+    @Override
+    public int replayFromPreviousDay(LocalDate day) {
+        deleteDay(day);
+        return em.createNativeQuery("""
+                INSERT INTO stock_daily_snapshots (snapshot_date, warehouse_id, product_id,
+                                                   quantity, unit_price, stock_value, reorder_level)
+                SELECT :day, k.warehouse_id, k.product_id,
+                       GREATEST(k.qty, 0),
+                       p.unit_price,
+                       p.unit_price * GREATEST(k.qty, 0),
+                       p.reorder_level
+                FROM (SELECT u.product_id, u.warehouse_id, SUM(u.delta) AS qty
+                      FROM (SELECT product_id, warehouse_id, quantity AS delta
+                            FROM stock_daily_snapshots
+                            WHERE snapshot_date = :previous
+                            UNION ALL
+                            SELECT product_id, to_warehouse_id, quantity
+                            FROM inventory_movements
+                            WHERE to_warehouse_id IS NOT NULL
+                              AND movement_date >= :dayStart AND movement_date < :dayEnd
+                            UNION ALL
+                            SELECT product_id, from_warehouse_id, -quantity
+                            FROM inventory_movements
+                            WHERE from_warehouse_id IS NOT NULL
+                              AND movement_date >= :dayStart AND movement_date < :dayEnd) u
+                      GROUP BY u.product_id, u.warehouse_id) k
+                JOIN products p ON p.id = k.product_id
+                """)
+                .setParameter("day", day)
+                .setParameter("previous", day.minusDays(1))
+                .setParameter("dayStart", day.atStartOfDay())
+                .setParameter("dayEnd", day.plusDays(1).atStartOfDay())
+                .executeUpdate();
+    }
+
+    /**
+     * Clears the day under a transaction-scoped advisory lock on it. Without
+     * the lock, two instances running the nightly job would both delete
+     * nothing and the second INSERT would fail on the primary key; with it the
+     * second waits, then replaces the first one's rows.
+     */
+    private void deleteDay(LocalDate day) {
+        em.createNativeQuery("SELECT pg_advisory_xact_lock(hashtextextended(:lockKey, 0))")
+                .setParameter("lockKey", "stock_snapshot:" + day)
+                .getSingleResult();
+        em.createNativeQuery("DELETE FROM stock_daily_snapshots WHERE snapshot_date = :day")
+                .setParameter("day", day)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,97 @@
+package com.moeware.ims.repository.inventory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.moeware.ims.enums.transaction.MovementType;
+
+/**
+ * Write and aggregate-read contract for {@code cost_layers} and
+ * {@code cost_consumptions}.
+ * <p>
+ * Like {@link StockLedgerRepository} this is a plain interface backed by native
+ * SQL in {@link CostLayerRepositoryImpl}. Callers must already hold the
+ * {@code inventory_items} row of the product and warehouse (every stock write
+ * takes it), which serialises cost changes per row.
+ */
+public interface CostLayerRepository {
+
+        /**
+         * Units entering a warehouse. A null {@code unitCost} means the product's
+         * current cost price.
+         */
+        record LayerInput(
+                        Long productId,
+                        Long warehouseId,
+                        int quantity,
+                        BigDecimal unitCost,
+                        MovementType movementType,
+                        String referenceNumber,
+                        LocalDateTime receivedAt) {
+        }
+
+        /**
+         * Units drawn from layers and their total cost.
+         */
+        record CostDraw(int quantity, BigDecimal cost) {
+
+                public static final CostDraw NONE = new CostDraw(0, BigDecimal.ZERO);
+        }
+
+        /**
+         * Valuation aggregate. {@code warehouseId} is set on per-warehouse rows,
+         * {@code categoryId} on per-category rows, neither on the grand total.
+         */
+        record ValuationRow(
+                        boolean total,
+                        Long warehouseId,
+                        String warehouseName,
+                        Long categoryId,
+                        String categoryName,
+                        int products,
+                        long units,
+                        BigDecimal costValue,
+                        BigDecimal retailValue) {
+        }
+
+        /**
+         * Inserts one FIFO layer per input as a JDBC batch.
+         */
+        void addLayers(List<LayerInput> layers);
+
+        /**
+         * Merges the input into the open weighted-average layer of its product
+         * and warehouse, re-averaging the unit cost, or opens one. Several open
+         * layers (left over from FIFO) are folded into one first.
+         */
+        void addToAverage(LayerInput layer);
+
+        /**
+         * Draws up to {@code quantity} units from the open layers in FIFO order
+         * and records a consumption per layer drawn. Returns less than
+         * {@code quantity} when the layers do not cover it.
+         */
+        CostDraw consume(Long productId, Long warehouseId, int quantity, MovementType movementType,
+                        String referenceNumber, LocalDateTime consumedAt);
+
+        /**
+         * Records units that left without a layer, priced at the product's cost
+         * price, and returns their cost.
+         */
+        BigDecimal recordUncovered(Long productId, Long warehouseId, int quantity, MovementType movementType,
+                        String referenceNumber, LocalDateTime consumedAt);
+
+        /**
+         * Total units and cost consumed under a reference number (e.g. the COGS
+         * of a sales order), optionally for one product only.
+         */
+        CostDraw findConsumed(String referenceNumber, Long productId);
+
+        /**
+         * Streams the valuation aggregates (per warehouse, per category and the
+         * grand total), computed entirely in SQL. {@code null} filters mean "any".
+         */
+        void streamValuation(Long warehouseId, Long categoryId, Consumer<ValuationRow> sink);
+}
@@ -0,0 +1,274 @@
+package com.moeware.ims.repository.inventory;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.moeware.ims.enums.transaction.MovementType;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementation of {@link CostLayerRepository}.
+ * <p>
+ * {@link #consume} is one statement: it locks the open layers of the product
+ * and warehouse in FIFO order, computes with a running sum how much each layer
+ * gives, decrements them and records the consumptions. Only the layers actually
+ * drawn are touched, and the partial index {@code idx_cl_open_fifo} keeps
+ * exhausted layers out of the scan.
+ * <p>
+ * {@link #streamValuation} aggregates with {@code GROUPING SETS} in the
+ * database, so only one row per warehouse, per category and the total cross
+ * the wire however many layers exist; rows are read through a streamed result.
+ * Stock not covered by layers (e.g. written before costing existed) is valued
+ * at the product's cost price.
+ * <p>
+ * {@link #addToAverage} keeps a single open layer per product and warehouse.
+ * After a switch from FIFO several layers may still be open: the first receipt
+ * folds them into the newest one, averaging over their summed remaining
+ * quantity, and closes the others.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CostLayerRepositoryImpl implements CostLayerRepository {
+
+    private static final String ADD_LAYER_SQL = """
+            INSERT INTO cost_layers (product_id, warehouse_id, unit_cost, original_quantity, remaining_quantity,
+                                     movement_type, reference_number, received_at)
+            SELECT p.id, ?, COALESCE(?, p.cost_price), ?, ?, ?, ?, ?
+            FROM products p
+            WHERE p.id = ?
+            """;
+
+    private static final String ADD_TO_AVERAGE_SQL = """
+            WITH cost AS (
+                SELECT COALESCE(CAST(:unitCost AS DECIMAL), cost_price) AS unit_cost
+                FROM products WHERE id = :productId
+            ), open_layers AS (
+                SELECT id, remaining_quantity, unit_cost, received_at
+                FROM cost_layers
+                WHERE product_id = :productId AND warehouse_id = :warehouseId AND remaining_quantity > 0
+                FOR UPDATE
+            ), pooled AS (
+                SELECT (SELECT id FROM open_layers ORDER BY received_at DESC, id DESC LIMIT 1) AS target_id,
+                       SUM(remaining_quantity) AS quantity,
+                       SUM(remaining_quantity * unit_cost) AS cost
+                FROM open_layers
+            ), folded AS (
+                UPDATE cost_layers l
+                SET remaining_quantity = 0
+                FROM open_layers o, pooled p
+                WHERE l.id = o.id AND o.id <> p.target_id
+                RETURNING l.id
+            ), merged AS (
+                UPDATE cost_layers l
+                SET unit_cost          = ROUND((p.cost + :quantity * c.unit_cost) / (p.quantity + :quantity), 4),
+                    original_quantity  = l.original_quantity + (p.quantity - l.remaining_quantity) + :quantity,
+                    remaining_quantity = p.quantity + :quantity,
+                    received_at        = :receivedAt
+                FROM pooled p, cost c
+                WHERE l.id = p.target_id
+                RETURNING l.id
+            )
+            INSERT INTO cost_layers (product_id, warehouse_id, unit_cost, original_quantity, remaining_quantity,
+                                     movement_type, reference_number, received_at)
+            SELECT :productId, :warehouseId, c.unit_cost, :quantity, :quantity,
+                   :movementType, CAST(:referenceNumber AS VARCHAR), :receivedAt
+            FROM cost c
+            WHERE NOT EXISTS (SELECT 1 FROM merged)
+            """;
+
+    private static final String CONSUME_SQL = """
+            WITH locked AS (
+                SELECT id, remaining_quantity, unit_cost, received_at
+                FROM cost_layers
+                WHERE product_id = :productId AND warehouse_id = :warehouseId AND remaining_quantity > 0
+                ORDER BY received_at, id
+                FOR UPDATE
+            ), ordered AS (
+                SELECT id, remaining_quantity, unit_cost,
+                       SUM(remaining_quantity) OVER (ORDER BY received_at, id) - remaining_quantity AS before
+                FROM locked
+            ), take AS (
+                SELECT id, unit_cost, LEAST(remaining_quantity, :quantity - before) AS quantity
+                FROM ordered
+                WHERE before < :quantity
+            ), drawn AS (
+                UPDATE cost_layers l
+                SET remaining_quantity = l.remaining_quantity - t.quantity
+                FROM take t
+                WHERE l.id = t.id
+                RETURNING l.id
+            ), recorded AS (
+                INSERT INTO cost_consumptions (layer_id, product_id, warehouse_id, quantity, unit_cost,
+                                               movement_type, reference_number, consumed_at)
+                SELECT id, :productId, :warehouseId, quantity, unit_cost,
+                       :movementType, CAST(:referenceNumber AS VARCHAR), :consumedAt
+                FROM take
+                RETURNING id
+            )
+            SELECT COALESCE(SUM(quantity), 0), COALESCE(SUM(quantity * unit_cost), 0) FROM take
+            """;
+
+    private static final String UNCOVERED_SQL = """
+            INSERT INTO cost_consumptions (layer_id, product_id, warehouse_id, quantity, unit_cost,
+                                           movement_type, reference_number, consumed_at)
+            SELECT NULL, p.id, :warehouseId, :quantity, p.cost_price,
+                   :movementType, CAST(:referenceNumber AS VARCHAR), :consumedAt
+            FROM products p
+            WHERE p.id = :productId
+            RETURNING quantity * unit_cost
+            """;
+
+    private static final String VALUATION_SQL = """
+            WITH layered AS (
+                SELECT product_id, warehouse_id,
+                       SUM(remaining_quantity) AS quantity,
+                       SUM(remaining_quantity * unit_cost) AS cost
+                FROM cost_layers
+                WHERE remaining_quantity > 0
+                  AND (CAST(:warehouseId AS BIGINT) IS NULL OR warehouse_id = CAST(:warehouseId AS BIGINT))
+                GROUP BY product_id, warehouse_id
+            ), stock AS (
+                SELECT i.product_id, i.warehouse_id, p.category_id, i.quantity,
+                       CASE WHEN COALESCE(l.quantity, 0) >= i.quantity
+                            THEN l.cost * i.quantity / l.quantity
+                            ELSE COALESCE(l.cost, 0) + (i.quantity - COALESCE(l.quantity, 0)) * p.cost_price
+                       END AS cost_value,
+                       i.quantity * p.unit_price AS retail_value
+                FROM inventory_items i
+                JOIN products p ON p.id = i.product_id
+                LEFT JOIN layered l ON l.product_id = i.product_id AND l.warehouse_id = i.warehouse_id
+                WHERE i.quantity > 0
+                  AND (CAST(:warehouseId AS BIGINT) IS NULL OR i.warehouse_id = CAST(:warehouseId AS BIGINT))
+                  AND (CAST(:categoryId AS BIGINT) IS NULL OR p.category_id = CAST(:categoryId AS BIGINT))
+            )
+            SELECT GROUPING(s.warehouse_id) = 1 AND GROUPING(s.category_id) = 1,
+                   s.warehouse_id, w.name, s.category_id, c.name,
+                   COUNT(DISTINCT s.product_id), COALESCE(SUM(s.quantity), 0),
+                   COALESCE(ROUND(SUM(s.cost_value), 2), 0), COALESCE(ROUND(SUM(s.retail_value), 2), 0)
+            FROM stock s
+            JOIN warehouses w ON w.id = s.warehouse_id
+            LEFT JOIN categories c ON c.id = s.category_id
+            GROUP BY GROUPING SETS ((s.warehouse_id, w.name), (s.category_id, c.name), ())
+            """;
+
+    private static final int BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addLayers(List<LayerInput> layers) {
+        if (layers.isEmpty()) {
+            return;
+        }
+        em.flush();
+        jdbcTemplate.batchUpdate(ADD_LAYER_SQL, layers, BATCH_SIZE, (ps, l) -> {
+            ps.setLong(1, l.warehouseId());
+            ps.setObject(2, l.unitCost(), Types.NUMERIC);
+            ps.setInt(3, l.quantity());
+            ps.setInt(4, l.quantity());
+            ps.setString(5, l.movementType().name());
+            ps.setString(6, l.referenceNumber());
+            ps.setTimestamp(7, Timestamp.valueOf(l.receivedAt()));
+            ps.setLong(8, l.productId());
+        });
+    }
+
+    @Override
+    public void addToAverage(LayerInput l) {
+        em.createNativeQuery(ADD_TO_AVERAGE_SQL)
+                .setParameter("productId", l.productId())
+                .setParameter("warehouseId", l.warehouseId())
+                .setParameter("quantity", l.quantity())
+                .setParameter("unitCost", l.unitCost())
+                .setParameter("movementType", l.movementType().name())
+                .setParameter("referenceNumber", l.referenceNumber())
+                .setParameter("receivedAt", l.receivedAt())
+                .executeUpdate();
+    }
+
+    @Override
+    public CostDraw consume(Long productId, Long warehouseId, int quantity, MovementType movementType,
+            String referenceNumber, LocalDateTime consumedAt) {
+        Object[] row = (Object[]) em.createNativeQuery(CONSUME_SQL)
+                .setParameter("productId", productId)
+                .setParameter("warehouseId", warehouseId)
+                .setParameter("quantity", quantity)
+                .setParameter("movementType", movementType.name())
+                .setParameter("referenceNumber", referenceNumber)
+                .setParameter("consumedAt", consumedAt)
+                .getSingleResult();
+        return new CostDraw(((Number) row[0]).intValue(), toBigDecimal(row[1]));
+    }
+
+    @Override
+    public BigDecimal recordUncovered(Long productId, Long warehouseId, int quantity, MovementType movementType,
+            String referenceNumber, LocalDateTime consumedAt) {
+        return toBigDecimal(em.createNativeQuery(UNCOVERED_SQL)
+                .setParameter("productId", productId)
+                .setParameter("warehouseId", warehouseId)
+                .setParameter("quantity", quantity)
+                .setParameter("movementType", movementType.name())
+                .setParameter("referenceNumber", referenceNumber)
+                .setParameter("consumedAt", consumedAt)
+                .getSingleResult());
+    }
+
+    @Override
+    public CostDraw findConsumed(String referenceNumber, Long productId) {
+        Object[] row = (Object[]) em.createNativeQuery("""
+                SELECT COALESCE(SUM(quantity), 0), COALESCE(SUM(quantity * unit_cost), 0)
+                FROM cost_consumptions
+                WHERE reference_number = :referenceNumber
+                  AND (CAST(:productId AS BIGINT) IS NULL OR product_id = CAST(:productId AS BIGINT))
+                """)
+                .setParameter("referenceNumber", referenceNumber)
+                .setParameter("productId", productId)
+                .getSingleResult();
+        return new CostDraw(((Number) row[0]).intValue(), toBigDecimal(row[1]));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void streamValuation(Long warehouseId, Long categoryId, Consumer<ValuationRow> sink) {
+        try (Stream<Object[]> rows = em.createNativeQuery(VALUATION_SQL)
+                .setParameter("warehouseId", warehouseId)
+                .setParameter("categoryId", categoryId)
+                .getResultStream()) {
+            rows.map(r -> new ValuationRow(
+                    (Boolean) r[0],
+                    toLong(r[1]),
+                    (String) r[2],
+                    toLong(r[3]),
+                    (String) r[4],
+                    ((Number) r[5]).intValue(),
+                    ((Number) r[6]).longValue(),
+                    toBigDecimal(r[7]),
+                    toBigDecimal(r[8])))
+                    .forEach(sink);
+        }
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private Long toLong(Object o) {
+        return o == null ? null : ((Number) o).longValue();
+    }
+
+    private BigDecimal toBigDecimal(Object o) {
+        return o instanceof BigDecimal bd ? bd : new BigDecimal(o.toString());
+    }
+}
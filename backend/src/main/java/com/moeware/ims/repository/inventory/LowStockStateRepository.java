@@ -0,0 +1,68 @@
+package com.moeware.ims.repository.inventory;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.moeware.ims.enums.transaction.LowStockSeverity;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockKey;
+
+/**
+ * Threshold lookups for low-stock detection and the write path for
+ * {@code low_stock_state}.
+ * <p>
+ * Like {@link StockLedgerRepository} this is a plain interface backed by native
+ * SQL in {@link LowStockStateRepositoryImpl}: the state table has no entity, it
+ * is only ever upserted per inventory row and read by the alert queries.
+ */
+public interface LowStockStateRepository {
+
+        /**
+         * Current quantity of one inventory row with its product's thresholds.
+         */
+        record StockThreshold(StockKey key, int quantity, int reorderLevel, int minStockLevel) {
+
+                public LowStockSeverity severity() {
+                        return LowStockSeverity.of(quantity, reorderLevel, minStockLevel);
+                }
+        }
+
+        /**
+         * Outcome of {@link #refresh}: the stored severity before and after, plus
+         * what a notification needs to describe the row. {@code current} is null
+         * when the row is no longer low (or no longer exists) and was removed.
+         */
+        record StateChange(
+                        LowStockSeverity previous,
+                        LowStockSeverity current,
+                        Long inventoryItemId,
+                        int quantity,
+                        int reorderLevel,
+                        int minStockLevel,
+                        String sku,
+                        String productName,
+                        String warehouseCode) {
+
+                /** True when the row became low or got worse. */
+                public boolean worsened() {
+                        return current != null && (previous == null || current.compareTo(previous) > 0);
+                }
+        }
+
+        /**
+         * Quantities and thresholds for the given rows, as seen by the current
+         * transaction. Rows that do not exist are absent.
+         */
+        List<StockThreshold> findThresholds(Collection<StockKey> keys);
+
+        /**
+         * Quantities of every inventory row of a product with its thresholds.
+         */
+        List<StockThreshold> findThresholdsForProduct(Long productId);
+
+        /**
+         * Recomputes the state row for one inventory row from committed stock and
+         * thresholds, inserting, updating or deleting it. Concurrent refreshes of
+         * the same row are serialised, so each transition is reported once.
+         */
+        StateChange refresh(StockKey key);
+}
@@ -0,0 +1,154 @@
+package com.moeware.ims.repository.inventory;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.moeware.ims.enums.transaction.LowStockSeverity;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockKey;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementation of {@link LowStockStateRepository}.
+ * <p>
+ * {@link #refresh} takes a transaction-scoped advisory lock on the
+ * {@code (warehouse_id, product_id)} pair before reading the previous state,
+ * so two refreshes of the same row (from two instances, or two crossings in
+ * quick succession) run one after the other and only the first reports the
+ * transition. Stock writers never take this lock and are not slowed down.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LowStockStateRepositoryImpl implements LowStockStateRepository {
+
+    private static final String THRESHOLDS_SQL = """
+            SELECT ii.warehouse_id, ii.product_id, ii.quantity, p.reorder_level, p.min_stock_level
+            FROM inventory_items ii
+            JOIN products p ON p.id = ii.product_id
+            WHERE (ii.warehouse_id, ii.product_id) IN (
+                SELECT * FROM unnest(CAST(? AS BIGINT[]), CAST(? AS BIGINT[])))
+            """;
+
+    private static final String CURRENT_SQL = """
+            SELECT ii.id, ii.quantity, p.reorder_level, p.min_stock_level, p.sku, p.name, w.code,
+                   (SELECT s.severity FROM low_stock_state s
+                    WHERE s.warehouse_id = ii.warehouse_id AND s.product_id = ii.product_id)
+            FROM inventory_items ii
+            JOIN products p ON p.id = ii.product_id
+            JOIN warehouses w ON w.id = ii.warehouse_id
+            WHERE ii.warehouse_id = :warehouseId AND ii.product_id = :productId
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO low_stock_state (warehouse_id, product_id, inventory_item_id, quantity,
+                                         reorder_level, min_stock_level, severity)
+            VALUES (:warehouseId, :productId, :inventoryItemId, :quantity, :reorderLevel, :minStockLevel, :severity)
+            ON CONFLICT ON CONSTRAINT pk_low_stock_state DO UPDATE
+            SET quantity        = EXCLUDED.quantity,
+                reorder_level   = EXCLUDED.reorder_level,
+                min_stock_level = EXCLUDED.min_stock_level,
+                severity        = EXCLUDED.severity
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<StockThreshold> findThresholds(Collection<StockKey> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        em.flush();
+        return jdbcTemplate.query(THRESHOLDS_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("bigint", keys.stream().map(StockKey::warehouseId).toArray()));
+            ps.setArray(2, connection.createArrayOf("bigint", keys.stream().map(StockKey::productId).toArray()));
+        }, (rs, rowNum) -> new StockThreshold(
+                new StockKey(rs.getLong(1), rs.getLong(2)), rs.getInt(3), rs.getInt(4), rs.getInt(5)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<StockThreshold> findThresholdsForProduct(Long productId) {
+        return ((List<Object[]>) em.createNativeQuery("""
+                SELECT ii.warehouse_id, ii.quantity, p.reorder_level, p.min_stock_level
+                FROM inventory_items ii
+                JOIN products p ON p.id = ii.product_id
+                WHERE ii.product_id = :productId
+                """)
+                .setParameter("productId", productId)
+                .getResultList())
+                .stream()
+                .map(r -> new StockThreshold(new StockKey(toLong(r[0]), productId),
+                        toInt(r[1]), toInt(r[2]), toInt(r[3])))
+                .toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public StateChange refresh(StockKey key) {
+        em.createNativeQuery("SELECT pg_advisory_xact_lock(hashtextextended(:lockKey, 0))")
+                .setParameter("lockKey", "low_stock:" + key.warehouseId() + ":" + key.productId())
+                .getSingleResult();
+
+        List<Object[]> rows = em.createNativeQuery(CURRENT_SQL)
+                .setParameter("warehouseId", key.warehouseId())
+                .setParameter("productId", key.productId())
+                .getResultList();
+        if (rows.isEmpty()) {
+            // Inventory row deleted; the foreign key cascade removed any state
+            return new StateChange(null, null, null, 0, 0, 0, null, null, null);
+        }
+
+        Object[] r = rows.get(0);
+        Long inventoryItemId = toLong(r[0]);
+        int quantity = toInt(r[1]);
+        int reorderLevel = toInt(r[2]);
+        int minStockLevel = toInt(r[3]);
+        LowStockSeverity previous = r[7] != null ? LowStockSeverity.valueOf((String) r[7]) : null;
+        LowStockSeverity current = LowStockSeverity.of(quantity, reorderLevel, minStockLevel);
+
+        if (current == null) {
+            if (previous != null) {
+                em.createNativeQuery("""
+                        DELETE FROM low_stock_state WHERE warehouse_id = :warehouseId AND product_id = :productId
+                        """)
+                        .setParameter("warehouseId", key.warehouseId())
+                        .setParameter("productId", key.productId())
+                        .executeUpdate();
+            }
+        } else {
+            // since is left alone on conflict: it marks when the row first went low
+            em.createNativeQuery(UPSERT_SQL)
+                    .setParameter("warehouseId", key.warehouseId())
+                    .setParameter("productId", key.productId())
+                    .setParameter("inventoryItemId", inventoryItemId)
+                    .setParameter("quantity", quantity)
+                    .setParameter("reorderLevel", reorderLevel)
+                    .setParameter("minStockLevel", minStockLevel)
+                    .setParameter("severity", current.name())
+                    .executeUpdate();
+        }
+
+        return new StateChange(previous, current, inventoryItemId, quantity, reorderLevel, minStockLevel,
+                (String) r[4], (String) r[5], (String) r[6]);
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private Long toLong(Object o) {
+        return o == null ? null : ((Number) o).longValue();
+    }
+
+    private int toInt(Object o) {
+        return ((Number) o).intValue();
+    }
+}
@@ -0,0 +1,131 @@
+package com.moeware.ims.repository.inventory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import com.moeware.ims.enums.transaction.MovementType;
+
+import lombok.Builder;
+
+/**
+ * Write path for stock levels: every change to {@code inventory_items.quantity}
+ * goes through {@link #apply(StockMovement)}.
+ * <p>
+ * Like {@link com.moeware.ims.repository.dashboard.SalesRollupRepository} this
+ * is a plain interface backed by native SQL in {@link StockLedgerRepositoryImpl}.
+ * Stock is never read, modified in memory and saved back; each movement is a
+ * single conditional statement, so concurrent orders on the same product and
+ * warehouse neither lose updates nor fail on {@code @Version} conflicts.
+ * The read side stays on {@link InventoryItemRepository}.
+ */
+public interface StockLedgerRepository {
+
+        /**
+         * One movement to apply. {@code fromWarehouseId} is decremented (only if
+         * it holds at least {@code quantity} available, i.e. unreserved, units),
+         * {@code toWarehouseId} is incremented (its row is created when missing)
+         * and an {@code inventory_movements} row is recorded. Either warehouse may
+         * be null, but not both. {@code locationCode}, when set, replaces the
+         * destination row's location.
+         * <p>
+         * With {@code fromReserved} the source units come out of stock already
+         * reserved for the movement: quantity and reserved quantity drop together
+         * and the check is against the reserved quantity instead.
+         * <p>
+         * {@code unitCost} prices the units entering {@code toWarehouseId} for
+         * the cost layers; when null, transfers carry the cost drawn from the
+         * source and other inbound movements use the product's cost price.
+         */
+        @Builder
+        record StockMovement(
+                        Long productId,
+                        Long fromWarehouseId,
+                        Long toWarehouseId,
+                        int quantity,
+                        MovementType movementType,
+                        String reason,
+                        String referenceNumber,
+                        Long performedById,
+                        LocalDateTime movementDate,
+                        String locationCode,
+                        boolean fromReserved,
+                        BigDecimal unitCost) {
+        }
+
+        /**
+         * Outcome of {@link #apply}. When {@code applied} is false the source
+         * warehouse had too little available stock (or no row) and nothing was
+         * written.
+         *
+         * @param fromQuantity source quantity after the movement, or null
+         * @param toQuantity   destination quantity after the movement, or null
+         * @param movementId   ID of the recorded {@code inventory_movements} row
+         */
+        record StockChange(boolean applied, Integer fromQuantity, Integer toQuantity, Long movementId) {
+        }
+
+        /**
+         * Applies one movement atomically inside the caller's transaction.
+         */
+        StockChange apply(StockMovement movement);
+
+        /**
+         * Identifies one inventory row. The natural ordering (warehouse, then
+         * product) is the canonical order in which batch operations lock rows.
+         */
+        record StockKey(Long warehouseId, Long productId) implements Comparable<StockKey> {
+
+                private static final Comparator<StockKey> ORDER = Comparator
+                                .comparing(StockKey::warehouseId)
+                                .thenComparing(StockKey::productId);
+
+                @Override
+                public int compareTo(StockKey other) {
+                        return ORDER.compare(this, other);
+                }
+        }
+
+        /**
+         * Quantities of one inventory row as read under lock.
+         */
+        record StockLevel(StockKey key, int quantity, int reservedQuantity) {
+
+                public int available() {
+                        return quantity - reservedQuantity;
+                }
+        }
+
+        /**
+         * Applies many receipts (movements with only a {@code toWarehouseId})
+         * inside the caller's transaction. Quantities are summed into one upsert
+         * per product and warehouse, and one movement row is recorded per
+         * receipt; both are sent as JDBC batches, so the cost no longer grows by
+         * a round trip per line.
+         */
+        void applyReceipts(List<StockMovement> receipts);
+
+        /**
+         * Locks the existing inventory rows among {@code keys} with
+         * {@code SELECT ... FOR UPDATE} in {@link StockKey} order and returns
+         * them. Keys without a row are absent from the result.
+         */
+        List<StockLevel> lockStockLevels(Collection<StockKey> keys);
+
+        /**
+         * Applies many transfers (movements with both warehouses) as JDBC
+         * batches. Unlike {@link #apply} there is no per-line gate: the caller
+         * must hold the source rows through {@link #lockStockLevels} and only
+         * pass lines it has checked against the locked quantities.
+         */
+        void applyTransfers(List<StockMovement> transfers);
+
+        /**
+         * Unreserved quantity of a product in a warehouse, or empty when the
+         * product has no inventory row there.
+         */
+        Optional<Integer> findAvailableQuantity(Long productId, Long warehouseId);
+}
@@ -0,0 +1,306 @@
+package com.moeware.ims.repository.inventory;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementation of {@link StockLedgerRepository}.
+ * <p>
+ * {@link #apply} is one statement made of data-modifying CTEs:
+ * <ol>
+ * <li>{@code src} — {@code UPDATE ... SET quantity = quantity - :quantity
+ * WHERE ... AND quantity - reserved_quantity >= :quantity} (or
+ * {@code reserved_quantity >= :quantity} when drawing reserved stock). Under
+ * READ COMMITTED a concurrent update makes PostgreSQL wait for the row lock
+ * and then re-check the condition against the committed row, so stock cannot
+ * go negative, reserved units cannot be taken, and no decrement is lost.</li>
+ * <li>{@code gate} — one row if there is no source or the source update
+ * matched; the remaining CTEs only write when it has a row.</li>
+ * <li>{@code dst} — {@code INSERT ... ON CONFLICT DO UPDATE} on
+ * {@code uk_inventory_product_warehouse}, an additive upsert.</li>
+ * <li>{@code mv} — the {@code inventory_movements} insert.</li>
+ * </ol>
+ * Version and audit columns are maintained by hand because Hibernate does not
+ * see these writes; {@code updated_at} is set by the table triggers.
+ * {@code InventoryItem} entities already loaded in the same persistence context
+ * are not refreshed, so callers must take quantities from the returned
+ * {@link StockChange}.
+ * <p>
+ * The batch paths ({@link #applyReceipts}, {@link #applyTransfers}) net the
+ * movements per inventory row and send debits, credits and movement rows as
+ * JDBC batches on the transaction's connection. Rows are written in
+ * {@link StockKey} order, the same order {@link #lockStockLevels} locks them
+ * in, so concurrent batches touching overlapping rows queue instead of
+ * deadlocking.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockLedgerRepositoryImpl implements StockLedgerRepository {
+
+    private static final String APPLY_SQL = """
+            WITH src AS (
+                UPDATE inventory_items
+                SET quantity          = quantity - :quantity,
+                    reserved_quantity = reserved_quantity - CASE WHEN :fromReserved THEN :quantity ELSE 0 END,
+                    version           = version + 1,
+                    updated_by        = :auditor
+                WHERE CAST(:fromWarehouseId AS BIGINT) IS NOT NULL
+                  AND product_id = :productId
+                  AND warehouse_id = CAST(:fromWarehouseId AS BIGINT)
+                  AND CASE WHEN :fromReserved THEN reserved_quantity >= :quantity
+                           ELSE quantity - reserved_quantity >= :quantity END
+                RETURNING quantity
+            ), gate AS (
+                SELECT 1 AS ok
+                WHERE CAST(:fromWarehouseId AS BIGINT) IS NULL OR EXISTS (SELECT 1 FROM src)
+            ), dst AS (
+                INSERT INTO inventory_items (product_id, warehouse_id, quantity, location_code, created_by, updated_by)
+                SELECT :productId, CAST(:toWarehouseId AS BIGINT), :quantity, CAST(:locationCode AS VARCHAR),
+                       :auditor, :auditor
+                FROM gate
+                WHERE CAST(:toWarehouseId AS BIGINT) IS NOT NULL
+                ON CONFLICT ON CONSTRAINT uk_inventory_product_warehouse DO UPDATE
+                SET quantity      = inventory_items.quantity + EXCLUDED.quantity,
+                    location_code = COALESCE(EXCLUDED.location_code, inventory_items.location_code),
+                    version       = inventory_items.version + 1,
+                    updated_by    = EXCLUDED.updated_by
+                RETURNING quantity
+            ), mv AS (
+                INSERT INTO inventory_movements (product_id, from_warehouse_id, to_warehouse_id, quantity,
+                                                 movement_type, reason, reference_number, performed_by,
+                                                 movement_date, created_by, updated_by)
+                SELECT :productId, CAST(:fromWarehouseId AS BIGINT), CAST(:toWarehouseId AS BIGINT), :quantity,
+                       :movementType, CAST(:reason AS TEXT), CAST(:referenceNumber AS VARCHAR), :performedBy,
+                       :movementDate, :auditor, :auditor
+                FROM gate
+                RETURNING id
+            )
+            SELECT (SELECT ok FROM gate), (SELECT quantity FROM src), (SELECT quantity FROM dst), (SELECT id FROM mv)
+            """;
+
+    private static final String BATCH_CREDIT_SQL = """
+            INSERT INTO inventory_items (product_id, warehouse_id, quantity, location_code, created_by, updated_by)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT ON CONSTRAINT uk_inventory_product_warehouse DO UPDATE
+            SET quantity      = inventory_items.quantity + EXCLUDED.quantity,
+                location_code = COALESCE(EXCLUDED.location_code, inventory_items.location_code),
+                version       = inventory_items.version + 1,
+                updated_by    = EXCLUDED.updated_by
+            """;
+
+    private static final String BATCH_DEBIT_SQL = """
+            UPDATE inventory_items
+            SET quantity   = quantity - ?,
+                version    = version + 1,
+                updated_by = ?
+            WHERE product_id = ? AND warehouse_id = ?
+              AND quantity - reserved_quantity >= ?
+            """;
+
+    private static final String BATCH_MOVEMENT_SQL = """
+            INSERT INTO inventory_movements (product_id, from_warehouse_id, to_warehouse_id, quantity, movement_type,
+                                             reason, reference_number, performed_by, movement_date,
+                                             created_by, updated_by)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String LOCK_SQL = """
+            SELECT warehouse_id, product_id, quantity, reserved_quantity
+            FROM inventory_items
+            WHERE (warehouse_id, product_id) IN (
+                SELECT * FROM unnest(CAST(? AS BIGINT[]), CAST(? AS BIGINT[])))
+            ORDER BY warehouse_id, product_id
+            FOR UPDATE
+            """;
+
+    private static final int BATCH_SIZE = 500;
+
+    /** Net change for one inventory row; the last non-null location wins. */
+    private record RowDelta(StockKey key, int quantity, String locationCode) {
+    }
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final AuditorAware<String> auditorProvider;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public StockChange apply(StockMovement m) {
+        if (m.fromWarehouseId() == null && m.toWarehouseId() == null) {
+            throw new IllegalArgumentException("At least one warehouse (from or to) must be specified");
+        }
+        if (m.quantity() <= 0) {
+            throw new IllegalArgumentException("Movement quantity must be positive");
+        }
+
+        Object[] row = (Object[]) em.createNativeQuery(APPLY_SQL)
+                .setParameter("productId", m.productId())
+                .setParameter("fromWarehouseId", m.fromWarehouseId())
+                .setParameter("toWarehouseId", m.toWarehouseId())
+                .setParameter("quantity", m.quantity())
+                .setParameter("locationCode", m.locationCode())
+                .setParameter("fromReserved", m.fromReserved())
+                .setParameter("movementType", m.movementType().name())
+                .setParameter("reason", m.reason())
+                .setParameter("referenceNumber", m.referenceNumber())
+                .setParameter("performedBy", m.performedById())
+                .setParameter("movementDate", m.movementDate() != null ? m.movementDate() : LocalDateTime.now())
+                .setParameter("auditor", auditorProvider.getCurrentAuditor().orElse("SYSTEM"))
+                .getSingleResult();
+
+        return new StockChange(row[0] != null, toInteger(row[1]), toInteger(row[2]), toLong(row[3]));
+    }
+
+    @Override
+    public void applyReceipts(List<StockMovement> receipts) {
+        for (StockMovement m : receipts) {
+            if (m.fromWarehouseId() != null || m.toWarehouseId() == null) {
+                throw new IllegalArgumentException("Receipts must have a destination warehouse only");
+            }
+            requirePositive(m);
+        }
+        applyBatch(receipts);
+    }
+
+    @Override
+    public List<StockLevel> lockStockLevels(Collection<StockKey> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        // Pending entity changes must reach the database before JDBC reads or
+        // writes behind Hibernate's back, as they would before a native query
+        em.flush();
+        return jdbcTemplate.query(LOCK_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("bigint", keys.stream().map(StockKey::warehouseId).toArray()));
+            ps.setArray(2, connection.createArrayOf("bigint", keys.stream().map(StockKey::productId).toArray()));
+        }, (rs, rowNum) -> new StockLevel(
+                new StockKey(rs.getLong(1), rs.getLong(2)), rs.getInt(3), rs.getInt(4)));
+    }
+
+    @Override
+    public void applyTransfers(List<StockMovement> transfers) {
+        for (StockMovement m : transfers) {
+            if (m.fromWarehouseId() == null || m.toWarehouseId() == null || m.fromReserved()) {
+                throw new IllegalArgumentException("Transfers need a source and a destination warehouse");
+            }
+            requirePositive(m);
+        }
+        applyBatch(transfers);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Integer> findAvailableQuantity(Long productId, Long warehouseId) {
+        List<Object> rows = em.createNativeQuery("""
+                SELECT quantity - reserved_quantity FROM inventory_items
+                WHERE product_id = :productId AND warehouse_id = :warehouseId
+                """)
+                .setParameter("productId", productId)
+                .setParameter("warehouseId", warehouseId)
+                .getResultList();
+        return rows.stream().findFirst().map(this::toInteger);
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private void requirePositive(StockMovement m) {
+        if (m.quantity() <= 0) {
+            throw new IllegalArgumentException("Movement quantity must be positive");
+        }
+    }
+
+    /**
+     * Nets the movements per inventory row and writes debits, credits and
+     * movement rows as three JDBC batches, each row touched once and in
+     * {@link StockKey} order.
+     */
+    private void applyBatch(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Map<StockKey, RowDelta> deltas = new TreeMap<>();
+        for (StockMovement m : movements) {
+            if (m.fromWarehouseId() != null) {
+                addDelta(deltas, new StockKey(m.fromWarehouseId(), m.productId()), -m.quantity(), null);
+            }
+            if (m.toWarehouseId() != null) {
+                addDelta(deltas, new StockKey(m.toWarehouseId(), m.productId()), m.quantity(), m.locationCode());
+            }
+        }
+        List<RowDelta> debits = deltas.values().stream().filter(d -> d.quantity() < 0).toList();
+        List<RowDelta> credits = deltas.values().stream().filter(d -> d.quantity() > 0).toList();
+
+        String auditor = auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+        LocalDateTime now = LocalDateTime.now();
+
+        em.flush();
+
+        int[][] debited = jdbcTemplate.batchUpdate(BATCH_DEBIT_SQL, debits, BATCH_SIZE, (ps, d) -> {
+            ps.setInt(1, -d.quantity());
+            ps.setString(2, auditor);
+            ps.setLong(3, d.key().productId());
+            ps.setLong(4, d.key().warehouseId());
+            ps.setInt(5, -d.quantity());
+        });
+        // Callers check availability under lockStockLevels; a miss here is a bug
+        // and must abort the transaction rather than lose stock
+        if (Arrays.stream(debited).flatMapToInt(Arrays::stream).anyMatch(count -> count == 0)) {
+            throw new IllegalStateException("Batched debit found less available stock than checked");
+        }
+
+        jdbcTemplate.batchUpdate(BATCH_CREDIT_SQL, credits, BATCH_SIZE, (ps, d) -> {
+            ps.setLong(1, d.key().productId());
+            ps.setLong(2, d.key().warehouseId());
+            ps.setInt(3, d.quantity());
+            ps.setString(4, d.locationCode());
+            ps.setString(5, auditor);
+            ps.setString(6, auditor);
+        });
+
+        jdbcTemplate.batchUpdate(BATCH_MOVEMENT_SQL, movements, BATCH_SIZE, (ps, m) -> {
+            ps.setLong(1, m.productId());
+            ps.setObject(2, m.fromWarehouseId(), Types.BIGINT);
+            ps.setObject(3, m.toWarehouseId(), Types.BIGINT);
+            ps.setInt(4, m.quantity());
+            ps.setString(5, m.movementType().name());
+            ps.setString(6, m.reason());
+            ps.setString(7, m.referenceNumber());
+            ps.setLong(8, m.performedById());
+            ps.setTimestamp(9, Timestamp.valueOf(m.movementDate() != null ? m.movementDate() : now));
+            ps.setString(10, auditor);
+            ps.setString(11, auditor);
+        });
+    }
+
+    private void addDelta(Map<StockKey, RowDelta> deltas, StockKey key, int quantity, String locationCode) {
+        deltas.merge(key, new RowDelta(key, quantity, locationCode),
+                (a, b) -> new RowDelta(key, a.quantity() + b.quantity(),
+                        b.locationCode() != null ? b.locationCode() : a.locationCode()));
+    }
+
+    private Integer toInteger(Object o) {
+        return o == null ? null : ((Number) o).intValue();
+    }
+
+    private Long toLong(Object o) {
+        return o == null ? null : ((Number) o).longValue();
+    }
+}
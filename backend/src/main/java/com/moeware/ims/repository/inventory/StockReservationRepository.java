@@ -0,0 +1,67 @@
+package com.moeware.ims.repository.inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Write path for {@code stock_reservations} and the matching
+ * {@code inventory_items.reserved_quantity} totals.
+ * <p>
+ * Like {@link StockLedgerRepository} this is a plain interface backed by native
+ * SQL in {@link StockReservationRepositoryImpl}: every operation changes the
+ * reservation rows and the reserved totals in one statement, so the two never
+ * drift apart and concurrent confirmations cannot reserve the same units twice.
+ */
+public interface StockReservationRepository {
+
+        /**
+         * Product, warehouse and quantity held by one reservation.
+         */
+        record ReservedLine(Long productId, Long warehouseId, int quantity) {
+        }
+
+        /**
+         * Units returned to available stock for one inventory row by
+         * {@link #release} or {@link #expireStale}.
+         *
+         * @param reservations number of reservations the units came from
+         */
+        record ReturnedStock(Long productId, Long warehouseId, int quantity, int reservations) {
+        }
+
+        /**
+         * Reserves {@code quantity} units for a sales order if at least that many
+         * are available (unreserved) in the warehouse.
+         *
+         * @return empty when the units were reserved, otherwise the quantity that
+         *         was available; {@code -1} when the warehouse does not stock the
+         *         product at all
+         */
+        OptionalInt reserve(Long salesOrderId, Long productId, Long warehouseId, int quantity,
+                        LocalDateTime expiresAt);
+
+        /**
+         * Marks the order's active reservations CONSUMED and returns them. The
+         * reserved totals are left in place for the caller to draw down through
+         * {@link StockLedgerRepository.StockMovement#fromReserved()}.
+         */
+        List<ReservedLine> consume(Long salesOrderId);
+
+        /**
+         * Marks the order's active reservations RELEASED and returns their units
+         * to available stock.
+         *
+         * @return the units returned, per inventory row
+         */
+        List<ReturnedStock> release(Long salesOrderId);
+
+        /**
+         * Marks up to {@code batchSize} active reservations that expired at or
+         * before {@code now} EXPIRED and returns their units to available stock.
+         * Rows locked by a concurrent fulfilment or cancellation are skipped.
+         *
+         * @return the units returned, per inventory row
+         */
+        List<ReturnedStock> expireStale(LocalDateTime now, int batchSize);
+}
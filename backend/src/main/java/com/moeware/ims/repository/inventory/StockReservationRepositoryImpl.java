@@ -0,0 +1,163 @@
+package com.moeware.ims.repository.inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalInt;
+
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementation of {@link StockReservationRepository}.
+ * <p>
+ * {@link #reserve} is a conditional {@code UPDATE ... SET reserved_quantity =
+ * reserved_quantity + :quantity WHERE quantity - reserved_quantity >= :quantity}
+ * with the reservation insert chained behind it, so the availability check is
+ * one indexed row per line and, as in {@link StockLedgerRepositoryImpl}, a
+ * concurrent confirmation waits for the row lock and re-checks against the
+ * committed totals. Release and expiry flip the reservation status and
+ * subtract the summed quantities per inventory row in the same statement.
+ * <p>
+ * Only {@code reserved_quantity} is written here; it is not mapped as updatable
+ * on {@code InventoryItem}, so {@code version} is left alone and loaded entities
+ * do not go stale.
+ */
+@Repository
+public class StockReservationRepositoryImpl implements StockReservationRepository {
+
+    private static final String RESERVE_SQL = """
+            WITH inv AS (
+                UPDATE inventory_items
+                SET reserved_quantity = reserved_quantity + :quantity
+                WHERE product_id = :productId
+                  AND warehouse_id = :warehouseId
+                  AND quantity - reserved_quantity >= :quantity
+                RETURNING id
+            ), res AS (
+                INSERT INTO stock_reservations (sales_order_id, product_id, warehouse_id, quantity, expires_at)
+                SELECT :salesOrderId, :productId, :warehouseId, :quantity, :expiresAt
+                FROM inv
+                RETURNING id
+            )
+            SELECT (SELECT id FROM res),
+                   (SELECT quantity - reserved_quantity FROM inventory_items
+                    WHERE product_id = :productId AND warehouse_id = :warehouseId)
+            """;
+
+    /**
+     * Shared tail of release and expiry: {@code changed} holds the reservations
+     * just moved out of ACTIVE.
+     */
+    private static final String RETURN_RESERVED_SQL = """
+            , totals AS (
+                SELECT product_id, warehouse_id, SUM(quantity) AS quantity, COUNT(*) AS reservations
+                FROM changed
+                GROUP BY product_id, warehouse_id
+            ), inv AS (
+                UPDATE inventory_items i
+                SET reserved_quantity = i.reserved_quantity - t.quantity
+                FROM totals t
+                WHERE i.product_id = t.product_id AND i.warehouse_id = t.warehouse_id
+                RETURNING i.id
+            )
+            SELECT product_id, warehouse_id, quantity, reservations FROM totals
+            """;
+
+    private static final String RELEASE_SQL = """
+            WITH changed AS (
+                UPDATE stock_reservations
+                SET status = 'RELEASED'
+                WHERE sales_order_id = :salesOrderId AND status = 'ACTIVE'
+                RETURNING product_id, warehouse_id, quantity
+            )
+            """ + RETURN_RESERVED_SQL;
+
+    private static final String EXPIRE_SQL = """
+            WITH due AS (
+                SELECT id FROM stock_reservations
+                WHERE status = 'ACTIVE' AND expires_at <= :now
+                ORDER BY expires_at
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            ), changed AS (
+                UPDATE stock_reservations r
+                SET status = 'EXPIRED'
+                FROM due
+                WHERE r.id = due.id
+                RETURNING r.product_id, r.warehouse_id, r.quantity
+            )
+            """ + RETURN_RESERVED_SQL;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public OptionalInt reserve(Long salesOrderId, Long productId, Long warehouseId, int quantity,
+            LocalDateTime expiresAt) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Reservation quantity must be positive");
+        }
+
+        Object[] row = (Object[]) em.createNativeQuery(RESERVE_SQL)
+                .setParameter("salesOrderId", salesOrderId)
+                .setParameter("productId", productId)
+                .setParameter("warehouseId", warehouseId)
+                .setParameter("quantity", quantity)
+                .setParameter("expiresAt", expiresAt)
+                .getSingleResult();
+
+        if (row[0] != null) {
+            return OptionalInt.empty();
+        }
+        // Read from the statement snapshot, so it can trail a concurrent commit the
+        // update waited for; only used for the error message
+        return OptionalInt.of(row[1] == null ? -1 : ((Number) row[1]).intValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ReservedLine> consume(Long salesOrderId) {
+        return ((List<Object[]>) em.createNativeQuery("""
+                UPDATE stock_reservations
+                SET status = 'CONSUMED'
+                WHERE sales_order_id = :salesOrderId AND status = 'ACTIVE'
+                RETURNING product_id, warehouse_id, quantity
+                """)
+                .setParameter("salesOrderId", salesOrderId)
+                .getResultList())
+                .stream()
+                .map(r -> new ReservedLine(((Number) r[0]).longValue(), ((Number) r[1]).longValue(),
+                        ((Number) r[2]).intValue()))
+                .toList();
+    }
+
+    @Override
+    public List<ReturnedStock> release(Long salesOrderId) {
+        return toReturnedStock(em.createNativeQuery(RELEASE_SQL)
+                .setParameter("salesOrderId", salesOrderId)
+                .getResultList());
+    }
+
+    @Override
+    public List<ReturnedStock> expireStale(LocalDateTime now, int batchSize) {
+        return toReturnedStock(em.createNativeQuery(EXPIRE_SQL)
+                .setParameter("now", now)
+                .setParameter("batchSize", batchSize)
+                .getResultList());
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private List<ReturnedStock> toReturnedStock(List<?> rows) {
+        return ((List<Object[]>) rows).stream()
+                .map(r -> new ReturnedStock(
+                        ((Number) r[0]).longValue(),
+                        ((Number) r[1]).longValue(),
+                        ((Number) r[2]).intValue(),
+                        ((Number) r[3]).intValue()))
+                .toList();
+    }
+}
@@ -192,11 +192,13 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Long>, Jpa
         /**
          * Find warehouses with low stock products
          *
+         * Reads the maintained {@code low_stock_state} table rather than
+         * comparing every inventory row with its product's reorder level.
+         *
          * @return List of warehouses with low stock alerts
          */
-        @Query("SELECT DISTINCT w FROM Warehouse w " +
-                        "JOIN w.inventoryItems ii " +
-                        "WHERE ii.quantity <= ii.product.reorderLevel " +
-                        "AND w.isActive = true")
+        @Query(value = "SELECT w.* FROM warehouses w " +
+                        "WHERE w.is_active = true " +
+                        "AND EXISTS (SELECT 1 FROM low_stock_state s WHERE s.warehouse_id = w.id)", nativeQuery = true)
         List<Warehouse> findWarehousesWithLowStock();
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.moeware.ims.repository.transaction;
+
+/**
+ * Block claims on {@code document_sequences}.
+ * <p>
+ * Like {@link InventoryMovementPartitionRepository} this is a plain interface
+ * backed by native SQL in {@link DocumentSequenceRepositoryImpl}: the table has
+ * no entity, its rows are only ever advanced by an atomic upsert.
+ */
+public interface DocumentSequenceRepository {
+
+        /**
+         * Claims the next {@code blockSize} values of a sequence, creating it at 1
+         * if it does not exist yet.
+         *
+         * @return the first claimed value; the block is
+         *         {@code [first, first + blockSize)}
+         */
+        long claimBlock(String prefix, String period, int blockSize);
+}
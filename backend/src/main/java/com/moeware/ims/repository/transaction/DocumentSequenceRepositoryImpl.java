@@ -0,0 +1,66 @@
+package com.moeware.ims.repository.transaction;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Implementation of {@link DocumentSequenceRepository}.
+ * <p>
+ * The claim is a single {@code INSERT ... ON CONFLICT DO UPDATE}: the row lock
+ * it takes serialises concurrent claims on the same sequence, and each one
+ * returns the range it moved {@code next_value} past, so no two callers on any
+ * node get overlapping blocks.
+ * <p>
+ * Claims run in autocommit on a small pool of their own, {@code ims-sequence}
+ * ({@code app.documents.sequence.pool-size}, not a bean so the auto-configured
+ * datasource stays in place). Every caller already holds a connection of the
+ * main pool for its transaction; claiming from that pool too would need a
+ * second one per caller and could exhaust it under a burst of creates.
+ */
+@Repository
+public class DocumentSequenceRepositoryImpl implements DocumentSequenceRepository, DisposableBean {
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO document_sequences (prefix, period, next_value)
+            VALUES (?, ?, 1 + ?)
+            ON CONFLICT ON CONSTRAINT pk_document_sequences DO UPDATE
+            SET next_value = document_sequences.next_value + ?
+            RETURNING next_value - ?
+            """;
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public DocumentSequenceRepositoryImpl(
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${app.documents.sequence.pool-size:2}") int poolSize) {
+        this.dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("ims-sequence");
+        dataSource.setMaximumPoolSize(Math.max(1, poolSize));
+        dataSource.setMinimumIdle(1);
+        dataSource.setAutoCommit(true);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public long claimBlock(String prefix, String period, int blockSize) {
+        return jdbcTemplate.queryForObject(CLAIM_SQL, Long.class, prefix, period, blockSize, blockSize, blockSize);
+    }
+
+    @Override
+    public void destroy() {
+        dataSource.close();
+    }
+}
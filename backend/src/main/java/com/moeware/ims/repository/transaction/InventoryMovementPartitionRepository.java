@@ -0,0 +1,40 @@
+package com.moeware.ims.repository.transaction;
+
+import java.time.LocalDate;
+
+/**
+ * Maintenance of the monthly partitions of {@code inventory_movements}.
+ * <p>
+ * A plain interface backed by native SQL in
+ * {@link InventoryMovementPartitionRepositoryImpl}: the DDL itself lives in the
+ * {@code ensure_inventory_movements_partition},
+ * {@code split_inventory_movements_default} and
+ * {@code archive_inventory_movements_before} database functions (V26, V34), so
+ * the naming scheme is defined in one place.
+ */
+public interface InventoryMovementPartitionRepository {
+
+        /**
+         * Creates the partition for the month containing {@code month} unless it
+         * already exists (attached or archived).
+         *
+         * @return whether a partition was created
+         */
+        boolean ensurePartition(LocalDate month);
+
+        /**
+         * Detaches every partition whose month ends on or before {@code cutoff}
+         * and moves it into the {@code archive} schema.
+         *
+         * @return the number of partitions archived
+         */
+        int archiveBefore(LocalDate cutoff);
+
+        /**
+         * Moves the rows of the default partition into their month, creating the
+         * partition if needed, or into the archived table of an archived month.
+         *
+         * @return the number of rows moved
+         */
+        int splitDefaultPartition();
+}
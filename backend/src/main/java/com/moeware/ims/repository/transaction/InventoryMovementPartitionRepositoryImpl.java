@@ -0,0 +1,38 @@
+package com.moeware.ims.repository.transaction;
+
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementation of {@link InventoryMovementPartitionRepository}.
+ */
+@Repository
+public class InventoryMovementPartitionRepositoryImpl implements InventoryMovementPartitionRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public boolean ensurePartition(LocalDate month) {
+        return (Boolean) em.createNativeQuery("SELECT ensure_inventory_movements_partition(:month)")
+                .setParameter("month", month)
+                .getSingleResult();
+    }
+
+    @Override
+    public int archiveBefore(LocalDate cutoff) {
+        return ((Number) em.createNativeQuery("SELECT archive_inventory_movements_before(:cutoff)")
+                .setParameter("cutoff", cutoff)
+                .getSingleResult()).intValue();
+    }
+
+    @Override
+    public int splitDefaultPartition() {
+        return ((Number) em.createNativeQuery("SELECT split_inventory_movements_default()")
+                .getSingleResult()).intValue();
+    }
+}
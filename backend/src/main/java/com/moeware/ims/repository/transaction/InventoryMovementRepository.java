@@ -58,16 +58,25 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
                         Pageable pageable);
 
         /**
-         * Find movements with filters
+         * Earliest and latest movement dates used when a date filter is omitted.
+         */
+        LocalDateTime MOVEMENT_DATE_MIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime MOVEMENT_DATE_MAX = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+        /**
+         * Find movements with filters inside a closed date range.
+         * <p>
+         * Both bounds are always bound so PostgreSQL can prune the monthly
+         * partitions of {@code inventory_movements}, also under a generic plan;
+         * an {@code :startDate IS NULL OR ...} predicate would scan every month.
          */
         @Query("SELECT m FROM InventoryMovement m WHERE " +
+                        "m.movementDate >= :startDate AND m.movementDate <= :endDate AND " +
                         "(:productId IS NULL OR m.product.id = :productId) AND " +
                         "(:warehouseId IS NULL OR m.fromWarehouse.id = :warehouseId OR m.toWarehouse.id = :warehouseId) AND "
                         +
-                        "(:movementType IS NULL OR m.movementType = :movementType) AND " +
-                        "(:startDate IS NULL OR m.movementDate >= :startDate) AND " +
-                        "(:endDate IS NULL OR m.movementDate <= :endDate)")
-        Page<InventoryMovement> findAllWithFilters(
+                        "(:movementType IS NULL OR m.movementType = :movementType)")
+        Page<InventoryMovement> findAllInDateRange(
                         @Param("productId") Long productId,
                         @Param("warehouseId") Long warehouseId,
                         @Param("movementType") MovementType movementType,
@@ -75,12 +84,61 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
                         @Param("endDate") LocalDateTime endDate,
                         Pageable pageable);
 
+        /**
+         * Find movements with filters. A {@code null} date means unbounded on
+         * that side.
+         */
+        default Page<InventoryMovement> findAllWithFilters(
+                        Long productId,
+                        Long warehouseId,
+                        MovementType movementType,
+                        LocalDateTime startDate,
+                        LocalDateTime endDate,
+                        Pageable pageable) {
+                return findAllInDateRange(productId, warehouseId, movementType,
+                                startDate != null ? startDate : MOVEMENT_DATE_MIN,
+                                endDate != null ? endDate : MOVEMENT_DATE_MAX,
+                                pageable);
+        }
+
         /**
          * Get movement statistics for a product
          */
         @Query("SELECT COUNT(m), SUM(m.quantity) FROM InventoryMovement m WHERE m.product.id = :productId")
         List<Object[]> getProductMovementStats(@Param("productId") Long productId);
 
+        /**
+         * Movement summary rows for a closed date range, optionally restricted to
+         * movements from or to one warehouse. One row per movement type
+         * ({@code kind = 'TYPE'}: type, count, quantity) and one per warehouse
+         * touched ({@code kind = 'WAREHOUSE'}: id, name, received, shipped).
+         * <p>
+         * The range is read once (the CTE is materialised because it is
+         * referenced twice) and aggregated in the database.
+         */
+        @Query(value = "WITH m AS (" +
+                        "  SELECT movement_type, quantity, from_warehouse_id, to_warehouse_id" +
+                        "  FROM inventory_movements" +
+                        "  WHERE movement_date >= :startDate AND movement_date <= :endDate" +
+                        "    AND (CAST(:warehouseId AS BIGINT) IS NULL" +
+                        "         OR from_warehouse_id = :warehouseId OR to_warehouse_id = :warehouseId)" +
+                        ") " +
+                        "SELECT 'TYPE', m.movement_type, NULL, NULL, COUNT(*), SUM(m.quantity), NULL, NULL " +
+                        "FROM m GROUP BY m.movement_type " +
+                        "UNION ALL " +
+                        "SELECT 'WAREHOUSE', NULL, w.id, w.name, NULL, NULL, SUM(s.received), SUM(s.shipped) " +
+                        "FROM m " +
+                        "CROSS JOIN LATERAL (VALUES " +
+                        "  (m.to_warehouse_id, CASE WHEN m.movement_type = 'RECEIPT' THEN m.quantity ELSE 0 END, 0), " +
+                        "  (m.from_warehouse_id, 0, CASE WHEN m.movement_type = 'SHIPMENT' THEN m.quantity ELSE 0 END)" +
+                        ") AS s(warehouse_id, received, shipped) " +
+                        "JOIN warehouses w ON w.id = s.warehouse_id " +
+                        "GROUP BY w.id, w.name", nativeQuery = true)
+        List<Object[]> summarizeMovements(
+                        @Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate,
+                        @Param("warehouseId") Long warehouseId);
+
         /**
          * Find movements by reference number (PO, SO, etc.)
          */
@@ -160,12 +160,6 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
          */
         boolean existsBySalesOrderId(Long salesOrderId);
 
-        /**
-         * Count invoices by invoice date — used for PO number sequence generation.
-         */
-        @Query("SELECT COUNT(i) FROM Invoice i WHERE i.invoiceDate = :invoiceDate")
-        long countByInvoiceDate(@Param("invoiceDate") LocalDate invoiceDate);
-
         /**
          * Get invoices with a remaining balance due that have not been cancelled.
          * <p>
@@ -74,12 +74,6 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      */
     boolean existsByPaymentNumber(String paymentNumber);
 
-    /**
-     * Count payments by payment_date for sequence generation
-     */
-    @Query("SELECT COUNT(p) FROM Payment p WHERE p.paymentDate = :paymentDate")
-    long countByPaymentDate(@Param("paymentDate") LocalDate paymentDate);
-
     /**
      * Get total amount paid for a specific sales order
      */
@@ -0,0 +1,60 @@
+package com.moeware.ims.repository.transaction;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.moeware.ims.enums.transaction.AllocationDecision;
+
+/**
+ * Candidate stock lookup and audit trail for the available-to-promise
+ * allocation of sales orders.
+ * <p>
+ * Like {@link InventoryMovementPartitionRepository} this is a plain interface
+ * backed by native SQL in {@link SalesOrderAllocationRepositoryImpl}:
+ * {@code sales_order_allocations} has no entity, its rows are appended once per
+ * confirmation and only read back for audit.
+ */
+public interface SalesOrderAllocationRepository {
+
+        /**
+         * Available (unreserved) units of one product in one warehouse, with the
+         * warehouse location used to rank it against the ship-to address.
+         */
+        record CandidateStock(Long warehouseId, String city, String postalCode, Long productId, int available) {
+        }
+
+        /**
+         * One product / warehouse line of an allocation. {@code sku} and
+         * {@code warehouseName} are only filled by {@link #findBySalesOrder}.
+         */
+        record AllocationRow(
+                        Long productId,
+                        String sku,
+                        Long warehouseId,
+                        String warehouseName,
+                        int quantity,
+                        int proximity,
+                        AllocationDecision decision,
+                        LocalDateTime allocatedAt) {
+        }
+
+        /**
+         * Warehouses holding available stock of the given products: every active
+         * warehouse, plus {@code homeWarehouseId} even when inactive. Reads the
+         * committed totals without locking; the reservations that follow re-check
+         * them.
+         */
+        List<CandidateStock> findCandidateStock(Collection<Long> productIds, Long homeWarehouseId);
+
+        /**
+         * Appends the allocation of a sales order.
+         */
+        void saveAll(Long salesOrderId, List<AllocationRow> rows);
+
+        /**
+         * Allocations of a sales order, oldest first, then by product and
+         * warehouse.
+         */
+        List<AllocationRow> findBySalesOrder(Long salesOrderId);
+}
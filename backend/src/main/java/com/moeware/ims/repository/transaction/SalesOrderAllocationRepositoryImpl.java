@@ -0,0 +1,116 @@
+package com.moeware.ims.repository.transaction;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.moeware.ims.enums.transaction.AllocationDecision;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementation of {@link SalesOrderAllocationRepository}.
+ * <p>
+ * The candidate lookup is one {@code idx_inventory_product} scan for all the
+ * order's products, joined to the warehouse row for its location, so ranking
+ * and splitting happen in memory without further queries. Allocation rows are
+ * written with a JDBC batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesOrderAllocationRepositoryImpl implements SalesOrderAllocationRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO sales_order_allocations (sales_order_id, product_id, warehouse_id, quantity, proximity,
+                                                 decision, allocated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CandidateStock> findCandidateStock(Collection<Long> productIds, Long homeWarehouseId) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return ((List<Object[]>) em.createNativeQuery("""
+                SELECT w.id, w.city, w.postal_code, i.product_id, i.quantity - i.reserved_quantity
+                FROM inventory_items i
+                JOIN warehouses w ON w.id = i.warehouse_id
+                WHERE i.product_id IN (:productIds)
+                  AND i.quantity > i.reserved_quantity
+                  AND (w.is_active OR w.id = :homeWarehouseId)
+                """)
+                .setParameter("productIds", productIds)
+                .setParameter("homeWarehouseId", homeWarehouseId)
+                .getResultList())
+                .stream()
+                .map(r -> new CandidateStock(
+                        ((Number) r[0]).longValue(),
+                        (String) r[1],
+                        (String) r[2],
+                        ((Number) r[3]).longValue(),
+                        ((Number) r[4]).intValue()))
+                .toList();
+    }
+
+    @Override
+    public void saveAll(Long salesOrderId, List<AllocationRow> rows) {
+        em.flush();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, r) -> {
+            ps.setLong(1, salesOrderId);
+            ps.setLong(2, r.productId());
+            ps.setLong(3, r.warehouseId());
+            ps.setInt(4, r.quantity());
+            ps.setInt(5, r.proximity());
+            ps.setString(6, r.decision().name());
+            ps.setTimestamp(7, Timestamp.valueOf(r.allocatedAt()));
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<AllocationRow> findBySalesOrder(Long salesOrderId) {
+        return ((List<Object[]>) em.createNativeQuery("""
+                SELECT a.product_id, p.sku, a.warehouse_id, w.name, a.quantity, a.proximity,
+                       a.decision, a.allocated_at
+                FROM sales_order_allocations a
+                JOIN products p ON p.id = a.product_id
+                JOIN warehouses w ON w.id = a.warehouse_id
+                WHERE a.sales_order_id = :salesOrderId
+                ORDER BY a.allocated_at, a.product_id, a.warehouse_id
+                """)
+                .setParameter("salesOrderId", salesOrderId)
+                .getResultList())
+                .stream()
+                .map(r -> new AllocationRow(
+                        ((Number) r[0]).longValue(),
+                        (String) r[1],
+                        ((Number) r[2]).longValue(),
+                        (String) r[3],
+                        ((Number) r[4]).intValue(),
+                        ((Number) r[5]).intValue(),
+                        AllocationDecision.valueOf((String) r[6]),
+                        toLocalDateTime(r[7])))
+                .toList();
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    /** Native queries may surface {@code TIMESTAMP} columns as {@link Timestamp}. */
+    private LocalDateTime toLocalDateTime(Object o) {
+        return o instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) o;
+    }
+}
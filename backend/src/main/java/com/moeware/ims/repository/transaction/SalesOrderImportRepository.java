@@ -0,0 +1,162 @@
+package com.moeware.ims.repository.transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.moeware.ims.enums.transaction.SalesOrderImportFormat;
+import com.moeware.ims.enums.transaction.SalesOrderImportRowStatus;
+import com.moeware.ims.enums.transaction.SalesOrderImportStatus;
+
+/**
+ * Jobs, reference lookups and batch writes of the bulk sales-order import.
+ * <p>
+ * Like {@link SalesOrderAllocationRepository} this is a plain interface backed
+ * by native SQL in {@link SalesOrderImportRepositoryImpl}: imported orders are
+ * written as rows rather than entities, so a chunk of a thousand lines costs a
+ * handful of statements instead of a thousand flushes.
+ */
+public interface SalesOrderImportRepository {
+
+        /**
+         * One import job with its progress counters.
+         */
+        record ImportJob(
+                        Long id,
+                        SalesOrderImportStatus status,
+                        SalesOrderImportFormat format,
+                        Long createdByUserId,
+                        int totalRows,
+                        int acceptedRows,
+                        int rejectedRows,
+                        int ordersCreated,
+                        String errorMessage,
+                        LocalDateTime createdAt,
+                        LocalDateTime startedAt,
+                        LocalDateTime finishedAt) {
+        }
+
+        /**
+         * A sales order header to insert in PENDING status; {@code id} comes
+         * from {@link #nextSalesOrderIds}.
+         */
+        record ImportedOrder(
+                        Long id,
+                        String soNumber,
+                        Long customerId,
+                        String customerName,
+                        String customerEmail,
+                        String customerPhone,
+                        String shippingAddress,
+                        String city,
+                        String postalCode,
+                        Long warehouseId,
+                        Long createdByUserId,
+                        LocalDate orderDate,
+                        BigDecimal subtotal,
+                        BigDecimal taxAmount,
+                        BigDecimal shippingCost,
+                        BigDecimal totalAmount,
+                        String notes) {
+        }
+
+        /**
+         * A sales order line to insert.
+         */
+        record ImportedLine(Long salesOrderId, Long productId, int quantity, BigDecimal unitPrice,
+                        BigDecimal lineTotal) {
+        }
+
+        /**
+         * Outcome of one input row. {@code salesOrderId} and {@code soNumber}
+         * are set for accepted rows, {@code message} for rejected ones.
+         */
+        record RowResult(
+                        int rowNumber,
+                        SalesOrderImportRowStatus status,
+                        String orderRef,
+                        Long salesOrderId,
+                        String soNumber,
+                        String message) {
+        }
+
+        // ─── JOBS ────────────────────────────────────────────────────────────────
+
+        /**
+         * Creates a QUEUED job and returns its id.
+         */
+        Long create(SalesOrderImportFormat format, Long createdByUserId);
+
+        Optional<ImportJob> findById(Long id);
+
+        void markRunning(Long id);
+
+        /**
+         * Adds the outcome of one chunk to the job's counters.
+         */
+        void addProgress(Long id, int rows, int acceptedRows, int rejectedRows, int ordersCreated);
+
+        /**
+         * Sets the final status of the job.
+         */
+        void markFinished(Long id, SalesOrderImportStatus status, String errorMessage);
+
+        // ─── LOOKUPS ─────────────────────────────────────────────────────────────
+
+        /**
+         * The subset of the given ids that exist in {@code customers}.
+         */
+        Set<Long> findExistingCustomerIds(Collection<Long> ids);
+
+        /**
+         * The subset of the given ids that exist in {@code warehouses}.
+         */
+        Set<Long> findExistingWarehouseIds(Collection<Long> ids);
+
+        /**
+         * The subset of the given ids that exist in {@code products}.
+         */
+        Set<Long> findExistingProductIds(Collection<Long> ids);
+
+        /**
+         * Product id by SKU for the given SKUs that exist.
+         */
+        Map<String, Long> findProductIdsBySku(Collection<String> skus);
+
+        // ─── WRITES ──────────────────────────────────────────────────────────────
+
+        /**
+         * Draws {@code count} ids from the {@code sales_orders} sequence in one
+         * round trip, so headers and lines can be batched together.
+         */
+        List<Long> nextSalesOrderIds(int count);
+
+        /**
+         * Inserts sales order headers inside the caller's transaction.
+         *
+         * @param auditor value of the {@code created_by} / {@code updated_by}
+         *                audit columns
+         */
+        void insertOrders(List<ImportedOrder> orders, String auditor);
+
+        /**
+         * Inserts sales order lines inside the caller's transaction.
+         */
+        void insertLines(List<ImportedLine> lines, String auditor);
+
+        /**
+         * Appends row results of a job.
+         */
+        void saveResults(Long importId, List<RowResult> results);
+
+        /**
+         * Up to {@code limit} row results of a job in row order, after row
+         * {@code afterRow}, optionally only those with the given status.
+         */
+        List<RowResult> findResults(Long importId, int afterRow, SalesOrderImportRowStatus status, int limit);
+}
@@ -0,0 +1,309 @@
+package com.moeware.ims.repository.transaction;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.moeware.ims.enums.transaction.SalesOrderImportFormat;
+import com.moeware.ims.enums.transaction.SalesOrderImportRowStatus;
+import com.moeware.ims.enums.transaction.SalesOrderImportStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementation of {@link SalesOrderImportRepository}.
+ * <p>
+ * Lookups take a whole chunk's ids in one {@code IN} list. Headers, lines and
+ * row results are written with JDBC batches; header ids are drawn from the
+ * {@code sales_orders} sequence up front so lines can reference them without
+ * reading generated keys back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesOrderImportRepositoryImpl implements SalesOrderImportRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_ORDER_SQL = """
+            INSERT INTO sales_orders (id, so_number, customer_id, customer_name, customer_email, customer_phone,
+                                      shipping_address, city, postal_code, warehouse_id, created_by_user_id,
+                                      status, order_date, subtotal, tax_amount, shipping_cost, total_amount,
+                                      notes, created_by, updated_by)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_LINE_SQL = """
+            INSERT INTO sales_order_items (sales_order_id, product_id, quantity, unit_price, line_total,
+                                           created_by, updated_by)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_RESULT_SQL = """
+            INSERT INTO sales_order_import_results (import_id, row_number, status, order_ref, sales_order_id,
+                                                    so_number, message)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    // ─── JOBS ────────────────────────────────────────────────────────────────
+
+    @Override
+    public Long create(SalesOrderImportFormat format, Long createdByUserId) {
+        return ((Number) em.createNativeQuery("""
+                INSERT INTO sales_order_imports (status, format, created_by_user_id)
+                VALUES ('QUEUED', :format, :userId)
+                RETURNING id
+                """)
+                .setParameter("format", format.name())
+                .setParameter("userId", createdByUserId)
+                .getSingleResult()).longValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<ImportJob> findById(Long id) {
+        return ((List<Object[]>) em.createNativeQuery("""
+                SELECT id, status, format, created_by_user_id, total_rows, accepted_rows, rejected_rows,
+                       orders_created, error_message, created_at, started_at, finished_at
+                FROM sales_order_imports
+                WHERE id = :id
+                """)
+                .setParameter("id", id)
+                .getResultList())
+                .stream()
+                .findFirst()
+                .map(r -> new ImportJob(
+                        ((Number) r[0]).longValue(),
+                        SalesOrderImportStatus.valueOf((String) r[1]),
+                        SalesOrderImportFormat.valueOf((String) r[2]),
+                        ((Number) r[3]).longValue(),
+                        ((Number) r[4]).intValue(),
+                        ((Number) r[5]).intValue(),
+                        ((Number) r[6]).intValue(),
+                        ((Number) r[7]).intValue(),
+                        (String) r[8],
+                        toLocalDateTime(r[9]),
+                        toLocalDateTime(r[10]),
+                        toLocalDateTime(r[11])));
+    }
+
+    @Override
+    public void markRunning(Long id) {
+        em.createNativeQuery("""
+                UPDATE sales_order_imports
+                SET status = 'RUNNING', started_at = CURRENT_TIMESTAMP
+                WHERE id = :id
+                """)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    @Override
+    public void addProgress(Long id, int rows, int acceptedRows, int rejectedRows, int ordersCreated) {
+        em.createNativeQuery("""
+                UPDATE sales_order_imports
+                SET total_rows = total_rows + :rows,
+                    accepted_rows = accepted_rows + :accepted,
+                    rejected_rows = rejected_rows + :rejected,
+                    orders_created = orders_created + :orders
+                WHERE id = :id
+                """)
+                .setParameter("id", id)
+                .setParameter("rows", rows)
+                .setParameter("accepted", acceptedRows)
+                .setParameter("rejected", rejectedRows)
+                .setParameter("orders", ordersCreated)
+                .executeUpdate();
+    }
+
+    @Override
+    public void markFinished(Long id, SalesOrderImportStatus status, String errorMessage) {
+        em.createNativeQuery("""
+                UPDATE sales_order_imports
+                SET status = :status, error_message = CAST(:errorMessage AS TEXT), finished_at = CURRENT_TIMESTAMP
+                WHERE id = :id
+                """)
+                .setParameter("id", id)
+                .setParameter("status", status.name())
+                .setParameter("errorMessage", errorMessage)
+                .executeUpdate();
+    }
+
+    // ─── LOOKUPS ─────────────────────────────────────────────────────────────
+
+    @Override
+    public Set<Long> findExistingCustomerIds(Collection<Long> ids) {
+        return findExistingIds("SELECT id FROM customers WHERE id IN (:ids)", ids);
+    }
+
+    @Override
+    public Set<Long> findExistingWarehouseIds(Collection<Long> ids) {
+        return findExistingIds("SELECT id FROM warehouses WHERE id IN (:ids)", ids);
+    }
+
+    @Override
+    public Set<Long> findExistingProductIds(Collection<Long> ids) {
+        return findExistingIds("SELECT id FROM products WHERE id IN (:ids)", ids);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> findProductIdsBySku(Collection<String> skus) {
+        Map<String, Long> ids = new HashMap<>();
+        if (skus.isEmpty()) {
+            return ids;
+        }
+        ((List<Object[]>) em.createNativeQuery("SELECT sku, id FROM products WHERE sku IN (:skus)")
+                .setParameter("skus", skus)
+                .getResultList())
+                .forEach(r -> ids.put((String) r[0], ((Number) r[1]).longValue()));
+        return ids;
+    }
+
+    // ─── WRITES ──────────────────────────────────────────────────────────────
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> nextSalesOrderIds(int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        return ((List<Number>) em.createNativeQuery("""
+                SELECT nextval(pg_get_serial_sequence('sales_orders', 'id'))
+                FROM generate_series(1, :count)
+                """)
+                .setParameter("count", count)
+                .getResultList())
+                .stream()
+                .map(Number::longValue)
+                .toList();
+    }
+
+    @Override
+    public void insertOrders(List<ImportedOrder> orders, String auditor) {
+        em.flush();
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orders, BATCH_SIZE, (ps, o) -> {
+            ps.setLong(1, o.id());
+            ps.setString(2, o.soNumber());
+            ps.setLong(3, o.customerId());
+            ps.setString(4, o.customerName());
+            ps.setString(5, o.customerEmail());
+            ps.setString(6, o.customerPhone());
+            ps.setString(7, o.shippingAddress());
+            ps.setString(8, o.city());
+            ps.setString(9, o.postalCode());
+            ps.setLong(10, o.warehouseId());
+            ps.setLong(11, o.createdByUserId());
+            ps.setDate(12, Date.valueOf(o.orderDate()));
+            ps.setBigDecimal(13, o.subtotal());
+            ps.setBigDecimal(14, o.taxAmount());
+            ps.setBigDecimal(15, o.shippingCost());
+            ps.setBigDecimal(16, o.totalAmount());
+            ps.setString(17, o.notes());
+            ps.setString(18, auditor);
+            ps.setString(19, auditor);
+        });
+    }
+
+    @Override
+    public void insertLines(List<ImportedLine> lines, String auditor) {
+        jdbcTemplate.batchUpdate(INSERT_LINE_SQL, lines, BATCH_SIZE, (ps, l) -> {
+            ps.setLong(1, l.salesOrderId());
+            ps.setLong(2, l.productId());
+            ps.setInt(3, l.quantity());
+            ps.setBigDecimal(4, l.unitPrice());
+            ps.setBigDecimal(5, l.lineTotal());
+            ps.setString(6, auditor);
+            ps.setString(7, auditor);
+        });
+    }
+
+    @Override
+    public void saveResults(Long importId, List<RowResult> results) {
+        em.flush();
+        jdbcTemplate.batchUpdate(INSERT_RESULT_SQL, results, BATCH_SIZE, (ps, r) -> {
+            ps.setLong(1, importId);
+            ps.setInt(2, r.rowNumber());
+            ps.setString(3, r.status().name());
+            ps.setString(4, r.orderRef());
+            if (r.salesOrderId() != null) {
+                ps.setLong(5, r.salesOrderId());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            ps.setString(6, r.soNumber());
+            ps.setString(7, r.message());
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<RowResult> findResults(Long importId, int afterRow, SalesOrderImportRowStatus status, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT row_number, status, order_ref, sales_order_id, so_number, message
+                FROM sales_order_import_results
+                WHERE import_id = :importId
+                  AND row_number > :afterRow
+                """);
+        if (status != null) {
+            sql.append(" AND status = :status");
+        }
+        sql.append(" ORDER BY row_number");
+
+        Query query = em.createNativeQuery(sql.toString())
+                .setParameter("importId", importId)
+                .setParameter("afterRow", afterRow)
+                .setMaxResults(limit);
+        if (status != null) {
+            query.setParameter("status", status.name());
+        }
+        return ((List<Object[]>) query.getResultList())
+                .stream()
+                .map(r -> new RowResult(
+                        ((Number) r[0]).intValue(),
+                        SalesOrderImportRowStatus.valueOf((String) r[1]),
+                        (String) r[2],
+                        r[3] != null ? ((Number) r[3]).longValue() : null,
+                        (String) r[4],
+                        (String) r[5]))
+                .toList();
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> findExistingIds(String sql, Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        if (ids.isEmpty()) {
+            return existing;
+        }
+        ((List<Number>) em.createNativeQuery(sql)
+                .setParameter("ids", ids)
+                .getResultList())
+                .forEach(id -> existing.add(id.longValue()));
+        return existing;
+    }
+
+    /** Native queries may surface {@code TIMESTAMP} columns as {@link Timestamp}. */
+    private LocalDateTime toLocalDateTime(Object o) {
+        return o instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) o;
+    }
+}
@@ -0,0 +1,38 @@
+package com.moeware.ims.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.moeware.ims.service.DashboardStreamService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drives the dashboard SSE stream: coalesces changes into one push per
+ * interval and keeps idle connections alive.
+ * <p>
+ * Both jobs are cheap when nothing changed or nobody is subscribed, so they
+ * run on every instance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStreamScheduler {
+
+    private final DashboardStreamService dashboardStreamService;
+
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.coalesce-interval-ms:2000}")
+    public void flush() {
+        try {
+            dashboardStreamService.flush();
+        } catch (RuntimeException ex) {
+            log.error("Dashboard stream flush failed", ex);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.dashboard.stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        dashboardStreamService.heartbeat();
+    }
+}
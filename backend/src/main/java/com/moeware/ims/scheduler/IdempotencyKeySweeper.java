@@ -0,0 +1,35 @@
+package com.moeware.ims.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.moeware.ims.service.IdempotencyService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes expired idempotency keys from the database fallback store.
+ * <p>
+ * Also tells {@link IdempotencyService} whether any keys are left there; until
+ * the last one expires, lookups check the database before Redis.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeySweeper {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.idempotency.sweep-interval-ms:300000}")
+    public void sweep() {
+        try {
+            int deleted = idempotencyService.sweep();
+            if (deleted > 0) {
+                log.info("Deleted {} expired idempotency keys", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Idempotency key sweep failed", ex);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.moeware.ims.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.moeware.ims.service.transaction.InventoryMovementPartitionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Daily maintenance of the {@code inventory_movements} partitions.
+ * <p>
+ * Future months are created first and archiving runs separately, so a failed
+ * archive (for example a lock timeout while detaching) never leaves the next
+ * month without a partition. Movements that landed in the default partition are
+ * moved into their month before that, while it is still small. Running daily
+ * rather than monthly means a missed run is repaired the next day, well before
+ * the premade months run out.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryMovementPartitionScheduler {
+
+    private final InventoryMovementPartitionService partitionService;
+
+    @Scheduled(cron = "${app.inventory.movements.partitions.cron:0 15 1 * * *}")
+    public void maintainPartitions() {
+        try {
+            int moved = partitionService.splitDefaultPartition();
+            if (moved > 0) {
+                log.info("Moved {} inventory movements out of the default partition", moved);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Splitting the default inventory movement partition failed", ex);
+        }
+        try {
+            int created = partitionService.ensureFuturePartitions();
+            if (created > 0) {
+                log.info("Created {} inventory movement partitions", created);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Creating inventory movement partitions failed", ex);
+        }
+        try {
+            int archived = partitionService.archiveExpiredPartitions();
+            if (archived > 0) {
+                log.info("Archived {} inventory movement partitions", archived);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Archiving inventory movement partitions failed", ex);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.moeware.ims.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.moeware.ims.service.OutboxDispatcher;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Polls the transactional outbox and purges delivered events.
+ * <p>
+ * Events published on this node are dispatched right after their commit; the
+ * poll picks up retries that came due, events published on nodes that went
+ * down before dispatching them, and any wake-up that was missed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatchScheduler {
+
+    private final OutboxDispatcher outboxDispatcher;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        // Dispatch runs on the outbox thread, not the shared scheduler thread
+        outboxDispatcher.wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        try {
+            int deleted = outboxDispatcher.purgeDispatched();
+            if (deleted > 0) {
+                log.info("Purged {} delivered outbox events", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Outbox purge failed", ex);
+        }
+    }
+}
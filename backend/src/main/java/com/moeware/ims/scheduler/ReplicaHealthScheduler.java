@@ -0,0 +1,33 @@
+package com.moeware.ims.scheduler;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.moeware.ims.datasource.ReplicaHealthMonitor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Re-checks read-replica reachability and lag so reads return to the replica
+ * once it recovers. Only active when the replica split is enabled (see
+ * {@link com.moeware.ims.config.ReadReplicaDataSourceConfig}).
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReplicaHealthScheduler {
+
+    private final ReplicaHealthMonitor replicaHealthMonitor;
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.probe-interval-ms:5000}")
+    public void probe() {
+        try {
+            replicaHealthMonitor.probe();
+        } catch (RuntimeException ex) {
+            log.error("Read replica health probe failed", ex);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.moeware.ims.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.moeware.ims.service.inventory.StockLevelIndexService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the in-memory stock level index at startup and reconciles it with
+ * {@code inventory_items} afterwards.
+ * <p>
+ * Writes on this instance reach the index as they commit; the reconcile picks
+ * up writes made by other instances and repairs any drift, so stock levels
+ * seen here lag other instances by at most the reconcile interval.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockLevelIndexScheduler {
+
+    private final StockLevelIndexService stockLevelIndexService;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.inventory.stock-index.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            long drift = stockLevelIndexService.reconcile();
+            if (drift > 0) {
+                log.info("Stock level index reconciled, {} rows corrected", drift);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Stock level index reconcile failed", ex);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.moeware.ims.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.moeware.ims.service.inventory.StockReservationService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Returns stock held by reservations past their expiry to available stock.
+ * <p>
+ * Overdue rows are claimed with {@code FOR UPDATE SKIP LOCKED}, so several
+ * instances can sweep at once without blocking each other or an order being
+ * fulfilled or cancelled at the same moment.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationSweeper {
+
+    private final StockReservationService stockReservationService;
+
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.sweep-interval-ms:60000}")
+    public void expireStale() {
+        try {
+            int expired = stockReservationService.expireStale();
+            if (expired > 0) {
+                log.info("Expired {} stale stock reservations", expired);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Stock reservation sweep failed", ex);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.moeware.ims.scheduler;
+
+import java.time.LocalDate;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.moeware.ims.service.inventory.StockSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Nightly job that snapshots the previous day's closing stock.
+ * <p>
+ * Runs just after midnight rather than just before it so no late movements
+ * are missed; the capture undoes the few movements recorded since midnight.
+ * The write locks the day and replaces any existing rows for it, so a run on
+ * several instances or a manual re-run is harmless.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockSnapshotScheduler {
+
+    private final StockSnapshotService stockSnapshotService;
+
+    @Scheduled(cron = "${app.dashboard.stock-snapshot-cron:0 5 0 * * *}")
+    public void captureYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            stockSnapshotService.captureEndOfDay(yesterday);
+        } catch (RuntimeException ex) {
+            log.error("Stock snapshot for {} failed", yesterday, ex);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.moeware.ims.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.moeware.ims.exception.handler.GlobalExceptionHandler;
+import com.moeware.ims.repository.IdempotencyKeyRepository.IdempotencyRecord;
+import com.moeware.ims.service.IdempotencyService;
+import com.moeware.ims.service.IdempotencyService.Attempt;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Idempotency-Key Filter.
+ *
+ * <p>
+ * Makes create calls safe to retry: a POST to one of
+ * {@code app.idempotency.paths} carrying an {@code Idempotency-Key} header runs
+ * once per key and user. Retries with the same key and body receive the stored
+ * response, marked {@code Idempotent-Replayed: true}; a retry arriving while
+ * the first call is still running waits for it (see {@link IdempotencyService})
+ * and gets {@code 409} with {@code Retry-After} if it does not finish in time;
+ * a key reused with a different body gets {@code 422}.
+ * </p>
+ *
+ * <p>
+ * Only successful (2xx) responses are stored. A failed call releases its key,
+ * so it can be retried with the same key once the cause is fixed. Requests
+ * without the header are passed through untouched.
+ * </p>
+ *
+ * <p>
+ * Runs after authorization, so the key is scoped to the authenticated user and
+ * unauthorized calls never claim one.
+ * </p>
+ *
+ * @author MoeWare Team
+ */
+@Component
+@Slf4j
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final String[] paths;
+    private final int maxBodyBytes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public IdempotencyKeyFilter(
+            IdempotencyService idempotencyService,
+            JsonMapper jsonMapper,
+            @Value("${app.idempotency.enabled:true}") boolean enabled,
+            @Value("${app.idempotency.paths:/api/sales-orders,/api/payments,/api/payments/*/refund,/api/invoices,/api/invoices/*/payment}") String[] paths,
+            @Value("${app.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.idempotencyService = idempotencyService;
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.paths = paths;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : paths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            writeError(request, response, HttpStatus.CONTENT_TOO_LARGE,
+                    "Requests with an " + HEADER + " are limited to " + maxBodyBytes + " bytes");
+            return;
+        }
+
+        Attempt attempt = idempotencyService.begin(authentication.getName(), key, fingerprint(request, body));
+        switch (attempt.outcome()) {
+            case REPLAY -> {
+                replay(response, attempt.record());
+                return;
+            }
+            case MISMATCH -> {
+                writeError(request, response, HttpStatus.UNPROCESSABLE_CONTENT,
+                        HEADER + " '" + key + "' was already used for a different request");
+                return;
+            }
+            case IN_PROGRESS -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "A request with " + HEADER + " '" + key + "' is still being processed");
+                return;
+            }
+            case CLAIMED -> {
+                // Run the request below
+            }
+        }
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), cachedResponse);
+            int status = cachedResponse.getStatus();
+            if (HttpStatus.valueOf(status).is2xxSuccessful()) {
+                idempotencyService.complete(attempt, status, cachedResponse.getContentType(),
+                        new String(cachedResponse.getContentAsByteArray(), StandardCharsets.UTF_8));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyService.release(attempt);
+            }
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    /**
+     * SHA-256 of what identifies the call: method, path, query string and
+     * body.
+     */
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "?"
+                    + (request.getQueryString() == null ? "" : request.getQueryString()) + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyRecord record) throws IOException {
+        response.setStatus(record.responseStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.contentType() != null) {
+            response.setContentType(record.contentType());
+        }
+        if (record.responseBody() != null) {
+            response.getOutputStream().write(record.responseBody().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+            String message) throws IOException {
+        GlobalExceptionHandler.ErrorResponse error = GlobalExceptionHandler.ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(jsonMapper.writeValueAsBytes(error));
+    }
+
+    /**
+     * Request whose body was read up front for the fingerprint; serves the
+     * buffered bytes to the rest of the chain.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The whole body is already in memory, so it is handed over at
+                 * once: one {@code onDataAvailable} (skipped for an empty body),
+                 * then {@code onAllDataRead} once the listener has consumed it.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8
+                    : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.moeware.ims.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moeware.ims.entity.User;
+import com.moeware.ims.entity.transaction.PurchaseOrder;
+import com.moeware.ims.entity.transaction.SalesOrder;
+import com.moeware.ims.entity.transaction.Shipment;
+import com.moeware.ims.enums.dashboard.DashboardActivityType;
+import com.moeware.ims.enums.transaction.PurchaseOrderStatus;
+import com.moeware.ims.repository.dashboard.ActivityEventRepository;
+import com.moeware.ims.repository.dashboard.ActivityEventRepository.ActivityEventRow;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Appends to the {@code activity_events} stream read by the dashboard
+ * activity feed.
+ *
+ * <p>
+ * Call after the transition has been saved, from inside the service
+ * transaction that made it:
+ *
+ * <pre>
+ * SalesOrder confirmed = salesOrderRepository.save(order);
+ * activityEventService.salesOrderUpdated(confirmed);
+ * </pre>
+ *
+ * <p>
+ * Every method joins the caller's transaction (propagation REQUIRED), so an
+ * event exists exactly when its transition committed. The acting user is
+ * taken from the security context; transitions without one (scheduled jobs)
+ * are attributed to the entity's owner.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityEventService {
+
+        private final ActivityEventRepository activityEventRepository;
+
+        @Transactional
+        public void salesOrderCreated(SalesOrder so) {
+                appendSalesOrder(DashboardActivityType.SALES_ORDER_CREATED, so);
+        }
+
+        /**
+         * Records the creation of sales orders written in bulk (without
+         * entities) by the calling transaction, each attributed to its creator.
+         */
+        @Transactional
+        public void salesOrdersCreated(Collection<Long> salesOrderIds) {
+                activityEventRepository.appendSalesOrdersCreated(salesOrderIds, LocalDateTime.now());
+        }
+
+        @Transactional
+        public void salesOrderUpdated(SalesOrder so) {
+                appendSalesOrder(DashboardActivityType.SALES_ORDER_UPDATED, so);
+        }
+
+        @Transactional
+        public void purchaseOrderUpdated(PurchaseOrder po) {
+                User actor = actorOr(po.getCreatedByUser());
+                append(po.getStatus() == PurchaseOrderStatus.APPROVED
+                                ? DashboardActivityType.PURCHASE_ORDER_APPROVED
+                                : DashboardActivityType.PURCHASE_ORDER_UPDATED,
+                                po.getId(), po.getPoNumber(), po.getStatus().name(), po.getWarehouse().getId(),
+                                actor, po.getSupplier().getName(), po.getTotalAmount());
+        }
+
+        @Transactional
+        public void shipmentDelivered(Shipment shipment) {
+                User actor = actorOr(shipment.getShippedBy());
+                append(DashboardActivityType.SHIPMENT_DELIVERED,
+                                shipment.getId(), shipment.getShipmentNumber(), shipment.getStatus().name(),
+                                shipment.getShippedFromWarehouse().getId(),
+                                actor, shipment.getSalesOrder().getCustomerName(), null);
+        }
+
+        // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+        private void appendSalesOrder(DashboardActivityType type, SalesOrder so) {
+                User actor = actorOr(so.getCreatedByUser());
+                append(type, so.getId(), so.getSoNumber(), so.getStatus().name(), so.getWarehouse().getId(),
+                                actor, so.getCustomerName(), so.getTotalAmount());
+        }
+
+        private void append(DashboardActivityType type, Long entityId, String entityNumber, String status,
+                        Long warehouseId, User actor, String counterpartyName, BigDecimal totalAmount) {
+                activityEventRepository.append(new ActivityEventRow(
+                                null,
+                                LocalDateTime.now(),
+                                type,
+                                entityId,
+                                entityNumber,
+                                status,
+                                warehouseId,
+                                actor != null ? actor.getId() : null,
+                                actor != null ? actor.getUsername() : null,
+                                counterpartyName,
+                                totalAmount));
+        }
+
+        /**
+         * The authenticated user performing the request, or {@code owner} when
+         * there is none.
+         */
+        private User actorOr(User owner) {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.getPrincipal() instanceof User user) {
+                        return user;
+                }
+                return owner;
+        }
+}
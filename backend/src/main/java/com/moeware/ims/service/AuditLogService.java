@@ -0,0 +1,115 @@
+package com.moeware.ims.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moeware.ims.dto.audit.AuditLogPageResponse;
+import com.moeware.ims.enums.AuditAction;
+import com.moeware.ims.exception.InvalidOperationException;
+import com.moeware.ims.repository.AuditLogRepository;
+import com.moeware.ims.repository.AuditLogRepository.AuditLogCursor;
+import com.moeware.ims.repository.AuditLogRepository.AuditLogRow;
+
+import lombok.RequiredArgsConstructor;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Read side of {@code audit_logs}: entries by entity and by user, newest
+ * first, with keyset pagination so every page costs the same.
+ * <p>
+ * Entries are written asynchronously by
+ * {@link com.moeware.ims.audit.AuditLogWriter}, so a change shows up here
+ * within about one flush interval of its commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditLogService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final TypeReference<Map<String, Object>> VALUES_TYPE = new TypeReference<>() {
+    };
+
+    private final AuditLogRepository auditLogRepository;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Returns one page of audit log entries. Every filter is optional.
+     *
+     * @param entityType entity type name, e.g. {@code SALES_ORDER}
+     * @param entityId   only together with {@code entityType}
+     * @param cursor     opaque cursor from the previous page, or {@code null}
+     */
+    @Transactional(readOnly = true)
+    public AuditLogPageResponse getAuditLogs(String entityType, Long entityId, Long userId, AuditAction action,
+            String cursor, int limit) {
+        if (entityId != null && (entityType == null || entityType.isBlank())) {
+            throw new InvalidOperationException("entityId requires entityType");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String type = entityType == null || entityType.isBlank() ? null : entityType.trim().toUpperCase();
+
+        // One extra row tells whether another page exists
+        List<AuditLogRow> rows = auditLogRepository.findPage(
+                decodeCursor(cursor), type, entityId, userId, action, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<AuditLogRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return AuditLogPageResponse.builder()
+                .entries(page.stream().map(this::toEntry).toList())
+                .nextCursor(hasMore ? encodeCursor(page.get(page.size() - 1)) : null)
+                .build();
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private AuditLogPageResponse.Entry toEntry(AuditLogRow row) {
+        return AuditLogPageResponse.Entry.builder()
+                .id(row.id())
+                .entityType(row.entityType())
+                .entityId(row.entityId())
+                .action(row.action())
+                .oldValues(parse(row.oldValues()))
+                .newValues(parse(row.newValues()))
+                .userId(row.performedBy())
+                .username(row.username())
+                .ipAddress(row.ipAddress())
+                .userAgent(row.userAgent())
+                .timestamp(row.createdAt())
+                .build();
+    }
+
+    private Map<String, Object> parse(String json) {
+        return json == null ? null : jsonMapper.readValue(json, VALUES_TYPE);
+    }
+
+    /**
+     * Cursor format: URL-safe Base64 of {@code <createdAt ISO-8601>|<id>}. It is
+     * opaque to clients; only its round trip matters.
+     */
+    private String encodeCursor(AuditLogRow last) {
+        String raw = last.createdAt() + "|" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private AuditLogCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new AuditLogCursor(LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidOperationException("Invalid audit log cursor: " + cursor);
+        }
+    }
+}
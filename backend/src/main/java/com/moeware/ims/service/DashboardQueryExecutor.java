@@ -0,0 +1,141 @@
+package com.moeware.ims.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs independent dashboard queries concurrently.
+ *
+ * <p>
+ * Usage from a service method that is <em>not</em> itself transactional:
+ *
+ * <pre>
+ * DashboardQueryExecutor.Batch batch = queryExecutor.batch();
+ * CompletableFuture&lt;List&lt;XRow&gt;&gt; x = batch.submit(() -&gt; dashboardRepository.x(...));
+ * CompletableFuture&lt;Integer&gt; y = batch.submit(() -&gt; dashboardRepository.y(...));
+ * batch.join();
+ * // x.join() / y.join() now return immediately
+ * </pre>
+ *
+ * <p>
+ * Each query runs in its own read-only transaction (and therefore on its own
+ * pooled connection) on the {@code dashboardQueryTaskExecutor} pool. A batch
+ * dispatches at most {@code app.dashboard.query.max-parallelism-per-request}
+ * queries at a time and queues the rest, so one dashboard request cannot take
+ * over the whole pool. The calling method must not hold a transaction of its
+ * own — that connection would sit idle for the whole fan-out.
+ */
+@Component
+public class DashboardQueryExecutor {
+
+        private final TaskExecutor taskExecutor;
+        private final TransactionTemplate readOnlyTx;
+        private final int maxParallelismPerRequest;
+
+        public DashboardQueryExecutor(
+                        @Qualifier("dashboardQueryTaskExecutor") TaskExecutor taskExecutor,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.dashboard.query.max-parallelism-per-request:3}") int maxParallelismPerRequest) {
+                this.taskExecutor = taskExecutor;
+                this.readOnlyTx = new TransactionTemplate(transactionManager);
+                this.readOnlyTx.setReadOnly(true);
+                this.maxParallelismPerRequest = Math.max(1, maxParallelismPerRequest);
+        }
+
+        /**
+         * Starts a new fan-out for the current request.
+         */
+        public Batch batch() {
+                return new Batch();
+        }
+
+        /**
+         * One request's set of concurrent queries. Not thread-safe for
+         * {@link #submit}; submit from the request thread only.
+         */
+        public final class Batch {
+
+                private final List<CompletableFuture<?>> futures = new ArrayList<>();
+                private final Deque<Runnable> waiting = new ArrayDeque<>();
+                private int running;
+
+                private Batch() {
+                }
+
+                /**
+                 * Schedules {@code query} and returns a future for its result.
+                 */
+                public <T> CompletableFuture<T> submit(Supplier<T> query) {
+                        CompletableFuture<T> future = new CompletableFuture<>();
+                        futures.add(future);
+
+                        Runnable task = () -> {
+                                try {
+                                        future.complete(readOnlyTx.execute(status -> query.get()));
+                                } catch (Throwable t) {
+                                        future.completeExceptionally(t);
+                                } finally {
+                                        dispatchNext();
+                                }
+                        };
+
+                        boolean runNow;
+                        synchronized (this) {
+                                runNow = running < maxParallelismPerRequest;
+                                if (runNow) {
+                                        running++;
+                                } else {
+                                        waiting.add(task);
+                                }
+                        }
+                        if (runNow) {
+                                taskExecutor.execute(task);
+                        }
+                        return future;
+                }
+
+                /**
+                 * Waits for every submitted query. If any failed, rethrows the first
+                 * failure's original exception so the global exception handler maps it
+                 * exactly as it would for a sequential call.
+                 */
+                public void join() {
+                        try {
+                                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+                        } catch (CompletionException e) {
+                                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                                if (cause instanceof RuntimeException re) {
+                                        throw re;
+                                }
+                                if (cause instanceof Error err) {
+                                        throw err;
+                                }
+                                throw new IllegalStateException("Dashboard query failed", cause);
+                        }
+                }
+
+                private void dispatchNext() {
+                        Runnable next;
+                        synchronized (this) {
+                                next = waiting.poll();
+                                if (next == null) {
+                                        running--;
+                                        return;
+                                }
+                        }
+                        taskExecutor.execute(next);
+                }
+        }
+}
@@ -2,21 +2,25 @@ package com.moeware.ims.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Base64;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.moeware.ims.cache.SingleFlight;
 import com.moeware.ims.dto.dashboard.DashboardActivityFeedResponse;
 import com.moeware.ims.dto.dashboard.DashboardInventorySummaryResponse;
 import com.moeware.ims.dto.dashboard.DashboardInventoryTrendResponse;
@@ -27,18 +31,30 @@ import com.moeware.ims.dto.dashboard.DashboardPurchaseAnalyticsResponse;
 import com.moeware.ims.dto.dashboard.DashboardSalesAnalyticsResponse;
 import com.moeware.ims.dto.dashboard.DashboardSalesTrendResponse;
 import com.moeware.ims.dto.dashboard.DashboardTopSellingProductsResponse;
-import com.moeware.ims.entity.inventory.InventoryItem;
 import com.moeware.ims.enums.dashboard.DashboardActivityType;
 import com.moeware.ims.enums.dashboard.DashboardPeriod;
+import com.moeware.ims.exception.InvalidOperationException;
+import com.moeware.ims.repository.dashboard.ActivityEventRepository;
+import com.moeware.ims.repository.dashboard.ActivityEventRepository.ActivityCursor;
+import com.moeware.ims.repository.dashboard.ActivityEventRepository.ActivityEventRow;
 import com.moeware.ims.repository.dashboard.DashboardRepository;
+import com.moeware.ims.repository.dashboard.DashboardRepository.CategorySpendingRow;
 import com.moeware.ims.repository.dashboard.DashboardRepository.DailySalesTrendRow;
+import com.moeware.ims.repository.dashboard.DashboardRepository.DailyStockSnapshotRow;
+import com.moeware.ims.repository.dashboard.DashboardRepository.InventoryBreakdownLevel;
+import com.moeware.ims.repository.dashboard.DashboardRepository.InventoryBreakdownRow;
+import com.moeware.ims.repository.dashboard.DashboardRepository.InventoryTopProductRow;
 import com.moeware.ims.repository.dashboard.DashboardRepository.LowStockWarehouseRow;
+import com.moeware.ims.repository.dashboard.DashboardRepository.MonthlyPurchaseTrendRow;
 import com.moeware.ims.repository.dashboard.DashboardRepository.OverdueInvoiceRow;
+import com.moeware.ims.repository.dashboard.DashboardRepository.OverviewSnapshotRow;
 import com.moeware.ims.repository.dashboard.DashboardRepository.PendingPoApprovalRow;
 import com.moeware.ims.repository.dashboard.DashboardRepository.PendingShipmentRow;
+import com.moeware.ims.repository.dashboard.DashboardRepository.StatusCountRow;
+import com.moeware.ims.repository.dashboard.DashboardRepository.StockStatusDistributionRow;
+import com.moeware.ims.repository.dashboard.DashboardRepository.TopCustomerRow;
 import com.moeware.ims.repository.dashboard.DashboardRepository.TopProductRow;
-import com.moeware.ims.repository.inventory.InventoryItemRepository;
-import com.moeware.ims.repository.staff.WarehouseRepository;
+import com.moeware.ims.repository.dashboard.DashboardRepository.TopSupplierRow;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -50,6 +66,15 @@ import lombok.extern.slf4j.Slf4j;
  * {@link DashboardRepository} so this class is responsible only for
  * orchestration and DTO assembly.
  * <p>
+ * Methods that need several independent queries fan them out through
+ * {@link DashboardQueryExecutor}, so their latency approaches that of the
+ * slowest query rather than the sum of all of them. Those methods opt out of
+ * the class-level transaction ({@code NOT_SUPPORTED}); each query gets its own
+ * read-only transaction on a worker thread instead.
+ * <p>
+ * Every public method is {@link SingleFlight}: identical concurrent requests
+ * that all miss the response cache share one computation.
+ * <p>
  * The service accesses query results through the named projection records
  * defined in {@link DashboardRepository} (e.g. {@link DailySalesTrendRow},
  * {@link TopProductRow}) — never through positional {@code Object[]} array
@@ -59,13 +84,14 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
+@SingleFlight
 public class DashboardService {
 
         private static final int TOP_N = 10;
 
         private final DashboardRepository dashboardRepository;
-        private final InventoryItemRepository inventoryItemRepository;
-        private final WarehouseRepository warehouseRepository;
+        private final DashboardQueryExecutor queryExecutor;
+        private final ActivityEventRepository activityEventRepository;
 
         // ─── 1. Overview ─────────────────────────────────────────────────────────
 
@@ -76,67 +102,45 @@ public class DashboardService {
         public DashboardOverviewResponse getOverview() {
                 log.debug("Building dashboard overview");
 
-                LocalDate today = LocalDate.now();
-                LocalDate weekStart = today.minusDays(6);
-                LocalDate monthStart = today.withDayOfMonth(1);
-                LocalDate lastMonthStart = monthStart.minusMonths(1);
-                LocalDate lastMonthEnd = monthStart.minusDays(1);
-
-                int totalProducts = dashboardRepository.countActiveProducts();
-                BigDecimal inventoryValue = dashboardRepository.totalInventoryValue();
-                int lowStock = dashboardRepository.countLowStockProducts();
-                int outOfStock = dashboardRepository.countOutOfStockProducts();
-                int warehouses = dashboardRepository.countActiveWarehouses();
-                int activeUsers = dashboardRepository.countActiveUsers();
-
-                int pendingSO = dashboardRepository.countPendingSalesOrders();
-                int confirmedSO = dashboardRepository.countConfirmedSalesOrders();
-                int pendingPO = dashboardRepository.countPendingPurchaseOrders();
-                int approvedPO = dashboardRepository.countApprovedPurchaseOrders();
-
-                int soToday = dashboardRepository.countSalesOrdersToday(today);
-                int poToday = dashboardRepository.countPurchaseOrdersToday(today);
-                int shipmentsToday = dashboardRepository.countShipmentsToday(today);
-                int receivedToday = dashboardRepository.countPurchaseOrdersReceivedToday(today);
-
-                int pendingAdj = dashboardRepository.countPendingStockAdjustments();
-                int overdueInvoices = dashboardRepository.countOverdueInvoices(today);
-
-                BigDecimal revenueToday = dashboardRepository.revenueOnDate(today);
-                BigDecimal revenueWeek = dashboardRepository.revenueBetween(weekStart, today);
-                BigDecimal revenueThisMonth = dashboardRepository.revenueBetween(monthStart, today);
-                BigDecimal revenueLastMonth = dashboardRepository.revenueBetween(lastMonthStart, lastMonthEnd);
+                // One round trip for every KPI — see DashboardRepository#overviewSnapshot
+                OverviewSnapshotRow snap = dashboardRepository.overviewSnapshot(LocalDate.now());
+
+                int lowStock = snap.lowStockProducts();
+                int pendingPO = snap.pendingPurchaseOrders();
+                int pendingAdj = snap.pendingStockAdjustments();
+                BigDecimal revenueThisMonth = snap.revenueThisMonth();
+                BigDecimal revenueLastMonth = snap.revenueLastMonth();
 
                 return DashboardOverviewResponse.builder()
                                 .metrics(DashboardOverviewResponse.MetricsDTO.builder()
-                                                .totalProducts(totalProducts)
-                                                .totalInventoryValue(inventoryValue)
+                                                .totalProducts(snap.totalProducts())
+                                                .totalInventoryValue(snap.totalInventoryValue())
                                                 .lowStockProducts(lowStock)
-                                                .outOfStockProducts(outOfStock)
-                                                .totalWarehouses(warehouses)
-                                                .activeUsers(activeUsers)
+                                                .outOfStockProducts(snap.outOfStockProducts())
+                                                .totalWarehouses(snap.activeWarehouses())
+                                                .activeUsers(snap.activeUsers())
                                                 .build())
                                 .orders(DashboardOverviewResponse.OrdersDTO.builder()
-                                                .pendingSalesOrders(pendingSO)
-                                                .confirmedSalesOrders(confirmedSO)
+                                                .pendingSalesOrders(snap.pendingSalesOrders())
+                                                .confirmedSalesOrders(snap.confirmedSalesOrders())
                                                 .pendingPurchaseOrders(pendingPO)
-                                                .approvedPurchaseOrders(approvedPO)
+                                                .approvedPurchaseOrders(snap.approvedPurchaseOrders())
                                                 .build())
                                 .recentActivity(DashboardOverviewResponse.RecentActivityDTO.builder()
-                                                .salesOrdersToday(soToday)
-                                                .purchaseOrdersToday(poToday)
-                                                .shipmentsToday(shipmentsToday)
-                                                .receivedToday(receivedToday)
+                                                .salesOrdersToday(snap.salesOrdersToday())
+                                                .purchaseOrdersToday(snap.purchaseOrdersToday())
+                                                .shipmentsToday(snap.shipmentsToday())
+                                                .receivedToday(snap.purchaseOrdersReceivedToday())
                                                 .build())
                                 .alerts(DashboardOverviewResponse.AlertsDTO.builder()
                                                 .lowStockAlerts(lowStock)
                                                 .pendingApprovals(pendingPO + pendingAdj)
-                                                .overdueInvoices(overdueInvoices)
+                                                .overdueInvoices(snap.overdueInvoices())
                                                 .pendingAdjustments(pendingAdj)
                                                 .build())
                                 .revenue(DashboardOverviewResponse.RevenueDTO.builder()
-                                                .today(revenueToday)
-                                                .thisWeek(revenueWeek)
+                                                .today(snap.revenueToday())
+                                                .thisWeek(snap.revenueThisWeek())
                                                 .thisMonth(revenueThisMonth)
                                                 .lastMonth(revenueLastMonth)
                                                 .growth(growthPercent(revenueLastMonth, revenueThisMonth))
@@ -150,114 +154,73 @@ public class DashboardService {
          * Returns inventory totals, stock-status distribution, and per-category /
          * per-warehouse breakdowns. Optionally scoped to one warehouse or category.
          */
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
         public DashboardInventorySummaryResponse getInventorySummary(Long warehouseId, Long categoryId) {
                 log.debug("Building inventory summary warehouseId={} categoryId={}", warehouseId, categoryId);
 
-                List<InventoryItem> allItems = warehouseId != null
-                                ? inventoryItemRepository.findByWarehouse(
-                                                warehouseRepository.getReferenceById(warehouseId),
-                                                Pageable.unpaged()).getContent()
-                                : inventoryItemRepository.findAll();
-
-                if (categoryId != null) {
-                        allItems = allItems.stream()
-                                        .filter(i -> categoryId.equals(i.getProduct().getCategory().getId()))
-                                        .toList();
-                }
-
-                Map<Long, Integer> stockByProduct = new LinkedHashMap<>();
-                allItems.forEach(i -> stockByProduct.merge(i.getProduct().getId(), i.getQuantity(), Integer::sum));
-
-                int totalProducts = stockByProduct.size();
-                int inStock = 0, lowStockCount = 0, outOfStockCount = 0;
-                for (Map.Entry<Long, Integer> e : stockByProduct.entrySet()) {
-                        int qty = e.getValue();
-                        int reorder = reorderLevelFor(allItems, e.getKey());
-                        if (qty == 0)
-                                outOfStockCount++;
-                        else if (qty <= reorder)
-                                lowStockCount++;
-                        else
-                                inStock++;
-                }
-
-                BigDecimal costValue = allItems.stream()
-                                .map(i -> i.getProduct().getCostPrice().multiply(BigDecimal.valueOf(i.getQuantity())))
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                BigDecimal retailValue = allItems.stream()
-                                .map(i -> i.getProduct().getUnitPrice().multiply(BigDecimal.valueOf(i.getQuantity())))
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                // By category
-                Map<Long, CategoryAgg> catMap = new LinkedHashMap<>();
-                for (InventoryItem item : allItems) {
-                        var cat = item.getProduct().getCategory();
-                        CategoryAgg agg = catMap.computeIfAbsent(cat.getId(), id -> new CategoryAgg(id, cat.getName()));
-                        agg.productIds.add(item.getProduct().getId());
-                        agg.totalValue = agg.totalValue.add(
-                                        item.getProduct().getUnitPrice()
-                                                        .multiply(BigDecimal.valueOf(item.getQuantity())));
-                        if (item.getQuantity() <= item.getProduct().getReorderLevel())
-                                agg.lowStockCount++;
-                }
-
-                List<DashboardInventorySummaryResponse.CategoryBreakdownDTO> byCategory = catMap.values().stream()
-                                .map(a -> DashboardInventorySummaryResponse.CategoryBreakdownDTO.builder()
-                                                .categoryId(a.id).categoryName(a.name)
-                                                .productCount(a.productIds.size()).totalValue(a.totalValue)
-                                                .lowStockCount(a.lowStockCount).build())
+                // Filters, grouping and ranking all run in SQL; only aggregated rows
+                // (1 total + categories + warehouses + TOP_N products) reach the heap
+                DashboardQueryExecutor.Batch batch = queryExecutor.batch();
+                CompletableFuture<List<InventoryBreakdownRow>> breakdownQuery = batch.submit(
+                                () -> dashboardRepository.inventoryBreakdown(warehouseId, categoryId));
+                CompletableFuture<StockStatusDistributionRow> statusQuery = batch.submit(
+                                () -> dashboardRepository.stockStatusDistribution(warehouseId, categoryId));
+                CompletableFuture<List<InventoryTopProductRow>> topProductsQuery = batch.submit(
+                                () -> dashboardRepository.topProductsByStockValue(warehouseId, categoryId, TOP_N));
+                batch.join();
+
+                List<InventoryBreakdownRow> breakdown = breakdownQuery.join();
+                StockStatusDistributionRow status = statusQuery.join();
+
+                InventoryBreakdownRow total = breakdown.stream()
+                                .filter(r -> r.level() == InventoryBreakdownLevel.TOTAL)
+                                .findFirst()
+                                .orElseThrow();
+
+                List<DashboardInventorySummaryResponse.CategoryBreakdownDTO> byCategory = breakdown.stream()
+                                .filter(r -> r.level() == InventoryBreakdownLevel.CATEGORY)
+                                .map(r -> DashboardInventorySummaryResponse.CategoryBreakdownDTO.builder()
+                                                .categoryId(r.groupId()).categoryName(r.groupName())
+                                                .productCount(r.productCount()).totalValue(r.retailValue())
+                                                .lowStockCount(r.lowStockItems()).build())
                                 .toList();
 
-                // By warehouse
-                Map<Long, WarehouseAgg> whMap = new LinkedHashMap<>();
-                for (InventoryItem item : allItems) {
-                        var wh = item.getWarehouse();
-                        double cap = wh.getCapacity() != null ? wh.getCapacity().doubleValue() : 0.0;
-                        WarehouseAgg agg = whMap.computeIfAbsent(wh.getId(),
-                                        id -> new WarehouseAgg(id, wh.getName(), cap));
-                        agg.productIds.add(item.getProduct().getId());
-                        agg.totalValue = agg.totalValue.add(
-                                        item.getProduct().getUnitPrice()
-                                                        .multiply(BigDecimal.valueOf(item.getQuantity())));
-                        agg.totalUnits += item.getQuantity();
-                }
+                List<DashboardInventorySummaryResponse.WarehouseBreakdownDTO> byWarehouse = breakdown.stream()
+                                .filter(r -> r.level() == InventoryBreakdownLevel.WAREHOUSE)
+                                .map(r -> {
+                                        double cap = r.capacity() != null ? r.capacity().doubleValue() : 0.0;
+                                        return DashboardInventorySummaryResponse.WarehouseBreakdownDTO.builder()
+                                                        .warehouseId(r.groupId()).warehouseName(r.groupName())
+                                                        .productCount(r.productCount())
+                                                        .totalValue(r.retailValue())
+                                                        .utilization(cap > 0
+                                                                        ? Math.min(100.0, r.totalUnits() / cap * 100)
+                                                                        : 0.0)
+                                                        .build();
+                                })
+                                .toList();
 
-                List<DashboardInventorySummaryResponse.WarehouseBreakdownDTO> byWarehouse = whMap.values().stream()
-                                .map(a -> DashboardInventorySummaryResponse.WarehouseBreakdownDTO.builder()
-                                                .warehouseId(a.id).warehouseName(a.name)
-                                                .productCount(a.productIds.size())
-                                                .totalValue(a.totalValue)
-                                                .utilization(a.capacity > 0
-                                                                ? Math.min(100.0, a.totalUnits / a.capacity * 100)
-                                                                : 0.0)
+                // Top products by retail value
+                List<DashboardInventorySummaryResponse.TopProductDTO> topProducts = topProductsQuery.join().stream()
+                                .map(r -> DashboardInventorySummaryResponse.TopProductDTO.builder()
+                                                .productId(r.productId())
+                                                .sku(r.sku())
+                                                .name(r.name()).totalQuantity((int) r.totalQuantity())
+                                                .totalValue(r.totalValue())
                                                 .build())
                                 .toList();
 
-                // Top products by retail value
-                List<DashboardInventorySummaryResponse.TopProductDTO> topProducts = allItems.stream()
-                                .collect(Collectors.groupingBy(i -> i.getProduct().getId()))
-                                .entrySet().stream()
-                                .map(e -> {
-                                        InventoryItem first = e.getValue().get(0);
-                                        int qty = e.getValue().stream().mapToInt(InventoryItem::getQuantity).sum();
-                                        return DashboardInventorySummaryResponse.TopProductDTO.builder()
-                                                        .productId(first.getProduct().getId())
-                                                        .sku(first.getProduct().getSku())
-                                                        .name(first.getProduct().getName()).totalQuantity(qty)
-                                                        .totalValue(first.getProduct().getUnitPrice()
-                                                                        .multiply(BigDecimal.valueOf(qty)))
-                                                        .build();
-                                })
-                                .sorted((a, b) -> b.getTotalValue().compareTo(a.getTotalValue()))
-                                .limit(TOP_N).toList();
+                BigDecimal costValue = total.costValue();
+                BigDecimal retailValue = total.retailValue();
 
                 return DashboardInventorySummaryResponse.builder()
-                                .totalProducts(totalProducts)
+                                .totalProducts(total.productCount())
                                 .totalValue(DashboardInventorySummaryResponse.TotalValueDTO.builder()
                                                 .cost(costValue).retail(retailValue)
                                                 .potentialProfit(retailValue.subtract(costValue)).build())
                                 .stockStatus(DashboardInventorySummaryResponse.StockStatusDTO.builder()
-                                                .inStock(inStock).lowStock(lowStockCount).outOfStock(outOfStockCount)
+                                                .inStock(status.inStock()).lowStock(status.lowStock())
+                                                .outOfStock(status.outOfStock())
                                                 .build())
                                 .byCategory(byCategory).byWarehouse(byWarehouse).topProducts(topProducts)
                                 .build();
@@ -268,16 +231,31 @@ public class DashboardService {
         /**
          * Returns sales performance for the given period or custom date range.
          */
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
         public DashboardSalesAnalyticsResponse getSalesAnalytics(
                         DashboardPeriod period, LocalDate startDate, LocalDate endDate) {
 
                 DateRange range = resolve(period, startDate, endDate);
+                DateRange prev = previous(range);
                 log.debug("Sales analytics {} → {}", range.start, range.end);
 
+                DashboardQueryExecutor.Batch batch = queryExecutor.batch();
+                CompletableFuture<List<DailySalesTrendRow>> trendQuery = batch.submit(
+                                () -> dashboardRepository.dailySalesTrend(range.start, range.end));
+                CompletableFuture<List<DailySalesTrendRow>> prevTrendQuery = batch.submit(
+                                () -> dashboardRepository.dailySalesTrend(prev.start, prev.end));
+                CompletableFuture<List<StatusCountRow>> byStatusQuery = batch.submit(
+                                () -> dashboardRepository.salesOrderCountByStatus(range.start, range.end));
+                CompletableFuture<List<TopProductRow>> topProductsQuery = batch.submit(
+                                () -> dashboardRepository.topSellingProducts(range.start, range.end,
+                                                PageRequest.of(0, TOP_N)));
+                CompletableFuture<List<TopCustomerRow>> topCustomersQuery = batch.submit(
+                                () -> dashboardRepository.topCustomers(range.start, range.end,
+                                                PageRequest.of(0, TOP_N)));
+                batch.join();
+
                 // Daily trend drives summary totals
-                List<DailySalesTrendRow> trendRows = fillMissingDates(
-                                dashboardRepository.dailySalesTrend(range.start, range.end),
-                                range.start, range.end);
+                List<DailySalesTrendRow> trendRows = fillMissingDates(trendQuery.join(), range.start, range.end);
 
                 int totalOrders = trendRows.stream().mapToInt(r -> (int) r.orderCount()).sum();
                 BigDecimal totalRevenue = trendRows.stream()
@@ -288,12 +266,10 @@ public class DashboardService {
 
                 // Status map
                 Map<String, Integer> byStatus = new LinkedHashMap<>();
-                dashboardRepository.salesOrderCountByStatus(range.start, range.end)
-                                .forEach(r -> byStatus.put(r.status(), (int) r.count()));
+                byStatusQuery.join().forEach(r -> byStatus.put(r.status(), (int) r.count()));
 
                 // Top products
-                List<DashboardSalesAnalyticsResponse.TopProductDTO> topProducts = dashboardRepository
-                                .topSellingProducts(range.start, range.end, PageRequest.of(0, TOP_N))
+                List<DashboardSalesAnalyticsResponse.TopProductDTO> topProducts = topProductsQuery.join()
                                 .stream().map(r -> DashboardSalesAnalyticsResponse.TopProductDTO.builder()
                                                 .productId(r.productId()).sku(r.sku()).name(r.name())
                                                 .unitsSold((int) r.unitsSold()).revenue(r.revenue())
@@ -301,8 +277,7 @@ public class DashboardService {
                                 .toList();
 
                 // Top customers
-                List<DashboardSalesAnalyticsResponse.TopCustomerDTO> topCustomers = dashboardRepository
-                                .topCustomers(range.start, range.end, PageRequest.of(0, TOP_N))
+                List<DashboardSalesAnalyticsResponse.TopCustomerDTO> topCustomers = topCustomersQuery.join()
                                 .stream().map(r -> DashboardSalesAnalyticsResponse.TopCustomerDTO.builder()
                                                 .customerId(r.customerId()).customerName(r.contactName())
                                                 .orderCount((int) r.orderCount()).totalSpent(r.totalSpent())
@@ -318,11 +293,7 @@ public class DashboardService {
                                 .toList();
 
                 // Period-over-period growth
-                DateRange prev = previous(range);
-
-                List<DailySalesTrendRow> prevRows = fillMissingDates(
-                                dashboardRepository.dailySalesTrend(prev.start, prev.end),
-                                prev.start, prev.end);
+                List<DailySalesTrendRow> prevRows = fillMissingDates(prevTrendQuery.join(), prev.start, prev.end);
 
                 int prevOrders = prevRows.stream().mapToInt(r -> (int) r.orderCount()).sum();
                 BigDecimal prevRevenue = prevRows.stream()
@@ -353,24 +324,39 @@ public class DashboardService {
         /**
          * Returns purchase-order performance for the given period.
          */
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
         public DashboardPurchaseAnalyticsResponse getPurchaseAnalytics(
                         DashboardPeriod period, LocalDate startDate, LocalDate endDate) {
 
                 DateRange range = resolve(period, startDate, endDate);
                 log.debug("Purchase analytics {} → {}", range.start, range.end);
 
+                DashboardQueryExecutor.Batch batch = queryExecutor.batch();
+                CompletableFuture<List<StatusCountRow>> byStatusQuery = batch.submit(
+                                () -> dashboardRepository.purchaseOrderCountByStatus(range.start, range.end));
+                CompletableFuture<Integer> totalItemsQuery = batch.submit(
+                                () -> dashboardRepository.totalItemsOrdered(range.start, range.end));
+                CompletableFuture<BigDecimal> totalSpentQuery = batch.submit(
+                                () -> dashboardRepository.purchaseSpendBetween(range.start, range.end));
+                CompletableFuture<List<TopSupplierRow>> topSuppliersQuery = batch.submit(
+                                () -> dashboardRepository.topSuppliers(range.start, range.end,
+                                                PageRequest.of(0, TOP_N)));
+                CompletableFuture<List<CategorySpendingRow>> categorySpendingQuery = batch.submit(
+                                () -> dashboardRepository.categorySpending(range.start, range.end));
+                CompletableFuture<List<MonthlyPurchaseTrendRow>> monthlyTrendQuery = batch.submit(
+                                () -> dashboardRepository.monthlyPurchaseTrend(range.start, range.end));
+                batch.join();
+
                 Map<String, Integer> byStatus = new LinkedHashMap<>();
-                dashboardRepository.purchaseOrderCountByStatus(range.start, range.end)
-                                .forEach(r -> byStatus.put(r.status(), (int) r.count()));
+                byStatusQuery.join().forEach(r -> byStatus.put(r.status(), (int) r.count()));
 
                 int totalOrders = byStatus.values().stream().mapToInt(Integer::intValue).sum();
-                int totalItemsOrdered = dashboardRepository.totalItemsOrdered(range.start, range.end);
-                BigDecimal totalSpent = dashboardRepository.purchaseSpendBetween(range.start, range.end);
+                int totalItemsOrdered = totalItemsQuery.join();
+                BigDecimal totalSpent = totalSpentQuery.join();
                 BigDecimal avgOrderValue = totalOrders == 0 ? BigDecimal.ZERO
                                 : totalSpent.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP);
 
-                List<DashboardPurchaseAnalyticsResponse.TopSupplierDTO> topSuppliers = dashboardRepository
-                                .topSuppliers(range.start, range.end, PageRequest.of(0, TOP_N))
+                List<DashboardPurchaseAnalyticsResponse.TopSupplierDTO> topSuppliers = topSuppliersQuery.join()
                                 .stream().map(r -> DashboardPurchaseAnalyticsResponse.TopSupplierDTO.builder()
                                                 .supplierId(r.supplierId()).supplierName(r.supplierName())
                                                 .orderCount((int) r.orderCount()).totalSpent(r.totalSpent())
@@ -378,16 +364,15 @@ public class DashboardService {
                                                 .build())
                                 .toList();
 
-                List<DashboardPurchaseAnalyticsResponse.CategorySpendingDTO> categorySpending = dashboardRepository
-                                .categorySpending(range.start, range.end)
+                List<DashboardPurchaseAnalyticsResponse.CategorySpendingDTO> categorySpending = categorySpendingQuery
+                                .join()
                                 .stream().map(r -> DashboardPurchaseAnalyticsResponse.CategorySpendingDTO.builder()
                                                 .categoryId(r.categoryId()).categoryName(r.categoryName())
                                                 .totalSpent(r.totalSpent()).orderCount((int) r.orderCount())
                                                 .build())
                                 .toList();
 
-                List<DashboardPurchaseAnalyticsResponse.MonthlyTrendDTO> monthlyTrend = dashboardRepository
-                                .monthlyPurchaseTrend(range.start, range.end)
+                List<DashboardPurchaseAnalyticsResponse.MonthlyTrendDTO> monthlyTrend = monthlyTrendQuery.join()
                                 .stream().map(r -> DashboardPurchaseAnalyticsResponse.MonthlyTrendDTO.builder()
                                                 .month(r.month()).orders((int) r.orderCount())
                                                 .totalSpent(r.totalSpent())
@@ -459,20 +444,36 @@ public class DashboardService {
         /**
          * Returns all items requiring immediate attention.
          */
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
         public DashboardPendingActionsResponse getPendingActions() {
                 log.debug("Building pending actions");
 
                 LocalDate today = LocalDate.now();
 
-                int pendingPO = dashboardRepository.countPendingPurchaseOrders();
-                int pendingAdj = dashboardRepository.countPendingStockAdjustments();
-
-                List<OverdueInvoiceRow> overdueRows = dashboardRepository.overdueInvoiceDetails(today);
+                DashboardQueryExecutor.Batch batch = queryExecutor.batch();
+                CompletableFuture<Integer> pendingPOQuery = batch.submit(
+                                dashboardRepository::countPendingPurchaseOrders);
+                CompletableFuture<Integer> pendingAdjQuery = batch.submit(
+                                dashboardRepository::countPendingStockAdjustments);
+                CompletableFuture<List<OverdueInvoiceRow>> overdueQuery = batch.submit(
+                                () -> dashboardRepository.overdueInvoiceDetails(today));
+                CompletableFuture<Integer> pendingShipQuery = batch.submit(dashboardRepository::countPendingShipments);
+                CompletableFuture<List<PendingShipmentRow>> oldestQuery = batch.submit(
+                                () -> dashboardRepository.oldestPendingShipment(PageRequest.of(0, 1)));
+                CompletableFuture<List<PendingPoApprovalRow>> approvalsQuery = batch.submit(
+                                () -> dashboardRepository.pendingPurchaseOrderApprovals(PageRequest.of(0, 5)));
+                CompletableFuture<Integer> lowStockQuery = batch.submit(dashboardRepository::countLowStockProducts);
+                batch.join();
+
+                int pendingPO = pendingPOQuery.join();
+                int pendingAdj = pendingAdjQuery.join();
+
+                List<OverdueInvoiceRow> overdueRows = overdueQuery.join();
                 BigDecimal overdueTotal = overdueRows.stream()
                                 .map(OverdueInvoiceRow::balanceDue).reduce(BigDecimal.ZERO, BigDecimal::add);
 
-                int pendingShipCount = dashboardRepository.countPendingShipments();
-                List<PendingShipmentRow> oldest = dashboardRepository.oldestPendingShipment(PageRequest.of(0, 1));
+                int pendingShipCount = pendingShipQuery.join();
+                List<PendingShipmentRow> oldest = oldestQuery.join();
 
                 DashboardPendingActionsResponse.OldestShipmentDTO oldestShipmentDTO = null;
                 if (!oldest.isEmpty()) {
@@ -486,8 +487,7 @@ public class DashboardService {
                 List<DashboardPendingActionsResponse.ActionItemDTO> items = new ArrayList<>();
 
                 // PO approvals (first 5) — named record access, no r[n]
-                List<PendingPoApprovalRow> approvals = dashboardRepository
-                                .pendingPurchaseOrderApprovals(PageRequest.of(0, 5));
+                List<PendingPoApprovalRow> approvals = approvalsQuery.join();
                 approvals.forEach(r -> items.add(DashboardPendingActionsResponse.ActionItemDTO.builder()
                                 .type("PURCHASE_ORDER_APPROVAL")
                                 .id(r.poId())
@@ -519,7 +519,7 @@ public class DashboardService {
                                                 .count(overdueRows.size()).totalAmount(overdueTotal).build())
                                 .pendingShipments(DashboardPendingActionsResponse.PendingShipmentsDTO.builder()
                                                 .count(pendingShipCount).oldestShipment(oldestShipmentDTO).build())
-                                .lowStockAlerts(dashboardRepository.countLowStockProducts())
+                                .lowStockAlerts(lowStockQuery.join())
                                 .items(items)
                                 .build();
         }
@@ -527,164 +527,82 @@ public class DashboardService {
         // ─── 7. Activity Feed ─────────────────────────────────────────────────────
 
         /**
-         * Returns a merged, time-sorted feed of recent system events.
+         * Returns one page of the activity stream, newest first.
+         * <p>
+         * Reads {@code activity_events} with a keyset cursor, so every page costs
+         * one bounded index range scan however deep the client scrolls. Pass the
+         * previous response's {@code nextCursor} to continue; it is {@code null}
+         * on the last page.
+         *
+         * @param cursor      opaque cursor from the previous page, or {@code null}
+         * @param types       activity types to include; {@code null} or empty for all
+         * @param warehouseId only events of this warehouse, if set
+         * @param userId      only events performed by this user, if set
          */
-        public DashboardActivityFeedResponse getActivityFeed(int limit) {
-                log.debug("Building activity feed limit={}", limit);
-
-                Pageable p = PageRequest.of(0, limit);
-
-                List<DashboardActivityFeedResponse.ActivityDTO> all = new ArrayList<>();
-
-                // Sales orders — named record fields
-                dashboardRepository.recentSalesOrderActivity(p)
-                                .forEach(r -> all.add(DashboardActivityFeedResponse.ActivityDTO.builder()
-                                                .id(r.soId())
-                                                .type(soActivityType(r.status()))
-                                                .title(soActivityTitle(r.status()))
-                                                .description(r.soNumber() + " " + r.status().toLowerCase() + " by "
-                                                                + r.username())
-                                                .user(DashboardActivityFeedResponse.UserSummaryDTO.builder()
-                                                                .id(r.userId()).username(r.username()).build())
-                                                .metadata(DashboardActivityFeedResponse.ActivityMetadataDTO.builder()
-                                                                .orderId(r.soId()).orderNumber(r.soNumber())
-                                                                .customerName(r.customerName())
-                                                                .totalAmount(r.totalAmount()).build())
-                                                .timestamp(r.createdAt())
-                                                .build()));
-
-                // Purchase orders — named record fields
-                dashboardRepository.recentPurchaseOrderActivity(p)
-                                .forEach(r -> all.add(DashboardActivityFeedResponse.ActivityDTO.builder()
-                                                .id(r.poId())
-                                                .type(poActivityType(r.status()))
-                                                .title(poActivityTitle(r.status()))
-                                                .description(r.poNumber() + " " + r.status().toLowerCase() + " by "
-                                                                + r.username())
-                                                .user(DashboardActivityFeedResponse.UserSummaryDTO.builder()
-                                                                .id(r.userId()).username(r.username()).build())
-                                                .metadata(DashboardActivityFeedResponse.ActivityMetadataDTO.builder()
-                                                                .orderId(r.poId()).orderNumber(r.poNumber())
-                                                                .supplierName(r.supplierName())
-                                                                .totalAmount(r.totalAmount()).build())
-                                                .timestamp(r.updatedAt())
-                                                .build()));
-
-                // Deliveries — named record fields
-                dashboardRepository.recentDeliveries(p).forEach(r -> all.add(DashboardActivityFeedResponse.ActivityDTO
-                                .builder()
-                                .id(r.shipmentId())
-                                .type(DashboardActivityType.SHIPMENT_DELIVERED)
-                                .title("Shipment delivered")
-                                .description("Shipment " + r.shipmentNumber() + " delivered to customer")
-                                .user(DashboardActivityFeedResponse.UserSummaryDTO.builder()
-                                                .id(r.userId()).username(r.username()).build())
-                                .metadata(DashboardActivityFeedResponse.ActivityMetadataDTO.builder()
-                                                .shipmentId(r.shipmentId()).shipmentNumber(r.shipmentNumber())
-                                                .customerName(r.customerName()).build())
-                                .timestamp(r.updatedAt())
-                                .build()));
+        public DashboardActivityFeedResponse getActivityFeed(String cursor, int limit,
+                        Set<DashboardActivityType> types, Long warehouseId, Long userId) {
+                log.debug("Building activity feed cursor={} limit={} types={} warehouseId={} userId={}",
+                                cursor, limit, types, warehouseId, userId);
+
+                // One extra row tells whether another page exists
+                List<ActivityEventRow> rows = activityEventRepository.findPage(
+                                decodeCursor(cursor), types, warehouseId, userId, limit + 1);
+                boolean hasMore = rows.size() > limit;
+                List<ActivityEventRow> page = hasMore ? rows.subList(0, limit) : rows;
+
+                List<DashboardActivityFeedResponse.ActivityDTO> activities = page.stream()
+                                .map(this::toActivity)
+                                .toList();
 
-                all.sort((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()));
                 return DashboardActivityFeedResponse.builder()
-                                .activities(all.stream().limit(limit).toList())
+                                .activities(activities)
+                                .nextCursor(hasMore ? encodeCursor(page.get(page.size() - 1)) : null)
                                 .build();
         }
 
         // ─── 8. Inventory Trend Chart ─────────────────────────────────────────────
 
-        /**
-         * Returns per-day inventory value/count snapshots for the requested period.
-         */
-
         /**
          * Returns per-day inventory value/count snapshots for the requested period.
          * <p>
-         * The current total inventory value is used as the baseline for the last day
-         * in the range. Each prior day's value is back-calculated by subtracting the
-         * net movement that occurred on the following day, walking backwards from
-         * today. This gives a real trend line rather than a flat synthetic series.
+         * Past days are read from {@code stock_daily_snapshots}, written nightly by
+         * {@link com.moeware.ims.scheduler.StockSnapshotScheduler} (or by a
+         * backfill). Today has no snapshot yet, so its point is computed from live
+         * stock. Days without a snapshot (before the first capture or backfill) are
+         * omitted rather than reported as zero.
          * <p>
          * When {@code warehouseId} is supplied, only inventory from that warehouse
          * contributes to the per-day values.
          */
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
         public DashboardInventoryTrendResponse getInventoryTrend(DashboardPeriod period, Long warehouseId) {
                 log.debug("Building inventory trend period={} warehouseId={}", period, warehouseId);
 
                 DateRange range = resolve(period, null, null);
-
-                // Current snapshot — scoped to warehouse when requested
-                BigDecimal currentValue = warehouseId != null
-                                ? inventoryItemRepository.calculateTotalValueByWarehouse(warehouseId) != null
-                                                ? BigDecimal.valueOf(inventoryItemRepository
-                                                                .calculateTotalValueByWarehouse(warehouseId))
-                                                : BigDecimal.ZERO
-                                : dashboardRepository.totalInventoryValue();
-
-                int currentProductCount = warehouseId != null
-                                ? (int) inventoryItemRepository.findByWarehouse(
-                                                warehouseRepository.getReferenceById(warehouseId),
-                                                Pageable.unpaged()).stream()
-                                                .map(ii -> ii.getProduct().getId()).distinct().count()
-                                : dashboardRepository.countActiveProducts();
-
-                int currentLowStock = dashboardRepository.currentLowStockCount();
-
-                // Build a date → netChange map from movement records
-                // netChange > 0 means stock went up that day; < 0 means stock went down
-                java.time.LocalDateTime rangeStart = range.start.atStartOfDay();
-                java.time.LocalDateTime rangeEnd = range.end.atTime(23, 59, 59);
-
-                Map<LocalDate, Long> netChangeByDate = new java.util.LinkedHashMap<>();
-                dashboardRepository.dailyInventoryNetChange(rangeStart, rangeEnd)
-                                .forEach(r -> netChangeByDate.put(
-                                                // r[0] is a java.sql.Date from native query — convert safely
-                                                ((java.sql.Date) r[0]).toLocalDate(),
-                                                r[1] == null ? 0L : ((Number) r[1]).longValue()));
-
-                // Build dates list in ascending order
-                List<LocalDate> dates = new ArrayList<>();
-                LocalDate cursor = range.start;
-                while (!cursor.isAfter(range.end)) {
-                        dates.add(cursor);
-                        cursor = cursor.plusDays(1);
-                }
-
-                // Walk backwards from currentValue to assign per-day values.
-                // value[today] = currentValue
-                // value[day-1] = value[day] - netChange[day] (undo the change that happened on
-                // "day")
-                Map<LocalDate, BigDecimal> valueByDate = new java.util.LinkedHashMap<>();
-                BigDecimal runningValue = currentValue;
-                for (int i = dates.size() - 1; i >= 0; i--) {
-                        LocalDate date = dates.get(i);
-                        valueByDate.put(date, runningValue);
-                        long netChange = netChangeByDate.getOrDefault(date, 0L);
-                        // Approximate: treat each unit as average unit price to convert quantity to
-                        // value.
-                        // Since we don't have price-history, this is the best approximation without
-                        // dedicated snapshot tables. The sign: going backward means undoing that day's
-                        // net.
-                        BigDecimal avgUnitPrice = currentProductCount > 0 && currentValue.compareTo(BigDecimal.ZERO) > 0
-                                        ? currentValue.divide(
-                                                        BigDecimal.valueOf(Math.max(1,
-                                                                        inventoryItemRepository
-                                                                                        .countTotalInventoryItems())),
-                                                        2, java.math.RoundingMode.HALF_UP)
-                                        : BigDecimal.ZERO;
-                        runningValue = runningValue.subtract(
-                                        avgUnitPrice.multiply(BigDecimal.valueOf(netChange)));
-                        if (runningValue.compareTo(BigDecimal.ZERO) < 0) {
-                                runningValue = BigDecimal.ZERO;
-                        }
+                LocalDate today = LocalDate.now();
+                LocalDate lastSnapshotDay = range.end.isBefore(today) ? range.end : today.minusDays(1);
+                boolean includesToday = !range.end.isBefore(today) && !range.start.isAfter(today);
+
+                DashboardQueryExecutor.Batch batch = queryExecutor.batch();
+                CompletableFuture<List<DailyStockSnapshotRow>> snapshotsQuery = batch.submit(
+                                () -> dashboardRepository.dailyStockSnapshots(range.start, lastSnapshotDay,
+                                                warehouseId));
+                CompletableFuture<DailyStockSnapshotRow> liveQuery = includesToday
+                                ? batch.submit(() -> dashboardRepository.liveStockSnapshot(today, warehouseId))
+                                : null;
+                batch.join();
+
+                List<DailyStockSnapshotRow> rows = new ArrayList<>(snapshotsQuery.join());
+                if (liveQuery != null) {
+                        rows.add(liveQuery.join());
                 }
 
-                List<DashboardInventoryTrendResponse.DataPointDTO> dataPoints = dates.stream()
-                                .map(date -> DashboardInventoryTrendResponse.DataPointDTO.builder()
-                                                .date(date)
-                                                .totalValue(valueByDate.getOrDefault(date, BigDecimal.ZERO))
-                                                .productCount(currentProductCount)
-                                                .lowStockCount(currentLowStock)
+                List<DashboardInventoryTrendResponse.DataPointDTO> dataPoints = rows.stream()
+                                .map(r -> DashboardInventoryTrendResponse.DataPointDTO.builder()
+                                                .date(r.snapshotDate())
+                                                .totalValue(r.totalValue())
+                                                .productCount(r.productCount())
+                                                .lowStockCount(r.lowStockCount())
                                                 .build())
                                 .toList();
 
@@ -696,13 +614,21 @@ public class DashboardService {
         /**
          * Returns per-day sales data with period-over-period growth comparison.
          */
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
         public DashboardSalesTrendResponse getSalesTrend(DashboardPeriod period) {
                 log.debug("Building sales trend period={}", period);
 
                 DateRange range = resolve(period, null, null);
                 DateRange prev = previous(range);
 
-                List<DailySalesTrendRow> rows = dashboardRepository.dailySalesTrend(range.start, range.end);
+                DashboardQueryExecutor.Batch batch = queryExecutor.batch();
+                CompletableFuture<List<DailySalesTrendRow>> rowsQuery = batch.submit(
+                                () -> dashboardRepository.dailySalesTrend(range.start, range.end));
+                CompletableFuture<List<DailySalesTrendRow>> prevRowsQuery = batch.submit(
+                                () -> dashboardRepository.dailySalesTrend(prev.start, prev.end));
+                batch.join();
+
+                List<DailySalesTrendRow> rows = rowsQuery.join();
 
                 List<DashboardSalesTrendResponse.DataPointDTO> dataPoints = rows.stream()
                                 .map(r -> DashboardSalesTrendResponse.DataPointDTO.builder()
@@ -711,7 +637,7 @@ public class DashboardService {
                                                 .build())
                                 .toList();
 
-                List<DailySalesTrendRow> prevRows = dashboardRepository.dailySalesTrend(prev.start, prev.end);
+                List<DailySalesTrendRow> prevRows = prevRowsQuery.join();
                 int prevOrders = prevRows.stream().mapToInt(r -> (int) r.orderCount()).sum();
                 BigDecimal prevRevenue = prevRows.stream()
                                 .map(DailySalesTrendRow::revenue).reduce(BigDecimal.ZERO, BigDecimal::add);
@@ -741,14 +667,22 @@ public class DashboardService {
          * Returns the top N products by revenue with their percentage share of total
          * period revenue.
          */
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
         public DashboardTopSellingProductsResponse getTopSellingProducts(DashboardPeriod period, int limit) {
                 log.debug("Building top selling products period={} limit={}", period, limit);
 
                 DateRange range = resolve(period, null, null);
-                List<TopProductRow> rows = dashboardRepository.topSellingProducts(
-                                range.start, range.end, PageRequest.of(0, limit));
 
-                BigDecimal totalRevenue = dashboardRepository.revenueBetween(range.start, range.end);
+                DashboardQueryExecutor.Batch batch = queryExecutor.batch();
+                CompletableFuture<List<TopProductRow>> rowsQuery = batch.submit(
+                                () -> dashboardRepository.topSellingProducts(range.start, range.end,
+                                                PageRequest.of(0, limit)));
+                CompletableFuture<BigDecimal> totalRevenueQuery = batch.submit(
+                                () -> dashboardRepository.revenueBetween(range.start, range.end));
+                batch.join();
+
+                List<TopProductRow> rows = rowsQuery.join();
+                BigDecimal totalRevenue = totalRevenueQuery.join();
 
                 List<DashboardTopSellingProductsResponse.TopProductDTO> products = rows.stream()
                                 .map(r -> {
@@ -832,17 +766,45 @@ public class DashboardService {
                                 .multiply(BigDecimal.valueOf(100)).doubleValue();
         }
 
-        private int reorderLevelFor(List<InventoryItem> items, Long productId) {
-                return items.stream()
-                                .filter(i -> i.getProduct().getId().equals(productId))
-                                .findFirst()
-                                .map(i -> i.getProduct().getReorderLevel())
-                                .orElse(0);
-        }
+        private DashboardActivityFeedResponse.ActivityDTO toActivity(ActivityEventRow r) {
+                DashboardActivityFeedResponse.UserSummaryDTO user = r.userId() == null ? null
+                                : DashboardActivityFeedResponse.UserSummaryDTO.builder()
+                                                .id(r.userId()).username(r.username()).build();
 
-        private DashboardActivityType soActivityType(String status) {
-                return "PENDING".equals(status) ? DashboardActivityType.SALES_ORDER_CREATED
-                                : DashboardActivityType.SALES_ORDER_UPDATED;
+                DashboardActivityFeedResponse.ActivityDTO.ActivityDTOBuilder activity = DashboardActivityFeedResponse.ActivityDTO
+                                .builder()
+                                .id(r.entityId())
+                                .type(r.activityType())
+                                .user(user)
+                                .timestamp(r.occurredAt());
+
+                return switch (r.activityType()) {
+                        case SALES_ORDER_CREATED, SALES_ORDER_UPDATED -> activity
+                                        .title(soActivityTitle(r.status()))
+                                        .description(r.entityNumber() + " " + r.status().toLowerCase() + " by "
+                                                        + r.username())
+                                        .metadata(DashboardActivityFeedResponse.ActivityMetadataDTO.builder()
+                                                        .orderId(r.entityId()).orderNumber(r.entityNumber())
+                                                        .customerName(r.counterpartyName())
+                                                        .totalAmount(r.totalAmount()).build())
+                                        .build();
+                        case PURCHASE_ORDER_APPROVED, PURCHASE_ORDER_UPDATED -> activity
+                                        .title(poActivityTitle(r.status()))
+                                        .description(r.entityNumber() + " " + r.status().toLowerCase() + " by "
+                                                        + r.username())
+                                        .metadata(DashboardActivityFeedResponse.ActivityMetadataDTO.builder()
+                                                        .orderId(r.entityId()).orderNumber(r.entityNumber())
+                                                        .supplierName(r.counterpartyName())
+                                                        .totalAmount(r.totalAmount()).build())
+                                        .build();
+                        case SHIPMENT_DELIVERED -> activity
+                                        .title("Shipment delivered")
+                                        .description("Shipment " + r.entityNumber() + " delivered to customer")
+                                        .metadata(DashboardActivityFeedResponse.ActivityMetadataDTO.builder()
+                                                        .shipmentId(r.entityId()).shipmentNumber(r.entityNumber())
+                                                        .customerName(r.counterpartyName()).build())
+                                        .build();
+                };
         }
 
         private String soActivityTitle(String status) {
@@ -857,11 +819,6 @@ public class DashboardService {
                 };
         }
 
-        private DashboardActivityType poActivityType(String status) {
-                return "APPROVED".equals(status) ? DashboardActivityType.PURCHASE_ORDER_APPROVED
-                                : DashboardActivityType.PURCHASE_ORDER_UPDATED;
-        }
-
         private String poActivityTitle(String status) {
                 return switch (status) {
                         case "DRAFT" -> "Purchase order created";
@@ -873,37 +830,32 @@ public class DashboardService {
                 };
         }
 
-        // ─── Private value types ──────────────────────────────────────────────────
-
-        private record DateRange(LocalDate start, LocalDate end) {
+        /**
+         * Cursor format: URL-safe Base64 of {@code <occurredAt ISO-8601>|<id>}. It
+         * is opaque to clients; only its round trip matters.
+         */
+        private String encodeCursor(ActivityEventRow last) {
+                String raw = last.occurredAt() + "|" + last.id();
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
         }
 
-        private static class CategoryAgg {
-                final Long id;
-                final String name;
-                final Set<Long> productIds = new HashSet<>();
-                BigDecimal totalValue = BigDecimal.ZERO;
-                int lowStockCount;
-
-                CategoryAgg(Long id, String name) {
-                        this.id = id;
-                        this.name = name;
+        private ActivityCursor decodeCursor(String cursor) {
+                if (cursor == null || cursor.isBlank()) {
+                        return null;
+                }
+                try {
+                        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                        int sep = raw.lastIndexOf('|');
+                        return new ActivityCursor(LocalDateTime.parse(raw.substring(0, sep)),
+                                        Long.parseLong(raw.substring(sep + 1)));
+                } catch (RuntimeException e) {
+                        throw new InvalidOperationException("Invalid activity feed cursor: " + cursor);
                 }
         }
 
-        private static class WarehouseAgg {
-                final Long id;
-                final String name;
-                final double capacity;
-                final Set<Long> productIds = new HashSet<>();
-                BigDecimal totalValue = BigDecimal.ZERO;
-                int totalUnits;
-
-                WarehouseAgg(Long id, String name, double capacity) {
-                        this.id = id;
-                        this.name = name;
-                        this.capacity = capacity;
-                }
+        // ─── Private value types ──────────────────────────────────────────────────
+
+        private record DateRange(LocalDate start, LocalDate end) {
         }
 
         private static class LowStockAgg {
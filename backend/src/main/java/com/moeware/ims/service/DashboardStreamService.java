@@ -0,0 +1,319 @@
+package com.moeware.ims.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.moeware.ims.cache.DashboardCache;
+import com.moeware.ims.cache.DashboardCacheRegion;
+import com.moeware.ims.dto.dashboard.DashboardLowStockAlertsResponse;
+import com.moeware.ims.dto.dashboard.DashboardOverviewResponse;
+import com.moeware.ims.dto.dashboard.DashboardPendingActionsResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes live KPI updates to open dashboards over server-sent events.
+ *
+ * <p>
+ * Change detection piggybacks on {@link DashboardCache}: every eviction of a
+ * streamed region (caused by a committed domain change on any node) marks the
+ * matching topic dirty. {@link #flush()} runs on a fixed interval and, if
+ * anything is dirty <em>and</em> someone is listening, recomputes each dirty
+ * topic once — through the cache, so the result is shared with the REST
+ * endpoints — and pushes it to every subscriber only if it differs from the
+ * last value pushed. Bursts of changes within one interval therefore cost one
+ * query per topic, and idle dashboards cost no database work at all.
+ *
+ * <p>
+ * Backpressure: each subscriber has a latest-wins mailbox holding at most one
+ * pending payload per topic, and at most one send in flight. A slow client
+ * simply skips intermediate values; a client whose send has been blocked for
+ * longer than {@code app.dashboard.stream.max-send-stall-ms} is disconnected (the
+ * browser's {@code EventSource} reconnects and receives a fresh snapshot).
+ *
+ * <p>
+ * Event names: {@code overview}, {@code pending-actions} (ADMIN / MANAGER
+ * subscribers only) and {@code low-stock-alerts}; the data is the same JSON
+ * body the corresponding GET endpoint returns inside {@code data}.
+ */
+@Service
+@Slf4j
+public class DashboardStreamService {
+
+        /**
+         * Streamed dashboard views.
+         */
+        enum Topic {
+                OVERVIEW(DashboardCacheRegion.OVERVIEW, "overview", false),
+                PENDING_ACTIONS(DashboardCacheRegion.PENDING_ACTIONS, "pending-actions", true),
+                LOW_STOCK_ALERTS(DashboardCacheRegion.LOW_STOCK_ALERTS, "low-stock-alerts", false);
+
+                private final DashboardCacheRegion region;
+                private final String eventName;
+                private final boolean financial;
+
+                Topic(DashboardCacheRegion region, String eventName, boolean financial) {
+                        this.region = region;
+                        this.eventName = eventName;
+                        this.financial = financial;
+                }
+        }
+
+        private final DashboardService dashboardService;
+        private final DashboardCache dashboardCache;
+        private final TaskExecutor sendExecutor;
+        private final long emitterTimeoutMs;
+        private final long maxSendStallMs;
+
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+        /** Topics changed since the last flush. Guarded by {@code this}. */
+        private final Set<Topic> dirty = EnumSet.noneOf(Topic.class);
+
+        /** Last value pushed per topic; only touched by the flush thread. */
+        private final Map<Topic, Object> lastPushed = new EnumMap<>(Topic.class);
+
+        public DashboardStreamService(
+                        DashboardService dashboardService,
+                        DashboardCache dashboardCache,
+                        @Qualifier("dashboardStreamSendExecutor") TaskExecutor sendExecutor,
+                        @Value("${app.dashboard.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                        @Value("${app.dashboard.stream.max-send-stall-ms:30000}") long maxSendStallMs) {
+                this.dashboardService = dashboardService;
+                this.dashboardCache = dashboardCache;
+                this.sendExecutor = sendExecutor;
+                this.emitterTimeoutMs = emitterTimeoutMs;
+                this.maxSendStallMs = maxSendStallMs;
+                dashboardCache.addEvictionListener(this::onRegionsEvicted);
+        }
+
+        /**
+         * Opens a stream. The subscriber immediately receives the current value of
+         * every topic it may see, then only changes.
+         *
+         * @param includeFinancial whether to stream pending actions (ADMIN / MANAGER)
+         */
+        public SseEmitter subscribe(boolean includeFinancial) {
+                SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+                Subscriber subscriber = new Subscriber(emitter, includeFinancial);
+
+                emitter.onCompletion(() -> subscribers.remove(subscriber));
+                emitter.onTimeout(() -> {
+                        subscribers.remove(subscriber);
+                        emitter.complete();
+                });
+                emitter.onError(e -> subscribers.remove(subscriber));
+                subscribers.add(subscriber);
+
+                Map<Topic, Object> initial = new EnumMap<>(Topic.class);
+                for (Topic topic : Topic.values()) {
+                        if (includeFinancial || !topic.financial) {
+                                initial.put(topic, load(topic));
+                        }
+                }
+                subscriber.offer(initial);
+
+                log.debug("Dashboard stream opened ({} subscribers)", subscribers.size());
+                return emitter;
+        }
+
+        /**
+         * Recomputes dirty topics and pushes changed values. Called by
+         * {@link com.moeware.ims.scheduler.DashboardStreamScheduler} once per
+         * coalescing interval.
+         */
+        public void flush() {
+                dropStalledSubscribers();
+
+                Set<Topic> changed;
+                synchronized (this) {
+                        if (dirty.isEmpty()) {
+                                return;
+                        }
+                        changed = EnumSet.copyOf(dirty);
+                        dirty.clear();
+                }
+
+                // A change nobody receives must not be remembered as pushed, or a
+                // later value equal to the stale one would be suppressed
+                if (subscribers.isEmpty()) {
+                        changed.forEach(lastPushed::remove);
+                        return;
+                }
+                boolean anyFinancial = subscribers.stream().anyMatch(s -> s.includeFinancial);
+
+                Map<Topic, Object> updates = new EnumMap<>(Topic.class);
+                for (Topic topic : changed) {
+                        if (topic.financial && !anyFinancial) {
+                                lastPushed.remove(topic);
+                                continue;
+                        }
+                        Object value = load(topic);
+                        if (!value.equals(lastPushed.put(topic, value))) {
+                                updates.put(topic, value);
+                        }
+                }
+                if (!updates.isEmpty()) {
+                        log.debug("Pushing {} to {} dashboard streams", updates.keySet(), subscribers.size());
+                        subscribers.forEach(s -> s.offer(updates));
+                }
+        }
+
+        /**
+         * Sends a comment line to every subscriber so idle connections are not
+         * closed by proxies.
+         */
+        public void heartbeat() {
+                subscribers.forEach(Subscriber::heartbeat);
+        }
+
+        // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+        private void onRegionsEvicted(Set<DashboardCacheRegion> regions) {
+                synchronized (this) {
+                        for (Topic topic : Topic.values()) {
+                                if (regions.contains(topic.region)) {
+                                        dirty.add(topic);
+                                }
+                        }
+                }
+        }
+
+        /**
+         * Loads a topic through the response cache, using the same keys as
+         * {@code DashboardController} so both share entries.
+         */
+        private Object load(Topic topic) {
+                return switch (topic) {
+                        case OVERVIEW -> cached(topic, DashboardCache.key(LocalDate.now()),
+                                        DashboardOverviewResponse.class, dashboardService::getOverview);
+                        case PENDING_ACTIONS -> cached(topic, DashboardCache.key(LocalDate.now()),
+                                        DashboardPendingActionsResponse.class, dashboardService::getPendingActions);
+                        case LOW_STOCK_ALERTS -> cached(topic, DashboardCache.key("all"),
+                                        DashboardLowStockAlertsResponse.class, dashboardService::getLowStockAlerts);
+                };
+        }
+
+        private <T> T cached(Topic topic, String key, Class<T> type, Supplier<T> loader) {
+                return dashboardCache.get(topic.region, key, type, loader);
+        }
+
+        private void dropStalledSubscribers() {
+                long now = System.currentTimeMillis();
+                for (Subscriber subscriber : subscribers) {
+                        if (subscriber.isStalled(now)) {
+                                log.info("Closing dashboard stream stalled for more than {} ms", maxSendStallMs);
+                                subscribers.remove(subscriber);
+                                subscriber.emitter.complete();
+                        }
+                }
+        }
+
+        /**
+         * One open stream with its latest-wins mailbox.
+         */
+        private final class Subscriber {
+
+                private final SseEmitter emitter;
+                private final boolean includeFinancial;
+
+                // Guarded by this
+                private final Map<Topic, Object> pending = new EnumMap<>(Topic.class);
+                private boolean heartbeatDue;
+                private boolean sending;
+                private long sendingSince;
+
+                private Subscriber(SseEmitter emitter, boolean includeFinancial) {
+                        this.emitter = emitter;
+                        this.includeFinancial = includeFinancial;
+                }
+
+                void offer(Map<Topic, Object> updates) {
+                        synchronized (this) {
+                                updates.forEach((topic, value) -> {
+                                        if (includeFinancial || !topic.financial) {
+                                                pending.put(topic, value);
+                                        }
+                                });
+                                if (pending.isEmpty() || !startSending()) {
+                                        return;
+                                }
+                        }
+                        sendExecutor.execute(this::drain);
+                }
+
+                void heartbeat() {
+                        synchronized (this) {
+                                heartbeatDue = true;
+                                if (!startSending()) {
+                                        return;
+                                }
+                        }
+                        sendExecutor.execute(this::drain);
+                }
+
+                synchronized boolean isStalled(long now) {
+                        return sending && now - sendingSince > maxSendStallMs;
+                }
+
+                /** Must hold the lock. Returns false if a drain is already running. */
+                private boolean startSending() {
+                        if (sending) {
+                                return false;
+                        }
+                        sending = true;
+                        sendingSince = System.currentTimeMillis();
+                        return true;
+                }
+
+                private void drain() {
+                        while (true) {
+                                Map<Topic, Object> batch = new EnumMap<>(Topic.class);
+                                boolean ping;
+                                synchronized (this) {
+                                        if (pending.isEmpty() && !heartbeatDue) {
+                                                sending = false;
+                                                return;
+                                        }
+                                        batch.putAll(pending);
+                                        pending.clear();
+                                        ping = heartbeatDue;
+                                        heartbeatDue = false;
+                                        sendingSince = System.currentTimeMillis();
+                                }
+                                try {
+                                        for (Map.Entry<Topic, Object> entry : batch.entrySet()) {
+                                                emitter.send(SseEmitter.event()
+                                                                .name(entry.getKey().eventName)
+                                                                .data(entry.getValue(), MediaType.APPLICATION_JSON));
+                                        }
+                                        if (ping) {
+                                                emitter.send(SseEmitter.event().comment("keep-alive"));
+                                        }
+                                } catch (IOException | IllegalStateException e) {
+                                        // Client went away or the emitter already completed
+                                        log.debug("Dashboard stream closed: {}", e.getMessage());
+                                        subscribers.remove(this);
+                                        synchronized (this) {
+                                                pending.clear();
+                                                sending = false;
+                                        }
+                                        return;
+                                }
+                        }
+                }
+        }
+}
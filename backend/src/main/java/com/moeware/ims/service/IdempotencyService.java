@@ -0,0 +1,289 @@
+package com.moeware.ims.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moeware.ims.repository.IdempotencyKeyRepository;
+import com.moeware.ims.repository.IdempotencyKeyRepository.IdempotencyRecord;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Store behind the {@code Idempotency-Key} header (see
+ * {@link com.moeware.ims.security.IdempotencyKeyFilter}).
+ *
+ * <p>
+ * The first request with a key claims it with a short-lived IN_PROGRESS
+ * record ({@code app.idempotency.lock-ttl-seconds}), runs, and replaces the
+ * claim with its response, kept for {@code app.idempotency.ttl-hours}. A retry
+ * with the same key and request gets that response back; one arriving while
+ * the first is still running waits up to {@code app.idempotency.wait-ms} for
+ * it and is turned away if it has not finished by then. A key reused for a
+ * different request is refused.
+ *
+ * <p>
+ * Records live in the Redis instance already used by
+ * {@code TokenBlacklistService} under {@code idempotency:<username>:<key>}: a
+ * claim is one {@code SET NX}, so a first request costs a single round trip.
+ * When Redis fails, the same operations run against {@code idempotency_keys}
+ * instead. Keys written there are checked before Redis until they expire, so
+ * a retry after Redis comes back still finds them.
+ *
+ * <p>
+ * Metrics: {@code idempotency.requests} tagged
+ * {@code result=claimed|replay|in_progress|mismatch},
+ * {@code idempotency.lookup} and {@code idempotency.store.fallbacks}.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final int SWEEP_BATCH_SIZE = 1000;
+
+    /** Deletes a claim only if it is still the one this request wrote. */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    public enum Outcome {
+        /** The key is new; run the request, then complete or release. */
+        CLAIMED,
+        /** The request already completed; send the stored response. */
+        REPLAY,
+        /** The first request with the key is still running. */
+        IN_PROGRESS,
+        /** The key was used for a different request. */
+        MISMATCH
+    }
+
+    /**
+     * Result of {@link #begin}. {@code record} is this request's claim when
+     * CLAIMED, the stored record otherwise.
+     */
+    public record Attempt(Outcome outcome, String scopeKey, IdempotencyRecord record, boolean inDatabase) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate storeTx;
+    private final MeterRegistry meterRegistry;
+    private final Timer lookupTimer;
+    private final Counter fallbacks;
+    private final Duration ttl;
+    private final Duration lockTtl;
+    private final long waitMs;
+
+    /** Until when keys may exist in the database (epoch ms). */
+    private volatile long databaseInUseUntil;
+
+    public IdempotencyService(
+            StringRedisTemplate redisTemplate,
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            JsonMapper jsonMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${app.idempotency.lock-ttl-seconds:60}") long lockTtlSeconds,
+            @Value("${app.idempotency.wait-ms:5000}") long waitMs) {
+        this.redisTemplate = redisTemplate;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.jsonMapper = jsonMapper;
+        // Read-write: claims must be read back from the primary
+        this.storeTx = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.lookupTimer = Timer.builder("idempotency.lookup")
+                .description("Time to claim or look up an idempotency key")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("idempotency.store.fallbacks")
+                .description("Idempotency store operations served by the database because Redis failed")
+                .register(meterRegistry);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lockTtl = Duration.ofSeconds(lockTtlSeconds);
+        this.waitMs = waitMs;
+    }
+
+    /**
+     * Claims the key for a request, or reports why it cannot run. Waits while
+     * another request holds the key, up to {@code app.idempotency.wait-ms}.
+     *
+     * @param fingerprint hash identifying the request; a stored response is
+     *                    only replayed to an identical request
+     */
+    public Attempt begin(String username, String key, String fingerprint) {
+        String scopeKey = username + ":" + key;
+        long deadline = System.currentTimeMillis() + waitMs;
+        Attempt attempt;
+        while (true) {
+            attempt = lookupTimer.record(() -> tryBegin(scopeKey, fingerprint));
+            if (attempt.outcome() != Outcome.IN_PROGRESS || System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        Counter.builder("idempotency.requests")
+                .tag("result", attempt.outcome().name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+        return attempt;
+    }
+
+    /**
+     * Stores the response of a claimed request. Failures are logged: the
+     * request itself has already succeeded.
+     */
+    public void complete(Attempt attempt, int status, String contentType, String body) {
+        IdempotencyRecord claim = attempt.record();
+        IdempotencyRecord completed = new IdempotencyRecord(claim.token(), claim.fingerprint(), true, status,
+                contentType, body);
+        if (!attempt.inDatabase()) {
+            try {
+                redisTemplate.opsForValue().set(redisKey(attempt.scopeKey()), jsonMapper.writeValueAsString(completed),
+                        ttl);
+                return;
+            } catch (RuntimeException ex) {
+                onRedisFailure(ex);
+            }
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            storeTx.executeWithoutResult(s -> {
+                // A claim taken in Redis has no row yet
+                idempotencyKeyRepository.claim(attempt.scopeKey(), claim, now.plus(lockTtl), now);
+                idempotencyKeyRepository.complete(attempt.scopeKey(), completed, now.plus(ttl));
+            });
+        } catch (RuntimeException ex) {
+            log.error("Could not store the response for idempotency key {}", attempt.scopeKey(), ex);
+        }
+    }
+
+    /**
+     * Drops the claim of a request that failed, so the client can retry with
+     * the same key.
+     */
+    public void release(Attempt attempt) {
+        try {
+            if (attempt.inDatabase()) {
+                storeTx.executeWithoutResult(
+                        s -> idempotencyKeyRepository.release(attempt.scopeKey(), attempt.record().token()));
+            } else {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(redisKey(attempt.scopeKey())),
+                        jsonMapper.writeValueAsString(attempt.record()));
+            }
+        } catch (RuntimeException ex) {
+            // The claim expires after the lock TTL anyway
+            log.warn("Could not release idempotency key {}: {}", attempt.scopeKey(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Deletes expired database records and notes whether any are left.
+     *
+     * @return number of records deleted
+     */
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = storeTx.execute(s -> idempotencyKeyRepository.deleteExpired(now, SWEEP_BATCH_SIZE));
+            total += deleted;
+        } while (deleted == SWEEP_BATCH_SIZE);
+
+        LocalDateTime latest = storeTx.execute(s -> idempotencyKeyRepository.findLatestExpiry());
+        databaseInUseUntil = latest == null ? 0 : latest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return total;
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private Attempt tryBegin(String scopeKey, String fingerprint) {
+        IdempotencyRecord claim = new IdempotencyRecord(UUID.randomUUID().toString(), fingerprint, false, 0, null,
+                null);
+        if (System.currentTimeMillis() < databaseInUseUntil) {
+            Optional<IdempotencyRecord> stored = storeTx
+                    .execute(s -> idempotencyKeyRepository.find(scopeKey, LocalDateTime.now()));
+            if (stored.isPresent()) {
+                return examine(scopeKey, stored.get(), fingerprint, true);
+            }
+        }
+        try {
+            return beginInRedis(scopeKey, claim);
+        } catch (RuntimeException ex) {
+            onRedisFailure(ex);
+            return beginInDatabase(scopeKey, claim);
+        }
+    }
+
+    private Attempt beginInRedis(String scopeKey, IdempotencyRecord claim) {
+        String key = redisKey(scopeKey);
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(key, jsonMapper.writeValueAsString(claim), lockTtl))) {
+            return new Attempt(Outcome.CLAIMED, scopeKey, claim, false);
+        }
+        String json = redisTemplate.opsForValue().get(key);
+        if (json == null) {
+            // Expired between the two calls; the next poll claims it
+            return new Attempt(Outcome.IN_PROGRESS, scopeKey, claim, false);
+        }
+        return examine(scopeKey, jsonMapper.readValue(json, IdempotencyRecord.class), claim.fingerprint(), false);
+    }
+
+    private Attempt beginInDatabase(String scopeKey, IdempotencyRecord claim) {
+        LocalDateTime now = LocalDateTime.now();
+        return storeTx.execute(s -> {
+            if (idempotencyKeyRepository.claim(scopeKey, claim, now.plus(lockTtl), now)) {
+                return new Attempt(Outcome.CLAIMED, scopeKey, claim, true);
+            }
+            return idempotencyKeyRepository.find(scopeKey, now)
+                    .map(stored -> examine(scopeKey, stored, claim.fingerprint(), true))
+                    .orElseGet(() -> new Attempt(Outcome.IN_PROGRESS, scopeKey, claim, true));
+        });
+    }
+
+    private Attempt examine(String scopeKey, IdempotencyRecord stored, String fingerprint, boolean inDatabase) {
+        Outcome outcome;
+        if (!stored.fingerprint().equals(fingerprint)) {
+            outcome = Outcome.MISMATCH;
+        } else {
+            outcome = stored.completed() ? Outcome.REPLAY : Outcome.IN_PROGRESS;
+        }
+        return new Attempt(outcome, scopeKey, stored, inDatabase);
+    }
+
+    private void onRedisFailure(RuntimeException ex) {
+        log.warn("Idempotency store falling back to the database (Redis unavailable?): {}", ex.getMessage());
+        fallbacks.increment();
+        databaseInUseUntil = Math.max(databaseInUseUntil, System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    private static String redisKey(String scopeKey) {
+        return KEY_PREFIX + scopeKey;
+    }
+}
@@ -0,0 +1,225 @@
+package com.moeware.ims.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moeware.ims.enums.OutboxEventStatus;
+import com.moeware.ims.event.OutboxEvent;
+import com.moeware.ims.event.OutboxEventHandler;
+import com.moeware.ims.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers outbox events to the registered {@link OutboxEventHandler}s.
+ *
+ * <p>
+ * Events are claimed in batches of {@code app.outbox.batch-size} with
+ * {@code FOR UPDATE SKIP LOCKED} and stay locked until their batch is
+ * recorded, so no two nodes deliver the same event. Within a batch each event
+ * goes to every handler that supports it, one handler transaction at a time.
+ * When a handler throws, the event is retried with exponential backoff
+ * ({@code app.outbox.retry-backoff-ms} doubling up to
+ * {@code app.outbox.max-backoff-ms}), holding back later events of its
+ * aggregate, and dead-lettered after {@code app.outbox.max-attempts}.
+ *
+ * <p>
+ * Draining runs on the {@code outboxDispatchExecutor} thread, woken after
+ * each commit that published events and by {@code OutboxDispatchScheduler}
+ * for retries, other nodes' events and anything a wake-up missed.
+ *
+ * <p>
+ * Metrics: {@code outbox.events.dispatched}, {@code outbox.events.retried} and
+ * {@code outbox.events.dead} by event type, and {@code outbox.dispatch.lag}
+ * (publication to delivery).
+ */
+@Service
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final TaskExecutor outboxDispatchExecutor;
+    private final TransactionTemplate claimTx;
+    private final TransactionTemplate handlerTx;
+    private final MeterRegistry meterRegistry;
+    private final Timer lagTimer;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxBackoffMs;
+    private final int retentionDays;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean rerun;
+
+    public OutboxDispatcher(
+            OutboxEventRepository outboxEventRepository,
+            ObjectProvider<OutboxEventHandler> handlers,
+            @Qualifier("outboxDispatchExecutor") TaskExecutor outboxDispatchExecutor,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.batch-size:100}") int batchSize,
+            @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${app.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+            @Value("${app.outbox.max-backoff-ms:300000}") long maxBackoffMs,
+            @Value("${app.outbox.retention-days:7}") int retentionDays) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers.orderedStream().toList();
+        this.outboxDispatchExecutor = outboxDispatchExecutor;
+        // Read-write: claims lock rows on the primary
+        this.claimTx = new TransactionTemplate(transactionManager);
+        this.handlerTx = new TransactionTemplate(transactionManager);
+        this.handlerTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.lagTimer = Timer.builder("outbox.dispatch.lag")
+                .description("Time from publishing an outbox event to its delivery")
+                .register(meterRegistry);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.retentionDays = retentionDays;
+        log.info("Outbox dispatcher started with {} handler(s)", this.handlers.size());
+    }
+
+    /**
+     * Schedules a drain on the dispatch thread; returns at once.
+     */
+    public void wakeUp() {
+        try {
+            outboxDispatchExecutor.execute(this::drain);
+        } catch (TaskRejectedException ex) {
+            // A drain is already queued and will see the new events
+        }
+    }
+
+    /**
+     * Deletes delivered events older than {@code app.outbox.retention-days}.
+     * Dead events are kept.
+     *
+     * @return number of events deleted
+     */
+    public int purgeDispatched() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = claimTx.execute(s -> outboxEventRepository.deleteDispatchedBefore(cutoff, PURGE_BATCH_SIZE));
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        return total;
+    }
+
+    // ─── DISPATCH ────────────────────────────────────────────────────────────
+
+    /**
+     * Delivers batches until no due event is left. Concurrent calls on this
+     * node collapse into the running one.
+     */
+    void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            rerun = true;
+            return;
+        }
+        try {
+            do {
+                rerun = false;
+                while (dispatchBatch() == batchSize) {
+                    // Full batch: there may be more
+                }
+            } while (rerun);
+        } catch (RuntimeException ex) {
+            log.error("Outbox dispatch failed", ex);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private int dispatchBatch() {
+        return claimTx.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> batch = outboxEventRepository.claimBatch(now, batchSize);
+            List<Long> dispatched = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                if (deliver(event, now)) {
+                    dispatched.add(event.id());
+                    lagTimer.record(Duration.between(event.createdAt(), LocalDateTime.now()));
+                }
+            }
+            outboxEventRepository.markDispatched(dispatched, LocalDateTime.now());
+            return batch.size();
+        });
+    }
+
+    /**
+     * Hands an event to its handlers, recording a failure if one throws.
+     *
+     * @return true when every handler succeeded
+     */
+    private boolean deliver(OutboxEvent event, LocalDateTime now) {
+        try {
+            for (OutboxEventHandler handler : handlers) {
+                if (handler.supports(event.eventType())) {
+                    handlerTx.executeWithoutResult(s -> handler.handle(event));
+                }
+            }
+            count("outbox.events.dispatched", event);
+            return true;
+        } catch (RuntimeException ex) {
+            int attempts = event.attempts() + 1;
+            String error = truncate(ex.toString());
+            if (attempts >= maxAttempts) {
+                log.error("Outbox event {} ({} {} {}) dead after {} attempts",
+                        event.id(), event.eventType(), event.aggregateType(), event.aggregateId(), attempts, ex);
+                outboxEventRepository.markFailed(event.id(), OutboxEventStatus.DEAD, attempts, now, error);
+                count("outbox.events.dead", event);
+            } else {
+                LocalDateTime nextAttemptAt = now.plus(Duration.ofMillis(backoff(attempts)));
+                log.warn("Outbox event {} ({}) failed, attempt {} of {}, retrying at {}: {}",
+                        event.id(), event.eventType(), attempts, maxAttempts, nextAttemptAt, error);
+                outboxEventRepository.markFailed(event.id(), OutboxEventStatus.PENDING, attempts, nextAttemptAt,
+                        error);
+                count("outbox.events.retried", event);
+            }
+            return false;
+        }
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private long backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        return Math.min(maxBackoffMs, retryBackoffMs << doublings);
+    }
+
+    private void count(String name, OutboxEvent event) {
+        Counter.builder(name)
+                .tag("type", event.eventType())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= MAX_ERROR_LENGTH ? s : s.substring(0, MAX_ERROR_LENGTH);
+    }
+}
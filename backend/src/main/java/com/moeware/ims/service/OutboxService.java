@@ -0,0 +1,107 @@
+package com.moeware.ims.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.moeware.ims.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Publishes domain events through the transactional outbox.
+ *
+ * <p>
+ * An event is a row in {@code outbox_events} written in the caller's
+ * transaction: it is delivered if and only if the change it describes
+ * commits, and publishing costs the write one insert instead of running
+ * notification, audit or analytics work inline. {@link OutboxDispatcher}
+ * delivers it to the {@link com.moeware.ims.event.OutboxEventHandler}s right
+ * after the commit, or on its next poll.
+ *
+ * <p>
+ * Publishing locks the aggregate until the transaction ends, which is what
+ * keeps its events in order. A transaction publishing for several aggregates
+ * of one type should do so in ascending id order, so two such transactions
+ * cannot deadlock on each other's locks.
+ */
+@Service
+public class OutboxService {
+
+    // Aggregate types
+    public static final String SALES_ORDER = "SalesOrder";
+    public static final String PURCHASE_ORDER = "PurchaseOrder";
+    public static final String PAYMENT = "Payment";
+    public static final String PRODUCT_STOCK = "ProductStock";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+
+    public OutboxService(
+            OutboxEventRepository outboxEventRepository,
+            OutboxDispatcher outboxDispatcher,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDispatcher = outboxDispatcher;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Writes an event in the current transaction.
+     *
+     * @param aggregateType one of the aggregate type constants; events of one
+     *                      aggregate are delivered in publication order
+     * @param eventType     e.g. {@code sales-order.confirmed}
+     * @param payload       serialised as a JSON object
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String aggregateType, Long aggregateId, String eventType, Map<String, ?> payload) {
+        outboxEventRepository.append(aggregateType, aggregateId, eventType, jsonMapper.writeValueAsString(payload));
+        published(eventType, 1);
+    }
+
+    /**
+     * Writes one event per aggregate in the current transaction with a single
+     * insert, in ascending aggregate id order.
+     *
+     * @param payloads payload of each aggregate's event, keyed by aggregate id
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(String aggregateType, String eventType, SortedMap<Long, ? extends Map<String, ?>> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        List<String> json = new ArrayList<>(payloads.size());
+        payloads.values().forEach(payload -> json.add(jsonMapper.writeValueAsString(payload)));
+        outboxEventRepository.appendAll(aggregateType, eventType, new ArrayList<>(payloads.keySet()), json);
+        published(eventType, payloads.size());
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private void published(String eventType, int count) {
+        Counter.builder("outbox.events.published")
+                .tag("type", eventType)
+                .register(meterRegistry)
+                .increment(count);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package com.moeware.ims.service.inventory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moeware.ims.enums.transaction.CostingMethod;
+import com.moeware.ims.repository.inventory.CostLayerRepository;
+import com.moeware.ims.repository.inventory.CostLayerRepository.CostDraw;
+import com.moeware.ims.repository.inventory.CostLayerRepository.LayerInput;
+import com.moeware.ims.repository.inventory.CostLayerRepository.ValuationRow;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockMovement;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps inventory cost layers in step with stock movements.
+ *
+ * <p>
+ * {@link StockLedgerService} calls {@link #record} for every movement it
+ * applies, in the same transaction and after the stock write, so the
+ * inventory row lock that write took also serialises the layer changes.
+ * Inbound units open a layer (FIFO) or are averaged into the open layer
+ * (weighted average), as set by {@code app.inventory.costing.method}. Outbound
+ * units consume layers oldest first; each draw is recorded against the
+ * movement's reference number, so the cost of goods of a sales order is the
+ * sum over its SO number. Transfers carry the drawn cost to the destination.
+ */
+@Service
+@Slf4j
+public class CostLayerService {
+
+    private final CostLayerRepository costLayerRepository;
+    private final CostingMethod costingMethod;
+
+    public CostLayerService(
+            CostLayerRepository costLayerRepository,
+            @Value("${app.inventory.costing.method:FIFO}") CostingMethod costingMethod) {
+        this.costLayerRepository = costLayerRepository;
+        this.costingMethod = costingMethod;
+    }
+
+    public CostingMethod getCostingMethod() {
+        return costingMethod;
+    }
+
+    /**
+     * Records the cost side of one applied movement.
+     */
+    @Transactional
+    public void record(StockMovement movement) {
+        LocalDateTime at = movement.movementDate() != null ? movement.movementDate() : LocalDateTime.now();
+        BigDecimal unitCost = movement.unitCost();
+        if (movement.fromWarehouseId() != null) {
+            BigDecimal drawn = draw(movement, at);
+            if (unitCost == null) {
+                unitCost = drawn.divide(BigDecimal.valueOf(movement.quantity()), 4, RoundingMode.HALF_UP);
+            }
+        }
+        if (movement.toWarehouseId() != null) {
+            addInbound(List.of(layer(movement, unitCost, at)));
+        }
+    }
+
+    /**
+     * Records the cost side of a batch of applied movements. Pure receipts are
+     * layered in one batch; anything drawing stock is handled line by line.
+     */
+    @Transactional
+    public void recordAll(List<StockMovement> movements) {
+        LocalDateTime now = LocalDateTime.now();
+        List<LayerInput> receipts = new ArrayList<>();
+        for (StockMovement movement : movements) {
+            if (movement.fromWarehouseId() != null) {
+                record(movement);
+            } else {
+                receipts.add(layer(movement, movement.unitCost(),
+                        movement.movementDate() != null ? movement.movementDate() : now));
+            }
+        }
+        addInbound(receipts);
+    }
+
+    /**
+     * Cost of goods consumed under a reference number, e.g. the COGS of a sales
+     * order under its SO number; zero when nothing was consumed.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getCostOfGoods(String referenceNumber) {
+        return costLayerRepository.findConsumed(referenceNumber, null).cost();
+    }
+
+    /**
+     * Average unit cost at which a product was consumed under a reference
+     * number, used to put returned stock back at the cost it left at.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BigDecimal> getAverageUnitCost(String referenceNumber, Long productId) {
+        CostDraw consumed = costLayerRepository.findConsumed(referenceNumber, productId);
+        if (consumed.quantity() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(consumed.cost().divide(BigDecimal.valueOf(consumed.quantity()), 4, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Streams valuation aggregates computed in the database.
+     */
+    @Transactional(readOnly = true)
+    public void streamValuation(Long warehouseId, Long categoryId, Consumer<ValuationRow> sink) {
+        costLayerRepository.streamValuation(warehouseId, categoryId, sink);
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    /** Draws the outbound units from the layers; uncovered units are priced at cost price. */
+    private BigDecimal draw(StockMovement m, LocalDateTime at) {
+        CostDraw drawn = costLayerRepository.consume(m.productId(), m.fromWarehouseId(), m.quantity(),
+                m.movementType(), m.referenceNumber(), at);
+        int uncovered = m.quantity() - drawn.quantity();
+        if (uncovered == 0) {
+            return drawn.cost();
+        }
+        log.debug("{} units of product {} in warehouse {} had no cost layer; using cost price",
+                uncovered, m.productId(), m.fromWarehouseId());
+        return drawn.cost().add(costLayerRepository.recordUncovered(m.productId(), m.fromWarehouseId(), uncovered,
+                m.movementType(), m.referenceNumber(), at));
+    }
+
+    private void addInbound(List<LayerInput> layers) {
+        if (costingMethod == CostingMethod.FIFO) {
+            costLayerRepository.addLayers(layers);
+        } else {
+            layers.forEach(costLayerRepository::addToAverage);
+        }
+    }
+
+    private LayerInput layer(StockMovement m, BigDecimal unitCost, LocalDateTime at) {
+        return new LayerInput(m.productId(), m.toWarehouseId(), m.quantity(), unitCost, m.movementType(),
+                m.referenceNumber(), at);
+    }
+}
@@ -1,10 +1,19 @@
 package com.moeware.ims.service.inventory;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -13,6 +22,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.moeware.ims.dto.inventory.InventoryValuationResponse;
 import com.moeware.ims.dto.inventory.inventoryItem.InventoryItemDTO;
+import com.moeware.ims.dto.inventory.inventoryItem.ProductStockLevelsResponse;
+import com.moeware.ims.dto.inventory.inventoryItem.ProductStockLevelsResponse.WarehouseLevel;
+import com.moeware.ims.dto.transaction.inventoryMovement.BulkTransferInventoryRequest;
+import com.moeware.ims.dto.transaction.inventoryMovement.BulkTransferInventoryResponse;
 import com.moeware.ims.dto.transaction.inventoryMovement.InventoryMovementDTO;
 import com.moeware.ims.dto.transaction.inventoryMovement.TransferInventoryRequest;
 import com.moeware.ims.dto.transaction.inventoryMovement.TransferInventoryResponse;
@@ -25,8 +38,11 @@ import com.moeware.ims.entity.inventory.Product;
 import com.moeware.ims.entity.staff.Warehouse;
 import com.moeware.ims.entity.transaction.InventoryMovement;
 import com.moeware.ims.entity.transaction.StockAdjustment;
+import com.moeware.ims.enums.transaction.BulkTransferLineStatus;
 import com.moeware.ims.enums.transaction.MovementType;
 import com.moeware.ims.enums.transaction.StockAdjustmentStatus;
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
 import com.moeware.ims.exception.inventory.inventoryItem.InventoryItemNotFoundException;
 import com.moeware.ims.exception.inventory.product.ProductNotFoundException;
 import com.moeware.ims.exception.staff.warehouse.WarehouseNotFoundException;
@@ -36,9 +52,13 @@ import com.moeware.ims.exception.user.UserNotFoundException;
 import com.moeware.ims.repository.UserRepository;
 import com.moeware.ims.repository.inventory.InventoryItemRepository;
 import com.moeware.ims.repository.inventory.ProductRepository;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockChange;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockMovement;
 import com.moeware.ims.repository.staff.WarehouseRepository;
 import com.moeware.ims.repository.transaction.InventoryMovementRepository;
+import com.moeware.ims.repository.transaction.PurchaseOrderItemRepository;
 import com.moeware.ims.repository.transaction.StockAdjustmentRepository;
+import com.moeware.ims.service.OutboxService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -59,6 +79,12 @@ public class InventoryService {
         private final ProductRepository productRepository;
         private final WarehouseRepository warehouseRepository;
         private final UserRepository userRepository;
+        private final StockLedgerService stockLedgerService;
+        private final CostLayerService costLayerService;
+        private final PurchaseOrderItemRepository purchaseOrderItemRepository;
+        private final ApplicationEventPublisher eventPublisher;
+        private final StockLevelIndexService stockLevelIndexService;
+        private final OutboxService outboxService;
 
         /**
          * Get all inventory items with pagination and filters
@@ -109,7 +135,10 @@ public class InventoryService {
         }
 
         /**
-         * Get inventory for a specific product across all warehouses
+         * Get inventory for a specific product across all warehouses. Always
+         * read from the database: the rows carry ids, versions and locations the
+         * stock level index does not hold; {@link #getProductStockLevels} serves
+         * the quantities alone from the index.
          */
         @Transactional(readOnly = true)
         public List<InventoryItemDTO> getProductInventory(Long productId) {
@@ -121,6 +150,53 @@ public class InventoryService {
                                 .collect(Collectors.toList());
         }
 
+        /**
+         * Get on-hand, reserved and available stock of a product per warehouse.
+         * Served from the in-memory stock level index when it is loaded, which
+         * can trail writes made on other instances by up to one reconcile
+         * interval; otherwise read from the database.
+         */
+        @Transactional(readOnly = true)
+        public ProductStockLevelsResponse getProductStockLevels(Long productId) {
+                if (!productRepository.existsById(productId)) {
+                        throw new ProductNotFoundException(productId);
+                }
+
+                List<WarehouseLevel> levels = new ArrayList<>();
+                int visited = stockLevelIndexService.forEachWarehouse(productId,
+                                (warehouseId, onHand, reserved) -> levels.add(WarehouseLevel.builder()
+                                                .warehouseId(warehouseId)
+                                                .onHand(onHand)
+                                                .reserved(reserved)
+                                                .available(onHand - reserved)
+                                                .build()));
+                boolean fromIndex = visited >= 0;
+                if (!fromIndex) {
+                        Product product = productRepository.getReferenceById(productId);
+                        for (InventoryItem item : inventoryItemRepository.findByProduct(product)) {
+                                levels.add(WarehouseLevel.builder()
+                                                .warehouseId(item.getWarehouse().getId())
+                                                .onHand(item.getQuantity())
+                                                .reserved(item.getReservedQuantity())
+                                                .available(item.getAvailableQuantity())
+                                                .build());
+                        }
+                }
+                levels.sort(Comparator.comparing(WarehouseLevel::getWarehouseId));
+
+                int onHand = levels.stream().mapToInt(WarehouseLevel::getOnHand).sum();
+                int reserved = levels.stream().mapToInt(WarehouseLevel::getReserved).sum();
+                return ProductStockLevelsResponse.builder()
+                                .productId(productId)
+                                .totalOnHand(onHand)
+                                .totalReserved(reserved)
+                                .totalAvailable(onHand - reserved)
+                                .source(fromIndex ? "INDEX" : "DATABASE")
+                                .reconciledAt(fromIndex ? toLocalDateTime(stockLevelIndexService.lastReconciledAt()) : null)
+                                .warehouses(levels)
+                                .build();
+        }
+
         /**
          * Transfer stock between warehouses
          */
@@ -152,65 +228,153 @@ public class InventoryService {
                 User performedBy = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new UserNotFoundException(username));
 
-                // Get or create inventory items
-                InventoryItem fromInventory = inventoryItemRepository.findByProductAndWarehouse(product, fromWarehouse)
-                                .orElseThrow(() -> new InventoryItemNotFoundException(request.getProductId(),
-                                                request.getFromWarehouseId()));
-
-                // Check sufficient stock
-                if (fromInventory.getQuantity() < request.getQuantity()) {
-                        throw new InsufficientStockException(
-                                        request.getProductId(), request.getFromWarehouseId(),
-                                        fromWarehouse.getName(), fromInventory.getQuantity(), request.getQuantity());
-                }
-
-                // Remove stock from source
-                fromInventory.removeStock(request.getQuantity());
-                inventoryItemRepository.save(fromInventory);
-
-                // Add stock to destination
-                InventoryItem toInventory = inventoryItemRepository.findByProductAndWarehouse(product, toWarehouse)
-                                .orElseGet(() -> InventoryItem.builder()
-                                                .product(product)
-                                                .warehouse(toWarehouse)
-                                                .quantity(0)
-                                                .build());
-
-                toInventory.addStock(request.getQuantity());
-                inventoryItemRepository.save(toInventory);
-
-                // Create movement record
-                InventoryMovement movement = InventoryMovement.builder()
-                                .product(product)
-                                .fromWarehouse(fromWarehouse)
-                                .toWarehouse(toWarehouse)
+                // Debit the source, credit the destination and record the movement in one
+                // conditional statement; throws if the source holds too little
+                LocalDateTime movementDate = LocalDateTime.now();
+                StockChange change = stockLedgerService.apply(StockMovement.builder()
+                                .productId(product.getId())
+                                .fromWarehouseId(fromWarehouse.getId())
+                                .toWarehouseId(toWarehouse.getId())
                                 .quantity(request.getQuantity())
                                 .movementType(MovementType.TRANSFER)
                                 .reason(request.getReason())
-                                .performedBy(performedBy)
-                                .movementDate(LocalDateTime.now())
-                                .build();
+                                .performedById(performedBy.getId())
+                                .movementDate(movementDate)
+                                .build());
 
-                movement = inventoryMovementRepository.save(movement);
+                log.info("Transfer completed successfully. Movement ID: {}", change.movementId());
+                publishTransferred(product.getId(), fromWarehouse.getId(), toWarehouse.getId(),
+                                request.getQuantity(), change);
 
-                log.info("Transfer completed successfully. Movement ID: {}", movement.getId());
+                eventPublisher.publishEvent(DomainChangeEvent.of("inventory.transfer",
+                                DomainChangeType.INVENTORY));
 
                 // Build response
                 return TransferInventoryResponse.builder()
-                                .movementId(movement.getId())
+                                .movementId(change.movementId())
                                 .productId(product.getId())
                                 .fromWarehouse(TransferInventoryResponse.WarehouseTransferInfo.builder()
                                                 .id(fromWarehouse.getId())
                                                 .name(fromWarehouse.getName())
-                                                .newQuantity(fromInventory.getQuantity())
+                                                .newQuantity(change.fromQuantity())
                                                 .build())
                                 .toWarehouse(TransferInventoryResponse.WarehouseTransferInfo.builder()
                                                 .id(toWarehouse.getId())
                                                 .name(toWarehouse.getName())
-                                                .newQuantity(toInventory.getQuantity())
+                                                .newQuantity(change.toQuantity())
                                                 .build())
                                 .quantityTransferred(request.getQuantity())
-                                .movementDate(movement.getMovementDate())
+                                .movementDate(movementDate)
+                                .build();
+        }
+
+        /**
+         * Transfer many products between warehouses in one transaction. Lines the
+         * source warehouse cannot cover are rejected and reported; the rest are
+         * applied together.
+         */
+        public BulkTransferInventoryResponse bulkTransferInventory(BulkTransferInventoryRequest request,
+                        Authentication authentication) {
+                List<BulkTransferInventoryRequest.TransferLine> lines = request.getLines();
+                log.info("Bulk transferring {} lines", lines.size());
+
+                // Validate references up front with one query per entity type
+                for (BulkTransferInventoryRequest.TransferLine line : lines) {
+                        if (line.getFromWarehouseId().equals(line.getToWarehouseId())) {
+                                throw new InvalidInventoryTransferException(line.getFromWarehouseId(),
+                                                line.getToWarehouseId());
+                        }
+                }
+                Set<Long> productIds = lines.stream()
+                                .map(BulkTransferInventoryRequest.TransferLine::getProductId)
+                                .collect(Collectors.toSet());
+                Set<Long> knownProducts = productRepository.findAllById(productIds).stream()
+                                .map(Product::getId)
+                                .collect(Collectors.toSet());
+                productIds.stream()
+                                .filter(id -> !knownProducts.contains(id))
+                                .findFirst()
+                                .ifPresent(id -> {
+                                        throw new ProductNotFoundException(id);
+                                });
+                Set<Long> warehouseIds = lines.stream()
+                                .flatMap(line -> Stream.of(line.getFromWarehouseId(), line.getToWarehouseId()))
+                                .collect(Collectors.toSet());
+                Set<Long> knownWarehouses = warehouseRepository.findAllById(warehouseIds).stream()
+                                .map(Warehouse::getId)
+                                .collect(Collectors.toSet());
+                warehouseIds.stream()
+                                .filter(id -> !knownWarehouses.contains(id))
+                                .findFirst()
+                                .ifPresent(id -> {
+                                        throw new WarehouseNotFoundException(id);
+                                });
+
+                String username = authentication.getName();
+                User performedBy = userRepository.findByUsername(username)
+                                .orElseThrow(() -> new UserNotFoundException(username));
+
+                LocalDateTime movementDate = LocalDateTime.now();
+                List<StockChange> changes = stockLedgerService.applyTransfers(lines.stream()
+                                .map(line -> StockMovement.builder()
+                                                .productId(line.getProductId())
+                                                .fromWarehouseId(line.getFromWarehouseId())
+                                                .toWarehouseId(line.getToWarehouseId())
+                                                .quantity(line.getQuantity())
+                                                .movementType(MovementType.TRANSFER)
+                                                .reason(line.getReason() != null ? line.getReason()
+                                                                : request.getReason())
+                                                .performedById(performedBy.getId())
+                                                .movementDate(movementDate)
+                                                .build())
+                                .toList());
+
+                List<BulkTransferInventoryResponse.LineResult> results = new ArrayList<>(lines.size());
+                int applied = 0;
+                for (int i = 0; i < lines.size(); i++) {
+                        BulkTransferInventoryRequest.TransferLine line = lines.get(i);
+                        StockChange change = changes.get(i);
+                        if (change.applied()) {
+                                applied++;
+                        }
+                        results.add(BulkTransferInventoryResponse.LineResult.builder()
+                                        .index(i)
+                                        .productId(line.getProductId())
+                                        .fromWarehouseId(line.getFromWarehouseId())
+                                        .toWarehouseId(line.getToWarehouseId())
+                                        .quantity(line.getQuantity())
+                                        .status(change.applied() ? BulkTransferLineStatus.APPLIED
+                                                        : BulkTransferLineStatus.REJECTED)
+                                        .fromQuantity(change.fromQuantity())
+                                        .toQuantity(change.toQuantity())
+                                        .message(change.applied() ? null
+                                                        : change.fromQuantity() == null
+                                                                        ? "Source warehouse does not stock the product"
+                                                                        : "Insufficient available stock in source warehouse")
+                                        .build());
+                }
+
+                // Outbox events lock their product; publish in product order so two bulk
+                // transfers cannot deadlock (the sort is stable, keeping each product's lines in order)
+                Stream.iterate(0, i -> i < lines.size(), i -> i + 1)
+                                .filter(i -> changes.get(i).applied())
+                                .sorted(Comparator.comparing(i -> lines.get(i).getProductId()))
+                                .forEach(i -> publishTransferred(lines.get(i).getProductId(),
+                                                lines.get(i).getFromWarehouseId(), lines.get(i).getToWarehouseId(),
+                                                lines.get(i).getQuantity(), changes.get(i)));
+
+                log.info("Bulk transfer completed: {}/{} lines applied", applied, lines.size());
+                if (applied > 0) {
+                        eventPublisher.publishEvent(DomainChangeEvent.of("inventory.bulk-transfer",
+                                        DomainChangeType.INVENTORY));
+                }
+
+                return BulkTransferInventoryResponse.builder()
+                                .totalLines(lines.size())
+                                .appliedLines(applied)
+                                .rejectedLines(lines.size() - applied)
+                                .movementDate(movementDate)
+                                .results(results)
                                 .build();
         }
 
@@ -267,6 +431,15 @@ public class InventoryService {
                 adjustment = stockAdjustmentRepository.save(adjustment);
 
                 log.info("Stock adjustment created successfully. ID: {}, Status: PENDING", adjustment.getId());
+                outboxService.publish(OutboxService.PRODUCT_STOCK, product.getId(), "inventory.adjustment-requested",
+                                Map.of(
+                                                "adjustmentId", adjustment.getId(),
+                                                "warehouseId", warehouse.getId(),
+                                                "quantityChange", request.getQuantityChange(),
+                                                "adjustmentType", request.getAdjustmentType().name()));
+
+                eventPublisher.publishEvent(DomainChangeEvent.of("inventory.adjustment.create",
+                                DomainChangeType.STOCK_ADJUSTMENT));
 
                 // Build response
                 return mapAdjustmentToResponse(adjustment);
@@ -289,48 +462,66 @@ public class InventoryService {
                 LocalDateTime receivedDate = request.getReceivedDate() != null ? request.getReceivedDate()
                                 : LocalDateTime.now();
 
-                // Process each item
-                for (ReceiveShipmentRequest.ReceiveShipmentItem item : request.getItems()) {
-                        Product product = productRepository.findById(item.getProductId())
-                                        .orElseThrow(
-                                                        () -> new ProductNotFoundException(item.getProductId()));
-
-                        // Update inventory
-                        InventoryItem inventory = inventoryItemRepository.findByProductAndWarehouse(product, warehouse)
-                                        .orElseGet(() -> InventoryItem.builder()
-                                                        .product(product)
-                                                        .warehouse(warehouse)
-                                                        .quantity(0)
-                                                        .build());
-
-                        inventory.addStock(item.getQuantityReceived());
-
-                        if (item.getLocationCode() != null) {
-                                inventory.setLocationCode(item.getLocationCode());
-                        }
-
-                        inventoryItemRepository.save(inventory);
-
-                        // Create movement record
-                        InventoryMovement movement = InventoryMovement.builder()
-                                        .product(product)
-                                        .toWarehouse(warehouse)
-                                        .quantity(item.getQuantityReceived())
-                                        .movementType(MovementType.RECEIPT)
-                                        .reason("Purchase order receipt")
-                                        .referenceNumber("PO-" + request.getPurchaseOrderId())
-                                        .performedBy(receivedBy)
-                                        .movementDate(receivedDate)
-                                        .build();
-
-                        inventoryMovementRepository.save(movement);
-                }
+                // Load every product in one query; an unknown ID fails the whole receipt
+                List<Long> productIds = request.getItems().stream()
+                                .map(ReceiveShipmentRequest.ReceiveShipmentItem::getProductId)
+                                .distinct()
+                                .toList();
+                Set<Long> found = productRepository.findAllById(productIds).stream()
+                                .map(Product::getId)
+                                .collect(Collectors.toSet());
+                productIds.stream()
+                                .filter(id -> !found.contains(id))
+                                .findFirst()
+                                .ifPresent(id -> {
+                                        throw new ProductNotFoundException(id);
+                                });
+
+                // Receipt layers are costed at the purchase order's line prices
+                Map<Long, BigDecimal> unitCosts = new HashMap<>();
+                purchaseOrderItemRepository.findByPurchaseOrderId(request.getPurchaseOrderId())
+                                .forEach(poItem -> unitCosts.putIfAbsent(poItem.getProduct().getId(),
+                                                poItem.getUnitPrice()));
+
+                // Credit the warehouse (creating rows as needed) and record every receipt
+                // in one batch
+                stockLedgerService.applyReceipts(request.getItems().stream()
+                                .map(item -> StockMovement.builder()
+                                                .productId(item.getProductId())
+                                                .toWarehouseId(warehouse.getId())
+                                                .quantity(item.getQuantityReceived())
+                                                .movementType(MovementType.RECEIPT)
+                                                .reason("Purchase order receipt")
+                                                .referenceNumber("PO-" + request.getPurchaseOrderId())
+                                                .performedById(receivedBy.getId())
+                                                .movementDate(receivedDate)
+                                                .locationCode(item.getLocationCode())
+                                                .unitCost(unitCosts.get(item.getProductId()))
+                                                .build())
+                                .toList());
 
                 log.info("Shipment received successfully. {} items processed", request.getItems().size());
+                // In product order: each outbox event locks its product until commit
+                for (ReceiveShipmentRequest.ReceiveShipmentItem item : request.getItems().stream()
+                                .sorted(Comparator.comparing(ReceiveShipmentRequest.ReceiveShipmentItem::getProductId))
+                                .toList()) {
+                        outboxService.publish(OutboxService.PRODUCT_STOCK, item.getProductId(), "inventory.received",
+                                        Map.of(
+                                                        "purchaseOrderId", request.getPurchaseOrderId(),
+                                                        "warehouseId", warehouse.getId(),
+                                                        "quantity", item.getQuantityReceived()));
+                }
+                eventPublisher.publishEvent(DomainChangeEvent.of("inventory.receive", DomainChangeType.INVENTORY));
         }
 
         /**
          * Get inventory valuation
+         *
+         * <p>
+         * Cost value comes from the cost layers (FIFO or weighted average, see
+         * {@link CostLayerService}); retail value is quantity times the product's
+         * unit price. Aggregation happens in SQL, so memory use does not depend on
+         * catalog size.
          */
         @Transactional(readOnly = true)
         public InventoryValuationResponse getInventoryValuation(Long warehouseId, Long categoryId,
@@ -338,38 +529,48 @@ public class InventoryService {
                 log.info("Calculating inventory valuation with filters - warehouse: {}, category: {}, type: {}",
                                 warehouseId, categoryId, valuationType);
 
-                // This is a simplified implementation
-                // In a real application, you would use more complex queries with JOIN
-                // operations
-
-                List<InventoryItem> items;
-                if (warehouseId != null) {
-                        Warehouse warehouse = warehouseRepository.findById(warehouseId)
-                                        .orElseThrow(() -> new WarehouseNotFoundException(warehouseId));
-                        items = inventoryItemRepository.findByWarehouse(warehouse, Pageable.unpaged()).getContent();
-                } else {
-                        items = inventoryItemRepository.findAll();
+                if (warehouseId != null && !warehouseRepository.existsById(warehouseId)) {
+                        throw new WarehouseNotFoundException(warehouseId);
                 }
 
-                // Calculate totals
-                int totalProducts = (int) items.stream().map(i -> i.getProduct().getId()).distinct().count();
-                int totalUnits = items.stream().mapToInt(InventoryItem::getQuantity).sum();
-
-                BigDecimal costValue = items.stream()
-                                .map(i -> i.getProduct().getUnitPrice().multiply(BigDecimal.valueOf(i.getQuantity())))
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                InventoryValuationResponse response = InventoryValuationResponse.builder()
+                                .totalProducts(0)
+                                .totalUnits(0)
+                                .costValue(BigDecimal.ZERO)
+                                .retailValue(BigDecimal.ZERO)
+                                .potentialProfit(BigDecimal.ZERO)
+                                .costingMethod(costLayerService.getCostingMethod())
+                                .byWarehouse(new ArrayList<>())
+                                .byCategory(new ArrayList<>())
+                                .build();
 
-                // For retail, assume 50% markup (this should come from product data)
-                BigDecimal retailValue = costValue.multiply(BigDecimal.valueOf(1.5));
-                BigDecimal potentialProfit = retailValue.subtract(costValue);
+                costLayerService.streamValuation(warehouseId, categoryId, row -> {
+                        if (row.total()) {
+                                response.setTotalProducts(row.products());
+                                response.setTotalUnits(Math.toIntExact(row.units()));
+                                response.setCostValue(row.costValue());
+                                response.setRetailValue(row.retailValue());
+                                response.setPotentialProfit(row.retailValue().subtract(row.costValue()));
+                        } else if (row.warehouseId() != null) {
+                                response.getByWarehouse().add(InventoryValuationResponse.WarehouseValuation.builder()
+                                                .warehouseId(row.warehouseId())
+                                                .warehouseName(row.warehouseName())
+                                                .products(row.products())
+                                                .units(Math.toIntExact(row.units()))
+                                                .costValue(row.costValue())
+                                                .retailValue(row.retailValue())
+                                                .build());
+                        } else {
+                                response.getByCategory().add(InventoryValuationResponse.CategoryValuation.builder()
+                                                .categoryId(row.categoryId())
+                                                .categoryName(row.categoryName())
+                                                .costValue(row.costValue())
+                                                .retailValue(row.retailValue())
+                                                .build());
+                        }
+                });
 
-                return InventoryValuationResponse.builder()
-                                .totalProducts(totalProducts)
-                                .totalUnits(totalUnits)
-                                .costValue(costValue)
-                                .retailValue(retailValue)
-                                .potentialProfit(potentialProfit)
-                                .build();
+                return response;
         }
 
         /**
@@ -392,6 +593,21 @@ public class InventoryService {
 
         // ==================== Mapping Methods ====================
 
+        private void publishTransferred(Long productId, Long fromWarehouseId, Long toWarehouseId, int quantity,
+                        StockChange change) {
+                outboxService.publish(OutboxService.PRODUCT_STOCK, productId, "inventory.transferred", Map.of(
+                                "movementId", change.movementId(),
+                                "fromWarehouseId", fromWarehouseId,
+                                "toWarehouseId", toWarehouseId,
+                                "quantity", quantity,
+                                "fromQuantity", change.fromQuantity(),
+                                "toQuantity", change.toQuantity()));
+        }
+
+        private LocalDateTime toLocalDateTime(long epochMillis) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+        }
+
         private InventoryItemDTO mapToDTO(InventoryItem item) {
                 return InventoryItemDTO.builder()
                                 .id(item.getId())
@@ -407,6 +623,8 @@ public class InventoryService {
                                                 .code(item.getWarehouse().getCode())
                                                 .build())
                                 .quantity(item.getQuantity())
+                                .reservedQuantity(item.getReservedQuantity())
+                                .availableQuantity(item.getAvailableQuantity())
                                 .locationCode(item.getLocationCode())
                                 .reorderLevel(item.getProduct().getReorderLevel())
                                 .isLowStock(item.isLowStock())
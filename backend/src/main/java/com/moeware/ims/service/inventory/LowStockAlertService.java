@@ -0,0 +1,105 @@
+package com.moeware.ims.service.inventory;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moeware.ims.enums.NotificationPriority;
+import com.moeware.ims.enums.transaction.LowStockSeverity;
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
+import com.moeware.ims.event.LowStockCrossingEvent;
+import com.moeware.ims.event.LowStockCrossingEvent.Crossing;
+import com.moeware.ims.repository.NotificationRepository;
+import com.moeware.ims.repository.inventory.LowStockStateRepository;
+import com.moeware.ims.repository.inventory.LowStockStateRepository.StateChange;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockKey;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains {@code low_stock_state} and sends LOW_STOCK notifications.
+ *
+ * <p>
+ * Reacts to {@link LowStockCrossingEvent}s once the stock write has committed,
+ * on the {@code lowStockAlertExecutor} pool. Each crossed row is refreshed in
+ * its own transaction from committed data, so events handled late or out of
+ * order still leave the correct state. When a row becomes low, or goes from
+ * WARNING to CRITICAL, the warehouse manager and administrators are notified;
+ * recovering rows are removed from the state silently.
+ *
+ * <p>
+ * Any change to the state publishes a {@link DomainChangeEvent} so the cached
+ * low-stock alerts (and open dashboard streams) refresh right away.
+ */
+@Service
+@Slf4j
+public class LowStockAlertService {
+
+    private final LowStockStateRepository lowStockStateRepository;
+    private final NotificationRepository notificationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor executor;
+    private final TransactionTemplate refreshTx;
+
+    public LowStockAlertService(
+            LowStockStateRepository lowStockStateRepository,
+            NotificationRepository notificationRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier("lowStockAlertExecutor") TaskExecutor executor,
+            PlatformTransactionManager transactionManager) {
+        this.lowStockStateRepository = lowStockStateRepository;
+        this.notificationRepository = notificationRepository;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.refreshTx = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener
+    public void onCrossing(LowStockCrossingEvent event) {
+        executor.execute(() -> event.crossings().forEach(this::refresh));
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private void refresh(Crossing crossing) {
+        StockKey key = new StockKey(crossing.warehouseId(), crossing.productId());
+        try {
+            refreshTx.executeWithoutResult(status -> {
+                StateChange change = lowStockStateRepository.refresh(key);
+                if (change.previous() == change.current()) {
+                    return;
+                }
+                if (change.worsened()) {
+                    notifyResponsibleUsers(key, change);
+                }
+                eventPublisher.publishEvent(DomainChangeEvent.of("inventory.low-stock", DomainChangeType.INVENTORY));
+            });
+        } catch (RuntimeException ex) {
+            log.error("Refreshing low stock state for product {} in warehouse {} failed",
+                    key.productId(), key.warehouseId(), ex);
+        }
+    }
+
+    private void notifyResponsibleUsers(StockKey key, StateChange change) {
+        boolean critical = change.current() == LowStockSeverity.CRITICAL;
+        String title = critical ? "Critical Stock Alert" : "Low Stock Alert";
+        String message = String.format(
+                "Product %s (%s) is %s in Warehouse %s. Current stock: %d units, %s: %d units.",
+                change.sku(), change.productName(),
+                critical ? "at or below minimum stock level" : "at or below reorder level",
+                change.warehouseCode(), change.quantity(),
+                critical ? "Minimum stock level" : "Reorder level",
+                critical ? change.minStockLevel() : change.reorderLevel());
+        NotificationPriority priority = critical ? NotificationPriority.CRITICAL : NotificationPriority.HIGH;
+
+        int sent = notificationRepository.insertLowStockNotifications(
+                key.warehouseId(), change.inventoryItemId(), title, message, priority.name());
+        log.info("{} for product {} in warehouse {} sent to {} users",
+                title, change.sku(), change.warehouseCode(), sent);
+    }
+}
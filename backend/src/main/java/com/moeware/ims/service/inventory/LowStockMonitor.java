@@ -0,0 +1,85 @@
+package com.moeware.ims.service.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moeware.ims.enums.transaction.LowStockSeverity;
+import com.moeware.ims.event.LowStockCrossingEvent;
+import com.moeware.ims.event.LowStockCrossingEvent.Crossing;
+import com.moeware.ims.repository.inventory.LowStockStateRepository;
+import com.moeware.ims.repository.inventory.LowStockStateRepository.StockThreshold;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockKey;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Detects low-stock crossings at write time.
+ *
+ * <p>
+ * Called by {@link StockLedgerService} after every stock write with the net
+ * change per inventory row, and by {@link ProductService} when a product's
+ * thresholds change. One query reads the rows' quantities (already locked by
+ * the write) and thresholds; a row whose {@link LowStockSeverity} differs
+ * before and after is reported in a {@link LowStockCrossingEvent}. Writes that
+ * stay on the same side of both thresholds publish nothing.
+ *
+ * <p>
+ * Joins the caller's transaction; the event is handled after it commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LowStockMonitor {
+
+    private final LowStockStateRepository lowStockStateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Checks rows whose quantity was just changed by {@code delta} units.
+     *
+     * @param deltas net quantity change per inventory row, already written
+     */
+    @Transactional
+    public void stockChanged(Map<StockKey, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Crossing> crossings = new ArrayList<>();
+        for (StockThreshold row : lowStockStateRepository.findThresholds(deltas.keySet())) {
+            int previous = row.quantity() - deltas.getOrDefault(row.key(), 0);
+            if (LowStockSeverity.of(previous, row.reorderLevel(), row.minStockLevel()) != row.severity()) {
+                crossings.add(new Crossing(row.key().warehouseId(), row.key().productId(), previous,
+                        row.quantity()));
+            }
+        }
+        publish(crossings);
+    }
+
+    /**
+     * Checks every row of a product whose reorder or minimum stock level was
+     * just changed from the given values.
+     */
+    @Transactional
+    public void thresholdsChanged(Long productId, int previousReorderLevel, int previousMinStockLevel) {
+        List<Crossing> crossings = new ArrayList<>();
+        for (StockThreshold row : lowStockStateRepository.findThresholdsForProduct(productId)) {
+            if (LowStockSeverity.of(row.quantity(), previousReorderLevel, previousMinStockLevel) != row.severity()) {
+                crossings.add(new Crossing(row.key().warehouseId(), productId, row.quantity(), row.quantity()));
+            }
+        }
+        publish(crossings);
+    }
+
+    private void publish(List<Crossing> crossings) {
+        if (!crossings.isEmpty()) {
+            log.debug("{} low-stock crossings detected", crossings.size());
+            eventPublisher.publishEvent(new LowStockCrossingEvent(crossings));
+        }
+    }
+}
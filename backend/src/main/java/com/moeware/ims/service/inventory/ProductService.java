@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -15,6 +16,8 @@ import com.moeware.ims.dto.inventory.product.ProductResponse;
 import com.moeware.ims.dto.inventory.product.ProductUpdateRequest;
 import com.moeware.ims.entity.inventory.Category;
 import com.moeware.ims.entity.inventory.Product;
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
 import com.moeware.ims.exception.inventory.category.CategoryNotFoundException;
 import com.moeware.ims.exception.inventory.product.ProductAlreadyExistsException;
 import com.moeware.ims.exception.inventory.product.ProductNotFoundException;
@@ -38,6 +41,9 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final LowStockMonitor lowStockMonitor;
+    private final StockLevelIndexService stockLevelIndexService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a new product
@@ -80,6 +86,7 @@ public class ProductService {
 
         Product savedProduct = productRepository.save(product);
         log.info("Product created successfully with ID: {}", savedProduct.getId());
+        eventPublisher.publishEvent(DomainChangeEvent.of("product.create", DomainChangeType.INVENTORY));
 
         return mapToResponse(savedProduct);
     }
@@ -240,6 +247,8 @@ public class ProductService {
         log.info("Updating product with ID: {}", id);
 
         Product product = findProductById(id);
+        int previousReorderLevel = product.getReorderLevel();
+        int previousMinStockLevel = product.getMinStockLevel();
 
         // Update fields if provided
         if (request.getName() != null) {
@@ -286,6 +295,19 @@ public class ProductService {
         Product updatedProduct = productRepository.save(product);
         log.info("Product updated successfully with ID: {}", updatedProduct.getId());
 
+        if (updatedProduct.getReorderLevel() != previousReorderLevel
+                || updatedProduct.getMinStockLevel() != previousMinStockLevel) {
+            productRepository.flush();
+            lowStockMonitor.thresholdsChanged(id, previousReorderLevel, previousMinStockLevel);
+        }
+
+        // Prices, thresholds, category and status feed the inventory value, counts and low-stock figures
+        if (request.getUnitPrice() != null || request.getCostPrice() != null
+                || request.getReorderLevel() != null || request.getMinStockLevel() != null
+                || request.getCategoryId() != null || request.getIsActive() != null) {
+            eventPublisher.publishEvent(DomainChangeEvent.of("product.update", DomainChangeType.INVENTORY));
+        }
+
         return mapToResponse(updatedProduct);
     }
 
@@ -301,6 +323,7 @@ public class ProductService {
         Product product = findProductById(id);
         product.setIsActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(DomainChangeEvent.of("product.delete", DomainChangeType.INVENTORY));
 
         log.info("Product soft deleted successfully with ID: {}", id);
     }
@@ -319,6 +342,7 @@ public class ProductService {
         }
 
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(DomainChangeEvent.of("product.hard-delete", DomainChangeType.INVENTORY));
         log.info("Product permanently deleted with ID: {}", id);
     }
 
@@ -354,10 +378,14 @@ public class ProductService {
     }
 
     private ProductResponse mapToResponse(Product product) {
-        // Calculate total stock across all warehouses
-        Integer totalStock = product.getInventoryItems().stream()
-                .mapToInt(item -> item.getQuantity())
-                .sum();
+        // Total stock across all warehouses; from the in-memory index when it is
+        // loaded, otherwise from the product's inventory rows
+        long indexed = stockLevelIndexService.totalOnHand(product.getId());
+        Integer totalStock = indexed >= 0
+                ? (int) indexed
+                : product.getInventoryItems().stream()
+                        .mapToInt(item -> item.getQuantity())
+                        .sum();
 
         return ProductResponse.builder()
                 .id(product.getId())
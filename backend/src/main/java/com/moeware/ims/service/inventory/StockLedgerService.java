@@ -0,0 +1,190 @@
+package com.moeware.ims.service.inventory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moeware.ims.entity.staff.Warehouse;
+import com.moeware.ims.exception.inventory.inventoryItem.InventoryItemNotFoundException;
+import com.moeware.ims.exception.transaction.stockAdjustment.InsufficientStockException;
+import com.moeware.ims.repository.inventory.StockLedgerRepository;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockChange;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockKey;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockLevel;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockMovement;
+import com.moeware.ims.repository.staff.WarehouseRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single entry point for changing stock levels.
+ *
+ * <p>
+ * Wraps {@link StockLedgerRepository#apply} and turns a rejected movement into
+ * the exception the old read-modify-write paths threw:
+ * {@link InventoryItemNotFoundException} when the source warehouse has no row
+ * for the product, {@link InsufficientStockException} when it has too little
+ * unreserved stock. The failure path re-reads the available quantity for the
+ * message; the success path is one statement.
+ *
+ * <p>
+ * Every applied movement is also passed to {@link CostLayerService}, so cost
+ * layers follow stock on all paths, to {@link LowStockMonitor}, which
+ * reports reorder / minimum level crossings, and to
+ * {@link StockLevelIndexService}, which keeps the in-memory stock levels
+ * current.
+ *
+ * <p>
+ * Joins the caller's transaction, so a multi-line order either applies every
+ * movement or none.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockLedgerService {
+
+    private final StockLedgerRepository stockLedgerRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final CostLayerService costLayerService;
+    private final LowStockMonitor lowStockMonitor;
+    private final StockLevelIndexService stockLevelIndexService;
+
+    /**
+     * Applies a movement or throws.
+     *
+     * @throws InventoryItemNotFoundException if the source warehouse does not
+     *                                        stock the product
+     * @throws InsufficientStockException     if the source warehouse has less
+     *                                        unreserved stock than the movement
+     *                                        quantity
+     */
+    @Transactional
+    public StockChange apply(StockMovement movement) {
+        StockChange change = stockLedgerRepository.apply(movement);
+        if (change.applied()) {
+            costLayerService.record(movement);
+            lowStockMonitor.stockChanged(netDeltas(List.of(movement)));
+            recordLevels(List.of(movement));
+            log.debug("{} of {} units of product {} applied: from {} -> {}, to {} -> {}",
+                    movement.movementType(), movement.quantity(), movement.productId(),
+                    movement.fromWarehouseId(), change.fromQuantity(),
+                    movement.toWarehouseId(), change.toQuantity());
+            return change;
+        }
+
+        Long productId = movement.productId();
+        Long warehouseId = movement.fromWarehouseId();
+        int available = stockLedgerRepository.findAvailableQuantity(productId, warehouseId)
+                .orElseThrow(() -> new InventoryItemNotFoundException(productId, warehouseId));
+        String warehouseName = warehouseRepository.findById(warehouseId)
+                .map(Warehouse::getName)
+                .orElse("warehouse " + warehouseId);
+        throw new InsufficientStockException(productId, warehouseId, warehouseName, available,
+                movement.quantity());
+    }
+
+    /**
+     * Applies a batch of receipts. Receipts only add stock, so they cannot be
+     * rejected; an empty list is a no-op.
+     */
+    @Transactional
+    public void applyReceipts(List<StockMovement> receipts) {
+        if (receipts.isEmpty()) {
+            return;
+        }
+        stockLedgerRepository.applyReceipts(receipts);
+        costLayerService.recordAll(receipts);
+        lowStockMonitor.stockChanged(netDeltas(receipts));
+        recordLevels(receipts);
+        log.debug("{} receipts applied in one batch", receipts.size());
+    }
+
+    /**
+     * Applies a batch of transfers, skipping lines that cannot be applied.
+     *
+     * <p>
+     * Every inventory row the batch touches is locked up front in
+     * {@link StockKey} order, so concurrent batches over overlapping rows wait
+     * for each other instead of deadlocking. Lines are then checked in order
+     * against the locked quantities (earlier lines of the same batch count), and
+     * the accepted ones are written together.
+     *
+     * @return one result per line, in input order: {@code applied} with the
+     *         source and destination quantities after that line, or not applied
+     *         when the source had no row or too little available stock
+     */
+    @Transactional
+    public List<StockChange> applyTransfers(List<StockMovement> transfers) {
+        Set<StockKey> keys = new TreeSet<>();
+        for (StockMovement m : transfers) {
+            keys.add(new StockKey(m.fromWarehouseId(), m.productId()));
+            keys.add(new StockKey(m.toWarehouseId(), m.productId()));
+        }
+
+        Map<StockKey, StockLevel> levels = new HashMap<>();
+        for (StockLevel level : stockLedgerRepository.lockStockLevels(keys)) {
+            levels.put(level.key(), level);
+        }
+
+        List<StockChange> results = new ArrayList<>(transfers.size());
+        List<StockMovement> accepted = new ArrayList<>();
+        for (StockMovement m : transfers) {
+            StockKey fromKey = new StockKey(m.fromWarehouseId(), m.productId());
+            StockKey toKey = new StockKey(m.toWarehouseId(), m.productId());
+            StockLevel from = levels.get(fromKey);
+            if (from == null || from.available() < m.quantity()) {
+                results.add(new StockChange(false, from != null ? from.quantity() : null, null, null));
+                continue;
+            }
+            StockLevel to = levels.getOrDefault(toKey, new StockLevel(toKey, 0, 0));
+            from = new StockLevel(fromKey, from.quantity() - m.quantity(), from.reservedQuantity());
+            to = new StockLevel(toKey, to.quantity() + m.quantity(), to.reservedQuantity());
+            levels.put(fromKey, from);
+            levels.put(toKey, to);
+            accepted.add(m);
+            results.add(new StockChange(true, from.quantity(), to.quantity(), null));
+        }
+
+        stockLedgerRepository.applyTransfers(accepted);
+        costLayerService.recordAll(accepted);
+        lowStockMonitor.stockChanged(netDeltas(accepted));
+        recordLevels(accepted);
+        log.debug("{} of {} transfers applied in one batch", accepted.size(), transfers.size());
+        return results;
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    /** Net quantity change per inventory row. */
+    private Map<StockKey, Integer> netDeltas(List<StockMovement> movements) {
+        Map<StockKey, Integer> deltas = new HashMap<>();
+        for (StockMovement m : movements) {
+            if (m.fromWarehouseId() != null) {
+                deltas.merge(new StockKey(m.fromWarehouseId(), m.productId()), -m.quantity(), Integer::sum);
+            }
+            if (m.toWarehouseId() != null) {
+                deltas.merge(new StockKey(m.toWarehouseId(), m.productId()), m.quantity(), Integer::sum);
+            }
+        }
+        return deltas;
+    }
+
+    private void recordLevels(List<StockMovement> movements) {
+        for (StockMovement m : movements) {
+            if (m.fromWarehouseId() != null) {
+                stockLevelIndexService.record(m.productId(), m.fromWarehouseId(), -m.quantity(),
+                        m.fromReserved() ? -m.quantity() : 0);
+            }
+            if (m.toWarehouseId() != null) {
+                stockLevelIndexService.record(m.productId(), m.toWarehouseId(), m.quantity(), 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.moeware.ims.service.inventory;
+
+import java.sql.PreparedStatement;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moeware.ims.cache.StockLevelIndex;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Feeds and exposes the {@link StockLevelIndex}.
+ *
+ * <p>
+ * Stock writes report their quantity changes through {@link #record} from
+ * inside their transaction. The changes are held per transaction and handed
+ * to the index around the commit: the rows are marked in flight just before
+ * it, and the deltas applied (or dropped on rollback) just after, so readers
+ * never see uncommitted stock and a concurrent reconcile never overwrites a
+ * delta it did not read.
+ *
+ * <p>
+ * {@link #reconcile} streams {@code inventory_items} from the primary database
+ * into the index; {@link com.moeware.ims.scheduler.StockLevelIndexScheduler}
+ * runs it at startup and then every
+ * {@code app.inventory.stock-index.reconcile-interval-ms}. Until the first
+ * load completes, reads return "not available" and callers use the database.
+ *
+ * <p>
+ * Metrics: {@code stock.index.rows}, {@code stock.index.loaded},
+ * {@code stock.index.staleness} (seconds since the last reconcile),
+ * {@code stock.index.reconcile.drift} and {@code stock.index.reconcile.skipped}
+ * (rows corrected / skipped by the last reconcile) and
+ * {@code stock.index.reads} tagged {@code result=hit|miss}.
+ */
+@Service
+public class StockLevelIndexService {
+
+    private static final String LOAD_SQL = """
+            SELECT product_id, warehouse_id, quantity, reserved_quantity FROM inventory_items
+            """;
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final StockLevelIndex index;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate reconcileTx;
+
+    public StockLevelIndexService(
+            StockLevelIndex index,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.index = index;
+        this.jdbcTemplate = jdbcTemplate;
+        // Read-write on purpose: read-only transactions go to the replica, whose
+        // lag would make the reconcile roll back deltas already applied
+        this.reconcileTx = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("stock.index.rows", index, StockLevelIndex::size).register(meterRegistry);
+        Gauge.builder("stock.index.loaded", index, i -> i.isLoaded() ? 1 : 0).register(meterRegistry);
+        Gauge.builder("stock.index.staleness", index,
+                i -> i.isLoaded() ? (System.currentTimeMillis() - i.lastReconciledAt()) / 1000.0 : Double.NaN)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("stock.index.reconcile.drift", index, StockLevelIndex::lastReconcileDrift)
+                .register(meterRegistry);
+        Gauge.builder("stock.index.reconcile.skipped", index, StockLevelIndex::lastReconcileSkipped)
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.index.reads", index, StockLevelIndex::hits).tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.index.reads", index, StockLevelIndex::misses).tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    // ─── READS ───────────────────────────────────────────────────────────────
+
+    /**
+     * On-hand quantity of a product across all warehouses, or -1 when the
+     * index cannot answer.
+     */
+    public long totalOnHand(Long productId) {
+        return index.totalOnHand(productId);
+    }
+
+    /**
+     * Visits every warehouse holding the product.
+     *
+     * @return the number of warehouses visited, or -1 when the index cannot
+     *         answer
+     */
+    public int forEachWarehouse(Long productId, StockLevelIndex.LevelVisitor visitor) {
+        return index.forEachWarehouse(productId, visitor);
+    }
+
+    public long lastReconciledAt() {
+        return index.lastReconciledAt();
+    }
+
+    // ─── WRITES ──────────────────────────────────────────────────────────────
+
+    /**
+     * Records a change to one inventory row made by the current transaction.
+     * Applied to the index once the transaction commits; outside a
+     * transaction it is applied immediately.
+     */
+    public void record(Long productId, Long warehouseId, int onHandDelta, int reservedDelta) {
+        long key = StockLevelIndex.pack(productId, warehouseId);
+        if (key == 0 || (onHandDelta == 0 && reservedDelta == 0)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            StockLevelIndex.Deltas deltas = new StockLevelIndex.Deltas();
+            deltas.add(key, onHandDelta, reservedDelta);
+            index.completeUpdate(deltas, true, false);
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(key, onHandDelta, reservedDelta);
+    }
+
+    // ─── RECONCILE ───────────────────────────────────────────────────────────
+
+    /**
+     * Brings the index in line with {@code inventory_items}, loading it on the
+     * first call.
+     *
+     * @return the number of rows that had drifted
+     */
+    public long reconcile() {
+        long since = index.beginReconcile();
+        long[] keys = new long[CHUNK_SIZE];
+        int[] onHand = new int[CHUNK_SIZE];
+        int[] reserved = new int[CHUNK_SIZE];
+        int[] count = { 0 };
+
+        reconcileTx.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOAD_SQL);
+            // Streams with a server-side cursor instead of buffering the table
+            ps.setFetchSize(CHUNK_SIZE);
+            return ps;
+        }, rs -> {
+            long key = StockLevelIndex.pack(rs.getLong(1), rs.getLong(2));
+            if (key == 0) {
+                return;
+            }
+            int i = count[0]++;
+            keys[i] = key;
+            onHand[i] = rs.getInt(3);
+            reserved[i] = rs.getInt(4);
+            if (count[0] == CHUNK_SIZE) {
+                index.reconcile(since, keys, onHand, reserved, CHUNK_SIZE);
+                count[0] = 0;
+            }
+        }));
+        index.reconcile(since, keys, onHand, reserved, count[0]);
+        index.endReconcile(since);
+        return index.lastReconcileDrift();
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    /**
+     * Changes made by one transaction, summed per row.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final StockLevelIndex.Deltas deltas = new StockLevelIndex.Deltas();
+        private boolean begun;
+
+        void add(long key, int onHandDelta, int reservedDelta) {
+            deltas.add(key, onHandDelta, reservedDelta);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            index.beginUpdate(deltas);
+            begun = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockLevelIndexService.this);
+            index.completeUpdate(deltas, status == STATUS_COMMITTED, begun);
+        }
+    }
+}
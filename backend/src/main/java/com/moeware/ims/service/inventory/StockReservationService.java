@@ -0,0 +1,180 @@
+package com.moeware.ims.service.inventory;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moeware.ims.entity.staff.Warehouse;
+import com.moeware.ims.entity.transaction.SalesOrder;
+import com.moeware.ims.entity.transaction.SalesOrderItem;
+import com.moeware.ims.exception.inventory.inventoryItem.InventoryItemNotFoundException;
+import com.moeware.ims.exception.transaction.stockAdjustment.InsufficientStockException;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockKey;
+import com.moeware.ims.repository.inventory.StockReservationRepository;
+import com.moeware.ims.repository.inventory.StockReservationRepository.ReservedLine;
+import com.moeware.ims.repository.inventory.StockReservationRepository.ReturnedStock;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds stock for confirmed sales orders.
+ *
+ * <p>
+ * Confirming an order reserves every line in its warehouse; reserved units no
+ * longer count as available to other orders, transfers or adjustments.
+ * Fulfilment consumes the reservations and draws the stock down from the
+ * reserved total, cancellation releases them, and reservations not consumed
+ * within {@code app.inventory.reservation.ttl-minutes} are expired by
+ * {@link com.moeware.ims.scheduler.StockReservationSweeper}. An order whose
+ * reservation expired stays CONFIRMED and is fulfilled from available stock.
+ *
+ * <p>
+ * Lines are reserved in {@link StockKey} order (warehouse, then product), the
+ * order bulk transfers lock in, so two orders sharing inventory rows lock them
+ * in the same order and cannot deadlock. Every method joins the caller's
+ * transaction, so a failed line rolls back the whole confirmation.
+ */
+@Service
+@Slf4j
+public class StockReservationService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final StockLevelIndexService stockLevelIndexService;
+    private final TransactionTemplate sweepTx;
+    private final long ttlMinutes;
+    private final int sweepBatchSize;
+
+    public StockReservationService(
+            StockReservationRepository stockReservationRepository,
+            StockLevelIndexService stockLevelIndexService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.inventory.reservation.ttl-minutes:2880}") long ttlMinutes,
+            @Value("${app.inventory.reservation.sweep-batch-size:500}") int sweepBatchSize) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.stockLevelIndexService = stockLevelIndexService;
+        this.sweepTx = new TransactionTemplate(transactionManager);
+        this.ttlMinutes = ttlMinutes;
+        this.sweepBatchSize = Math.max(1, sweepBatchSize);
+    }
+
+    /**
+     * Reserves every line of the order in its warehouse.
+     *
+     * @throws InventoryItemNotFoundException if the warehouse does not stock a
+     *                                        product
+     * @throws InsufficientStockException     if a product has too little
+     *                                        available stock
+     */
+    @Transactional
+    public void reserve(SalesOrder salesOrder) {
+        Long warehouseId = salesOrder.getWarehouse().getId();
+        Map<StockKey, Integer> quantities = new TreeMap<>();
+        for (SalesOrderItem item : salesOrder.getItems()) {
+            quantities.merge(new StockKey(warehouseId, item.getProduct().getId()), item.getQuantity(), Integer::sum);
+        }
+        reserve(salesOrder, quantities);
+    }
+
+    /**
+     * Reserves the given quantities for the order, each in its own warehouse.
+     *
+     * @param quantities units to reserve per warehouse and product
+     * @throws InventoryItemNotFoundException if a warehouse does not stock the
+     *                                        product
+     * @throws InsufficientStockException     if a warehouse has too little
+     *                                        available stock
+     */
+    @Transactional
+    public void reserve(SalesOrder salesOrder, Map<StockKey, Integer> quantities) {
+        Warehouse home = salesOrder.getWarehouse();
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+
+        new TreeMap<>(quantities).forEach((key, quantity) -> {
+            OptionalInt shortfall = stockReservationRepository.reserve(
+                    salesOrder.getId(), key.productId(), key.warehouseId(), quantity, expiresAt);
+            if (shortfall.isPresent()) {
+                if (shortfall.getAsInt() < 0) {
+                    throw new InventoryItemNotFoundException(key.productId(), key.warehouseId());
+                }
+                String warehouseName = key.warehouseId().equals(home.getId())
+                        ? home.getName()
+                        : "warehouse " + key.warehouseId();
+                throw new InsufficientStockException(key.productId(), key.warehouseId(), warehouseName,
+                        shortfall.getAsInt(), quantity);
+            }
+            stockLevelIndexService.record(key.productId(), key.warehouseId(), 0, quantity);
+        });
+
+        log.info("Reserved {} lines for SO {} until {}", quantities.size(), salesOrder.getSoNumber(), expiresAt);
+    }
+
+    /**
+     * Consumes the order's active reservations.
+     *
+     * @return reserved quantity per product id, then warehouse id; products
+     *         whose reservation has expired are absent
+     */
+    @Transactional
+    public Map<Long, Map<Long, Integer>> consume(SalesOrder salesOrder) {
+        List<ReservedLine> lines = stockReservationRepository.consume(salesOrder.getId());
+        Map<Long, Map<Long, Integer>> reserved = new HashMap<>();
+        for (ReservedLine line : lines) {
+            reserved.computeIfAbsent(line.productId(), id -> new TreeMap<>())
+                    .put(line.warehouseId(), line.quantity());
+        }
+        log.debug("Consumed {} reservations for SO {}", lines.size(), salesOrder.getSoNumber());
+        return reserved;
+    }
+
+    /**
+     * Releases the order's active reservations back to available stock.
+     */
+    @Transactional
+    public void release(SalesOrder salesOrder) {
+        int released = returnToAvailable(stockReservationRepository.release(salesOrder.getId()));
+        log.info("Released {} reservations for SO {}", released, salesOrder.getSoNumber());
+    }
+
+    /**
+     * Expires overdue reservations in batches until none are left. Each batch
+     * commits on its own so row locks are held briefly.
+     *
+     * @return the number of reservations expired
+     */
+    public int expireStale() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int expired;
+        do {
+            expired = sweepTx.execute(
+                    status -> returnToAvailable(stockReservationRepository.expireStale(now, sweepBatchSize)));
+            total += expired;
+        } while (expired == sweepBatchSize);
+        return total;
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    /**
+     * Records returned stock in the level index.
+     *
+     * @return the number of reservations returned
+     */
+    private int returnToAvailable(List<ReturnedStock> returned) {
+        int reservations = 0;
+        for (ReturnedStock r : returned) {
+            stockLevelIndexService.record(r.productId(), r.warehouseId(), 0, -r.quantity());
+            reservations += r.reservations();
+        }
+        return reservations;
+    }
+}
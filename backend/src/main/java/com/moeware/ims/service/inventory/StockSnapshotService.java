@@ -0,0 +1,74 @@
+package com.moeware.ims.service.inventory;
+
+import java.time.LocalDate;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
+import com.moeware.ims.exception.InvalidOperationException;
+import com.moeware.ims.repository.dashboard.StockSnapshotRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains {@code stock_daily_snapshots}, the source of the dashboard
+ * inventory trend chart.
+ *
+ * <p>
+ * Two write paths:
+ * <ol>
+ * <li><b>Nightly capture</b> — shortly after midnight the scheduler snapshots
+ * the day that just ended from current stock.</li>
+ * <li><b>Backfill</b> — seeds the first day of a range from current stock,
+ * then replays {@code inventory_movements} forward one day at a time. Re-run
+ * it over a range after movements are corrected.</li>
+ * </ol>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockSnapshotService {
+
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Writes (or rewrites) the end-of-day snapshot for a single day.
+     */
+    @Transactional
+    public int captureEndOfDay(LocalDate day) {
+        int rows = stockSnapshotRepository.captureFromCurrentStock(day);
+        log.info("Stock snapshot captured for {}: {} rows", day, rows);
+        return rows;
+    }
+
+    /**
+     * Rebuilds snapshots for every day in the inclusive range by replaying
+     * movements in date order.
+     *
+     * @return total number of snapshot rows written
+     */
+    @Transactional
+    public int backfill(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidOperationException(
+                    "Snapshot backfill start date " + startDate + " is after end date " + endDate);
+        }
+        if (endDate.isAfter(LocalDate.now())) {
+            throw new InvalidOperationException("Cannot snapshot future date " + endDate);
+        }
+
+        log.info("Backfilling stock snapshots for {} – {}", startDate, endDate);
+        int rows = stockSnapshotRepository.captureFromCurrentStock(startDate);
+        for (LocalDate day = startDate.plusDays(1); !day.isAfter(endDate); day = day.plusDays(1)) {
+            rows += stockSnapshotRepository.replayFromPreviousDay(day);
+        }
+        log.info("Stock snapshot backfill complete: {} rows", rows);
+        eventPublisher.publishEvent(DomainChangeEvent.of("snapshot.backfill", DomainChangeType.INVENTORY));
+        return rows;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.moeware.ims.cache.SingleFlight;
 import com.moeware.ims.dto.inventory.supplier.SupplierPatchRequest;
 import com.moeware.ims.dto.inventory.supplier.SupplierPerformanceDTO;
 import com.moeware.ims.dto.inventory.supplier.SupplierRequest;
@@ -308,6 +309,7 @@ public class SupplierService {
     /**
      * Get supplier performance metrics
      */
+    @SingleFlight
     public SupplierPerformanceDTO getSupplierPerformance(Long supplierId) {
         log.debug("Calculating performance metrics for supplier ID: {}", supplierId);
 
@@ -11,6 +11,7 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.moeware.ims.cache.SingleFlight;
 import com.moeware.ims.dto.staff.warehouse.WarehouseCreateRequest;
 import com.moeware.ims.dto.staff.warehouse.WarehouseResponse;
 import com.moeware.ims.dto.staff.warehouse.WarehouseStatsResponse;
@@ -203,6 +204,7 @@ public class WarehouseService {
      * @param id warehouse ID
      * @return warehouse statistics
      */
+    @SingleFlight
     public WarehouseStatsResponse getWarehouseStatistics(Long id) {
         log.debug("Fetching statistics for warehouse ID: {}", id);
 
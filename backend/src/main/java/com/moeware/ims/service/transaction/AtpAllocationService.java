@@ -0,0 +1,440 @@
+package com.moeware.ims.service.transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moeware.ims.entity.staff.Warehouse;
+import com.moeware.ims.entity.transaction.SalesOrder;
+import com.moeware.ims.entity.transaction.SalesOrderItem;
+import com.moeware.ims.enums.transaction.AllocationDecision;
+import com.moeware.ims.exception.transaction.stockAdjustment.InsufficientStockException;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockKey;
+import com.moeware.ims.repository.transaction.SalesOrderAllocationRepository;
+import com.moeware.ims.repository.transaction.SalesOrderAllocationRepository.AllocationRow;
+import com.moeware.ims.repository.transaction.SalesOrderAllocationRepository.CandidateStock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Available-to-promise allocation of sales orders across warehouses.
+ *
+ * <p>
+ * At confirmation the order's lines are matched against the available
+ * (unreserved) stock of every active warehouse, read in one query:
+ * <ol>
+ * <li>If the order's own warehouse covers every line, it ships from there
+ * ({@link AllocationDecision#HOME}).</li>
+ * <li>Otherwise the nearest single warehouse that covers every line is used
+ * ({@link AllocationDecision#SINGLE}).</li>
+ * <li>Otherwise the order is split ({@link AllocationDecision#SPLIT}) across
+ * the fewest warehouses that together cover every line, nearest set first;
+ * each line is drawn from them nearest first and may be split across
+ * several.</li>
+ * </ol>
+ * The fewest-warehouse set is found exactly, by trying every combination, when
+ * at most {@value #EXACT_SPLIT_MAX_WAREHOUSES} warehouses hold any of the
+ * order's products. Above that, a greedy cover (the warehouse covering the most
+ * outstanding units, repeatedly) is used instead: it is fast at any size but may
+ * pick a warehouse more than the optimum.
+ * Warehouses carry an address but no coordinates, so "nearest" is a proximity
+ * rank against the order's ship-to address: the order's own warehouse, then
+ * one with the same postal code, then the same city, then any other;
+ * warehouse id breaks ties.
+ *
+ * <p>
+ * The plan is computed from committed totals without locks. The reservations
+ * made from it re-check each warehouse with a conditional update, so stock
+ * taken by a concurrent confirmation in the meantime fails the confirmation
+ * instead of over-promising. Every applied plan is stored in
+ * {@code sales_order_allocations} for audit and counted in
+ * {@code sales_order.allocations} by decision.
+ *
+ * <p>
+ * {@code app.inventory.allocation.enabled=false} restores single-warehouse
+ * confirmation: every line is reserved in the order's own warehouse.
+ */
+@Service
+@Slf4j
+public class AtpAllocationService {
+
+    /** Proximity ranks, nearest first; stored with every allocation row. */
+    static final int PROXIMITY_HOME = 0;
+    static final int PROXIMITY_POSTAL_CODE = 1;
+    static final int PROXIMITY_CITY = 2;
+    static final int PROXIMITY_OTHER = 3;
+
+    /**
+     * Largest number of candidate warehouses for which a split is searched
+     * exhaustively (at most 4,096 combinations); beyond it the greedy cover is
+     * used as is.
+     */
+    static final int EXACT_SPLIT_MAX_WAREHOUSES = 12;
+
+    private final SalesOrderAllocationRepository allocationRepository;
+    private final MeterRegistry meterRegistry;
+    private final Timer planTimer;
+    private final boolean enabled;
+
+    public AtpAllocationService(
+            SalesOrderAllocationRepository allocationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.inventory.allocation.enabled:true}") boolean enabled) {
+        this.allocationRepository = allocationRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.planTimer = Timer.builder("sales_order.allocation.plan")
+                .description("Time to compute an available-to-promise allocation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Where each line of an order is supplied from.
+     *
+     * @param rows one row per product and warehouse, in {@link StockKey} order
+     */
+    public record AllocationPlan(AllocationDecision decision, List<AllocationRow> rows) {
+
+        /** Units to reserve per warehouse and product. */
+        public Map<StockKey, Integer> quantities() {
+            Map<StockKey, Integer> quantities = new TreeMap<>();
+            for (AllocationRow row : rows) {
+                quantities.merge(new StockKey(row.warehouseId(), row.productId()), row.quantity(), Integer::sum);
+            }
+            return quantities;
+        }
+
+        public long warehouseCount() {
+            return rows.stream().map(AllocationRow::warehouseId).distinct().count();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Computes the allocation of an order from the current available stock.
+     *
+     * @throws InsufficientStockException if all warehouses together hold too
+     *                                    little of a product
+     */
+    @Transactional
+    public AllocationPlan allocate(SalesOrder salesOrder) {
+        Map<Long, Integer> demand = new TreeMap<>();
+        for (SalesOrderItem item : salesOrder.getItems()) {
+            demand.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        AllocationPlan plan = plan(salesOrder, demand);
+
+        log.info("SO {} allocated {} across {} warehouse(s)",
+                salesOrder.getSoNumber(), plan.decision(), plan.warehouseCount());
+        return plan;
+    }
+
+    /**
+     * Allocates the units of a confirmed order whose reservations expired
+     * before fulfilment, from the stock available now, and appends the result
+     * to the order's stored allocations. The warehouses originally chosen may
+     * have been drained in the meantime, and the order's own warehouse was
+     * usually short to begin with, so neither is assumed.
+     *
+     * @param demand unreserved units per product
+     * @throws InsufficientStockException if all warehouses together hold too
+     *                                    little of a product
+     */
+    @Transactional
+    public AllocationPlan reallocate(SalesOrder salesOrder, Map<Long, Integer> demand) {
+        AllocationPlan plan = plan(salesOrder, new TreeMap<>(demand));
+        allocationRepository.saveAll(salesOrder.getId(), plan.rows());
+
+        log.info("SO {}: expired reservations re-allocated {} across {} warehouse(s)",
+                salesOrder.getSoNumber(), plan.decision(), plan.warehouseCount());
+        return plan;
+    }
+
+    /**
+     * Stores an allocation whose reservations were made.
+     */
+    @Transactional
+    public void record(SalesOrder salesOrder, AllocationPlan plan) {
+        allocationRepository.saveAll(salesOrder.getId(), plan.rows());
+        Counter.builder("sales_order.allocations")
+                .tag("decision", plan.decision().name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Stored allocations of an order; empty for orders confirmed before
+     * allocation was recorded or with allocation disabled.
+     */
+    @Transactional(readOnly = true)
+    public List<AllocationRow> getAllocations(Long salesOrderId) {
+        return allocationRepository.findBySalesOrder(salesOrderId);
+    }
+
+    // ─── PLANNING ────────────────────────────────────────────────────────────
+
+    private AllocationPlan plan(SalesOrder salesOrder, Map<Long, Integer> demand) {
+        Warehouse home = salesOrder.getWarehouse();
+        List<CandidateStock> candidates = allocationRepository.findCandidateStock(demand.keySet(), home.getId());
+        return planTimer.record(() -> plan(demand, candidates, home.getId(),
+                salesOrder.getCity(), salesOrder.getPostalCode(), LocalDateTime.now()));
+    }
+
+    /**
+     * One warehouse's available stock of the order's products.
+     */
+    private static final class Source {
+
+        final Long warehouseId;
+        final int proximity;
+        final Map<Long, Integer> available = new HashMap<>();
+
+        Source(Long warehouseId, int proximity) {
+            this.warehouseId = warehouseId;
+            this.proximity = proximity;
+        }
+
+        int available(Long productId) {
+            return available.getOrDefault(productId, 0);
+        }
+
+        boolean covers(Map<Long, Integer> demand) {
+            if (available.size() < demand.size()) {
+                return false;
+            }
+            for (Map.Entry<Long, Integer> e : demand.entrySet()) {
+                if (available(e.getKey()) < e.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Outstanding units this warehouse could supply. */
+        long coverage(Map<Long, Integer> remaining) {
+            long units = 0;
+            // Walk the smaller of the two maps
+            if (available.size() < remaining.size()) {
+                for (Map.Entry<Long, Integer> e : available.entrySet()) {
+                    Integer wanted = remaining.get(e.getKey());
+                    if (wanted != null) {
+                        units += Math.min(wanted, e.getValue());
+                    }
+                }
+            } else {
+                for (Map.Entry<Long, Integer> e : remaining.entrySet()) {
+                    units += Math.min(e.getValue(), available(e.getKey()));
+                }
+            }
+            return units;
+        }
+    }
+
+    static AllocationPlan plan(Map<Long, Integer> demand, List<CandidateStock> candidates, Long homeWarehouseId,
+            String city, String postalCode, LocalDateTime now) {
+        if (demand.isEmpty()) {
+            return new AllocationPlan(AllocationDecision.HOME, List.of());
+        }
+        Map<Long, Source> byWarehouse = new HashMap<>();
+        for (CandidateStock c : candidates) {
+            byWarehouse.computeIfAbsent(c.warehouseId(), id -> new Source(id,
+                    proximity(id, c.city(), c.postalCode(), homeWarehouseId, city, postalCode)))
+                    .available.put(c.productId(), c.available());
+        }
+        List<Source> ranked = new ArrayList<>(byWarehouse.values());
+        ranked.sort(Comparator.<Source>comparingInt(s -> s.proximity).thenComparing(s -> s.warehouseId));
+
+        for (Source source : ranked) {
+            if (source.covers(demand)) {
+                AllocationDecision decision = source.warehouseId.equals(homeWarehouseId)
+                        ? AllocationDecision.HOME
+                        : AllocationDecision.SINGLE;
+                List<AllocationRow> rows = new ArrayList<>(demand.size());
+                demand.forEach((productId, quantity) -> rows.add(
+                        row(productId, source, quantity, decision, now)));
+                return new AllocationPlan(decision, rows);
+            }
+        }
+
+        for (Map.Entry<Long, Integer> e : demand.entrySet()) {
+            int total = ranked.stream().mapToInt(src -> src.available(e.getKey())).sum();
+            if (total < e.getValue()) {
+                throw new InsufficientStockException(e.getKey(), homeWarehouseId, "all warehouses", total,
+                        e.getValue());
+            }
+        }
+
+        // The greedy cover bounds the exact search, which also prefers a nearer
+        // set of the same size
+        List<Source> chosen = greedyCover(demand, ranked);
+        if (ranked.size() <= EXACT_SPLIT_MAX_WAREHOUSES) {
+            chosen = fewestWarehouses(demand, ranked, chosen.size());
+        }
+        chosen.sort(Comparator.<Source>comparingInt(src -> src.proximity).thenComparing(src -> src.warehouseId));
+
+        // Each line is drawn from the chosen warehouses nearest first
+        Map<StockKey, AllocationRow> rows = new TreeMap<>();
+        for (Map.Entry<Long, Integer> e : demand.entrySet()) {
+            int wanted = e.getValue();
+            for (Iterator<Source> it = chosen.iterator(); wanted > 0 && it.hasNext();) {
+                Source source = it.next();
+                int take = Math.min(wanted, source.available(e.getKey()));
+                if (take > 0) {
+                    rows.put(new StockKey(source.warehouseId, e.getKey()),
+                            row(e.getKey(), source, take, AllocationDecision.SPLIT, now));
+                    wanted -= take;
+                }
+            }
+        }
+        return new AllocationPlan(AllocationDecision.SPLIT, new ArrayList<>(rows.values()));
+    }
+
+    /**
+     * Greedy set cover: repeatedly takes the warehouse supplying the most
+     * outstanding units, nearest first on ties. Fast at any size, but may use
+     * more warehouses than necessary. Requires the warehouses together to
+     * cover the demand.
+     */
+    private static List<Source> greedyCover(Map<Long, Integer> demand, List<Source> ranked) {
+        Map<Long, Integer> remaining = new HashMap<>(demand);
+        List<Source> pool = new ArrayList<>(ranked);
+        List<Source> chosen = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            Source best = null;
+            long bestUnits = 0;
+            for (Source source : pool) {
+                long units = source.coverage(remaining);
+                // Strictly greater keeps the nearest of equally good warehouses
+                if (units > bestUnits) {
+                    best = source;
+                    bestUnits = units;
+                }
+            }
+            pool.remove(best);
+            chosen.add(best);
+            for (Iterator<Map.Entry<Long, Integer>> it = remaining.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<Long, Integer> e = it.next();
+                int left = e.getValue() - best.available(e.getKey());
+                if (left <= 0) {
+                    it.remove();
+                } else {
+                    e.setValue(left);
+                }
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Exact search for the smallest set of warehouses that together cover the
+     * demand, trying every combination of 2 up to {@code upperBound}
+     * warehouses. Among sets of the same size the lowest sum of proximity ranks
+     * wins, then the one whose farthest member ranks nearest. Exponential in the
+     * number of warehouses, hence only used up to
+     * {@link #EXACT_SPLIT_MAX_WAREHOUSES} of them.
+     */
+    private static List<Source> fewestWarehouses(Map<Long, Integer> demand, List<Source> ranked, int upperBound) {
+        int n = ranked.size();
+        Long[] productIds = demand.keySet().toArray(new Long[0]);
+        int[] wanted = new int[productIds.length];
+        int[][] available = new int[n][productIds.length];
+        for (int p = 0; p < productIds.length; p++) {
+            wanted[p] = demand.get(productIds[p]);
+            for (int w = 0; w < n; w++) {
+                available[w][p] = ranked.get(w).available(productIds[p]);
+            }
+        }
+
+        for (int size = 2; size <= upperBound; size++) {
+            int bestMask = 0;
+            int bestProximity = Integer.MAX_VALUE;
+            // Gosper's hack: every n-bit mask with `size` bits set, in increasing order
+            for (int mask = (1 << size) - 1; mask < 1 << n; mask = nextCombination(mask)) {
+                if (covers(mask, available, wanted)) {
+                    int proximity = 0;
+                    for (int w = 0; w < n; w++) {
+                        if ((mask & 1 << w) != 0) {
+                            proximity += ranked.get(w).proximity;
+                        }
+                    }
+                    if (proximity < bestProximity) {
+                        bestMask = mask;
+                        bestProximity = proximity;
+                    }
+                }
+            }
+            if (bestMask != 0) {
+                List<Source> chosen = new ArrayList<>(size);
+                for (int w = 0; w < n; w++) {
+                    if ((bestMask & 1 << w) != 0) {
+                        chosen.add(ranked.get(w));
+                    }
+                }
+                return chosen;
+            }
+        }
+        throw new IllegalStateException("No warehouse set within the greedy bound covers the demand");
+    }
+
+    private static boolean covers(int mask, int[][] available, int[] wanted) {
+        for (int p = 0; p < wanted.length; p++) {
+            long units = 0;
+            for (int w = 0; w < available.length && units < wanted[p]; w++) {
+                if ((mask & 1 << w) != 0) {
+                    units += available[w][p];
+                }
+            }
+            if (units < wanted[p]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int nextCombination(int mask) {
+        int lowest = mask & -mask;
+        int ripple = mask + lowest;
+        return (((ripple ^ mask) >>> 2) / lowest) | ripple;
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private static AllocationRow row(Long productId, Source source, int quantity, AllocationDecision decision,
+            LocalDateTime now) {
+        return new AllocationRow(productId, null, source.warehouseId, null, quantity, source.proximity, decision,
+                now);
+    }
+
+    static int proximity(Long warehouseId, String warehouseCity, String warehousePostalCode,
+            Long homeWarehouseId, String city, String postalCode) {
+        if (warehouseId.equals(homeWarehouseId)) {
+            return PROXIMITY_HOME;
+        }
+        if (sameText(warehousePostalCode, postalCode)) {
+            return PROXIMITY_POSTAL_CODE;
+        }
+        if (sameText(warehouseCity, city)) {
+            return PROXIMITY_CITY;
+        }
+        return PROXIMITY_OTHER;
+    }
+
+    private static boolean sameText(String a, String b) {
+        return a != null && b != null && !a.isBlank() && a.trim().equalsIgnoreCase(b.trim());
+    }
+}
@@ -0,0 +1,99 @@
+package com.moeware.ims.service.transaction;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.moeware.ims.enums.transaction.DocumentType;
+import com.moeware.ims.repository.transaction.DocumentSequenceRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out document numbers in the format {@code PREFIX-YYYYMMDD-XXXX}, the
+ * sequence restarting every day.
+ *
+ * <p>
+ * Each node claims blocks of {@code app.documents.sequence.block-size} values
+ * from {@code document_sequences} and serves numbers from memory until the
+ * block is used up, so issuing a number needs no query at all most of the time
+ * and never an existence check. Claims commit on their own, on a connection
+ * pool of the repository's: the sequence row is not locked for the rest of the
+ * caller's transaction, a caller that rolls back does not give its block back,
+ * and no caller needs a second connection of the main pool.
+ *
+ * <p>
+ * Numbers are unique across nodes but not gap-free, and not in creation order
+ * across nodes: a block left unused when a node stops is skipped, and two
+ * nodes serve interleaved ranges of the same day.
+ */
+@Service
+@Slf4j
+public class DocumentNumberService {
+
+    private static final DateTimeFormatter PERIOD_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final DocumentSequenceRepository documentSequenceRepository;
+    private final MeterRegistry meterRegistry;
+    private final int blockSize;
+
+    /** Current block per prefix and day; a handful of entries per day. */
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public DocumentNumberService(
+            DocumentSequenceRepository documentSequenceRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.documents.sequence.block-size:50}") int blockSize) {
+        this.documentSequenceRepository = documentSequenceRepository;
+        this.meterRegistry = meterRegistry;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /**
+     * Returns the next number of a document type for a day.
+     */
+    public String next(DocumentType type, LocalDate date) {
+        String period = date.format(PERIOD_FORMAT);
+        Block block = blocks.computeIfAbsent(type.getPrefix() + "-" + period,
+                key -> new Block(type.getPrefix(), period));
+        return String.format("%s-%s-%04d", type.getPrefix(), period, block.next());
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    /**
+     * Values claimed by this node for one prefix and day. Threads asking for the
+     * same sequence while a new block is claimed wait for it; other sequences
+     * are not held up.
+     */
+    private final class Block {
+
+        private final String prefix;
+        private final String period;
+        private long next;
+        private long end;
+
+        Block(String prefix, String period) {
+            this.prefix = prefix;
+            this.period = period;
+        }
+
+        synchronized long next() {
+            if (next == end) {
+                next = documentSequenceRepository.claimBlock(prefix, period, blockSize);
+                end = next + blockSize;
+                Counter.builder("document_sequence.claims")
+                        .tag("prefix", prefix)
+                        .register(meterRegistry)
+                        .increment();
+                log.debug("Claimed {}-{} numbers {}..{}", prefix, period, next, end - 1);
+            }
+            return next++;
+        }
+    }
+}
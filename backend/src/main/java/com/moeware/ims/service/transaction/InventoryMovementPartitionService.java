@@ -0,0 +1,87 @@
+package com.moeware.ims.service.transaction;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moeware.ims.repository.transaction.InventoryMovementPartitionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the monthly partitions of {@code inventory_movements} ahead of time and
+ * archives old months.
+ *
+ * <p>
+ * Each run makes sure partitions exist for the current month and the next
+ * {@code app.inventory.movements.partitions.premake-months}. A movement dated in
+ * a month without a partition (a backdated receipt, an archived month) lands in
+ * the default partition and is moved into its month by the next run. When
+ * {@code archive-after-months} is positive, months that ended more than that
+ * many months ago are detached and moved to the {@code archive} schema, where
+ * they remain queryable but no longer appear in the movement history APIs.
+ * Both steps are idempotent and serialised in the database, so running on
+ * several instances is harmless.
+ */
+@Service
+@Slf4j
+public class InventoryMovementPartitionService {
+
+    private final InventoryMovementPartitionRepository partitionRepository;
+    private final int premakeMonths;
+    private final int archiveAfterMonths;
+
+    public InventoryMovementPartitionService(
+            InventoryMovementPartitionRepository partitionRepository,
+            @Value("${app.inventory.movements.partitions.premake-months:3}") int premakeMonths,
+            @Value("${app.inventory.movements.partitions.archive-after-months:0}") int archiveAfterMonths) {
+        this.partitionRepository = partitionRepository;
+        this.premakeMonths = Math.max(1, premakeMonths);
+        this.archiveAfterMonths = archiveAfterMonths;
+    }
+
+    /**
+     * Creates any missing partition from the current month up to
+     * {@code premakeMonths} ahead.
+     *
+     * @return the number of partitions created
+     */
+    @Transactional
+    public int ensureFuturePartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        int created = 0;
+        for (int i = 0; i <= premakeMonths; i++) {
+            if (partitionRepository.ensurePartition(month.plusMonths(i))) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Moves movements out of the default partition into their month.
+     *
+     * @return the number of movements moved
+     */
+    @Transactional
+    public int splitDefaultPartition() {
+        return partitionRepository.splitDefaultPartition();
+    }
+
+    /**
+     * Archives months older than the retention window. Does nothing when
+     * archiving is disabled ({@code archive-after-months <= 0}).
+     *
+     * @return the number of partitions archived
+     */
+    @Transactional
+    public int archiveExpiredPartitions() {
+        if (archiveAfterMonths <= 0) {
+            return 0;
+        }
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(archiveAfterMonths);
+        return partitionRepository.archiveBefore(cutoff);
+    }
+}
@@ -1,9 +1,11 @@
 package com.moeware.ims.service.transaction;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -130,7 +132,9 @@ public class InventoryMovementService {
          *
          * <p>
          * Returns total counts grouped by {@link MovementType} and per-warehouse
-         * breakdown for receipts, shipments, and the net quantity change.
+         * breakdown for receipts, shipments, and the net quantity change. The
+         * aggregation runs in the database as a single grouped query, so the cost
+         * does not grow with the number of movements loaded into memory.
          * </p>
          *
          * @param startDate   start of the reporting period (inclusive)
@@ -146,30 +150,34 @@ public class InventoryMovementService {
                 log.debug("Building movement summary - start={}, end={}, warehouseId={}", startDate, endDate,
                                 warehouseId);
 
-                // Fetch movements in date range (use large page to aggregate — suitable for
-                // summary endpoints; swap for aggregation queries if dataset grows large)
-                List<InventoryMovement> movements = inventoryMovementRepository
-                                .findByMovementDateBetween(startDate, endDate, Pageable.unpaged())
-                                .getContent();
-
-                // Apply optional warehouse filter
-                if (warehouseId != null) {
-                        movements = movements.stream()
-                                        .filter(m -> (m.getFromWarehouse() != null
-                                                        && warehouseId.equals(m.getFromWarehouse().getId()))
-                                                        || (m.getToWarehouse() != null && warehouseId
-                                                                        .equals(m.getToWarehouse().getId())))
-                                        .collect(Collectors.toList());
+                List<InventoryMovementSummaryDTO.ByTypeDTO> byType = new ArrayList<>();
+                List<InventoryMovementSummaryDTO.ByWarehouseDTO> byWarehouse = new ArrayList<>();
+                Map<MovementType, Long> quantityByType = new EnumMap<>(MovementType.class);
+
+                for (Object[] row : inventoryMovementRepository.summarizeMovements(startDate, endDate, warehouseId)) {
+                        if ("TYPE".equals(row[0])) {
+                                MovementType type = MovementType.valueOf((String) row[1]);
+                                long quantity = ((Number) row[5]).longValue();
+                                quantityByType.put(type, quantity);
+                                byType.add(InventoryMovementSummaryDTO.ByTypeDTO.builder()
+                                                .movementType(type)
+                                                .count(((Number) row[4]).longValue())
+                                                .totalQuantity(quantity)
+                                                .build());
+                        } else {
+                                long receipts = ((Number) row[6]).longValue();
+                                long shipments = ((Number) row[7]).longValue();
+                                byWarehouse.add(InventoryMovementSummaryDTO.ByWarehouseDTO.builder()
+                                                .warehouseId(((Number) row[2]).longValue())
+                                                .warehouseName((String) row[3])
+                                                .receipts(receipts)
+                                                .shipments(shipments)
+                                                .netChange(receipts - shipments)
+                                                .build());
+                        }
                 }
-
-                // Totals by type
-                Map<MovementType, Long> countByType = movements.stream()
-                                .collect(Collectors.groupingBy(InventoryMovement::getMovementType,
-                                                Collectors.counting()));
-
-                Map<MovementType, Long> quantityByType = movements.stream()
-                                .collect(Collectors.groupingBy(InventoryMovement::getMovementType,
-                                                Collectors.summingLong(InventoryMovement::getQuantity)));
+                byType.sort(Comparator.comparing(InventoryMovementSummaryDTO.ByTypeDTO::getMovementType));
+                byWarehouse.sort(Comparator.comparing(InventoryMovementSummaryDTO.ByWarehouseDTO::getWarehouseId));
 
                 InventoryMovementSummaryDTO.TotalsDTO totals = InventoryMovementSummaryDTO.TotalsDTO.builder()
                                 .receipts(quantityByType.getOrDefault(MovementType.RECEIPT, 0L))
@@ -178,18 +186,6 @@ public class InventoryMovementService {
                                 .adjustments(quantityByType.getOrDefault(MovementType.ADJUSTMENT, 0L))
                                 .build();
 
-                // By movement type breakdown
-                List<InventoryMovementSummaryDTO.ByTypeDTO> byType = countByType.entrySet().stream()
-                                .map(e -> InventoryMovementSummaryDTO.ByTypeDTO.builder()
-                                                .movementType(e.getKey())
-                                                .count(e.getValue())
-                                                .totalQuantity(quantityByType.getOrDefault(e.getKey(), 0L))
-                                                .build())
-                                .collect(Collectors.toList());
-
-                // Per-warehouse breakdown
-                List<InventoryMovementSummaryDTO.ByWarehouseDTO> byWarehouse = buildWarehouseBreakdown(movements);
-
                 return InventoryMovementSummaryDTO.builder()
                                 .period(InventoryMovementSummaryDTO.PeriodDTO.builder()
                                                 .startDate(startDate)
@@ -205,64 +201,6 @@ public class InventoryMovementService {
         // Private Helpers
         // ================================================================
 
-        /**
-         * Build per-warehouse receipt / shipment / net-change breakdown from a list of
-         * already-fetched movements.
-         */
-        private List<InventoryMovementSummaryDTO.ByWarehouseDTO> buildWarehouseBreakdown(
-                        List<InventoryMovement> movements) {
-
-                // Collect warehouse IDs mentioned in any movement
-                Map<Long, String> warehouseNames = movements.stream()
-                                .flatMap(m -> {
-                                        java.util.stream.Stream.Builder<Map.Entry<Long, String>> builder = java.util.stream.Stream
-                                                        .builder();
-                                        if (m.getFromWarehouse() != null) {
-                                                builder.accept(Map.entry(
-                                                                m.getFromWarehouse().getId(),
-                                                                m.getFromWarehouse().getName()));
-                                        }
-                                        if (m.getToWarehouse() != null) {
-                                                builder.accept(Map.entry(
-                                                                m.getToWarehouse().getId(),
-                                                                m.getToWarehouse().getName()));
-                                        }
-                                        return builder.build();
-                                })
-                                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a));
-
-                return warehouseNames.entrySet().stream()
-                                .map(entry -> {
-                                        Long wId = entry.getKey();
-                                        String wName = entry.getValue();
-
-                                        long receipts = movements.stream()
-                                                        .filter(m -> m.getMovementType() == MovementType.RECEIPT
-                                                                        && m.getToWarehouse() != null
-                                                                        && wId.equals(m.getToWarehouse().getId()))
-                                                        .mapToLong(InventoryMovement::getQuantity)
-                                                        .sum();
-
-                                        long shipments = movements.stream()
-                                                        .filter(m -> m.getMovementType() == MovementType.SHIPMENT
-                                                                        && m.getFromWarehouse() != null
-                                                                        && wId.equals(m.getFromWarehouse().getId()))
-                                                        .mapToLong(InventoryMovement::getQuantity)
-                                                        .sum();
-
-                                        long netChange = receipts - shipments;
-
-                                        return InventoryMovementSummaryDTO.ByWarehouseDTO.builder()
-                                                        .warehouseId(wId)
-                                                        .warehouseName(wName)
-                                                        .receipts(receipts)
-                                                        .shipments(shipments)
-                                                        .netChange(netChange)
-                                                        .build();
-                                })
-                                .collect(Collectors.toList());
-        }
-
         /**
          * Map {@link InventoryMovement} entity to {@link InventoryMovementDTO}.
          */
@@ -2,9 +2,9 @@ package com.moeware.ims.service.transaction;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,8 +19,11 @@ import com.moeware.ims.entity.staff.Customer;
 import com.moeware.ims.entity.transaction.Invoice;
 import com.moeware.ims.entity.transaction.Payment;
 import com.moeware.ims.entity.transaction.SalesOrder;
+import com.moeware.ims.enums.transaction.DocumentType;
 import com.moeware.ims.enums.transaction.InvoiceStatus;
 import com.moeware.ims.enums.transaction.PaymentStatus;
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
 import com.moeware.ims.exception.transaction.invoice.InvoiceAlreadyCancelledException;
 import com.moeware.ims.exception.transaction.invoice.InvoiceAlreadyExistsException;
 import com.moeware.ims.exception.transaction.invoice.InvoiceAlreadyPaidException;
@@ -47,7 +50,9 @@ public class InvoiceService {
     private final InvoiceRepository invoiceRepository;
     private final SalesOrderRepository salesOrderRepository;
     private final PaymentRepository paymentRepository;
+    private final DocumentNumberService documentNumberService;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ─── READ ────────────────────────────────────────────────────────────────
 
@@ -109,7 +114,8 @@ public class InvoiceService {
         User generatedBy = userRepository.findById(generatedByUserId)
                 .orElseThrow(() -> new UserNotFoundException(generatedByUserId));
 
-        String invoiceNumber = generateInvoiceNumber(request.getInvoiceDate());
+        String invoiceNumber = documentNumberService.next(DocumentType.INVOICE,
+                request.getInvoiceDate() != null ? request.getInvoiceDate() : LocalDate.now());
 
         // Derive financial amounts from the sales order
         BigDecimal subtotal = salesOrder.getSubtotal();
@@ -135,6 +141,7 @@ public class InvoiceService {
                 .generatedBy(generatedBy)
                 .build();
 
+        eventPublisher.publishEvent(DomainChangeEvent.of("invoice.generate", DomainChangeType.INVOICE));
         return toResponse(invoiceRepository.save(invoice));
     }
 
@@ -168,6 +175,7 @@ public class InvoiceService {
             invoice.setNotes(request.getNotes());
         }
 
+        eventPublisher.publishEvent(DomainChangeEvent.of("invoice.status", DomainChangeType.INVOICE));
         return toResponse(invoiceRepository.save(invoice));
     }
 
@@ -189,6 +197,7 @@ public class InvoiceService {
         // TODO: Integrate with email service (e.g., SendGrid, SES) to send PDF to
         // customer
         invoice.setInvoiceStatus(InvoiceStatus.SENT);
+        eventPublisher.publishEvent(DomainChangeEvent.of("invoice.send", DomainChangeType.INVOICE));
         return toResponse(invoiceRepository.save(invoice));
     }
 
@@ -219,7 +228,8 @@ public class InvoiceService {
                 .orElseThrow(() -> new UserNotFoundException(processedByUserId));
 
         // Create a Payment record linked to the sales order
-        String paymentNumber = generateLinkedPaymentNumber(request.getPaymentDate());
+        String paymentNumber = documentNumberService.next(DocumentType.PAYMENT,
+                request.getPaymentDate() != null ? request.getPaymentDate() : LocalDate.now());
         Payment payment = Payment.builder()
                 .paymentNumber(paymentNumber)
                 .salesOrder(invoice.getSalesOrder())
@@ -247,6 +257,7 @@ public class InvoiceService {
             invoice.setInvoiceStatus(InvoiceStatus.PARTIAL);
         }
 
+        eventPublisher.publishEvent(DomainChangeEvent.of("invoice.payment", DomainChangeType.INVOICE));
         return toResponse(invoiceRepository.save(invoice));
     }
 
@@ -257,43 +268,6 @@ public class InvoiceService {
                 .orElseThrow(() -> new InvoiceNotFoundException(id));
     }
 
-    /**
-     * Generates a unique invoice number in the format INV-YYYYMMDD-XXXX.
-     */
-    private String generateInvoiceNumber(LocalDate invoiceDate) {
-        LocalDate date = invoiceDate != null ? invoiceDate : LocalDate.now();
-        String dateStr = date.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = invoiceRepository.countByInvoiceDate(date);
-        String sequence = String.format("%04d", count + 1);
-        String candidate = "INV-" + dateStr + "-" + sequence;
-
-        while (invoiceRepository.existsByInvoiceNumber(candidate)) {
-            count++;
-            sequence = String.format("%04d", count + 1);
-            candidate = "INV-" + dateStr + "-" + sequence;
-        }
-        return candidate;
-    }
-
-    /**
-     * Generates a PAY- number for payments created via the invoice payment
-     * endpoint.
-     */
-    private String generateLinkedPaymentNumber(LocalDate paymentDate) {
-        LocalDate date = paymentDate != null ? paymentDate : LocalDate.now();
-        String dateStr = date.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = paymentRepository.countByPaymentDate(date);
-        String sequence = String.format("%04d", count + 1);
-        String candidate = "PAY-" + dateStr + "-" + sequence;
-
-        while (paymentRepository.existsByPaymentNumber(candidate)) {
-            count++;
-            sequence = String.format("%04d", count + 1);
-            candidate = "PAY-" + dateStr + "-" + sequence;
-        }
-        return candidate;
-    }
-
     private InvoiceResponse toResponse(Invoice i) {
         Customer c = i.getCustomer();
 
@@ -1,13 +1,17 @@
 package com.moeware.ims.service.transaction;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.moeware.ims.entity.User;
-import com.moeware.ims.entity.inventory.InventoryItem;
 import com.moeware.ims.entity.inventory.Product;
 import com.moeware.ims.entity.staff.Warehouse;
 import com.moeware.ims.entity.transaction.InventoryMovement;
@@ -16,10 +20,16 @@ import com.moeware.ims.entity.transaction.PurchaseOrderItem;
 import com.moeware.ims.entity.transaction.SalesOrder;
 import com.moeware.ims.entity.transaction.SalesOrderItem;
 import com.moeware.ims.enums.transaction.MovementType;
-import com.moeware.ims.exception.inventory.inventoryItem.InventoryItemNotFoundException;
 import com.moeware.ims.exception.transaction.stockAdjustment.InsufficientStockException;
-import com.moeware.ims.repository.inventory.InventoryItemRepository;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockChange;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockKey;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockMovement;
 import com.moeware.ims.repository.transaction.InventoryMovementRepository;
+import com.moeware.ims.repository.transaction.SalesOrderAllocationRepository.AllocationRow;
+import com.moeware.ims.service.inventory.CostLayerService;
+import com.moeware.ims.service.inventory.StockLedgerService;
+import com.moeware.ims.service.inventory.StockReservationService;
+import com.moeware.ims.service.transaction.AtpAllocationService.AllocationPlan;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,12 +40,12 @@ import lombok.extern.slf4j.Slf4j;
  * <p>
  * Handles three integration points:
  * <ol>
- * <li><b>Sales Order CONFIRM</b> — checks availability for every line item (no
- * stock deduction yet).</li>
- * <li><b>Sales Order FULFILL</b> — deducts stock and creates SHIPMENT movement
- * records.</li>
- * <li><b>Sales Order CANCEL</b> — releases any previously confirmed reservation
- * if the order was CONFIRMED.</li>
+ * <li><b>Sales Order CONFIRM</b> — allocates every line item to one or more
+ * warehouses and reserves the stock there (no stock deduction yet).</li>
+ * <li><b>Sales Order FULFILL</b> — consumes the reservations, deducts stock from
+ * the warehouses holding them and creates SHIPMENT movement records.</li>
+ * <li><b>Sales Order CANCEL</b> — releases the reservations of a CONFIRMED
+ * order, or returns the stock of a FULFILLED one.</li>
  * <li><b>Purchase Order RECEIVE</b> — increments stock and creates RECEIPT
  * movement records per item received.</li>
  * </ol>
@@ -58,59 +68,58 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OrderInventoryService {
 
-        private final InventoryItemRepository inventoryItemRepository;
+        private final StockLedgerService stockLedgerService;
+        private final StockReservationService stockReservationService;
+        private final CostLayerService costLayerService;
+        private final AtpAllocationService atpAllocationService;
         private final InventoryMovementRepository inventoryMovementRepository;
 
         // ─── SALES ORDER: CONFIRM ────────────────────────────────────────────────
 
         /**
-         * Validates that sufficient stock exists in the order's warehouse for every
-         * line item. Throws {@link InsufficientStockException} for the first item
-         * that fails the check. No stock is modified at this stage.
+         * Reserves stock for every line item in the warehouses chosen by
+         * {@link AtpAllocationService}: the order's own warehouse when it can
+         * supply the whole order, otherwise the nearest warehouse that can, or a
+         * split across several. Reserved units stop counting as available, so a
+         * concurrent confirmation of the same products fails here instead of at
+         * fulfilment. Throws {@link InsufficientStockException} when no allocation
+         * covers the order or a chosen warehouse was drained in the meantime.
          *
          * <p>
          * Called from {@code SalesOrderService.confirmSalesOrder()}.
          *
          * @param salesOrder the order being confirmed (must be in PENDING status)
-         * @throws InsufficientStockException if any product has insufficient stock
+         * @throws InsufficientStockException if any product has insufficient
+         *                                    available stock
          */
         @Transactional
-        public void checkInventoryAvailability(SalesOrder salesOrder) {
-                Warehouse warehouse = salesOrder.getWarehouse();
-                log.info("Checking inventory availability for SO {} in warehouse {}",
-                                salesOrder.getSoNumber(), warehouse.getName());
-
-                for (SalesOrderItem item : salesOrder.getItems()) {
-                        Product product = item.getProduct();
-                        int requested = item.getQuantity();
-
-                        InventoryItem inventory = inventoryItemRepository
-                                        .findByProductAndWarehouse(product, warehouse)
-                                        .orElseThrow(() -> new InventoryItemNotFoundException(product.getId(),
-                                                        warehouse.getId()));
-
-                        if (inventory.getQuantity() < requested) {
-                                throw new InsufficientStockException(product.getId(), warehouse.getId(),
-                                                warehouse.getName(), inventory.getQuantity(), requested);
-                        }
-
-                        log.debug("Stock OK — product: {}, available: {}, required: {}",
-                                        product.getSku(), inventory.getQuantity(), requested);
+        public void reserveInventoryForSalesOrder(SalesOrder salesOrder) {
+                if (!atpAllocationService.isEnabled()) {
+                        log.info("Reserving inventory for SO {} in warehouse {}",
+                                        salesOrder.getSoNumber(), salesOrder.getWarehouse().getName());
+                        stockReservationService.reserve(salesOrder);
+                        return;
                 }
 
-                log.info("Inventory availability check passed for SO {}", salesOrder.getSoNumber());
+                AllocationPlan plan = atpAllocationService.allocate(salesOrder);
+                stockReservationService.reserve(salesOrder, plan.quantities());
+                atpAllocationService.record(salesOrder, plan);
         }
 
         // ─── SALES ORDER: FULFILL ────────────────────────────────────────────────
 
         /**
-         * Deducts stock from the order's warehouse for every line item and creates
-         * an {@link InventoryMovement} record of type {@code SHIPMENT} for each.
+         * Deducts stock for every line item and creates an {@link InventoryMovement}
+         * record of type {@code SHIPMENT} for each warehouse it is drawn from.
          *
          * <p>
-         * Uses {@link InventoryItem#removeStock(Integer)} which performs its own
-         * non-negativity guard, providing a second safety net after the confirmation
-         * check.
+         * The order's reservations are consumed first and each line is drawn from
+         * the reserved totals of the warehouses holding it. Units whose
+         * reservation has expired are allocated again from the stock available
+         * now ({@link AtpAllocationService#reallocate}; the order's own warehouse
+         * when allocation is disabled) and deducted through the same conditional
+         * update in {@link StockLedgerService}, so stock sold to another order in
+         * the meantime makes the fulfilment fail rather than go negative.
          *
          * <p>
          * Called from {@code SalesOrderService.fulfillSalesOrder()}.
@@ -121,39 +130,47 @@ public class OrderInventoryService {
         @Transactional
         public void deductInventoryForSalesOrder(SalesOrder salesOrder, User performedBy) {
                 Warehouse warehouse = salesOrder.getWarehouse();
-                log.info("Deducting inventory for SO {} from warehouse {}",
+                log.info("Deducting inventory for SO {} (warehouse {})",
                                 salesOrder.getSoNumber(), warehouse.getName());
 
+                Map<Long, Map<Long, Integer>> reserved = stockReservationService.consume(salesOrder);
+                Map<Long, Product> products = new HashMap<>();
+                Map<Long, Integer> unreserved = new TreeMap<>();
+
                 for (SalesOrderItem item : salesOrder.getItems()) {
                         Product product = item.getProduct();
-                        int quantity = item.getQuantity();
-
-                        InventoryItem inventory = inventoryItemRepository
-                                        .findByProductAndWarehouse(product, warehouse)
-                                        .orElseThrow(() -> new InventoryItemNotFoundException(product.getId(),
-                                                        warehouse.getId()));
-
-                        // Deduct stock (throws InsufficientStockException internally if quantity < 0)
-                        inventory.removeStock(quantity);
-                        inventoryItemRepository.save(inventory);
-
-                        // Create SHIPMENT movement record
-                        InventoryMovement movement = InventoryMovement.builder()
-                                        .product(product)
-                                        .fromWarehouse(warehouse)
-                                        .toWarehouse(null) // null = outbound to customer
-                                        .quantity(quantity)
-                                        .movementType(MovementType.SHIPMENT)
-                                        .reason("Sales order fulfillment")
-                                        .referenceNumber(salesOrder.getSoNumber())
-                                        .performedBy(performedBy)
-                                        .movementDate(LocalDateTime.now())
-                                        .build();
+                        int remaining = item.getQuantity();
+
+                        for (Map.Entry<Long, Integer> held : reserved.getOrDefault(product.getId(), Map.of())
+                                        .entrySet()) {
+                                int take = Math.min(held.getValue(), remaining);
+                                if (take == 0) {
+                                        continue;
+                                }
+                                ship(salesOrder, product, held.getKey(), take, true, performedBy);
+                                held.setValue(held.getValue() - take);
+                                remaining -= take;
+                        }
 
-                        inventoryMovementRepository.save(movement);
+                        if (remaining > 0) {
+                                products.put(product.getId(), product);
+                                unreserved.merge(product.getId(), remaining, Integer::sum);
+                        }
+                }
 
-                        log.debug("Deducted {} units of {} — remaining stock: {}",
-                                        quantity, product.getSku(), inventory.getQuantity());
+                // Deduct the unreserved rest where it is available now (throws
+                // InsufficientStockException if no warehouse, or not all of them together, holds enough)
+                if (!unreserved.isEmpty()) {
+                        if (!atpAllocationService.isEnabled()) {
+                                unreserved.forEach((productId, quantity) -> ship(salesOrder, products.get(productId),
+                                                warehouse.getId(), quantity, false, performedBy));
+                        } else {
+                                for (AllocationRow row : atpAllocationService.reallocate(salesOrder, unreserved)
+                                                .rows()) {
+                                        ship(salesOrder, products.get(row.productId()), row.warehouseId(),
+                                                        row.quantity(), false, performedBy);
+                                }
+                        }
                 }
 
                 log.info("Inventory deduction complete for SO {}. {} line items processed.",
@@ -163,13 +180,33 @@ public class OrderInventoryService {
         // ─── SALES ORDER: CANCEL ─────────────────────────────────────────────────
 
         /**
-         * Releases previously deducted stock back to the warehouse when a FULFILLED
-         * sales order is cancelled. If the order was only CONFIRMED (stock was checked
-         * but not deducted) no action is taken.
+         * Returns stock reserved for a CONFIRMED sales order to available stock
+         * when the order is cancelled. Nothing was deducted yet, so no movement is
+         * recorded.
+         *
+         * <p>
+         * Called from {@code SalesOrderService.cancelSalesOrder()} when the order was
+         * in CONFIRMED status at the time of cancellation.
+         *
+         * @param salesOrder the order being cancelled
+         */
+        @Transactional
+        public void releaseReservationsForCancelledSalesOrder(SalesOrder salesOrder) {
+                stockReservationService.release(salesOrder);
+        }
+
+        /**
+         * Returns previously deducted stock to the warehouses it was shipped from
+         * when a FULFILLED sales order is cancelled. CONFIRMED orders only hold
+         * reservations; see {@link #releaseReservationsForCancelledSalesOrder}.
          *
          * <p>
-         * Creates an {@link InventoryMovement} of type {@code ADJUSTMENT} per line item
-         * to maintain a full audit trail.
+         * The quantities are taken from the order's SHIPMENT movements, so a split
+         * order puts every unit back where it came from; orders without movements
+         * return their line quantities to the order's warehouse. Creates an
+         * {@link InventoryMovement} of type {@code ADJUSTMENT} per product and
+         * warehouse to maintain a full audit trail. The returned units re-enter the
+         * cost layers at the average cost they were shipped at.
          *
          * <p>
          * Called from {@code SalesOrderService.cancelSalesOrder()} when the order was
@@ -181,51 +218,45 @@ public class OrderInventoryService {
          */
         @Transactional
         public void releaseInventoryForCancelledSalesOrder(SalesOrder salesOrder, User performedBy) {
-                Warehouse warehouse = salesOrder.getWarehouse();
-                log.info("Releasing inventory for cancelled SO {} back to warehouse {}",
-                                salesOrder.getSoNumber(), warehouse.getName());
+                log.info("Releasing inventory for cancelled SO {}", salesOrder.getSoNumber());
+
+                Map<StockKey, Integer> shipped = new LinkedHashMap<>();
+                for (InventoryMovement movement : inventoryMovementRepository
+                                .findByReferenceNumber(salesOrder.getSoNumber())) {
+                        if (movement.getMovementType() == MovementType.SHIPMENT
+                                        && movement.getFromWarehouse() != null) {
+                                shipped.merge(new StockKey(movement.getFromWarehouse().getId(),
+                                                movement.getProduct().getId()), movement.getQuantity(), Integer::sum);
+                        }
+                }
+                if (shipped.isEmpty()) {
+                        Long warehouseId = salesOrder.getWarehouse().getId();
+                        for (SalesOrderItem item : salesOrder.getItems()) {
+                                shipped.merge(new StockKey(warehouseId, item.getProduct().getId()),
+                                                item.getQuantity(), Integer::sum);
+                        }
+                }
 
-                for (SalesOrderItem item : salesOrder.getItems()) {
-                        Product product = item.getProduct();
-                        int quantity = item.getQuantity();
-
-                        // Get or create the inventory record (edge case: product might have been
-                        // removed)
-                        InventoryItem inventory = inventoryItemRepository
-                                        .findByProductAndWarehouse(product, warehouse)
-                                        .orElseGet(() -> {
-                                                log.warn("InventoryItem not found for product {} in warehouse {} during cancel — "
-                                                                +
-                                                                "creating new record.", product.getSku(),
-                                                                warehouse.getName());
-                                                return InventoryItem.builder()
-                                                                .product(product)
-                                                                .warehouse(warehouse)
-                                                                .quantity(0)
-                                                                .build();
-                                        });
-
-                        inventory.addStock(quantity);
-                        inventoryItemRepository.save(inventory);
-
-                        // Audit trail for the reversal
-                        InventoryMovement movement = InventoryMovement.builder()
-                                        .product(product)
-                                        .fromWarehouse(null) // null = inbound (reversal)
-                                        .toWarehouse(warehouse)
+                shipped.forEach((key, quantity) -> {
+                        // Return stock (recreating the inventory record if it was removed meanwhile)
+                        // with an audit trail for the reversal
+                        StockChange change = stockLedgerService.apply(StockMovement.builder()
+                                        .productId(key.productId())
+                                        .toWarehouseId(key.warehouseId())
                                         .quantity(quantity)
                                         .movementType(MovementType.ADJUSTMENT)
                                         .reason("Cancellation of fulfilled sales order")
                                         .referenceNumber(salesOrder.getSoNumber())
-                                        .performedBy(performedBy)
+                                        .performedById(performedBy.getId())
                                         .movementDate(LocalDateTime.now())
-                                        .build();
+                                        .unitCost(costLayerService
+                                                        .getAverageUnitCost(salesOrder.getSoNumber(), key.productId())
+                                                        .orElse(null))
+                                        .build());
 
-                        inventoryMovementRepository.save(movement);
-
-                        log.debug("Returned {} units of {} to warehouse — new stock: {}",
-                                        quantity, product.getSku(), inventory.getQuantity());
-                }
+                        log.debug("Returned {} units of product {} to warehouse {} — new stock: {}",
+                                        quantity, key.productId(), key.warehouseId(), change.toQuantity());
+                });
 
                 log.info("Inventory released for cancelled SO {}.", salesOrder.getSoNumber());
         }
@@ -236,7 +267,9 @@ public class OrderInventoryService {
          * Increments stock and creates a {@link InventoryMovement} of type
          * {@code RECEIPT}
          * for each item that was actually received (i.e.,
-         * {@code quantityReceived > 0}).
+         * {@code quantityReceived > 0}). All lines are written as one batch through
+         * {@link StockLedgerService#applyReceipts}, each costed at its PO line's
+         * unit price.
          *
          * <p>
          * Supports partial receipts — only items with a positive
@@ -257,7 +290,7 @@ public class OrderInventoryService {
                                 purchaseOrder.getPoNumber(), warehouse.getName());
 
                 List<PurchaseOrderItem> items = purchaseOrder.getItems();
-                int processedCount = 0;
+                List<StockMovement> receipts = new ArrayList<>();
 
                 for (PurchaseOrderItem item : items) {
                         int qtyReceived = item.getQuantityReceived();
@@ -266,46 +299,47 @@ public class OrderInventoryService {
                                 continue;
                         }
 
-                        Product product = item.getProduct();
-
-                        // Get existing inventory record or create one if this product is new to the
-                        // warehouse
-                        InventoryItem inventory = inventoryItemRepository
-                                        .findByProductAndWarehouse(product, warehouse)
-                                        .orElseGet(() -> {
-                                                log.info("Creating new InventoryItem for product {} in warehouse {}",
-                                                                product.getSku(), warehouse.getName());
-                                                return InventoryItem.builder()
-                                                                .product(product)
-                                                                .warehouse(warehouse)
-                                                                .quantity(0)
-                                                                .build();
-                                        });
-
-                        inventory.addStock(qtyReceived);
-                        inventoryItemRepository.save(inventory);
-
-                        // Create RECEIPT movement record
-                        InventoryMovement movement = InventoryMovement.builder()
-                                        .product(product)
-                                        .fromWarehouse(null) // null = inbound from supplier
-                                        .toWarehouse(warehouse)
+                        receipts.add(StockMovement.builder()
+                                        .productId(item.getProduct().getId())
+                                        .toWarehouseId(warehouse.getId())
                                         .quantity(qtyReceived)
                                         .movementType(MovementType.RECEIPT)
                                         .reason("Purchase order receipt")
                                         .referenceNumber(purchaseOrder.getPoNumber())
-                                        .performedBy(performedBy)
+                                        .performedById(performedBy.getId())
                                         .movementDate(LocalDateTime.now())
-                                        .build();
-
-                        inventoryMovementRepository.save(movement);
-
-                        log.debug("Received {} units of {} — new stock in {}: {}",
-                                        qtyReceived, product.getSku(), warehouse.getName(), inventory.getQuantity());
-                        processedCount++;
+                                        .unitCost(item.getUnitPrice())
+                                        .build());
                 }
 
+                // Add stock (creating inventory records for products new to the warehouse)
+                // and create the RECEIPT movement records in one batch
+                stockLedgerService.applyReceipts(receipts);
+
                 log.info("PO {} receipt complete. {}/{} line items processed.",
-                                purchaseOrder.getPoNumber(), processedCount, items.size());
+                                purchaseOrder.getPoNumber(), receipts.size(), items.size());
+        }
+
+        // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+        /**
+         * Deducts one SHIPMENT of the order from a warehouse.
+         */
+        private void ship(SalesOrder salesOrder, Product product, Long warehouseId, int quantity,
+                        boolean fromReserved, User performedBy) {
+                StockChange change = stockLedgerService.apply(StockMovement.builder()
+                                .productId(product.getId())
+                                .fromWarehouseId(warehouseId)
+                                .quantity(quantity)
+                                .movementType(MovementType.SHIPMENT)
+                                .reason("Sales order fulfillment")
+                                .referenceNumber(salesOrder.getSoNumber())
+                                .performedById(performedBy.getId())
+                                .movementDate(LocalDateTime.now())
+                                .fromReserved(fromReserved)
+                                .build());
+
+                log.debug("Deducted {} units of {} from warehouse {} — remaining stock: {}",
+                                quantity, product.getSku(), warehouseId, change.fromQuantity());
         }
-}
\ No newline at end of file
+}
@@ -1,9 +1,10 @@
 package com.moeware.ims.service.transaction;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,6 +19,7 @@ import com.moeware.ims.entity.User;
 import com.moeware.ims.entity.staff.Customer;
 import com.moeware.ims.entity.transaction.Payment;
 import com.moeware.ims.entity.transaction.SalesOrder;
+import com.moeware.ims.enums.transaction.DocumentType;
 import com.moeware.ims.enums.transaction.PaymentMethod;
 import com.moeware.ims.enums.transaction.PaymentStatus;
 import com.moeware.ims.exception.staff.customer.CustomerNotFoundException;
@@ -31,6 +33,7 @@ import com.moeware.ims.repository.UserRepository;
 import com.moeware.ims.repository.staff.CustomerRepository;
 import com.moeware.ims.repository.transaction.PaymentRepository;
 import com.moeware.ims.repository.transaction.SalesOrderRepository;
+import com.moeware.ims.service.OutboxService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -44,9 +47,11 @@ import lombok.RequiredArgsConstructor;
 public class PaymentService {
 
     private final PaymentRepository paymentRepository;
+    private final DocumentNumberService documentNumberService;
     private final SalesOrderRepository salesOrderRepository;
     private final CustomerRepository customerRepository;
     private final UserRepository userRepository;
+    private final OutboxService outboxService;
 
     // ─── READ ────────────────────────────────────────────────────────────────
 
@@ -104,7 +109,8 @@ public class PaymentService {
         User processedBy = userRepository.findById(processedByUserId)
                 .orElseThrow(() -> new UserNotFoundException(processedByUserId));
 
-        String paymentNumber = generatePaymentNumber(request.getPaymentDate());
+        String paymentNumber = documentNumberService.next(DocumentType.PAYMENT,
+                request.getPaymentDate() != null ? request.getPaymentDate() : LocalDate.now());
 
         Payment payment = Payment.builder()
                 .paymentNumber(paymentNumber)
@@ -120,7 +126,9 @@ public class PaymentService {
                 .processedBy(processedBy)
                 .build();
 
-        return toResponse(paymentRepository.save(payment));
+        Payment saved = paymentRepository.save(payment);
+        publishOutboxEvent(saved, "payment.recorded");
+        return toResponse(saved);
     }
 
     /**
@@ -139,7 +147,9 @@ public class PaymentService {
             payment.setNotes(request.getNotes());
         }
 
-        return toResponse(paymentRepository.save(payment));
+        Payment saved = paymentRepository.save(payment);
+        publishOutboxEvent(saved, "payment.status-changed");
+        return toResponse(saved);
     }
 
     /**
@@ -165,7 +175,9 @@ public class PaymentService {
                         + "REFUND: " + request.getReason()
                         + (request.getNotes() != null ? " | " + request.getNotes() : ""));
 
-        return toResponse(paymentRepository.save(payment));
+        Payment saved = paymentRepository.save(payment);
+        publishOutboxEvent(saved, "payment.refunded");
+        return toResponse(saved);
     }
 
     // ─── HELPERS ─────────────────────────────────────────────────────────────
@@ -175,23 +187,15 @@ public class PaymentService {
                 .orElseThrow(() -> new PaymentNotFoundException(id));
     }
 
-    /**
-     * Generates a unique payment number in the format PAY-YYYYMMDD-XXXX.
-     * The sequence resets daily.
-     */
-    private String generatePaymentNumber(LocalDate paymentDate) {
-        LocalDate date = paymentDate != null ? paymentDate : LocalDate.now();
-        String dateStr = date.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = paymentRepository.countByPaymentDate(date);
-        String sequence = String.format("%04d", count + 1);
-        String candidate = "PAY-" + dateStr + "-" + sequence;
-
-        while (paymentRepository.existsByPaymentNumber(candidate)) {
-            count++;
-            sequence = String.format("%04d", count + 1);
-            candidate = "PAY-" + dateStr + "-" + sequence;
-        }
-        return candidate;
+    private void publishOutboxEvent(Payment payment, String eventType) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("paymentNumber", payment.getPaymentNumber());
+        payload.put("status", payment.getPaymentStatus().name());
+        payload.put("customerId", payment.getCustomer().getId());
+        payload.put("salesOrderId", payment.getSalesOrder() != null ? payment.getSalesOrder().getId() : null);
+        payload.put("amount", payment.getAmount());
+        payload.put("currency", payment.getCurrency());
+        outboxService.publish(OutboxService.PAYMENT, payment.getId(), eventType, payload);
     }
 
     private PaymentResponse toResponse(Payment p) {
@@ -2,10 +2,11 @@ package com.moeware.ims.service.transaction;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -24,7 +25,10 @@ import com.moeware.ims.entity.inventory.Supplier;
 import com.moeware.ims.entity.staff.Warehouse;
 import com.moeware.ims.entity.transaction.PurchaseOrder;
 import com.moeware.ims.entity.transaction.PurchaseOrderItem;
+import com.moeware.ims.enums.transaction.DocumentType;
 import com.moeware.ims.enums.transaction.PurchaseOrderStatus;
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
 import com.moeware.ims.exception.inventory.product.ProductNotFoundException;
 import com.moeware.ims.exception.inventory.supplier.SupplierNotFoundException;
 import com.moeware.ims.exception.staff.warehouse.WarehouseNotFoundException;
@@ -37,6 +41,8 @@ import com.moeware.ims.exception.transaction.purchaseOrder.PurchaseOrderReceiptE
 import com.moeware.ims.exception.user.UserNotFoundException;
 import com.moeware.ims.repository.transaction.PurchaseOrderItemRepository;
 import com.moeware.ims.repository.transaction.PurchaseOrderRepository;
+import com.moeware.ims.service.ActivityEventService;
+import com.moeware.ims.service.OutboxService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -56,6 +62,10 @@ public class PurchaseOrderService {
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final PurchaseOrderItemRepository purchaseOrderItemRepository;
     private final OrderInventoryService orderInventoryService;
+    private final DocumentNumberService documentNumberService;
+    private final ActivityEventService activityEventService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
 
     // These repositories are assumed to exist from previous sprints
     // Adjust package paths to match your project structure
@@ -137,7 +147,7 @@ public class PurchaseOrderService {
                 .orElseThrow(() -> new UserNotFoundException(createdByUserId));
 
         PurchaseOrder po = PurchaseOrder.builder()
-                .poNumber(generatePoNumber(request.getOrderDate()))
+                .poNumber(documentNumberService.next(DocumentType.PURCHASE_ORDER, request.getOrderDate()))
                 .supplier(supplier)
                 .warehouse(warehouse)
                 .createdByUser(createdByUser)
@@ -166,8 +176,12 @@ public class PurchaseOrderService {
 
         po.calculateTotals();
         PurchaseOrder saved = purchaseOrderRepository.save(po);
+        activityEventService.purchaseOrderUpdated(saved);
 
         log.info("Purchase order created: {}", saved.getPoNumber());
+        publishOutboxEvent(saved, "purchase-order.created");
+        eventPublisher.publishEvent(DomainChangeEvent.of("purchase-order.create",
+                DomainChangeType.PURCHASE_ORDER));
         return toResponse(saved);
     }
 
@@ -218,6 +232,9 @@ public class PurchaseOrderService {
         PurchaseOrder updated = purchaseOrderRepository.save(po);
 
         log.info("Purchase order updated: {}", updated.getPoNumber());
+        publishOutboxEvent(updated, "purchase-order.updated");
+        eventPublisher.publishEvent(DomainChangeEvent.of("purchase-order.update",
+                DomainChangeType.PURCHASE_ORDER));
         return toResponse(updated);
     }
 
@@ -240,8 +257,12 @@ public class PurchaseOrderService {
 
         po.setStatus(PurchaseOrderStatus.SUBMITTED);
         PurchaseOrder updated = purchaseOrderRepository.save(po);
+        activityEventService.purchaseOrderUpdated(updated);
 
         log.info("Purchase order submitted: {}", updated.getPoNumber());
+        publishOutboxEvent(updated, "purchase-order.submitted");
+        eventPublisher.publishEvent(DomainChangeEvent.of("purchase-order.submit",
+                DomainChangeType.PURCHASE_ORDER));
         return toResponse(updated);
     }
 
@@ -260,8 +281,12 @@ public class PurchaseOrderService {
 
         po.setStatus(PurchaseOrderStatus.APPROVED);
         PurchaseOrder updated = purchaseOrderRepository.save(po);
+        activityEventService.purchaseOrderUpdated(updated);
 
         log.info("Purchase order approved: {}", updated.getPoNumber());
+        publishOutboxEvent(updated, "purchase-order.approved");
+        eventPublisher.publishEvent(DomainChangeEvent.of("purchase-order.approve",
+                DomainChangeType.PURCHASE_ORDER));
         return toResponse(updated);
     }
 
@@ -286,7 +311,11 @@ public class PurchaseOrderService {
         po.setNotes(po.getNotes() != null ? po.getNotes() + "\n" + rejectionNote : rejectionNote);
 
         PurchaseOrder updated = purchaseOrderRepository.save(po);
+        activityEventService.purchaseOrderUpdated(updated);
         log.info("Purchase order rejected and returned to DRAFT: {}", updated.getPoNumber());
+        publishOutboxEvent(updated, "purchase-order.rejected");
+        eventPublisher.publishEvent(DomainChangeEvent.of("purchase-order.reject",
+                DomainChangeType.PURCHASE_ORDER));
         return toResponse(updated);
     }
 
@@ -341,7 +370,12 @@ public class PurchaseOrderService {
         orderInventoryService.receiveInventoryForPurchaseOrder(order, performedBy);
 
         order.setStatus(PurchaseOrderStatus.RECEIVED);
-        return toResponse(purchaseOrderRepository.save(order));
+        PurchaseOrder received = purchaseOrderRepository.save(order);
+        activityEventService.purchaseOrderUpdated(received);
+        publishOutboxEvent(received, "purchase-order.received");
+        eventPublisher.publishEvent(DomainChangeEvent.of("purchase-order.receive",
+                DomainChangeType.PURCHASE_ORDER, DomainChangeType.INVENTORY));
+        return toResponse(received);
     }
 
     /**
@@ -365,7 +399,11 @@ public class PurchaseOrderService {
         po.setNotes(po.getNotes() != null ? po.getNotes() + "\n" + cancellationNote : cancellationNote);
 
         PurchaseOrder updated = purchaseOrderRepository.save(po);
+        activityEventService.purchaseOrderUpdated(updated);
         log.info("Purchase order cancelled: {}", updated.getPoNumber());
+        publishOutboxEvent(updated, "purchase-order.cancelled");
+        eventPublisher.publishEvent(DomainChangeEvent.of("purchase-order.cancel",
+                DomainChangeType.PURCHASE_ORDER));
         return toResponse(updated);
     }
 
@@ -384,6 +422,9 @@ public class PurchaseOrderService {
 
         purchaseOrderRepository.delete(po);
         log.info("Purchase order deleted: {}", po.getPoNumber());
+        publishOutboxEvent(po, "purchase-order.deleted");
+        eventPublisher.publishEvent(DomainChangeEvent.of("purchase-order.delete",
+                DomainChangeType.PURCHASE_ORDER));
     }
 
     // ==================== PRIVATE HELPERS ====================
@@ -393,13 +434,13 @@ public class PurchaseOrderService {
                 .orElseThrow(() -> new PurchaseOrderNotFoundException(id));
     }
 
-    /**
-     * Generate a unique PO number in format PO-YYYYMMDD-SEQUENCE
-     */
-    private String generatePoNumber(LocalDate orderDate) {
-        String dateStr = orderDate.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = purchaseOrderRepository.countByOrderDate(orderDate) + 1;
-        return String.format("PO-%s-%04d", dateStr, count);
+    private void publishOutboxEvent(PurchaseOrder po, String eventType) {
+        outboxService.publish(OutboxService.PURCHASE_ORDER, po.getId(), eventType, Map.of(
+                "poNumber", po.getPoNumber(),
+                "status", po.getStatus().name(),
+                "supplierId", po.getSupplier().getId(),
+                "warehouseId", po.getWarehouse().getId(),
+                "totalAmount", po.getTotalAmount()));
     }
 
     // ==================== MAPPERS ====================
@@ -0,0 +1,204 @@
+package com.moeware.ims.service.transaction;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.moeware.ims.enums.transaction.SalesOrderImportFormat;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Reads the rows of a bulk sales-order import one at a time, so the input is
+ * never held in memory as a whole.
+ *
+ * <p>
+ * CSV input starts with a header row naming the fields, then one row per
+ * record (RFC 4180: comma-separated, fields optionally enclosed in double
+ * quotes, {@code ""} for a quote inside a quoted field, quoted fields may span
+ * lines). NDJSON input is one JSON object per line, its properties named like
+ * the CSV header. In both, field names are matched case-insensitively, values
+ * are trimmed, and blank rows are skipped.
+ */
+abstract class SalesOrderImportReader implements Closeable {
+
+    /**
+     * One input row: its position (from 1, CSV header and blank rows
+     * excluded) and its non-blank values keyed by lower-case field name, or
+     * the reason it could not be read.
+     */
+    record RawRow(int rowNumber, Map<String, String> fields, String error) {
+    }
+
+    protected final BufferedReader in;
+    protected int rowNumber;
+
+    private SalesOrderImportReader(Path file) throws IOException {
+        this.in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    }
+
+    static SalesOrderImportReader open(Path file, SalesOrderImportFormat format, JsonMapper jsonMapper)
+            throws IOException {
+        return format == SalesOrderImportFormat.CSV ? new Csv(file) : new Ndjson(file, jsonMapper);
+    }
+
+    /**
+     * Returns the next row, or null at the end of the input.
+     */
+    abstract RawRow next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ─── CSV ─────────────────────────────────────────────────────────────────
+
+    private static final class Csv extends SalesOrderImportReader {
+
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> values = new ArrayList<>();
+        private String[] header;
+        private boolean unterminated;
+
+        Csv(Path file) throws IOException {
+            super(file);
+        }
+
+        @Override
+        RawRow next() throws IOException {
+            if (header == null) {
+                if (!readRecord()) {
+                    return null;
+                }
+                header = new String[values.size()];
+                for (int i = 0; i < header.length; i++) {
+                    // Spreadsheet exports often start with a byte order mark
+                    String name = i == 0 ? values.get(i).replace("\uFEFF", "") : values.get(i);
+                    header[i] = name.trim().toLowerCase(Locale.ROOT);
+                }
+            }
+            do {
+                if (!readRecord()) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isBlank());
+
+            rowNumber++;
+            if (unterminated) {
+                return new RawRow(rowNumber, Map.of(), "Unterminated quoted field");
+            }
+            if (values.size() > header.length) {
+                return new RawRow(rowNumber, Map.of(),
+                        "Row has " + values.size() + " fields but the header names " + header.length);
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                String value = values.get(i).trim();
+                if (!value.isEmpty()) {
+                    fields.put(header[i], value);
+                }
+            }
+            return new RawRow(rowNumber, fields, null);
+        }
+
+        /**
+         * Reads one record into {@link #values}.
+         *
+         * @return false at the end of the input
+         */
+        private boolean readRecord() throws IOException {
+            values.clear();
+            field.setLength(0);
+            unterminated = false;
+            int c = in.read();
+            if (c == -1) {
+                return false;
+            }
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        unterminated = true;
+                        values.add(field.toString());
+                        return true;
+                    }
+                    if (c == '"') {
+                        c = in.read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == -1 || c == '\n') {
+                    values.add(field.toString());
+                    return true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+    }
+
+    // ─── NDJSON ──────────────────────────────────────────────────────────────
+
+    private static final class Ndjson extends SalesOrderImportReader {
+
+        private final JsonMapper jsonMapper;
+
+        Ndjson(Path file, JsonMapper jsonMapper) throws IOException {
+            super(file);
+            this.jsonMapper = jsonMapper;
+        }
+
+        @Override
+        RawRow next() throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            rowNumber++;
+            JsonNode node;
+            try {
+                node = jsonMapper.readTree(line);
+            } catch (JacksonException ex) {
+                return new RawRow(rowNumber, Map.of(), "Malformed JSON: " + ex.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return new RawRow(rowNumber, Map.of(), "Expected a JSON object");
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (Map.Entry<String, JsonNode> property : node.properties()) {
+                JsonNode value = property.getValue();
+                if (value.isValueNode() && !value.isNull()) {
+                    String text = value.asString().trim();
+                    if (!text.isEmpty()) {
+                        fields.put(property.getKey().toLowerCase(Locale.ROOT), text);
+                    }
+                }
+            }
+            return new RawRow(rowNumber, fields, null);
+        }
+    }
+}
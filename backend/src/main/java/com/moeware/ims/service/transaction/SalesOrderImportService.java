@@ -0,0 +1,763 @@
+package com.moeware.ims.service.transaction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moeware.ims.dto.transaction.salesOrder.SalesOrderImportResponse;
+import com.moeware.ims.dto.transaction.salesOrder.SalesOrderImportResultsResponse;
+import com.moeware.ims.entity.User;
+import com.moeware.ims.enums.transaction.DocumentType;
+import com.moeware.ims.enums.transaction.SalesOrderImportFormat;
+import com.moeware.ims.enums.transaction.SalesOrderImportRowStatus;
+import com.moeware.ims.enums.transaction.SalesOrderImportStatus;
+import com.moeware.ims.enums.transaction.SalesOrderStatus;
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
+import com.moeware.ims.exception.transaction.salesOrder.SalesOrderImportNotFoundException;
+import com.moeware.ims.exception.transaction.salesOrder.SalesOrderImportRejectedException;
+import com.moeware.ims.exception.transaction.salesOrder.SalesOrderImportTooLargeException;
+import com.moeware.ims.exception.user.UserNotFoundException;
+import com.moeware.ims.repository.UserRepository;
+import com.moeware.ims.repository.transaction.SalesOrderImportRepository;
+import com.moeware.ims.repository.transaction.SalesOrderImportRepository.ImportJob;
+import com.moeware.ims.repository.transaction.SalesOrderImportRepository.ImportedLine;
+import com.moeware.ims.repository.transaction.SalesOrderImportRepository.ImportedOrder;
+import com.moeware.ims.repository.transaction.SalesOrderImportRepository.RowResult;
+import com.moeware.ims.service.ActivityEventService;
+import com.moeware.ims.service.OutboxService;
+import com.moeware.ims.service.transaction.SalesOrderImportReader.RawRow;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Bulk import of sales orders from CSV or NDJSON.
+ *
+ * <p>
+ * The request body is streamed to a temporary file and the import runs on the
+ * {@code salesOrderImportExecutor} pool; the caller gets the job id back at
+ * once and polls {@link #getImport} / {@link #getResults} for progress and
+ * the per-row report.
+ *
+ * <p>
+ * Every input row is one order line. Rows sharing an {@code orderRef} form
+ * one order and must be contiguous; the order's header fields (customer,
+ * warehouse, shipping address, dates, amounts) are read from its first row.
+ * Orders are all-or-nothing: one invalid row rejects every row of its order,
+ * and an {@code orderRef} seen earlier in the input is rejected.
+ *
+ * <p>
+ * Rows are imported in chunks of about {@code app.sales-orders.import.chunk-size}
+ * lines, each in its own transaction. A chunk resolves the customers,
+ * warehouses and products it has not seen yet in one query per table, writes
+ * headers, lines and row results with JDBC batches, and updates the sales
+ * rollup and activity stream and publishes the {@code sales-order.created}
+ * outbox events with one statement each. Orders are created
+ * PENDING, with the same validation rules as
+ * {@link SalesOrderService#createSalesOrder}.
+ */
+@Service
+@Slf4j
+public class SalesOrderImportService {
+
+    private static final int MAX_RESULTS_LIMIT = 1000;
+    private static final int MAX_ORDER_REF_LENGTH = 100;
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("9999999999.99");
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final Pattern PHONE = Pattern.compile("^\\+[1-9]\\d{1,14}$");
+
+    // Field names, lower-cased; the API documents them in camelCase
+    private static final String ORDER_REF = "orderref";
+    private static final String CUSTOMER_ID = "customerid";
+    private static final String WAREHOUSE_ID = "warehouseid";
+    private static final String CUSTOMER_NAME = "customername";
+    private static final String CUSTOMER_EMAIL = "customeremail";
+    private static final String CUSTOMER_PHONE = "customerphone";
+    private static final String SHIPPING_ADDRESS = "shippingaddress";
+    private static final String CITY = "city";
+    private static final String POSTAL_CODE = "postalcode";
+    private static final String ORDER_DATE = "orderdate";
+    private static final String TAX_AMOUNT = "taxamount";
+    private static final String SHIPPING_COST = "shippingcost";
+    private static final String NOTES = "notes";
+    private static final String PRODUCT_ID = "productid";
+    private static final String PRODUCT_SKU = "productsku";
+    private static final String QUANTITY = "quantity";
+    private static final String UNIT_PRICE = "unitprice";
+
+    private final SalesOrderImportRepository importRepository;
+    private final DocumentNumberService documentNumberService;
+    private final SalesRollupService salesRollupService;
+    private final ActivityEventService activityEventService;
+    private final OutboxService outboxService;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JsonMapper jsonMapper;
+    private final TaskExecutor executor;
+    private final TransactionTemplate writeTx;
+    private final MeterRegistry meterRegistry;
+    private final Timer chunkTimer;
+    private final int chunkSize;
+    private final long maxBytes;
+
+    public SalesOrderImportService(
+            SalesOrderImportRepository importRepository,
+            DocumentNumberService documentNumberService,
+            SalesRollupService salesRollupService,
+            ActivityEventService activityEventService,
+            OutboxService outboxService,
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            JsonMapper jsonMapper,
+            @Qualifier("salesOrderImportExecutor") TaskExecutor executor,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.sales-orders.import.chunk-size:1000}") int chunkSize,
+            @Value("${app.sales-orders.import.max-bytes:268435456}") long maxBytes) {
+        this.importRepository = importRepository;
+        this.documentNumberService = documentNumberService;
+        this.salesRollupService = salesRollupService;
+        this.activityEventService = activityEventService;
+        this.outboxService = outboxService;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.jsonMapper = jsonMapper;
+        this.executor = executor;
+        // Read-write: job rows are read back right after they are written
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.chunkTimer = Timer.builder("sales_order.import.chunk")
+                .description("Time to validate and write one chunk of a sales order import")
+                .register(meterRegistry);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxBytes = maxBytes;
+    }
+
+    // ─── SUBMIT / READ ───────────────────────────────────────────────────────
+
+    /**
+     * Stores the body and queues the import.
+     *
+     * @throws UserNotFoundException              if the importing user does not
+     *                                            exist
+     * @throws SalesOrderImportTooLargeException  if the body exceeds
+     *                                            {@code app.sales-orders.import.max-bytes}
+     * @throws SalesOrderImportRejectedException if the import queue is full
+     */
+    public SalesOrderImportResponse submit(InputStream body, SalesOrderImportFormat format, Long createdByUserId) {
+        User user = userRepository.findById(createdByUserId)
+                .orElseThrow(() -> new UserNotFoundException(createdByUserId));
+
+        Path file = spool(body, format);
+        Long importId = writeTx.execute(status -> importRepository.create(format, createdByUserId));
+        try {
+            executor.execute(() -> run(importId, file, format, user.getId(), user.getUsername()));
+        } catch (TaskRejectedException ex) {
+            deleteQuietly(file);
+            writeTx.executeWithoutResult(status -> importRepository.markFinished(importId,
+                    SalesOrderImportStatus.FAILED, "Rejected: too many imports queued"));
+            throw new SalesOrderImportRejectedException();
+        }
+
+        log.info("Sales order import {} queued ({}) by user {}", importId, format, user.getUsername());
+        return writeTx.execute(status -> importRepository.findById(importId))
+                .map(this::toResponse)
+                .orElseThrow(() -> new SalesOrderImportNotFoundException(importId));
+    }
+
+    @Transactional(readOnly = true)
+    public SalesOrderImportResponse getImport(Long importId) {
+        return importRepository.findById(importId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new SalesOrderImportNotFoundException(importId));
+    }
+
+    /**
+     * One page of row results in input order, after row {@code afterRow}.
+     */
+    @Transactional(readOnly = true)
+    public SalesOrderImportResultsResponse getResults(Long importId, int afterRow,
+            SalesOrderImportRowStatus status, int limit) {
+        if (importRepository.findById(importId).isEmpty()) {
+            throw new SalesOrderImportNotFoundException(importId);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_RESULTS_LIMIT));
+        List<RowResult> rows = importRepository.findResults(importId, Math.max(0, afterRow), status, pageSize);
+
+        return SalesOrderImportResultsResponse.builder()
+                .importId(importId)
+                .rows(rows.stream()
+                        .map(r -> SalesOrderImportResultsResponse.Row.builder()
+                                .rowNumber(r.rowNumber())
+                                .status(r.status())
+                                .orderRef(r.orderRef())
+                                .salesOrderId(r.salesOrderId())
+                                .soNumber(r.soNumber())
+                                .message(r.message())
+                                .build())
+                        .collect(Collectors.toList()))
+                .nextAfterRow(rows.size() == pageSize ? rows.get(rows.size() - 1).rowNumber() : null)
+                .build();
+    }
+
+    // ─── IMPORT ──────────────────────────────────────────────────────────────
+
+    private void run(Long importId, Path file, SalesOrderImportFormat format, Long userId, String username) {
+        SalesOrderImportStatus outcome = SalesOrderImportStatus.COMPLETED;
+        String error = null;
+        try (SalesOrderImportReader reader = SalesOrderImportReader.open(file, format, jsonMapper)) {
+            writeTx.executeWithoutResult(status -> importRepository.markRunning(importId));
+            new ImportRun(importId, userId, username).importAll(reader);
+        } catch (IOException | RuntimeException ex) {
+            log.error("Sales order import {} failed", importId, ex);
+            outcome = SalesOrderImportStatus.FAILED;
+            error = ex.getMessage();
+        } finally {
+            deleteQuietly(file);
+        }
+
+        SalesOrderImportStatus finalStatus = outcome;
+        String finalError = error;
+        try {
+            writeTx.executeWithoutResult(status -> importRepository.markFinished(importId, finalStatus, finalError));
+        } catch (RuntimeException ex) {
+            log.error("Recording the end of sales order import {} failed", importId, ex);
+        }
+        log.info("Sales order import {} {}", importId, outcome);
+    }
+
+    /**
+     * One order as read from the input: its rows and, once validated, why it
+     * cannot be imported.
+     */
+    private static final class PendingOrder {
+
+        final String orderRef;
+        final List<ImportLine> lines = new ArrayList<>();
+        ImportedOrder header;
+        String error;
+
+        PendingOrder(String orderRef) {
+            this.orderRef = orderRef;
+        }
+
+        boolean valid() {
+            return error == null && lines.stream().allMatch(line -> line.error == null);
+        }
+    }
+
+    /**
+     * One order line as read from the input.
+     */
+    private static final class ImportLine {
+
+        final int rowNumber;
+        final Map<String, String> fields;
+        Long productId;
+        String productSku;
+        int quantity;
+        BigDecimal unitPrice;
+        String error;
+
+        ImportLine(int rowNumber, Map<String, String> fields, String error) {
+            this.rowNumber = rowNumber;
+            this.fields = fields;
+            this.error = error;
+        }
+    }
+
+    /**
+     * State of one running import: the order being read, the chunk being
+     * filled, and the references already resolved by earlier chunks.
+     */
+    private final class ImportRun {
+
+        private final Long importId;
+        private final Long userId;
+        private final String username;
+
+        private final Set<String> seenOrderRefs = new HashSet<>();
+        private final Map<Long, Boolean> customers = new HashMap<>();
+        private final Map<Long, Boolean> warehouses = new HashMap<>();
+        private final Map<Long, Boolean> products = new HashMap<>();
+        /** Product id by SKU; a null value marks an unknown SKU. */
+        private final Map<String, Long> skus = new HashMap<>();
+
+        private PendingOrder current;
+        private List<PendingOrder> chunk = new ArrayList<>();
+        private int chunkLines;
+
+        ImportRun(Long importId, Long userId, String username) {
+            this.importId = importId;
+            this.userId = userId;
+            this.username = username;
+        }
+
+        void importAll(SalesOrderImportReader reader) throws IOException {
+            RawRow row;
+            while ((row = reader.next()) != null) {
+                ImportLine line = parseLine(row);
+                String orderRef = row.fields().get(ORDER_REF);
+                if (current != null && (orderRef == null || !orderRef.equals(current.orderRef))) {
+                    finishOrder();
+                }
+                if (current == null) {
+                    current = new PendingOrder(orderRef);
+                }
+                current.lines.add(line);
+            }
+            finishOrder();
+            flush();
+        }
+
+        private void finishOrder() {
+            if (current == null) {
+                return;
+            }
+            PendingOrder order = current;
+            current = null;
+            if (order.orderRef == null) {
+                order.error = "Order reference is required";
+            } else if (order.orderRef.length() > MAX_ORDER_REF_LENGTH) {
+                order.error = "Order reference must be at most " + MAX_ORDER_REF_LENGTH + " characters";
+            } else if (!seenOrderRefs.add(order.orderRef)) {
+                order.error = "Rows of order " + order.orderRef + " must be contiguous; this group was not imported";
+            } else {
+                try {
+                    order.header = parseHeader(order.lines.get(0).fields);
+                } catch (InvalidFieldException ex) {
+                    order.error = ex.getMessage();
+                }
+            }
+            chunk.add(order);
+            chunkLines += order.lines.size();
+            if (chunkLines >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<PendingOrder> orders = chunk;
+            chunk = new ArrayList<>();
+            chunkLines = 0;
+            try {
+                chunkTimer.record(() -> writeTx.executeWithoutResult(status -> importChunk(orders)));
+            } catch (RuntimeException ex) {
+                log.warn("Chunk of sales order import {} failed; rejecting its rows", importId, ex);
+                String message = "Not imported: " + Objects.toString(ex.getMessage(), ex.getClass().getSimpleName());
+                writeTx.executeWithoutResult(status -> {
+                    List<RowResult> results = new ArrayList<>();
+                    for (PendingOrder order : orders) {
+                        for (ImportLine line : order.lines) {
+                            results.add(new RowResult(line.rowNumber, SalesOrderImportRowStatus.REJECTED,
+                                    order.orderRef, null, null, message));
+                        }
+                    }
+                    importRepository.saveResults(importId, results);
+                    importRepository.addProgress(importId, results.size(), 0, results.size(), 0);
+                    countRows(0, results.size());
+                });
+            }
+        }
+
+        /**
+         * Validates the chunk's references and writes its valid orders and
+         * every row result, inside one transaction.
+         */
+        private void importChunk(List<PendingOrder> orders) {
+            resolveReferences(orders);
+
+            List<PendingOrder> accepted = new ArrayList<>();
+            for (PendingOrder order : orders) {
+                if (order.valid()) {
+                    checkReferences(order);
+                }
+                if (order.valid()) {
+                    accepted.add(order);
+                }
+            }
+
+            List<Long> ids = importRepository.nextSalesOrderIds(accepted.size());
+            List<ImportedOrder> headers = new ArrayList<>(accepted.size());
+            List<ImportedLine> lines = new ArrayList<>();
+            Map<PendingOrder, ImportedOrder> written = new HashMap<>();
+            SortedMap<Long, Map<String, Object>> created = new TreeMap<>();
+            for (int i = 0; i < accepted.size(); i++) {
+                PendingOrder order = accepted.get(i);
+                Long id = ids.get(i);
+                BigDecimal subtotal = BigDecimal.ZERO;
+                for (ImportLine line : order.lines) {
+                    BigDecimal lineTotal = line.unitPrice.multiply(new BigDecimal(line.quantity));
+                    lines.add(new ImportedLine(id, line.productId, line.quantity, line.unitPrice, lineTotal));
+                    subtotal = subtotal.add(lineTotal);
+                }
+                ImportedOrder h = order.header;
+                ImportedOrder header = new ImportedOrder(id,
+                        documentNumberService.next(DocumentType.SALES_ORDER, h.orderDate()),
+                        h.customerId(), h.customerName(), h.customerEmail(), h.customerPhone(),
+                        h.shippingAddress(), h.city(), h.postalCode(), h.warehouseId(), userId, h.orderDate(),
+                        subtotal, h.taxAmount(), h.shippingCost(),
+                        subtotal.add(h.taxAmount()).add(h.shippingCost()), h.notes());
+                headers.add(header);
+                written.put(order, header);
+                // Same payload as SalesOrderService publishes for a single order
+                created.put(id, Map.of(
+                        "soNumber", header.soNumber(),
+                        "status", SalesOrderStatus.PENDING.name(),
+                        "customerId", header.customerId(),
+                        "warehouseId", header.warehouseId(),
+                        "totalAmount", header.totalAmount()));
+            }
+
+            importRepository.insertOrders(headers, username);
+            importRepository.insertLines(lines, username);
+            salesRollupService.recordAll(ids);
+            activityEventService.salesOrdersCreated(ids);
+            outboxService.publishAll(OutboxService.SALES_ORDER, "sales-order.created", created);
+
+            List<RowResult> results = new ArrayList<>();
+            int acceptedRows = 0;
+            for (PendingOrder order : orders) {
+                ImportedOrder header = written.get(order);
+                for (ImportLine line : order.lines) {
+                    if (header != null) {
+                        results.add(new RowResult(line.rowNumber, SalesOrderImportRowStatus.ACCEPTED,
+                                order.orderRef, header.id(), header.soNumber(), null));
+                        acceptedRows++;
+                    } else {
+                        results.add(new RowResult(line.rowNumber, SalesOrderImportRowStatus.REJECTED,
+                                order.orderRef, null, null, rejection(order, line)));
+                    }
+                }
+            }
+            importRepository.saveResults(importId, results);
+            importRepository.addProgress(importId, results.size(), acceptedRows, results.size() - acceptedRows,
+                    headers.size());
+            countRows(acceptedRows, results.size() - acceptedRows);
+
+            if (!headers.isEmpty()) {
+                eventPublisher.publishEvent(DomainChangeEvent.of("sales-order.import", DomainChangeType.SALES_ORDER));
+            }
+            log.debug("Sales order import {}: chunk of {} rows, {} orders created",
+                    importId, results.size(), headers.size());
+        }
+
+        /**
+         * Looks up the customers, warehouses and products of the chunk that
+         * earlier chunks have not resolved, one query per table.
+         */
+        private void resolveReferences(List<PendingOrder> orders) {
+            Set<Long> customerIds = new HashSet<>();
+            Set<Long> warehouseIds = new HashSet<>();
+            Set<Long> productIds = new HashSet<>();
+            Set<String> productSkus = new HashSet<>();
+            for (PendingOrder order : orders) {
+                if (!order.valid()) {
+                    continue;
+                }
+                addIfUnknown(customerIds, customers, order.header.customerId());
+                addIfUnknown(warehouseIds, warehouses, order.header.warehouseId());
+                for (ImportLine line : order.lines) {
+                    if (line.productId != null) {
+                        addIfUnknown(productIds, products, line.productId);
+                    } else if (!skus.containsKey(line.productSku)) {
+                        productSkus.add(line.productSku);
+                    }
+                }
+            }
+            remember(customers, customerIds, importRepository.findExistingCustomerIds(customerIds));
+            remember(warehouses, warehouseIds, importRepository.findExistingWarehouseIds(warehouseIds));
+            remember(products, productIds, importRepository.findExistingProductIds(productIds));
+            Map<String, Long> found = importRepository.findProductIdsBySku(productSkus);
+            productSkus.forEach(sku -> skus.put(sku, found.get(sku)));
+        }
+
+        private void checkReferences(PendingOrder order) {
+            if (!customers.get(order.header.customerId())) {
+                order.error = "Customer not found with id: " + order.header.customerId();
+                return;
+            }
+            if (!warehouses.get(order.header.warehouseId())) {
+                order.error = "Warehouse not found with id: " + order.header.warehouseId();
+                return;
+            }
+            Set<Long> orderProducts = new HashSet<>();
+            BigDecimal subtotal = BigDecimal.ZERO;
+            for (ImportLine line : order.lines) {
+                if (line.productId == null) {
+                    line.productId = skus.get(line.productSku);
+                    if (line.productId == null) {
+                        line.error = "Product not found with SKU: " + line.productSku;
+                        continue;
+                    }
+                } else if (!products.get(line.productId)) {
+                    line.error = "Product not found with id: " + line.productId;
+                    continue;
+                }
+                if (!orderProducts.add(line.productId)) {
+                    line.error = "Duplicate products are not allowed in a single order";
+                    continue;
+                }
+                subtotal = subtotal.add(line.unitPrice.multiply(new BigDecimal(line.quantity)));
+            }
+            BigDecimal total = subtotal.add(order.header.taxAmount()).add(order.header.shippingCost());
+            if (order.valid() && total.compareTo(MAX_AMOUNT) > 0) {
+                order.error = "Order total exceeds " + MAX_AMOUNT;
+            }
+        }
+
+        private void countRows(int accepted, int rejected) {
+            Counter.builder("sales_order.import.rows").tag("status", "accepted").register(meterRegistry)
+                    .increment(accepted);
+            Counter.builder("sales_order.import.rows").tag("status", "rejected").register(meterRegistry)
+                    .increment(rejected);
+        }
+    }
+
+    // ─── PARSING ─────────────────────────────────────────────────────────────
+
+    /**
+     * Thrown while parsing a field; the message is reported for the row.
+     */
+    private static final class InvalidFieldException extends RuntimeException {
+
+        InvalidFieldException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static ImportLine parseLine(RawRow row) {
+        ImportLine line = new ImportLine(row.rowNumber(), row.fields(), row.error());
+        if (line.error != null) {
+            return line;
+        }
+        try {
+            Map<String, String> f = row.fields();
+            line.productId = parseLong(f, PRODUCT_ID, "Product ID", false);
+            line.productSku = f.get(PRODUCT_SKU);
+            if (line.productId == null && line.productSku == null) {
+                throw new InvalidFieldException("Product ID or product SKU is required");
+            }
+            Long quantity = parseLong(f, QUANTITY, "Quantity", true);
+            if (quantity < 1 || quantity > Integer.MAX_VALUE) {
+                throw new InvalidFieldException("Quantity must be at least 1");
+            }
+            line.quantity = quantity.intValue();
+            line.unitPrice = parseAmount(f, UNIT_PRICE, "Unit price", true);
+            if (line.unitPrice.multiply(new BigDecimal(line.quantity)).compareTo(MAX_AMOUNT) > 0) {
+                throw new InvalidFieldException("Line total exceeds " + MAX_AMOUNT);
+            }
+        } catch (InvalidFieldException ex) {
+            line.error = ex.getMessage();
+        }
+        return line;
+    }
+
+    /**
+     * Parses the order header fields; {@code id}, {@code soNumber},
+     * {@code createdByUserId} and the totals are filled in when written.
+     */
+    private static ImportedOrder parseHeader(Map<String, String> f) {
+        Long customerId = parseLong(f, CUSTOMER_ID, "Customer ID", true);
+        Long warehouseId = parseLong(f, WAREHOUSE_ID, "Warehouse ID", true);
+        String customerName = parseText(f, CUSTOMER_NAME, "Customer name", 255, true);
+        String customerEmail = parseText(f, CUSTOMER_EMAIL, "Customer email", 255, true);
+        if (!EMAIL.matcher(customerEmail).matches()) {
+            throw new InvalidFieldException("Customer email must be a well-formed email address");
+        }
+        String customerPhone = parseText(f, CUSTOMER_PHONE, "Customer phone", 50, false);
+        if (customerPhone != null && !PHONE.matcher(customerPhone).matches()) {
+            throw new InvalidFieldException("Phone must be in E.164 format");
+        }
+        String shippingAddress = parseText(f, SHIPPING_ADDRESS, "Shipping address", Integer.MAX_VALUE, true);
+        String city = parseText(f, CITY, "City", 100, true);
+        String postalCode = parseText(f, POSTAL_CODE, "Postal code", 20, true);
+
+        String date = parseText(f, ORDER_DATE, "Order date", Integer.MAX_VALUE, true);
+        LocalDate orderDate;
+        try {
+            orderDate = LocalDate.parse(date);
+        } catch (DateTimeParseException ex) {
+            throw new InvalidFieldException("Order date must be formatted yyyy-MM-dd");
+        }
+        if (orderDate.isAfter(LocalDate.now())) {
+            throw new InvalidFieldException("Order date cannot be in the future");
+        }
+        BigDecimal taxAmount = parseAmount(f, TAX_AMOUNT, "Tax amount", false);
+        BigDecimal shippingCost = parseAmount(f, SHIPPING_COST, "Shipping cost", false);
+
+        return new ImportedOrder(null, null, customerId, customerName, customerEmail, customerPhone,
+                shippingAddress, city, postalCode, warehouseId, null, orderDate, null,
+                taxAmount != null ? taxAmount : BigDecimal.ZERO,
+                shippingCost != null ? shippingCost : BigDecimal.ZERO,
+                null, f.get(NOTES));
+    }
+
+    private static String parseText(Map<String, String> f, String field, String label, int maxLength,
+            boolean required) {
+        String value = f.get(field);
+        if (value == null) {
+            if (required) {
+                throw new InvalidFieldException(label + " is required");
+            }
+            return null;
+        }
+        if (value.length() > maxLength) {
+            throw new InvalidFieldException(label + " must be at most " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static Long parseLong(Map<String, String> f, String field, String label, boolean required) {
+        String value = f.get(field);
+        if (value == null) {
+            if (required) {
+                throw new InvalidFieldException(label + " is required");
+            }
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidFieldException(label + " must be a whole number: " + value);
+        }
+    }
+
+    private static BigDecimal parseAmount(Map<String, String> f, String field, String label, boolean required) {
+        String value = f.get(field);
+        if (value == null) {
+            if (required) {
+                throw new InvalidFieldException(label + " is required");
+            }
+            return null;
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidFieldException(label + " must be a number: " + value);
+        }
+        if (amount.signum() < 0) {
+            throw new InvalidFieldException(label + " must be non-negative");
+        }
+        if (amount.stripTrailingZeros().scale() > 2 || amount.compareTo(MAX_AMOUNT) > 0) {
+            throw new InvalidFieldException(label + " must have at most 10 integer digits and 2 decimals");
+        }
+        return amount.setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private static String rejection(PendingOrder order, ImportLine line) {
+        if (line.error != null) {
+            return line.error;
+        }
+        if (order.error != null) {
+            return order.error;
+        }
+        int invalidRow = order.lines.stream().filter(l -> l.error != null).findFirst()
+                .map(l -> l.rowNumber).orElse(line.rowNumber);
+        return "Not imported: row " + invalidRow + " of order " + order.orderRef + " is invalid";
+    }
+
+    private static <K> void addIfUnknown(Set<K> unknown, Map<K, Boolean> known, K key) {
+        if (!known.containsKey(key)) {
+            unknown.add(key);
+        }
+    }
+
+    private static <K> void remember(Map<K, Boolean> known, Set<K> looked, Set<K> found) {
+        looked.forEach(key -> known.put(key, found.contains(key)));
+    }
+
+    private Path spool(InputStream body, SalesOrderImportFormat format) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("so-import-", "." + format.name().toLowerCase(Locale.ROOT));
+            try (OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[64 * 1024];
+                long total = 0;
+                int n;
+                while ((n = body.read(buffer)) != -1) {
+                    total += n;
+                    if (total > maxBytes) {
+                        throw new SalesOrderImportTooLargeException(maxBytes);
+                    }
+                    out.write(buffer, 0, n);
+                }
+            }
+            return file;
+        } catch (IOException ex) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Could not store the sales order import", ex);
+        } catch (RuntimeException ex) {
+            deleteQuietly(file);
+            throw ex;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete import file {}", file, ex);
+        }
+    }
+
+    private SalesOrderImportResponse toResponse(ImportJob job) {
+        return SalesOrderImportResponse.builder()
+                .id(job.id())
+                .status(job.status())
+                .format(job.format())
+                .createdByUserId(job.createdByUserId())
+                .totalRows(job.totalRows())
+                .acceptedRows(job.acceptedRows())
+                .rejectedRows(job.rejectedRows())
+                .ordersCreated(job.ordersCreated())
+                .errorMessage(job.errorMessage())
+                .createdAt(job.createdAt())
+                .startedAt(job.startedAt())
+                .finishedAt(job.finishedAt())
+                .build();
+    }
+}
@@ -2,15 +2,17 @@ package com.moeware.ims.service.transaction;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.moeware.ims.dto.transaction.salesOrder.SalesOrderAllocationResponse;
 import com.moeware.ims.dto.transaction.salesOrder.SalesOrderItemRequest;
 import com.moeware.ims.dto.transaction.salesOrder.SalesOrderItemResponse;
 import com.moeware.ims.dto.transaction.salesOrder.SalesOrderRequest;
@@ -22,7 +24,10 @@ import com.moeware.ims.entity.staff.Customer;
 import com.moeware.ims.entity.staff.Warehouse;
 import com.moeware.ims.entity.transaction.SalesOrder;
 import com.moeware.ims.entity.transaction.SalesOrderItem;
+import com.moeware.ims.enums.transaction.DocumentType;
 import com.moeware.ims.enums.transaction.SalesOrderStatus;
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
 import com.moeware.ims.exception.inventory.product.ProductNotFoundException;
 import com.moeware.ims.exception.staff.customer.CustomerNotFoundException;
 import com.moeware.ims.exception.staff.warehouse.WarehouseNotFoundException;
@@ -30,7 +35,11 @@ import com.moeware.ims.exception.transaction.InvalidOrderStatusTransitionExcepti
 import com.moeware.ims.exception.transaction.OrderNotEditableException;
 import com.moeware.ims.exception.transaction.salesOrder.SalesOrderNotFoundException;
 import com.moeware.ims.exception.user.UserNotFoundException;
+import com.moeware.ims.repository.transaction.SalesOrderAllocationRepository.AllocationRow;
 import com.moeware.ims.repository.transaction.SalesOrderRepository;
+import com.moeware.ims.service.ActivityEventService;
+import com.moeware.ims.service.OutboxService;
+import com.moeware.ims.service.inventory.CostLayerService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -49,6 +58,13 @@ public class SalesOrderService {
 
     private final SalesOrderRepository salesOrderRepository;
     private final OrderInventoryService orderInventoryService;
+    private final AtpAllocationService atpAllocationService;
+    private final DocumentNumberService documentNumberService;
+    private final SalesRollupService salesRollupService;
+    private final ActivityEventService activityEventService;
+    private final CostLayerService costLayerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
 
     // These repositories are assumed to exist from previous sprints
     // Adjust package paths to match your project structure
@@ -85,6 +101,32 @@ public class SalesOrderService {
         return toResponse(so);
     }
 
+    /**
+     * Get the warehouse allocation made when the order was confirmed
+     */
+    public SalesOrderAllocationResponse getSalesOrderAllocation(Long id) {
+        SalesOrder so = findSalesOrderOrThrow(id);
+        List<AllocationRow> rows = atpAllocationService.getAllocations(id);
+
+        return SalesOrderAllocationResponse.builder()
+                .salesOrderId(so.getId())
+                .soNumber(so.getSoNumber())
+                .decision(rows.isEmpty() ? null : rows.get(0).decision())
+                .allocatedAt(rows.isEmpty() ? null : rows.get(0).allocatedAt())
+                .warehouseCount((int) rows.stream().map(AllocationRow::warehouseId).distinct().count())
+                .lines(rows.stream()
+                        .map(r -> SalesOrderAllocationResponse.Line.builder()
+                                .productId(r.productId())
+                                .productSku(r.sku())
+                                .warehouseId(r.warehouseId())
+                                .warehouseName(r.warehouseName())
+                                .quantity(r.quantity())
+                                .proximity(r.proximity())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
     /**
      * Get sales orders by customer
      */
@@ -121,7 +163,7 @@ public class SalesOrderService {
                 .orElseThrow(() -> new UserNotFoundException(createdByUserId));
 
         SalesOrder so = SalesOrder.builder()
-                .soNumber(generateSoNumber(request.getOrderDate()))
+                .soNumber(documentNumberService.next(DocumentType.SALES_ORDER, request.getOrderDate()))
                 .customer(customer)
                 .customerName(request.getCustomerName())
                 .customerEmail(request.getCustomerEmail())
@@ -154,8 +196,12 @@ public class SalesOrderService {
 
         so.calculateTotals();
         SalesOrder saved = salesOrderRepository.save(so);
+        salesRollupService.record(saved);
+        activityEventService.salesOrderCreated(saved);
+        publishOutboxEvent(saved, "sales-order.created");
 
         log.info("Sales order created: {}", saved.getSoNumber());
+        eventPublisher.publishEvent(DomainChangeEvent.of("sales-order.create", DomainChangeType.SALES_ORDER));
         return toResponse(saved);
     }
 
@@ -178,6 +224,9 @@ public class SalesOrderService {
         Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
                 .orElseThrow(() -> new WarehouseNotFoundException(request.getWarehouseId()));
 
+        // Customer, warehouse, date and lines may all change — move the whole contribution
+        salesRollupService.retract(so);
+
         so.setCustomer(customer);
         so.setCustomerName(request.getCustomerName());
         so.setCustomerEmail(request.getCustomerEmail());
@@ -208,8 +257,11 @@ public class SalesOrderService {
 
         so.calculateTotals();
         SalesOrder updated = salesOrderRepository.save(so);
+        salesRollupService.record(updated);
+        publishOutboxEvent(updated, "sales-order.updated");
 
         log.info("Sales order updated: {}", updated.getSoNumber());
+        eventPublisher.publishEvent(DomainChangeEvent.of("sales-order.update", DomainChangeType.SALES_ORDER));
         return toResponse(updated);
     }
 
@@ -225,12 +277,18 @@ public class SalesOrderService {
                     "SalesOrder", order.getStatus().name(), SalesOrderStatus.CONFIRMED.name());
         }
 
-        // Check inventory availability (throws InsufficientStockException if any item
-        // is short)
-        orderInventoryService.checkInventoryAvailability(order);
+        // Reserve stock for every line (throws InsufficientStockException if any item
+        // is short of available stock)
+        orderInventoryService.reserveInventoryForSalesOrder(order);
 
+        salesRollupService.retract(order);
         order.setStatus(SalesOrderStatus.CONFIRMED);
-        return toResponse(salesOrderRepository.save(order));
+        SalesOrder confirmed = salesOrderRepository.save(order);
+        salesRollupService.record(confirmed);
+        activityEventService.salesOrderUpdated(confirmed);
+        publishOutboxEvent(confirmed, "sales-order.confirmed");
+        eventPublisher.publishEvent(DomainChangeEvent.of("sales-order.confirm", DomainChangeType.SALES_ORDER));
+        return toResponse(confirmed);
     }
 
     /**
@@ -251,9 +309,16 @@ public class SalesOrderService {
         // Deduct stock and create SHIPMENT movement records for each line item
         orderInventoryService.deductInventoryForSalesOrder(order, performedBy);
 
+        salesRollupService.retract(order);
         order.setStatus(SalesOrderStatus.FULFILLED);
         order.setFulfillmentDate(java.time.LocalDate.now());
-        return toResponse(salesOrderRepository.save(order));
+        SalesOrder fulfilled = salesOrderRepository.save(order);
+        salesRollupService.record(fulfilled);
+        activityEventService.salesOrderUpdated(fulfilled);
+        publishOutboxEvent(fulfilled, "sales-order.fulfilled");
+        eventPublisher.publishEvent(DomainChangeEvent.of("sales-order.fulfill",
+                DomainChangeType.SALES_ORDER, DomainChangeType.INVENTORY));
+        return toResponse(fulfilled);
     }
 
     /**
@@ -269,11 +334,16 @@ public class SalesOrderService {
             throw new InvalidOrderStatusTransitionException("SalesOrder", so.getStatus().name(), "SHIPPED");
         }
 
+        salesRollupService.retract(so);
         so.setStatus(SalesOrderStatus.SHIPPED);
         so.setShippingDate(LocalDate.now());
         SalesOrder updated = salesOrderRepository.save(so);
+        salesRollupService.record(updated);
+        activityEventService.salesOrderUpdated(updated);
+        publishOutboxEvent(updated, "sales-order.shipped");
 
         log.info("Sales order shipped: {}", updated.getSoNumber());
+        eventPublisher.publishEvent(DomainChangeEvent.of("sales-order.ship", DomainChangeType.SALES_ORDER));
         return toResponse(updated);
     }
 
@@ -290,11 +360,16 @@ public class SalesOrderService {
             throw new InvalidOrderStatusTransitionException("SalesOrder", so.getStatus().name(), "DELIVERED");
         }
 
+        salesRollupService.retract(so);
         so.setStatus(SalesOrderStatus.DELIVERED);
         so.setDeliveryDate(LocalDate.now());
         SalesOrder updated = salesOrderRepository.save(so);
+        salesRollupService.record(updated);
+        activityEventService.salesOrderUpdated(updated);
+        publishOutboxEvent(updated, "sales-order.delivered");
 
         log.info("Sales order delivered: {}", updated.getSoNumber());
+        eventPublisher.publishEvent(DomainChangeEvent.of("sales-order.deliver", DomainChangeType.SALES_ORDER));
         return toResponse(updated);
     }
 
@@ -316,17 +391,26 @@ public class SalesOrderService {
             User performedBy = userRepository.findById(performedByUserId)
                     .orElseThrow(() -> new UserNotFoundException(performedByUserId));
             orderInventoryService.releaseInventoryForCancelledSalesOrder(order, performedBy);
+        } else if (order.getStatus() == SalesOrderStatus.CONFIRMED) {
+            // Stock was only reserved at CONFIRM, never deducted
+            orderInventoryService.releaseReservationsForCancelledSalesOrder(order);
         }
-        // PENDING and CONFIRMED cancellations require no inventory action
-        // (stock was only checked at CONFIRM, never deducted)
+        // PENDING cancellations require no inventory action
 
+        salesRollupService.retract(order);
         order.setStatus(SalesOrderStatus.CANCELLED);
         if (reason != null && !reason.isBlank()) {
             order.setNotes(
                     (order.getNotes() != null ? order.getNotes() + " | " : "")
                             + "CANCELLED: " + reason);
         }
-        return toResponse(salesOrderRepository.save(order));
+        SalesOrder cancelled = salesOrderRepository.save(order);
+        salesRollupService.record(cancelled);
+        activityEventService.salesOrderUpdated(cancelled);
+        publishOutboxEvent(cancelled, "sales-order.cancelled");
+        eventPublisher.publishEvent(DomainChangeEvent.of("sales-order.cancel",
+                DomainChangeType.SALES_ORDER, DomainChangeType.INVENTORY));
+        return toResponse(cancelled);
     }
 
     // ==================== PRIVATE HELPERS ====================
@@ -336,13 +420,23 @@ public class SalesOrderService {
                 .orElseThrow(() -> new SalesOrderNotFoundException(id));
     }
 
+    private void publishOutboxEvent(SalesOrder so, String eventType) {
+        outboxService.publish(OutboxService.SALES_ORDER, so.getId(), eventType, Map.of(
+                "soNumber", so.getSoNumber(),
+                "status", so.getStatus().name(),
+                "customerId", so.getCustomer().getId(),
+                "warehouseId", so.getWarehouse().getId(),
+                "totalAmount", so.getTotalAmount()));
+    }
+
     /**
      * Generate a unique SO number in format SO-YYYYMMDD-SEQUENCE
      */
-    private String generateSoNumber(LocalDate orderDate) {
-        String dateStr = orderDate.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = salesOrderRepository.countByOrderDate(orderDate) + 1;
-        return String.format("SO-%s-%04d", dateStr, count);
+    /** Whether the order's stock has left the warehouse (so it has a cost of goods). */
+    private boolean isStockDeducted(SalesOrderStatus status) {
+        return status == SalesOrderStatus.FULFILLED
+                || status == SalesOrderStatus.SHIPPED
+                || status == SalesOrderStatus.DELIVERED;
     }
 
     // ==================== MAPPERS ====================
@@ -386,6 +480,9 @@ public class SalesOrderService {
                 .taxAmount(so.getTaxAmount())
                 .shippingCost(so.getShippingCost())
                 .totalAmount(so.getTotalAmount())
+                .costOfGoodsSold(isStockDeducted(so.getStatus())
+                        ? costLayerService.getCostOfGoods(so.getSoNumber())
+                        : null)
                 .notes(so.getNotes())
                 .itemCount(so.getItems().size())
                 .items(itemResponses)
@@ -0,0 +1,149 @@
+package com.moeware.ims.service.transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moeware.ims.entity.transaction.SalesOrder;
+import com.moeware.ims.entity.transaction.SalesOrderItem;
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
+import com.moeware.ims.exception.InvalidOperationException;
+import com.moeware.ims.repository.dashboard.SalesRollupRepository;
+import com.moeware.ims.repository.dashboard.SalesRollupRepository.RollupDelta;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@code sales_daily_rollup} in step with the sales order workflow.
+ *
+ * <p>
+ * Every order contributes one header row and one line row per product to the
+ * rollup, keyed by its order date and <em>current</em> status. A status
+ * transition therefore moves the contribution from one status bucket to
+ * another:
+ *
+ * <pre>
+ * salesRollupService.retract(order); // before any mutation
+ * order.setStatus(...);
+ * salesOrderRepository.save(order);
+ * salesRollupService.record(order);  // after the save
+ * </pre>
+ *
+ * <p>
+ * Both methods join the caller's transaction (propagation REQUIRED), so the
+ * rollup can never drift from a committed order change. If it drifts for any
+ * other reason (manual SQL, restored backup), {@link #rebuild} recomputes a
+ * date range from the source tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupService {
+
+        private final SalesRollupRepository salesRollupRepository;
+        private final ApplicationEventPublisher eventPublisher;
+
+        /**
+         * Adds the order's current contribution to the rollup.
+         */
+        @Transactional
+        public void record(SalesOrder salesOrder) {
+                salesRollupRepository.applyDeltas(contribution(salesOrder, 1));
+        }
+
+        /**
+         * Adds the contribution of orders written in bulk (without entities) by
+         * the calling transaction.
+         */
+        @Transactional
+        public void recordAll(Collection<Long> salesOrderIds) {
+                salesRollupRepository.applyOrders(salesOrderIds);
+        }
+
+        /**
+         * Subtracts the order's current contribution from the rollup. Must be
+         * called while the order still holds its pre-transition state.
+         */
+        @Transactional
+        public void retract(SalesOrder salesOrder) {
+                salesRollupRepository.applyDeltas(contribution(salesOrder, -1));
+        }
+
+        /**
+         * Recomputes the rollup for every order date in the inclusive range.
+         *
+         * @return number of rollup rows written
+         */
+        @Transactional
+        public int rebuild(LocalDate startDate, LocalDate endDate) {
+                if (startDate.isAfter(endDate)) {
+                        throw new InvalidOperationException(
+                                        "Rollup rebuild start date " + startDate + " is after end date " + endDate);
+                }
+                log.info("Rebuilding sales rollup for {} – {}", startDate, endDate);
+                int rows = salesRollupRepository.rebuild(startDate, endDate);
+                eventPublisher.publishEvent(DomainChangeEvent.of("rollup.rebuild", DomainChangeType.SALES_ORDER));
+                return rows;
+        }
+
+        // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+        private List<RollupDelta> contribution(SalesOrder so, int sign) {
+                BigDecimal factor = BigDecimal.valueOf(sign);
+                Long warehouseId = so.getWarehouse().getId();
+                Long customerId = so.getCustomer().getId();
+                String status = so.getStatus().name();
+
+                List<RollupDelta> deltas = new ArrayList<>();
+                deltas.add(new RollupDelta(
+                                so.getOrderDate(), status, warehouseId, customerId, null,
+                                sign,
+                                nullToZero(so.getTotalAmount()).multiply(factor),
+                                0L,
+                                BigDecimal.ZERO));
+
+                // Several lines may reference the same product — merge them so each
+                // rollup row is touched once
+                Map<Long, long[]> unitsByProduct = new LinkedHashMap<>();
+                Map<Long, BigDecimal> revenueByProduct = new LinkedHashMap<>();
+                for (SalesOrderItem item : so.getItems()) {
+                        Long productId = item.getProduct().getId();
+                        unitsByProduct.computeIfAbsent(productId, k -> new long[1])[0] += item.getQuantity();
+                        revenueByProduct.merge(productId, lineRevenue(item), BigDecimal::add);
+                }
+
+                unitsByProduct.forEach((productId, units) -> deltas.add(new RollupDelta(
+                                so.getOrderDate(), status, warehouseId, customerId, productId,
+                                0,
+                                BigDecimal.ZERO,
+                                units[0] * sign,
+                                revenueByProduct.get(productId).multiply(factor))));
+
+                return deltas;
+        }
+
+        /**
+         * Line totals are only populated by the item's {@code @PrePersist} hook, so
+         * fall back to quantity × unit price for items not yet flushed.
+         */
+        private BigDecimal lineRevenue(SalesOrderItem item) {
+                if (item.getLineTotal() != null) {
+                        return item.getLineTotal();
+                }
+                return item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+        }
+
+        private BigDecimal nullToZero(BigDecimal value) {
+                return value == null ? BigDecimal.ZERO : value;
+        }
+}
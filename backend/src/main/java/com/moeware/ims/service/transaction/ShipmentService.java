@@ -1,9 +1,9 @@
 package com.moeware.ims.service.transaction;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,8 +17,11 @@ import com.moeware.ims.entity.User;
 import com.moeware.ims.entity.staff.Warehouse;
 import com.moeware.ims.entity.transaction.SalesOrder;
 import com.moeware.ims.entity.transaction.Shipment;
+import com.moeware.ims.enums.transaction.DocumentType;
 import com.moeware.ims.enums.transaction.SalesOrderStatus;
 import com.moeware.ims.enums.transaction.ShipmentStatus;
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
 import com.moeware.ims.exception.staff.warehouse.WarehouseNotFoundException;
 import com.moeware.ims.exception.transaction.salesOrder.SalesOrderNotFoundException;
 import com.moeware.ims.exception.transaction.shipment.SalesOrderNotFulfilledException;
@@ -31,6 +34,7 @@ import com.moeware.ims.repository.UserRepository;
 import com.moeware.ims.repository.staff.WarehouseRepository;
 import com.moeware.ims.repository.transaction.SalesOrderRepository;
 import com.moeware.ims.repository.transaction.ShipmentRepository;
+import com.moeware.ims.service.ActivityEventService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -44,9 +48,13 @@ import lombok.RequiredArgsConstructor;
 public class ShipmentService {
 
         private final ShipmentRepository shipmentRepository;
+        private final DocumentNumberService documentNumberService;
         private final SalesOrderRepository salesOrderRepository;
         private final WarehouseRepository warehouseRepository;
         private final UserRepository userRepository;
+        private final SalesRollupService salesRollupService;
+        private final ActivityEventService activityEventService;
+        private final ApplicationEventPublisher eventPublisher;
 
         // ─── READ ────────────────────────────────────────────────────────────────
 
@@ -125,7 +133,7 @@ public class ShipmentService {
                 User shippedBy = userRepository.findById(shippedByUserId)
                                 .orElseThrow(() -> new UserNotFoundException(shippedByUserId));
 
-                String shipmentNumber = generateShipmentNumber();
+                String shipmentNumber = documentNumberService.next(DocumentType.SHIPMENT, LocalDate.now());
 
                 Shipment shipment = Shipment.builder()
                                 .shipmentNumber(shipmentNumber)
@@ -146,10 +154,13 @@ public class ShipmentService {
                 Shipment saved = shipmentRepository.save(shipment);
 
                 // Advance sales order to SHIPPED
+                salesRollupService.retract(salesOrder);
                 salesOrder.setStatus(SalesOrderStatus.SHIPPED);
                 salesOrder.setShippingDate(LocalDate.now());
-                salesOrderRepository.save(salesOrder);
+                salesRollupService.record(salesOrderRepository.save(salesOrder));
+                activityEventService.salesOrderUpdated(salesOrder);
 
+                eventPublisher.publishEvent(DomainChangeEvent.of("shipment.create", DomainChangeType.SALES_ORDER));
                 return toResponse(saved);
         }
 
@@ -173,6 +184,8 @@ public class ShipmentService {
                         shipment.setNotes(request.getNotes());
                 }
                 shipment.setStatus(request.getStatus());
+                eventPublisher.publishEvent(DomainChangeEvent.of("shipment.update-status",
+                                DomainChangeType.SALES_ORDER));
                 return toResponse(shipmentRepository.save(shipment));
         }
 
@@ -202,10 +215,15 @@ public class ShipmentService {
 
                 // Advance sales order to DELIVERED
                 SalesOrder salesOrder = shipment.getSalesOrder();
+                salesRollupService.retract(salesOrder);
                 salesOrder.setStatus(SalesOrderStatus.DELIVERED);
                 salesOrder.setDeliveryDate(request.getActualDeliveryDate());
-                salesOrderRepository.save(salesOrder);
+                salesRollupService.record(salesOrderRepository.save(salesOrder));
+                activityEventService.shipmentDelivered(saved);
+                activityEventService.salesOrderUpdated(salesOrder);
 
+                eventPublisher.publishEvent(DomainChangeEvent.of("shipment.deliver",
+                                DomainChangeType.SALES_ORDER));
                 return toResponse(saved);
         }
 
@@ -216,32 +234,6 @@ public class ShipmentService {
                                 .orElseThrow(() -> new ShipmentNotFoundException(id));
         }
 
-        /**
-         * Generates a unique shipment number in the format SHIP-YYYYMMDD-XXXX.
-         * The sequence resets daily.
-         */
-        private String generateShipmentNumber() {
-                LocalDate today = LocalDate.now();
-                String dateStr = today.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-
-                // Count how many shipments already exist for today to derive the next sequence
-                long existingToday = shipmentRepository.findAllWithFilters(null, null, null,
-                                Pageable.unpaged()).stream()
-                                .filter(s -> s.getShipmentNumber().startsWith("SHIP-" + dateStr))
-                                .count();
-
-                String sequence = String.format("%04d", existingToday + 1);
-                String candidate = "SHIP-" + dateStr + "-" + sequence;
-
-                // Ensure uniqueness (handles edge cases)
-                while (shipmentRepository.existsByShipmentNumber(candidate)) {
-                        existingToday++;
-                        sequence = String.format("%04d", existingToday + 1);
-                        candidate = "SHIP-" + dateStr + "-" + sequence;
-                }
-                return candidate;
-        }
-
         private ShipmentResponse toResponse(Shipment s) {
                 return ShipmentResponse.builder()
                                 .id(s.getId())
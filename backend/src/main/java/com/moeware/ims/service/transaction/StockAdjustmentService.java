@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -24,6 +25,8 @@ import com.moeware.ims.entity.transaction.StockAdjustment;
 import com.moeware.ims.enums.transaction.AdjustmentReason;
 import com.moeware.ims.enums.transaction.MovementType;
 import com.moeware.ims.enums.transaction.StockAdjustmentStatus;
+import com.moeware.ims.event.DomainChangeEvent;
+import com.moeware.ims.event.DomainChangeType;
 import com.moeware.ims.exception.inventory.inventoryItem.InventoryItemNotFoundException;
 import com.moeware.ims.exception.inventory.product.ProductNotFoundException;
 import com.moeware.ims.exception.staff.warehouse.WarehouseNotFoundException;
@@ -35,9 +38,11 @@ import com.moeware.ims.exception.user.UserNotFoundException;
 import com.moeware.ims.repository.UserRepository;
 import com.moeware.ims.repository.inventory.InventoryItemRepository;
 import com.moeware.ims.repository.inventory.ProductRepository;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockChange;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockMovement;
 import com.moeware.ims.repository.staff.WarehouseRepository;
-import com.moeware.ims.repository.transaction.InventoryMovementRepository;
 import com.moeware.ims.repository.transaction.StockAdjustmentRepository;
+import com.moeware.ims.service.inventory.StockLedgerService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -64,10 +69,11 @@ public class StockAdjustmentService {
 
         private final StockAdjustmentRepository stockAdjustmentRepository;
         private final InventoryItemRepository inventoryItemRepository;
-        private final InventoryMovementRepository inventoryMovementRepository;
+        private final StockLedgerService stockLedgerService;
         private final ProductRepository productRepository;
         private final WarehouseRepository warehouseRepository;
         private final UserRepository userRepository;
+        private final ApplicationEventPublisher eventPublisher;
 
         // ================================================================
         // Create
@@ -138,6 +144,8 @@ public class StockAdjustmentService {
                 final StockAdjustment createdAdjustment = stockAdjustmentRepository.save(adjustment);
 
                 log.info("Stock adjustment created - id={}, status=PENDING", adjustment.getId());
+                eventPublisher.publishEvent(DomainChangeEvent.of("adjustment.create",
+                                DomainChangeType.STOCK_ADJUSTMENT));
                 return toResponse(createdAdjustment);
         }
 
@@ -289,26 +297,23 @@ public class StockAdjustmentService {
                         }
                 }
 
-                // Apply inventory change
-                inventory.setQuantity(resultingStock);
-                inventoryItemRepository.save(inventory);
-
-                // Record movement
-                InventoryMovement movement = InventoryMovement.builder()
-                                .product(adjustment.getProduct())
-                                .fromWarehouse(adjustment.getQuantityChange() < 0 ? adjustment.getWarehouse() : null)
-                                .toWarehouse(adjustment.getQuantityChange() > 0 ? adjustment.getWarehouse() : null)
-                                .quantity(Math.abs(adjustment.getQuantityChange()))
+                // Apply the signed change and record the movement atomically; a concurrent
+                // movement that drained the stock since the check above makes this throw
+                int change = adjustment.getQuantityChange();
+                StockChange applied = stockLedgerService.apply(StockMovement.builder()
+                                .productId(adjustment.getProduct().getId())
+                                .fromWarehouseId(change < 0 ? adjustment.getWarehouse().getId() : null)
+                                .toWarehouseId(change > 0 ? adjustment.getWarehouse().getId() : null)
+                                .quantity(Math.abs(change))
                                 .movementType(MovementType.ADJUSTMENT)
                                 .reason(adjustment.getReason().name() + (adjustment.getNotes() != null
                                                 ? ": " + adjustment.getNotes()
                                                 : ""))
                                 .referenceNumber("ADJ-" + adjustment.getId())
-                                .performedBy(approver)
+                                .performedById(approver.getId())
                                 .movementDate(LocalDateTime.now())
-                                .build();
-
-                inventoryMovementRepository.save(movement);
+                                .build());
+                resultingStock = change < 0 ? applied.fromQuantity() : applied.toQuantity();
 
                 // Update adjustment record
                 adjustment.setStatus(StockAdjustmentStatus.APPROVED);
@@ -321,6 +326,8 @@ public class StockAdjustmentService {
 
                 log.info("Stock adjustment id={} approved by {}. Inventory updated: {} → {}",
                                 id, username, currentStock, resultingStock);
+                eventPublisher.publishEvent(DomainChangeEvent.of("adjustment.approve",
+                                DomainChangeType.STOCK_ADJUSTMENT, DomainChangeType.INVENTORY));
                 return toResponse(approvedAdjustment);
         }
 
@@ -366,6 +373,8 @@ public class StockAdjustmentService {
                 adjustment = stockAdjustmentRepository.save(adjustment);
 
                 log.info("Stock adjustment id={} rejected by {}.", id, username);
+                eventPublisher.publishEvent(DomainChangeEvent.of("adjustment.reject",
+                                DomainChangeType.STOCK_ADJUSTMENT));
                 return toResponse(adjustment);
         }
 
@@ -0,0 +1,86 @@
+-- =========================================
+-- V21: Create Sales Daily Rollup Table
+-- Created: 2026-10-17
+-- Description: Pre-aggregated daily sales figures maintained transactionally by the
+--              sales order workflow and read by the dashboard sales analytics endpoints
+-- =========================================
+
+-- Create SALES_DAILY_ROLLUP table
+--
+-- Two grains share the table:
+--   * header rows (product_id IS NULL) carry order_count / order_total per
+--     day x customer x warehouse x status
+--   * line rows   (product_id IS NOT NULL) carry units_sold / line_revenue per
+--     day x product x customer x warehouse x status
+-- Keeping header totals separate avoids double counting tax and shipping
+-- (which live on the order, not on the lines) when summing by product.
+CREATE TABLE sales_daily_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'FULFILLED', 'SHIPPED', 'DELIVERED', 'CANCELLED')),
+    warehouse_id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    product_id BIGINT,
+    order_count INT NOT NULL DEFAULT 0,
+    order_total DECIMAL(14,2) NOT NULL DEFAULT 0,
+    units_sold BIGINT NOT NULL DEFAULT 0,
+    line_revenue DECIMAL(14,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_sales_daily_rollup_key
+        UNIQUE NULLS NOT DISTINCT (rollup_date, status, warehouse_id, customer_id, product_id),
+    CONSTRAINT fk_sdr_warehouse FOREIGN KEY (warehouse_id)
+        REFERENCES warehouses(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_sdr_customer FOREIGN KEY (customer_id)
+        REFERENCES customers(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_sdr_product FOREIGN KEY (product_id)
+        REFERENCES products(id) ON DELETE RESTRICT
+);
+
+-- Indexes
+CREATE INDEX idx_sdr_date_status ON sales_daily_rollup(rollup_date, status);
+
+CREATE INDEX idx_sdr_product_date ON sales_daily_rollup(product_id, rollup_date)
+    WHERE product_id IS NOT NULL;
+
+CREATE INDEX idx_sdr_customer_date ON sales_daily_rollup(customer_id, rollup_date)
+    WHERE product_id IS NULL;
+
+-- Backfill from existing order history
+INSERT INTO sales_daily_rollup (rollup_date, status, warehouse_id, customer_id, product_id,
+                                order_count, order_total)
+SELECT so.order_date, so.status, so.warehouse_id, so.customer_id, NULL,
+       COUNT(*), COALESCE(SUM(so.total_amount), 0)
+FROM sales_orders so
+GROUP BY so.order_date, so.status, so.warehouse_id, so.customer_id;
+
+INSERT INTO sales_daily_rollup (rollup_date, status, warehouse_id, customer_id, product_id,
+                                units_sold, line_revenue)
+SELECT so.order_date, so.status, so.warehouse_id, so.customer_id, soi.product_id,
+       COALESCE(SUM(soi.quantity), 0), COALESCE(SUM(soi.line_total), 0)
+FROM sales_order_items soi
+JOIN sales_orders so ON so.id = soi.sales_order_id
+GROUP BY so.order_date, so.status, so.warehouse_id, so.customer_id, soi.product_id;
+
+-- Create trigger to automatically update updated_at
+CREATE TRIGGER update_sales_daily_rollup_updated_at
+    BEFORE UPDATE ON sales_daily_rollup
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Comments
+COMMENT ON TABLE sales_daily_rollup IS 'Daily sales aggregates maintained by SalesRollupService; rebuildable from sales_orders';
+
+COMMENT ON COLUMN sales_daily_rollup.rollup_date IS 'Order date of the contributing sales orders';
+
+COMMENT ON COLUMN sales_daily_rollup.status IS 'Current status of the contributing sales orders (moves with each transition)';
+
+COMMENT ON COLUMN sales_daily_rollup.product_id IS 'NULL for order header rows, set for order line rows';
+
+COMMENT ON COLUMN sales_daily_rollup.order_count IS 'Number of orders (header rows only)';
+
+COMMENT ON COLUMN sales_daily_rollup.order_total IS 'Sum of sales_orders.total_amount incl. tax and shipping (header rows only)';
+
+COMMENT ON COLUMN sales_daily_rollup.units_sold IS 'Sum of sales_order_items.quantity (line rows only)';
+
+COMMENT ON COLUMN sales_daily_rollup.line_revenue IS 'Sum of sales_order_items.line_total (line rows only)';
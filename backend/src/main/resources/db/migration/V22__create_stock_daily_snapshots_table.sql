@@ -0,0 +1,39 @@
+-- =========================================
+-- V22: Create Stock Daily Snapshots Table
+-- Created: 2026-10-17
+-- Description: End-of-day stock level per product and warehouse, written by the
+--              nightly snapshot job and the movement-replay backfill
+-- =========================================
+
+-- Create STOCK_DAILY_SNAPSHOTS table
+CREATE TABLE stock_daily_snapshots (
+    snapshot_date DATE NOT NULL,
+    warehouse_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL CHECK (quantity >= 0),
+    unit_price DECIMAL(12,2) NOT NULL,
+    stock_value DECIMAL(14,2) NOT NULL,
+    reorder_level INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_stock_daily_snapshots PRIMARY KEY (snapshot_date, warehouse_id, product_id),
+    CONSTRAINT fk_sds_warehouse FOREIGN KEY (warehouse_id)
+        REFERENCES warehouses(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_sds_product FOREIGN KEY (product_id)
+        REFERENCES products(id) ON DELETE RESTRICT
+);
+
+-- Indexes
+-- The primary key already serves system-wide date-range scans
+CREATE INDEX idx_sds_warehouse_date ON stock_daily_snapshots(warehouse_id, snapshot_date);
+
+-- Comments
+COMMENT ON TABLE stock_daily_snapshots IS 'End-of-day stock per product and warehouse (append-only, rewritten per day by backfill)';
+
+COMMENT ON COLUMN stock_daily_snapshots.snapshot_date IS 'Business day the quantity applies to (stock at end of that day)';
+
+COMMENT ON COLUMN stock_daily_snapshots.unit_price IS 'Product unit price when the snapshot was written';
+
+COMMENT ON COLUMN stock_daily_snapshots.stock_value IS 'quantity × unit_price';
+
+COMMENT ON COLUMN stock_daily_snapshots.reorder_level IS 'Product reorder level when the snapshot was written, so historical low-stock counts stay stable';
@@ -0,0 +1,75 @@
+-- =========================================
+-- V23: Create Activity Events Table
+-- Created: 2026-10-17
+-- Description: Append-only stream of order and shipment state transitions backing
+--              the dashboard activity feed (keyset-paginated by occurred_at, id)
+-- =========================================
+
+-- Create ACTIVITY_EVENTS table
+--
+-- Rows are self-contained (names and numbers are copied at write time) so a
+-- feed page is a single index range scan with no joins. No foreign keys: the
+-- stream is history and must not block deleting a draft purchase order.
+CREATE TABLE activity_events (
+    id BIGSERIAL PRIMARY KEY,
+    occurred_at TIMESTAMP NOT NULL,
+    activity_type VARCHAR(30) NOT NULL CHECK (activity_type IN ('SALES_ORDER_CREATED', 'SALES_ORDER_UPDATED', 'PURCHASE_ORDER_APPROVED', 'PURCHASE_ORDER_UPDATED', 'SHIPMENT_DELIVERED')),
+    entity_id BIGINT NOT NULL,
+    entity_number VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    warehouse_id BIGINT,
+    user_id BIGINT,
+    username VARCHAR(50),
+    counterparty_name VARCHAR(255),
+    total_amount DECIMAL(14,2)
+);
+
+-- Indexes — one per supported filter, each ending in the keyset columns so
+-- every page is a bounded range scan regardless of table size
+CREATE INDEX idx_ae_occurred ON activity_events(occurred_at DESC, id DESC);
+
+CREATE INDEX idx_ae_type_occurred ON activity_events(activity_type, occurred_at DESC, id DESC);
+
+CREATE INDEX idx_ae_warehouse_occurred ON activity_events(warehouse_id, occurred_at DESC, id DESC);
+
+CREATE INDEX idx_ae_user_occurred ON activity_events(user_id, occurred_at DESC, id DESC);
+
+-- Backfill: the current state of existing orders and deliveries, mirroring what
+-- the previous merged feed showed
+INSERT INTO activity_events (occurred_at, activity_type, entity_id, entity_number, status,
+                             warehouse_id, user_id, username, counterparty_name, total_amount)
+SELECT so.created_at,
+       CASE WHEN so.status = 'PENDING' THEN 'SALES_ORDER_CREATED' ELSE 'SALES_ORDER_UPDATED' END,
+       so.id, so.so_number, so.status, so.warehouse_id, u.id, u.username, so.customer_name, so.total_amount
+FROM sales_orders so
+JOIN users u ON u.id = so.created_by_user_id;
+
+INSERT INTO activity_events (occurred_at, activity_type, entity_id, entity_number, status,
+                             warehouse_id, user_id, username, counterparty_name, total_amount)
+SELECT po.updated_at,
+       CASE WHEN po.status = 'APPROVED' THEN 'PURCHASE_ORDER_APPROVED' ELSE 'PURCHASE_ORDER_UPDATED' END,
+       po.id, po.po_number, po.status, po.warehouse_id, u.id, u.username, s.name, po.total_amount
+FROM purchase_orders po
+JOIN suppliers s ON s.id = po.supplier_id
+JOIN users u ON u.id = po.created_by_user_id;
+
+INSERT INTO activity_events (occurred_at, activity_type, entity_id, entity_number, status,
+                             warehouse_id, user_id, username, counterparty_name, total_amount)
+SELECT sh.updated_at, 'SHIPMENT_DELIVERED',
+       sh.id, sh.shipment_number, sh.status, sh.shipped_from_warehouse_id, u.id, u.username,
+       so.customer_name, NULL
+FROM shipments sh
+JOIN sales_orders so ON so.id = sh.sales_order_id
+JOIN users u ON u.id = sh.shipped_by
+WHERE sh.status = 'DELIVERED';
+
+-- Comments
+COMMENT ON TABLE activity_events IS 'Append-only activity stream written by ActivityEventService in the same transaction as each transition';
+
+COMMENT ON COLUMN activity_events.entity_id IS 'Sales order, purchase order or shipment ID depending on activity_type';
+
+COMMENT ON COLUMN activity_events.status IS 'Entity status after the transition';
+
+COMMENT ON COLUMN activity_events.user_id IS 'User who performed the transition (falls back to the entity owner for system actions)';
+
+COMMENT ON COLUMN activity_events.counterparty_name IS 'Customer name for sales orders and shipments, supplier name for purchase orders';
@@ -0,0 +1,61 @@
+-- =========================================
+-- V24: Create Stock Reservations Table
+-- Created: 2026-10-17
+-- Description: Stock held for confirmed sales orders until fulfilment,
+--              cancellation or expiry, plus the reserved total per inventory row
+-- =========================================
+
+-- Reserved total per product and warehouse; available = quantity - reserved_quantity
+ALTER TABLE inventory_items
+    ADD COLUMN reserved_quantity INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE inventory_items
+    ADD CONSTRAINT chk_inventory_reserved
+        CHECK (reserved_quantity >= 0 AND reserved_quantity <= quantity);
+
+-- Create STOCK_RESERVATIONS table
+--
+-- One row per sales order and product. ACTIVE rows are counted in
+-- inventory_items.reserved_quantity; every other status is history.
+CREATE TABLE stock_reservations (
+    id BIGSERIAL PRIMARY KEY,
+    sales_order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    warehouse_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE' CHECK (status IN ('ACTIVE', 'CONSUMED', 'RELEASED', 'EXPIRED')),
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_sr_sales_order FOREIGN KEY (sales_order_id)
+        REFERENCES sales_orders(id) ON DELETE CASCADE,
+    CONSTRAINT fk_sr_product FOREIGN KEY (product_id)
+        REFERENCES products(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_sr_warehouse FOREIGN KEY (warehouse_id)
+        REFERENCES warehouses(id) ON DELETE RESTRICT
+);
+
+-- Indexes
+CREATE UNIQUE INDEX uk_sr_active_order_product ON stock_reservations(sales_order_id, product_id)
+    WHERE status = 'ACTIVE';
+
+CREATE INDEX idx_sr_active_expiry ON stock_reservations(expires_at)
+    WHERE status = 'ACTIVE';
+
+CREATE INDEX idx_sr_product_warehouse ON stock_reservations(product_id, warehouse_id);
+
+-- Create trigger to automatically update updated_at
+CREATE TRIGGER update_stock_reservations_updated_at
+    BEFORE UPDATE ON stock_reservations
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Comments
+COMMENT ON TABLE stock_reservations IS 'Stock held for CONFIRMED sales orders; maintained by StockReservationService';
+
+COMMENT ON COLUMN stock_reservations.status IS 'ACTIVE (held), CONSUMED (fulfilled), RELEASED (cancelled) or EXPIRED (swept after its TTL)';
+
+COMMENT ON COLUMN stock_reservations.expires_at IS 'After this instant the sweeper returns the stock to the available pool';
+
+COMMENT ON COLUMN inventory_items.reserved_quantity IS 'Sum of ACTIVE stock_reservations for this product and warehouse';
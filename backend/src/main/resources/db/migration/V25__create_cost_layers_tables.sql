@@ -0,0 +1,84 @@
+-- =========================================
+-- V25: Create Cost Layers Tables
+-- Created: 2026-10-17
+-- Description: Receipt cost layers per product and warehouse, consumed FIFO or as
+--              a moving weighted average, plus the consumption trail used for COGS
+-- =========================================
+
+-- Create COST_LAYERS table
+--
+-- FIFO keeps one layer per inbound movement; the weighted-average method keeps a
+-- single open layer per product and warehouse whose unit_cost is re-averaged on
+-- every receipt. Layers with remaining_quantity = 0 are history.
+CREATE TABLE cost_layers (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    warehouse_id BIGINT NOT NULL,
+    unit_cost DECIMAL(14, 4) NOT NULL CHECK (unit_cost >= 0),
+    original_quantity INTEGER NOT NULL CHECK (original_quantity > 0),
+    remaining_quantity INTEGER NOT NULL CHECK (remaining_quantity >= 0),
+    movement_type VARCHAR(20) NOT NULL,
+    reference_number VARCHAR(50),
+    received_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_cl_product FOREIGN KEY (product_id)
+        REFERENCES products(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_cl_warehouse FOREIGN KEY (warehouse_id)
+        REFERENCES warehouses(id) ON DELETE RESTRICT,
+    CONSTRAINT chk_cl_remaining CHECK (remaining_quantity <= original_quantity)
+);
+
+-- Create COST_CONSUMPTIONS table
+--
+-- One row per layer drawn by an outbound movement. layer_id is NULL when stock
+-- left without a layer to cover it (priced at the product's cost_price).
+CREATE TABLE cost_consumptions (
+    id BIGSERIAL PRIMARY KEY,
+    layer_id BIGINT,
+    product_id BIGINT NOT NULL,
+    warehouse_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    unit_cost DECIMAL(14, 4) NOT NULL,
+    movement_type VARCHAR(20) NOT NULL,
+    reference_number VARCHAR(50),
+    consumed_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_cc_layer FOREIGN KEY (layer_id)
+        REFERENCES cost_layers(id) ON DELETE RESTRICT
+);
+
+-- Indexes
+-- Open layers in consumption order; valuation scans the same partial index
+CREATE INDEX idx_cl_open_fifo ON cost_layers(product_id, warehouse_id, received_at, id)
+    WHERE remaining_quantity > 0;
+
+CREATE INDEX idx_cc_reference ON cost_consumptions(reference_number)
+    WHERE reference_number IS NOT NULL;
+
+CREATE INDEX idx_cc_layer ON cost_consumptions(layer_id);
+
+-- Create trigger to automatically update updated_at
+CREATE TRIGGER update_cost_layers_updated_at
+    BEFORE UPDATE ON cost_layers
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Backfill: one opening layer per stocked row at the product's current cost price
+INSERT INTO cost_layers (product_id, warehouse_id, unit_cost, original_quantity, remaining_quantity,
+                         movement_type, reference_number, received_at)
+SELECT i.product_id, i.warehouse_id, p.cost_price, i.quantity, i.quantity, 'ADJUSTMENT', 'OPENING',
+       CURRENT_TIMESTAMP
+FROM inventory_items i
+JOIN products p ON p.id = i.product_id
+WHERE i.quantity > 0;
+
+-- Comments
+COMMENT ON TABLE cost_layers IS 'Inventory cost layers maintained by CostLayerService alongside every stock movement';
+
+COMMENT ON COLUMN cost_layers.remaining_quantity IS 'Units of this layer still on hand; sums to inventory_items.quantity per product and warehouse';
+
+COMMENT ON COLUMN cost_layers.reference_number IS 'Document that created the layer (PO number, SO number, OPENING for the migration backfill)';
+
+COMMENT ON TABLE cost_consumptions IS 'Layers drawn by outbound movements; COGS of a sales order is the sum over its SO number';
@@ -0,0 +1,164 @@
+-- =========================================
+-- V26: Partition Inventory Movements
+-- Created: 2026-10-17
+-- Description: Convert inventory_movements to monthly range partitions on
+--              movement_date, with helpers to pre-create future months and to
+--              detach old months into the archive schema
+-- =========================================
+
+-- Set the existing heap aside; its sequence is reused by the new table
+ALTER TABLE inventory_movements RENAME TO inventory_movements_legacy;
+
+ALTER INDEX inventory_movements_pkey RENAME TO inventory_movements_legacy_pkey;
+
+ALTER SEQUENCE inventory_movements_id_seq OWNED BY NONE;
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+-- Create partitioned INVENTORY_MOVEMENTS table
+--
+-- The primary key must contain the partition key, so it becomes (id, movement_date);
+-- id alone stays unique because it is drawn from a single sequence.
+CREATE TABLE inventory_movements (
+    id BIGINT NOT NULL DEFAULT nextval('inventory_movements_id_seq'),
+    product_id BIGINT NOT NULL,
+    from_warehouse_id BIGINT,
+    to_warehouse_id BIGINT,
+    quantity INT NOT NULL CHECK (quantity > 0),
+    movement_type VARCHAR(20) NOT NULL CHECK (movement_type IN ('TRANSFER', 'ADJUSTMENT', 'RECEIPT', 'SHIPMENT')),
+    reason TEXT,
+    reference_number VARCHAR(50),
+    performed_by BIGINT NOT NULL,
+    movement_date TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+
+    CONSTRAINT inventory_movements_pkey PRIMARY KEY (id, movement_date),
+    CONSTRAINT fk_im_product FOREIGN KEY (product_id)
+        REFERENCES products(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_im_from_warehouse FOREIGN KEY (from_warehouse_id)
+        REFERENCES warehouses(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_im_to_warehouse FOREIGN KEY (to_warehouse_id)
+        REFERENCES warehouses(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_im_performed_by FOREIGN KEY (performed_by)
+        REFERENCES users(id) ON DELETE RESTRICT,
+    CONSTRAINT chk_warehouse_movement CHECK (
+        from_warehouse_id IS NOT NULL OR to_warehouse_id IS NOT NULL
+    )
+) PARTITION BY RANGE (movement_date);
+
+ALTER SEQUENCE inventory_movements_id_seq OWNED BY inventory_movements.id;
+
+-- Creates the partition for the month containing month_start if it is missing.
+-- Partitions are named inventory_movements_yYYYYmMM. Returns true if created.
+CREATE OR REPLACE FUNCTION ensure_inventory_movements_partition(month_start DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::DATE;
+    partition_name TEXT := 'inventory_movements_' || to_char(from_date, '"y"YYYY"m"MM');
+BEGIN
+    -- Serialises partition maintenance across application instances
+    PERFORM pg_advisory_xact_lock(hashtext('inventory_movements_partitions'));
+    IF to_regclass('public.' || partition_name) IS NOT NULL
+       OR to_regclass('archive.' || partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE public.%I PARTITION OF inventory_movements FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, from_date, (from_date + INTERVAL '1 month')::DATE);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches every monthly partition that ends on or before cutoff and moves it to
+-- the archive schema, where it stays queryable as a plain table. Returns the
+-- number of partitions archived.
+CREATE OR REPLACE FUNCTION archive_inventory_movements_before(cutoff DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_name TEXT;
+    archived INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('inventory_movements_partitions'));
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'public.inventory_movements'::REGCLASS
+          AND c.relname ~ '^inventory_movements_y[0-9]{4}m[0-9]{2}$'
+          AND to_date(right(c.relname, 7), 'YYYY"m"MM') + INTERVAL '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE inventory_movements DETACH PARTITION public.%I', partition_name);
+        EXECUTE format('ALTER TABLE public.%I SET SCHEMA archive', partition_name);
+        archived := archived + 1;
+    END LOOP;
+    RETURN archived;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One partition per month from the oldest movement to three months ahead
+SELECT ensure_inventory_movements_partition(month::DATE)
+FROM generate_series(
+         date_trunc('month', COALESCE((SELECT MIN(movement_date) FROM inventory_movements_legacy), CURRENT_DATE)),
+         date_trunc('month', CURRENT_DATE) + INTERVAL '3 months',
+         INTERVAL '1 month') AS month;
+
+-- Copy history, then drop the heap
+INSERT INTO inventory_movements (id, product_id, from_warehouse_id, to_warehouse_id, quantity, movement_type,
+                                 reason, reference_number, performed_by, movement_date, version,
+                                 created_at, updated_at, created_by, updated_by)
+SELECT id, product_id, from_warehouse_id, to_warehouse_id, quantity, movement_type,
+       reason, reference_number, performed_by, movement_date, version,
+       created_at, updated_at, created_by, updated_by
+FROM inventory_movements_legacy;
+
+DROP TABLE inventory_movements_legacy;
+
+-- Indexes (created on the parent, cascaded to every partition, current and future)
+-- BRIN on the append-ordered time column: a few pages per partition instead of a
+-- full B-tree, enough to narrow range scans inside a month
+CREATE INDEX idx_im_movement_date_brin ON inventory_movements USING BRIN (movement_date);
+
+-- Filter + newest-first ordering served by one index; across partitions the
+-- planner merges the per-partition index scans
+CREATE INDEX idx_im_product_date ON inventory_movements(product_id, movement_date DESC);
+
+CREATE INDEX idx_im_from_warehouse_date ON inventory_movements(from_warehouse_id, movement_date DESC);
+
+CREATE INDEX idx_im_to_warehouse_date ON inventory_movements(to_warehouse_id, movement_date DESC);
+
+CREATE INDEX idx_im_movement_type ON inventory_movements(movement_type);
+
+CREATE INDEX idx_im_reference ON inventory_movements(reference_number) WHERE reference_number IS NOT NULL;
+
+CREATE INDEX idx_im_performed_by ON inventory_movements(performed_by);
+
+-- Create trigger to automatically update updated_at
+CREATE TRIGGER update_inventory_movements_updated_at
+    BEFORE UPDATE ON inventory_movements
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Comments
+COMMENT ON TABLE inventory_movements IS 'Complete history of all inventory movements, range-partitioned by month on movement_date';
+
+COMMENT ON COLUMN inventory_movements.movement_type IS 'Type: TRANSFER (between warehouses), RECEIPT (from supplier), SHIPMENT (to customer), ADJUSTMENT (manual)';
+
+COMMENT ON COLUMN inventory_movements.from_warehouse_id IS 'Source warehouse (NULL for receipts from suppliers)';
+
+COMMENT ON COLUMN inventory_movements.to_warehouse_id IS 'Destination warehouse (NULL for shipments to customers)';
+
+COMMENT ON COLUMN inventory_movements.reference_number IS 'Related document reference (PO number, SO number, etc.)';
+
+COMMENT ON COLUMN inventory_movements.version IS 'Optimistic lock version for audit trail integrity and movement corrections';
+
+COMMENT ON COLUMN inventory_movements.created_by IS 'Username of the user who created this movement record';
+
+COMMENT ON COLUMN inventory_movements.updated_by IS 'Username of the user who last updated this movement record';
+
+COMMENT ON CONSTRAINT chk_warehouse_movement ON inventory_movements IS 'At least one warehouse (from or to) must be specified';
+
+COMMENT ON SCHEMA archive IS 'Detached inventory_movements partitions older than the retention window';
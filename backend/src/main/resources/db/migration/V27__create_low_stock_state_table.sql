@@ -0,0 +1,56 @@
+-- =========================================
+-- V27: Create Low Stock State Table
+-- Created: 2026-10-17
+-- Description: Inventory rows currently at or below their product's reorder level,
+--              maintained when stock or thresholds change and read by the alert endpoints
+-- =========================================
+
+-- Create LOW_STOCK_STATE table
+--
+-- One row per warehouse and product while quantity <= reorder_level; the row is
+-- removed when stock recovers. Thresholds are copied so the row records the
+-- levels the state was computed against.
+CREATE TABLE low_stock_state (
+    warehouse_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    inventory_item_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    reorder_level INTEGER NOT NULL,
+    min_stock_level INTEGER NOT NULL,
+    severity VARCHAR(20) NOT NULL CHECK (severity IN ('WARNING', 'CRITICAL')),
+    since TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_low_stock_state PRIMARY KEY (warehouse_id, product_id),
+    CONSTRAINT fk_lss_warehouse FOREIGN KEY (warehouse_id)
+        REFERENCES warehouses(id) ON DELETE CASCADE,
+    CONSTRAINT fk_lss_product FOREIGN KEY (product_id)
+        REFERENCES products(id) ON DELETE CASCADE,
+    CONSTRAINT fk_lss_inventory_item FOREIGN KEY (inventory_item_id)
+        REFERENCES inventory_items(id) ON DELETE CASCADE
+);
+
+-- Indexes
+CREATE INDEX idx_lss_product ON low_stock_state(product_id);
+
+-- Create trigger to automatically update updated_at
+CREATE TRIGGER update_low_stock_state_updated_at
+    BEFORE UPDATE ON low_stock_state
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Backfill from current stock
+INSERT INTO low_stock_state (warehouse_id, product_id, inventory_item_id, quantity,
+                             reorder_level, min_stock_level, severity)
+SELECT ii.warehouse_id, ii.product_id, ii.id, ii.quantity, p.reorder_level, p.min_stock_level,
+       CASE WHEN ii.quantity <= p.min_stock_level THEN 'CRITICAL' ELSE 'WARNING' END
+FROM inventory_items ii
+JOIN products p ON p.id = ii.product_id
+WHERE ii.quantity <= p.reorder_level;
+
+-- Comments
+COMMENT ON TABLE low_stock_state IS 'Inventory rows at or below reorder level; maintained by LowStockAlertService after each crossing';
+
+COMMENT ON COLUMN low_stock_state.severity IS 'CRITICAL when quantity <= min_stock_level, otherwise WARNING';
+
+COMMENT ON COLUMN low_stock_state.since IS 'When the row last dropped to or below its reorder level';
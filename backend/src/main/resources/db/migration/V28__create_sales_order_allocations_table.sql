@@ -0,0 +1,49 @@
+-- =========================================
+-- V28: Create Sales Order Allocations Table
+-- Created: 2026-10-17
+-- Description: Warehouses chosen to supply each confirmed sales order, and
+--              reservations split across warehouses per product
+-- =========================================
+
+-- A product of one order may now be reserved in several warehouses
+DROP INDEX uk_sr_active_order_product;
+
+CREATE UNIQUE INDEX uk_sr_active_order_product_warehouse
+    ON stock_reservations(sales_order_id, product_id, warehouse_id)
+    WHERE status = 'ACTIVE';
+
+CREATE INDEX idx_sr_sales_order ON stock_reservations(sales_order_id);
+
+-- Create SALES_ORDER_ALLOCATIONS table
+--
+-- One row per product and supplying warehouse, written when the order is
+-- confirmed. Rows are never updated: they record the decision as it was made.
+CREATE TABLE sales_order_allocations (
+    id BIGSERIAL PRIMARY KEY,
+    sales_order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    warehouse_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    proximity SMALLINT NOT NULL,
+    decision VARCHAR(10) NOT NULL CHECK (decision IN ('HOME', 'SINGLE', 'SPLIT')),
+    allocated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_soa_sales_order FOREIGN KEY (sales_order_id)
+        REFERENCES sales_orders(id) ON DELETE CASCADE,
+    CONSTRAINT fk_soa_product FOREIGN KEY (product_id)
+        REFERENCES products(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_soa_warehouse FOREIGN KEY (warehouse_id)
+        REFERENCES warehouses(id) ON DELETE RESTRICT
+);
+
+-- Indexes
+CREATE INDEX idx_soa_sales_order ON sales_order_allocations(sales_order_id);
+
+CREATE INDEX idx_soa_warehouse_allocated ON sales_order_allocations(warehouse_id, allocated_at DESC);
+
+-- Comments
+COMMENT ON TABLE sales_order_allocations IS 'Available-to-promise allocation of confirmed sales orders; written by AtpAllocationService';
+
+COMMENT ON COLUMN sales_order_allocations.proximity IS '0 = the order''s own warehouse, 1 = same postal code, 2 = same city, 3 = elsewhere';
+
+COMMENT ON COLUMN sales_order_allocations.decision IS 'HOME (order warehouse covered everything), SINGLE (another warehouse did) or SPLIT (several warehouses)';
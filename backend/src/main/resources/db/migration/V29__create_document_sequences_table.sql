@@ -0,0 +1,54 @@
+-- =========================================
+-- V29: Create Document Sequences Table
+-- Created: 2026-10-17
+-- Description: Next free sequence per document prefix and day, handed out in
+--              blocks by DocumentNumberService
+-- =========================================
+
+-- Create DOCUMENT_SEQUENCES table
+--
+-- One row per prefix (SO, PO, INV, PAY, SHIP) and day (YYYYMMDD). Each node
+-- claims a block of values by adding the block size to next_value in its own
+-- short transaction, so concurrent nodes never receive the same number.
+CREATE TABLE document_sequences (
+    prefix VARCHAR(10) NOT NULL,
+    period VARCHAR(8) NOT NULL,
+    next_value BIGINT NOT NULL CHECK (next_value > 0),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_document_sequences PRIMARY KEY (prefix, period)
+);
+
+-- Continue after the highest number already issued per prefix and day
+INSERT INTO document_sequences (prefix, period, next_value)
+SELECT prefix, period, MAX(seq) + 1
+FROM (
+    SELECT 'SO' AS prefix, m[1] AS period, m[2]::BIGINT AS seq
+    FROM sales_orders, regexp_match(so_number, '^SO-(\d{8})-(\d+)$') AS m
+    UNION ALL
+    SELECT 'PO', m[1], m[2]::BIGINT
+    FROM purchase_orders, regexp_match(po_number, '^PO-(\d{8})-(\d+)$') AS m
+    UNION ALL
+    SELECT 'INV', m[1], m[2]::BIGINT
+    FROM invoices, regexp_match(invoice_number, '^INV-(\d{8})-(\d+)$') AS m
+    UNION ALL
+    SELECT 'PAY', m[1], m[2]::BIGINT
+    FROM payments, regexp_match(payment_number, '^PAY-(\d{8})-(\d+)$') AS m
+    UNION ALL
+    SELECT 'SHIP', m[1], m[2]::BIGINT
+    FROM shipments, regexp_match(shipment_number, '^SHIP-(\d{8})-(\d+)$') AS m
+) issued
+GROUP BY prefix, period;
+
+-- Create trigger to automatically update updated_at
+CREATE TRIGGER update_document_sequences_updated_at
+    BEFORE UPDATE ON document_sequences
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Comments
+COMMENT ON TABLE document_sequences IS 'Block-allocated document number sequences; maintained by DocumentNumberService';
+
+COMMENT ON COLUMN document_sequences.period IS 'Day the numbers belong to (YYYYMMDD), as embedded in the document number';
+
+COMMENT ON COLUMN document_sequences.next_value IS 'First value not yet claimed by any node; numbers of unused claimed blocks are skipped';
@@ -0,0 +1,64 @@
+-- =========================================
+-- V30: Create Sales Order Import Tables
+-- Created: 2026-10-17
+-- Description: Bulk sales-order import jobs and their per-row results, written
+--              by SalesOrderImportService
+-- =========================================
+
+-- Create SALES_ORDER_IMPORTS table
+--
+-- One row per uploaded file. The counters are updated as each chunk commits,
+-- so a client polling the job sees progress while it runs.
+CREATE TABLE sales_order_imports (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED' CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED')),
+    format VARCHAR(10) NOT NULL CHECK (format IN ('CSV', 'NDJSON')),
+    created_by_user_id BIGINT NOT NULL,
+    total_rows INT NOT NULL DEFAULT 0,
+    accepted_rows INT NOT NULL DEFAULT 0,
+    rejected_rows INT NOT NULL DEFAULT 0,
+    orders_created INT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+
+    CONSTRAINT fk_soim_created_by FOREIGN KEY (created_by_user_id)
+        REFERENCES users(id) ON DELETE RESTRICT
+);
+
+CREATE INDEX idx_soim_created_by ON sales_order_imports(created_by_user_id, created_at DESC);
+
+-- Create SALES_ORDER_IMPORT_RESULTS table
+--
+-- One row per input row, keyed by its position in the file so the report is
+-- read in file order with a keyset on row_number. No foreign key to
+-- sales_orders: the report is history and must not block deleting an order.
+CREATE TABLE sales_order_import_results (
+    import_id BIGINT NOT NULL,
+    row_number INT NOT NULL,
+    status VARCHAR(10) NOT NULL CHECK (status IN ('ACCEPTED', 'REJECTED')),
+    order_ref VARCHAR(100),
+    sales_order_id BIGINT,
+    so_number VARCHAR(50),
+    message TEXT,
+
+    CONSTRAINT pk_sales_order_import_results PRIMARY KEY (import_id, row_number),
+    CONSTRAINT fk_soir_import FOREIGN KEY (import_id)
+        REFERENCES sales_order_imports(id) ON DELETE CASCADE
+);
+
+-- Rejected rows only, for the "what went wrong" view of a large import
+CREATE INDEX idx_soir_rejected ON sales_order_import_results(import_id, row_number)
+    WHERE status = 'REJECTED';
+
+-- Comments
+COMMENT ON TABLE sales_order_imports IS 'Bulk sales-order import jobs (POST /api/sales-orders/imports)';
+
+COMMENT ON COLUMN sales_order_imports.total_rows IS 'Input rows processed so far, header excluded';
+
+COMMENT ON TABLE sales_order_import_results IS 'Outcome of every input row of an import';
+
+COMMENT ON COLUMN sales_order_import_results.row_number IS 'Position of the row in the input, starting at 1 (CSV header excluded)';
+
+COMMENT ON COLUMN sales_order_import_results.order_ref IS 'Caller reference grouping the rows of one order';
@@ -0,0 +1,35 @@
+-- =========================================
+-- V31: Create Idempotency Keys Table
+-- Created: 2026-10-17
+-- Description: Database fallback for the Idempotency-Key store, used by
+--              IdempotencyService while Redis is unavailable
+-- =========================================
+
+-- Create IDEMPOTENCY_KEYS table
+--
+-- One row per user and key. An IN_PROGRESS row is a claim held by the request
+-- being processed and expires after the lock TTL, so a crashed node cannot
+-- block the key for long; a COMPLETED row holds the response replayed to
+-- retries until the retention TTL.
+CREATE TABLE idempotency_keys (
+    scope_key VARCHAR(320) PRIMARY KEY,
+    claim_token VARCHAR(36) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED')),
+    response_status INT,
+    response_content_type VARCHAR(255),
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys(expires_at);
+
+-- Comments
+COMMENT ON TABLE idempotency_keys IS 'Idempotency-Key claims and stored responses written while Redis is unavailable';
+
+COMMENT ON COLUMN idempotency_keys.scope_key IS 'Username and Idempotency-Key header value';
+
+COMMENT ON COLUMN idempotency_keys.fingerprint IS 'SHA-256 of method, path, query and body of the original request';
+
+COMMENT ON COLUMN idempotency_keys.claim_token IS 'Identifies the request holding the claim';
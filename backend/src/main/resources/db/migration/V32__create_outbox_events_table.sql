@@ -0,0 +1,49 @@
+-- =========================================
+-- V32: Create Outbox Events Table
+-- Created: 2026-10-17
+-- Description: Transactional outbox; domain events written by the write
+--              services and delivered by OutboxDispatcher
+-- =========================================
+
+-- Create OUTBOX_EVENTS table
+--
+-- Rows are inserted in the same transaction as the change they describe, so an
+-- event exists if and only if its change committed. The dispatcher claims
+-- PENDING rows with FOR UPDATE SKIP LOCKED and delivers only the oldest
+-- pending event of each aggregate, which keeps delivery in order per
+-- aggregate across nodes. A DEAD row has used up its attempts; setting it back
+-- to PENDING with attempts = 0 retries it.
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload JSONB NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'DISPATCHED', 'DEAD')),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    dispatched_at TIMESTAMP
+);
+
+-- Dispatcher scan; stays small as delivered rows leave it
+CREATE INDEX idx_outbox_events_pending ON outbox_events(id) WHERE status = 'PENDING';
+
+-- Head-of-aggregate check
+CREATE INDEX idx_outbox_events_pending_aggregate ON outbox_events(aggregate_type, aggregate_id, id)
+    WHERE status = 'PENDING';
+
+-- Retention cleanup of delivered rows
+CREATE INDEX idx_outbox_events_dispatched ON outbox_events(dispatched_at) WHERE status = 'DISPATCHED';
+
+-- Comments
+COMMENT ON TABLE outbox_events IS 'Domain events awaiting or past in-process delivery';
+
+COMMENT ON COLUMN outbox_events.aggregate_type IS 'Kind of entity the event is about, e.g. SalesOrder';
+
+COMMENT ON COLUMN outbox_events.event_type IS 'What happened, e.g. sales-order.confirmed';
+
+COMMENT ON COLUMN outbox_events.next_attempt_at IS 'Earliest time of the next delivery attempt (retry backoff)';
+
+COMMENT ON COLUMN outbox_events.last_error IS 'Failure of the last delivery attempt';
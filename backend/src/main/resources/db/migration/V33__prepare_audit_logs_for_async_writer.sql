@@ -0,0 +1,25 @@
+-- =========================================
+-- V33: Prepare Audit Logs for the Async Writer
+-- Created: 2026-10-17
+-- Description: Allows system changes without a performing user and adds
+--              keyset indexes for the audit log query API
+-- =========================================
+
+-- Changes made by schedulers and background jobs have no authenticated user
+ALTER TABLE audit_logs ALTER COLUMN performed_by DROP NOT NULL;
+
+-- Keyset pages on (created_at, id) by entity and by user; these supersede the
+-- narrower indexes below, which would only add write cost to an insert-heavy
+-- table
+CREATE INDEX idx_audit_entity_keyset ON audit_logs(entity_type, entity_id, created_at DESC, id DESC);
+
+CREATE INDEX idx_audit_performed_by_keyset ON audit_logs(performed_by, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_audit_entity;
+
+DROP INDEX IF EXISTS idx_audit_entity_created;
+
+DROP INDEX IF EXISTS idx_audit_performed_by;
+
+-- Comments
+COMMENT ON COLUMN audit_logs.performed_by IS 'User who performed the action; NULL for system changes';
@@ -0,0 +1,82 @@
+-- =========================================
+-- V34: Default Partition for Inventory Movements
+-- Created: 2026-10-17
+-- Description: Catches movements dated outside the monthly partitions (backdated
+--              receipts, archived months) instead of rejecting them; the
+--              partition maintenance job moves them into their month
+-- =========================================
+
+CREATE TABLE inventory_movements_default PARTITION OF inventory_movements DEFAULT;
+
+-- Same contract as in V26. When rows of the month already sit in the default
+-- partition, a plain CREATE ... PARTITION OF would fail the default partition's
+-- constraint check, so the month is built as a standalone table, the rows are
+-- moved into it, and it is attached afterwards.
+CREATE OR REPLACE FUNCTION ensure_inventory_movements_partition(month_start DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::DATE;
+    until_date DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'inventory_movements_' || to_char(from_date, '"y"YYYY"m"MM');
+BEGIN
+    -- Serialises partition maintenance across application instances
+    PERFORM pg_advisory_xact_lock(hashtext('inventory_movements_partitions'));
+    IF to_regclass('public.' || partition_name) IS NOT NULL
+       OR to_regclass('archive.' || partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM inventory_movements_default
+                   WHERE movement_date >= from_date AND movement_date < until_date) THEN
+        EXECUTE format('CREATE TABLE public.%I PARTITION OF inventory_movements FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, from_date, until_date);
+        RETURN TRUE;
+    END IF;
+    EXECUTE format('CREATE TABLE public.%I (LIKE inventory_movements INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM inventory_movements_default '
+                   'WHERE movement_date >= %L AND movement_date < %L RETURNING *) '
+                   'INSERT INTO public.%I SELECT * FROM moved',
+                   from_date, until_date, partition_name);
+    EXECUTE format('ALTER TABLE inventory_movements ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, from_date, until_date);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Moves every row of the default partition into its month: a new partition
+-- for months never created, the archived table for months already archived.
+-- Returns the number of rows moved.
+CREATE OR REPLACE FUNCTION split_inventory_movements_default()
+RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE;
+    partition_name TEXT;
+    moved INTEGER;
+    total INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('inventory_movements_partitions'));
+    FOR month_start IN
+        SELECT DISTINCT date_trunc('month', movement_date)::DATE
+        FROM inventory_movements_default
+        ORDER BY 1
+    LOOP
+        partition_name := 'inventory_movements_' || to_char(month_start, '"y"YYYY"m"MM');
+        IF to_regclass('archive.' || partition_name) IS NOT NULL THEN
+            EXECUTE format('WITH moved AS (DELETE FROM inventory_movements_default '
+                           'WHERE movement_date >= %L AND movement_date < %L RETURNING *) '
+                           'INSERT INTO archive.%I SELECT * FROM moved',
+                           month_start, (month_start + INTERVAL '1 month')::DATE, partition_name);
+            GET DIAGNOSTICS moved = ROW_COUNT;
+        ELSE
+            SELECT COUNT(*) INTO moved
+            FROM inventory_movements_default
+            WHERE movement_date >= month_start AND movement_date < month_start + INTERVAL '1 month';
+            PERFORM ensure_inventory_movements_partition(month_start);
+        END IF;
+        total := total + moved;
+    END LOOP;
+    RETURN total;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON TABLE inventory_movements_default IS 'Movements dated outside every monthly partition; emptied by the daily partition maintenance';
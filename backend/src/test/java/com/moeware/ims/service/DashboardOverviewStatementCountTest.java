@@ -0,0 +1,32 @@
+package com.moeware.ims.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.moeware.ims.dto.dashboard.DashboardOverviewResponse;
+import com.moeware.ims.support.StatementCounter;
+
+/**
+ * The overview used to issue about twenty statements, one per KPI; it now
+ * reads every KPI from a single snapshot query.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.moeware.ims.support.StatementCounter")
+class DashboardOverviewStatementCountTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Test
+    void overviewTakesAtMostTwoStatements() {
+        StatementCounter.reset();
+
+        DashboardOverviewResponse overview = dashboardService.getOverview();
+
+        assertThat(overview.getMetrics()).isNotNull();
+        assertThat(StatementCounter.count()).isBetween(1, 2);
+    }
+}
@@ -0,0 +1,68 @@
+package com.moeware.ims.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Fans out stand-in queries that each sleep {@code SLEEP_MS} in the database.
+ * Run one after the other they would take the sum of their times; through the
+ * executor the batch should take about as long as the slowest one. The bounds
+ * are loose on purpose: they separate "max" from "sum", not milliseconds.
+ */
+@SpringBootTest(properties = "app.dashboard.query.max-parallelism-per-request=3")
+class DashboardQueryExecutorTest {
+
+    private static final long SLEEP_MS = 1_000;
+
+    @Autowired
+    private DashboardQueryExecutor queryExecutor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void independentQueriesTakeAboutAsLongAsTheSlowest() {
+        long elapsedMs = runBatch(3);
+
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(SLEEP_MS);
+        assertThat(elapsedMs).isLessThan(2 * SLEEP_MS);
+    }
+
+    @Test
+    void queriesBeyondTheParallelismLimitWaitForAFreeSlot() {
+        long elapsedMs = runBatch(4);
+
+        // Three run at once, the fourth after one of them: two rounds, not four
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(2 * SLEEP_MS);
+        assertThat(elapsedMs).isLessThan(3 * SLEEP_MS);
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    /** Runs {@code queries} sleeping queries in one batch; returns the elapsed millis. */
+    private long runBatch(int queries) {
+        DashboardQueryExecutor.Batch batch = queryExecutor.batch();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        long began = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            int n = i;
+            results.add(batch.submit(() -> jdbcTemplate.queryForObject(
+                    "SELECT ? FROM (SELECT pg_sleep(?)) s", Integer.class, n, SLEEP_MS / 1000.0)));
+        }
+        batch.join();
+        long elapsedMs = (System.nanoTime() - began) / 1_000_000;
+
+        for (int i = 0; i < queries; i++) {
+            assertThat(results.get(i).join()).isEqualTo(i);
+        }
+        return elapsedMs;
+    }
+}
@@ -0,0 +1,147 @@
+package com.moeware.ims.service.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.moeware.ims.enums.transaction.MovementType;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockChange;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockMovement;
+import com.moeware.ims.support.TestFixtures;
+
+/**
+ * Runs bulk transfers from 32 threads, each batch moving the same products in
+ * both directions between two warehouses with its lines in random order, so
+ * every pair of batches wants the same rows in conflicting orders. Any
+ * deadlock abort fails the test through {@code Future.get()}.
+ */
+@SpringBootTest
+class BulkTransferConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int BATCHES_PER_THREAD = 10;
+    private static final int PRODUCTS = 20;
+    private static final int INITIAL_STOCK = 500;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestFixtures fixtures;
+    private Long userId;
+    private List<Long> productIds;
+    private Long warehouseA;
+    private Long warehouseB;
+
+    @BeforeEach
+    void seed() {
+        fixtures = new TestFixtures(jdbcTemplate, "bulk", "BLK");
+        userId = fixtures.user();
+        Long categoryId = fixtures.category();
+        warehouseA = fixtures.warehouse("BA");
+        warehouseB = fixtures.warehouse("BB");
+        productIds = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Long productId = fixtures.product(categoryId);
+            productIds.add(productId);
+            fixtures.stock(productId, warehouseA, INITIAL_STOCK);
+            fixtures.stock(productId, warehouseB, INITIAL_STOCK);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void conflictingBulkTransfersCompleteWithoutDeadlocks() throws Exception {
+        AtomicInteger appliedLines = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int b = 0; b < BATCHES_PER_THREAD; b++) {
+                        for (StockChange change : stockLedgerService.applyTransfers(conflictingBatch())) {
+                            if (change.applied()) {
+                                appliedLines.incrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(appliedLines.get()).isPositive();
+        for (Long productId : productIds) {
+            Integer total = jdbcTemplate.queryForObject(
+                    "SELECT SUM(quantity) FROM inventory_items WHERE product_id = ?", Integer.class, productId);
+            Integer negative = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM inventory_items WHERE product_id = ? AND quantity < 0",
+                    Integer.class, productId);
+            assertThat(total).isEqualTo(2 * INITIAL_STOCK);
+            assertThat(negative).isZero();
+        }
+        Integer movements = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inventory_movements WHERE reference_number = ?", Integer.class,
+                fixtures.reference());
+        assertThat(movements).isEqualTo(appliedLines.get());
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    /** Every product once in each direction, shuffled. */
+    private List<StockMovement> conflictingBatch() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<StockMovement> lines = new ArrayList<>();
+        for (Long productId : productIds) {
+            lines.add(transfer(productId, warehouseA, warehouseB, 1 + random.nextInt(50)));
+            lines.add(transfer(productId, warehouseB, warehouseA, 1 + random.nextInt(50)));
+        }
+        Collections.shuffle(lines, random);
+        return lines;
+    }
+
+    private StockMovement transfer(Long productId, Long from, Long to, int quantity) {
+        return StockMovement.builder()
+                .productId(productId)
+                .fromWarehouseId(from)
+                .toWarehouseId(to)
+                .quantity(quantity)
+                .movementType(MovementType.TRANSFER)
+                .reason("Bulk concurrency test")
+                .referenceNumber(fixtures.reference())
+                .performedById(userId)
+                .movementDate(LocalDateTime.now())
+                .build();
+    }
+}
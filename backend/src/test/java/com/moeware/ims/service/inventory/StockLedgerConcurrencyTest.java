@@ -0,0 +1,214 @@
+package com.moeware.ims.service.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moeware.ims.entity.inventory.InventoryItem;
+import com.moeware.ims.enums.transaction.MovementType;
+import com.moeware.ims.exception.transaction.stockAdjustment.InsufficientStockException;
+import com.moeware.ims.repository.inventory.InventoryItemRepository;
+import com.moeware.ims.repository.inventory.StockLedgerRepository.StockMovement;
+import com.moeware.ims.support.TestFixtures;
+
+/**
+ * Hammers one product/warehouse row from 64 threads through
+ * {@link StockLedgerService} and through the previous read-modify-write path
+ * ({@code findById} → {@code removeStock} → {@code save}, retried on
+ * optimistic-lock failures). Both must end with every unit withdrawn exactly
+ * once and never below zero.
+ */
+@SpringBootTest
+class StockLedgerConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerConcurrencyTest.class);
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TestFixtures fixtures;
+    private Long userId;
+    private Long productId;
+    private Long warehouseId;
+
+    @BeforeEach
+    void seed() {
+        fixtures = new TestFixtures(jdbcTemplate, "ledger", "LDG");
+        userId = fixtures.user();
+        productId = fixtures.product(fixtures.category());
+        warehouseId = fixtures.warehouse("L");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void concurrentWithdrawalsNeitherLoseUpdatesNorGoNegative() throws Exception {
+        int initialStock = 1_000;
+        int attemptsPerThread = 20;
+        seedStock(initialStock);
+
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(attemptsPerThread, () -> {
+            try {
+                stockLedgerService.apply(withdrawOne());
+                applied.incrementAndGet();
+            } catch (InsufficientStockException ex) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertThat(applied.get()).isEqualTo(initialStock);
+        assertThat(rejected.get()).isEqualTo(THREADS * attemptsPerThread - initialStock);
+        assertThat(currentQuantity()).isZero();
+        assertThat(movementCount()).isEqualTo(initialStock);
+    }
+
+    /**
+     * Throughput proxy that does not depend on wall-clock time: every
+     * optimistic-lock retry of the read-modify-write path is a transaction
+     * thrown away, while the ledger's conditional update never needs one. The
+     * elapsed times are only logged.
+     */
+    @Test
+    void ledgerDrainsTheStockWithoutTheRetriesOfReadModifyWrite() throws Exception {
+        int attemptsPerThread = 25;
+        int total = THREADS * attemptsPerThread;
+
+        Long itemId = seedStock(total);
+        AtomicInteger retries = new AtomicInteger();
+        long baselineNanos = runConcurrently(attemptsPerThread, () -> {
+            retries.addAndGet(readModifyWriteWithdrawOne(itemId));
+            return null;
+        });
+        assertThat(currentQuantity()).isZero();
+
+        jdbcTemplate.update("UPDATE inventory_items SET quantity = ? WHERE id = ?", total, itemId);
+        long ledgerNanos = runConcurrently(attemptsPerThread, () -> {
+            stockLedgerService.apply(withdrawOne());
+            return null;
+        });
+        assertThat(currentQuantity()).isZero();
+        assertThat(movementCount()).isEqualTo(total);
+
+        // 64 writers on one row: the old path must have lost races and redone
+        // whole transactions; the ledger has no retry loop, so every one of its
+        // withdrawals above succeeded at the first attempt
+        assertThat(retries.get()).isPositive();
+
+        log.info("read-modify-write: {} ops/s with {} retries, stock ledger: {} ops/s with none",
+                Math.round(total / (baselineNanos / 1e9)), retries.get(), Math.round(total / (ledgerNanos / 1e9)));
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private Long seedStock(int quantity) {
+        return fixtures.stock(productId, warehouseId, quantity);
+    }
+
+    private StockMovement withdrawOne() {
+        return StockMovement.builder()
+                .productId(productId)
+                .fromWarehouseId(warehouseId)
+                .quantity(1)
+                .movementType(MovementType.SHIPMENT)
+                .reason("Concurrency test")
+                .referenceNumber(fixtures.reference())
+                .performedById(userId)
+                .movementDate(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * The pre-ledger path: load, mutate, save, and retry on version conflicts.
+     *
+     * @return the number of retries needed
+     */
+    private int readModifyWriteWithdrawOne(Long itemId) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int retries = 0;; retries++) {
+            try {
+                tx.executeWithoutResult(status -> {
+                    InventoryItem item = inventoryItemRepository.findById(itemId).orElseThrow();
+                    item.removeStock(1);
+                    inventoryItemRepository.save(item);
+                });
+                return retries;
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                // Lost the race; reload and try again
+            }
+        }
+    }
+
+    /** Runs {@code task} {@code attemptsPerThread} times on each of 64 threads; returns elapsed nanos. */
+    private long runConcurrently(int attemptsPerThread, Callable<Void> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        task.call();
+                    }
+                    return null;
+                }));
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - began;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int currentQuantity() {
+        return jdbcTemplate.queryForObject(
+                "SELECT quantity FROM inventory_items WHERE product_id = ? AND warehouse_id = ?",
+                Integer.class, productId, warehouseId);
+    }
+
+    private int movementCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inventory_movements WHERE product_id = ?", Integer.class, productId);
+    }
+}
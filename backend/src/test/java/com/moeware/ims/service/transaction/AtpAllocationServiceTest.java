@@ -0,0 +1,141 @@
+package com.moeware.ims.service.transaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.moeware.ims.enums.transaction.AllocationDecision;
+import com.moeware.ims.exception.transaction.stockAdjustment.InsufficientStockException;
+import com.moeware.ims.repository.transaction.SalesOrderAllocationRepository.AllocationRow;
+import com.moeware.ims.repository.transaction.SalesOrderAllocationRepository.CandidateStock;
+import com.moeware.ims.service.transaction.AtpAllocationService.AllocationPlan;
+
+/**
+ * Plain unit tests of the allocation planner; no Spring context or database.
+ * The order ships to postal code 69001 in Lyon from home warehouse 1.
+ */
+class AtpAllocationServiceTest {
+
+    private static final Long HOME = 1L;
+    private static final String CITY = "Lyon";
+    private static final String POSTAL_CODE = "69001";
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+    @Test
+    void homeWarehouseCoveringEveryLineIsUsed() {
+        AllocationPlan plan = plan(Map.of(100L, 5, 101L, 2), List.of(
+                stock(HOME, "Paris", "75001", 100L, 5),
+                stock(HOME, "Paris", "75001", 101L, 2),
+                stock(2L, CITY, POSTAL_CODE, 100L, 50),
+                stock(2L, CITY, POSTAL_CODE, 101L, 50)));
+
+        assertThat(plan.decision()).isEqualTo(AllocationDecision.HOME);
+        assertThat(plan.rows())
+                .extracting(AllocationRow::warehouseId, AllocationRow::productId, AllocationRow::quantity)
+                .containsExactly(tuple(HOME, 100L, 5), tuple(HOME, 101L, 2));
+    }
+
+    @Test
+    void nearestSingleWarehouseIsChosenByProximityRank() {
+        AllocationPlan plan = plan(Map.of(100L, 5), List.of(
+                stock(HOME, "Paris", "75001", 100L, 4),
+                stock(2L, "Nice", "06000", 100L, 9),
+                stock(3L, CITY, "69003", 100L, 9),
+                stock(4L, CITY, POSTAL_CODE, 100L, 9)));
+
+        assertThat(plan.decision()).isEqualTo(AllocationDecision.SINGLE);
+        assertThat(plan.rows())
+                .extracting(AllocationRow::warehouseId, AllocationRow::quantity, AllocationRow::proximity)
+                .containsExactly(tuple(4L, 5, AtpAllocationService.PROXIMITY_POSTAL_CODE));
+    }
+
+    @Test
+    void lineShortEverywhereIsSplitNearestFirst() {
+        AllocationPlan plan = plan(Map.of(100L, 10), List.of(
+                stock(HOME, "Paris", "75001", 100L, 6),
+                stock(2L, "Nice", "06000", 100L, 8),
+                stock(3L, CITY, "69003", 100L, 4)));
+
+        assertThat(plan.decision()).isEqualTo(AllocationDecision.SPLIT);
+        assertThat(plan.rows())
+                .extracting(AllocationRow::warehouseId, AllocationRow::quantity)
+                .containsExactly(tuple(HOME, 6), tuple(3L, 4));
+    }
+
+    @Test
+    void splitUsesFewerWarehousesThanTheGreedyCover() {
+        // Greedy would take warehouse 2 (6 units) first and still need 3 and 4
+        AllocationPlan plan = plan(Map.of(100L, 4, 101L, 4), List.of(
+                stock(2L, CITY, POSTAL_CODE, 100L, 3),
+                stock(2L, CITY, POSTAL_CODE, 101L, 3),
+                stock(3L, "Nice", "06000", 100L, 4),
+                stock(4L, "Nice", "06000", 101L, 4)));
+
+        assertThat(plan.decision()).isEqualTo(AllocationDecision.SPLIT);
+        assertThat(plan.warehouseCount()).isEqualTo(2);
+        assertThat(plan.rows())
+                .extracting(AllocationRow::warehouseId, AllocationRow::productId, AllocationRow::quantity)
+                .containsExactly(tuple(3L, 100L, 4), tuple(4L, 101L, 4));
+    }
+
+    @Test
+    void demandBeyondAllWarehousesTogetherIsRejected() {
+        assertThatThrownBy(() -> plan(Map.of(100L, 3, 101L, 10), List.of(
+                stock(HOME, "Paris", "75001", 100L, 3),
+                stock(HOME, "Paris", "75001", 101L, 4),
+                stock(2L, CITY, POSTAL_CODE, 101L, 5))))
+                .isInstanceOfSatisfying(InsufficientStockException.class,
+                        e -> assertThat(e.getProductId()).isEqualTo(101L));
+    }
+
+    /**
+     * Worst case for the exact search: every order needs a split and all
+     * {@value AtpAllocationService#EXACT_SPLIT_MAX_WAREHOUSES} warehouses hold
+     * stock. The bound is loose on purpose; it guards the order of magnitude
+     * (thousands of lines per second), not a timing.
+     */
+    @Test
+    void plansThousandsOfLinesPerSecondAtTheExactSearchLimit() {
+        int lines = 20;
+        Map<Long, Integer> demand = new TreeMap<>();
+        List<CandidateStock> candidates = new ArrayList<>();
+        for (long w = 1; w <= AtpAllocationService.EXACT_SPLIT_MAX_WAREHOUSES; w++) {
+            for (long p = 0; p < lines; p++) {
+                demand.put(100 + p, 10);
+                // Each warehouse holds a different slice of the products
+                candidates.add(stock(w + 1, "City " + w, "0" + w, 100 + p, (p + w) % 3 == 0 ? 10 : 1));
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            plan(demand, candidates);
+        }
+
+        int orders = 1_000;
+        long began = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            assertThat(plan(demand, candidates).decision()).isEqualTo(AllocationDecision.SPLIT);
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        assertThat(orders * lines / seconds).isGreaterThan(2_000);
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    private static AllocationPlan plan(Map<Long, Integer> demand, List<CandidateStock> candidates) {
+        return AtpAllocationService.plan(new TreeMap<>(demand), candidates, HOME, CITY, POSTAL_CODE, NOW);
+    }
+
+    private static CandidateStock stock(Long warehouseId, String city, String postalCode, Long productId,
+            int available) {
+        return new CandidateStock(warehouseId, city, postalCode, productId, available);
+    }
+}
@@ -0,0 +1,31 @@
+package com.moeware.ims.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * <p>
+ * Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ * The count is per thread, so schedulers and dispatchers running in the
+ * background of a {@code @SpringBootTest} do not disturb it. Statements issued
+ * through {@code JdbcTemplate} bypass Hibernate and are not counted.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
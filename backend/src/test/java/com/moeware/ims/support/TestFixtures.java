@@ -0,0 +1,107 @@
+package com.moeware.ims.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds the rows a database test needs with plain SQL and removes them again.
+ * <p>
+ * Every name and code carries a per-instance suffix, so tests can share a
+ * database (and run repeatedly against it) without colliding. Create one per
+ * test in {@code @BeforeEach} and call {@link #cleanUp()} in
+ * {@code @AfterEach}: it deletes what was seeded plus the stock, movement and
+ * cost rows written against the seeded products, in foreign-key order.
+ */
+public class TestFixtures {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String name;
+    private final String code;
+    private final String suffix = Long.toString(System.nanoTime(), 36);
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> warehouseIds = new ArrayList<>();
+
+    /**
+     * @param name lower-case word used in user names and descriptions, e.g.
+     *             {@code ledger}
+     * @param code short upper-case prefix of SKUs, codes and references, e.g.
+     *             {@code LDG}
+     */
+    public TestFixtures(JdbcTemplate jdbcTemplate, String name, String code) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.name = name;
+        this.code = code;
+    }
+
+    /** A reference number unique to this fixture, e.g. for movements. */
+    public String reference() {
+        return code + "-" + suffix;
+    }
+
+    public Long user() {
+        String username = name + "_" + suffix + "_" + userIds.size();
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO users (username, email, password_hash, role_id)
+                VALUES (?, ?, 'x', 1) RETURNING id
+                """, Long.class, username, username + "@test.local");
+        userIds.add(id);
+        return id;
+    }
+
+    public Long category() {
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO categories (name, code) VALUES (?, ?) RETURNING id
+                """, Long.class, name + " " + suffix + " " + categoryIds.size(),
+                code + "-" + suffix + "-" + categoryIds.size());
+        categoryIds.add(id);
+        return id;
+    }
+
+    /** A product priced 10.00, costing 5.00. */
+    public Long product(Long categoryId) {
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO products (sku, name, category_id, unit, unit_price, cost_price)
+                VALUES (?, ?, ?, 'pcs', 10.00, 5.00) RETURNING id
+                """, Long.class, reference() + "-" + productIds.size(), name + " product " + productIds.size(),
+                categoryId);
+        productIds.add(id);
+        return id;
+    }
+
+    /**
+     * @param tag one or two characters telling the fixture's warehouses apart
+     */
+    public Long warehouse(String tag) {
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO warehouses (name, code, address, city, country)
+                VALUES (?, ?, 'Test street 1', 'Test city', 'Test country') RETURNING id
+                """, Long.class, name + " WH " + tag + suffix, tag + suffix);
+        warehouseIds.add(id);
+        return id;
+    }
+
+    /** Stocks a product in a warehouse; returns the inventory item id. */
+    public Long stock(Long productId, Long warehouseId, int quantity) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO inventory_items (product_id, warehouse_id, quantity) VALUES (?, ?, ?) RETURNING id
+                """, Long.class, productId, warehouseId, quantity);
+    }
+
+    public void cleanUp() {
+        for (Long productId : productIds) {
+            jdbcTemplate.update("DELETE FROM cost_consumptions WHERE product_id = ?", productId);
+            jdbcTemplate.update("DELETE FROM cost_layers WHERE product_id = ?", productId);
+            jdbcTemplate.update("DELETE FROM inventory_movements WHERE product_id = ?", productId);
+            jdbcTemplate.update("DELETE FROM inventory_items WHERE product_id = ?", productId);
+            jdbcTemplate.update("DELETE FROM products WHERE id = ?", productId);
+        }
+        categoryIds.forEach(id -> jdbcTemplate.update("DELETE FROM categories WHERE id = ?", id));
+        warehouseIds.forEach(id -> jdbcTemplate.update("DELETE FROM warehouses WHERE id = ?", id));
+        userIds.forEach(id -> jdbcTemplate.update("DELETE FROM users WHERE id = ?", id));
+    }
+}